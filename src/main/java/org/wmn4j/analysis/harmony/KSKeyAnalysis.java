@@ -11,7 +11,7 @@ import org.wmn4j.notation.Key;
 import org.wmn4j.notation.Note;
 import org.wmn4j.notation.PitchClass;
 import org.wmn4j.notation.Score;
-import org.wmn4j.notation.access.PartWiseScoreIterator;
+import org.wmn4j.notation.access.ColumnarScore;
 
 import java.io.BufferedReader;
 import java.io.InputStream;
@@ -61,7 +61,33 @@ public final class KSKeyAnalysis implements KeyAnalysis {
 	 * @return a key analysis of the given selection
 	 */
 	public static KeyAnalysis of(Score score) {
-		return new KSKeyAnalysis(new PartWiseScoreIterator(score));
+		return of(ColumnarScore.of(score));
+	}
+
+	/**
+	 * Returns a key analysis of the given notes using the Krumhansl and Schmuckler algorithm.
+	 * <p>
+	 * The notes can be a view of some parts or measures of a score, such as one returned by
+	 * {@link ColumnarScore#getMeasures(int, int, int)}.
+	 *
+	 * @param notes the notes for which the key analysis is returned
+	 * @return a key analysis of the given notes
+	 */
+	public static KeyAnalysis of(ColumnarScore notes) {
+		final double[] weights = new double[PitchClass.values().length];
+		final double ticksPerWholeNote = notes.getTicksPerWholeNote();
+
+		// The weights are summed in the same order as with the note objects, so the sums are equal.
+		for (int row = 0; row < notes.size(); ++row) {
+			weights[notes.getPitchAsInt(row) % weights.length] += notes.getDuration(row) / ticksPerWholeNote;
+		}
+
+		final ChromagramBuilder builder = new ChromagramBuilder();
+		for (int pitchClassNumber = 0; pitchClassNumber < weights.length; ++pitchClassNumber) {
+			builder.setValue(PitchClass.fromInt(pitchClassNumber), weights[pitchClassNumber]);
+		}
+
+		return new KSKeyAnalysis(ChromagramMatcher.INSTANCE.findBestMatch(builder.build()));
 	}
 
 	private static Key findBestMatchingKey(Iterator<Durational> selectionIterator) {
@@ -80,7 +106,11 @@ public final class KSKeyAnalysis implements KeyAnalysis {
 	}
 
 	private KSKeyAnalysis(Iterator<Durational> selectionIterator) {
-		this.key = findBestMatchingKey(selectionIterator);
+		this(findBestMatchingKey(selectionIterator));
+	}
+
+	private KSKeyAnalysis(Key key) {
+		this.key = key;
 	}
 
 	@Override
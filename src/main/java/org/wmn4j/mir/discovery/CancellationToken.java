@@ -0,0 +1,102 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a request to stop a running pattern discovery.
+ * <p>
+ * A token is cancelled either explicitly with {@link #cancel()} or automatically when its time budget runs out.
+ * Pattern discovery checks the token regularly and stops soon after the token is cancelled, returning
+ * the patterns found so far.
+ * <p>
+ * This class is thread-safe. A token can be cancelled from any thread.
+ */
+public final class CancellationToken {
+
+	/**
+	 * Token that is never cancelled.
+	 */
+	static final CancellationToken NONE = new CancellationToken(Long.MAX_VALUE);
+
+	private final long startNanos;
+	private final long timeoutNanos;
+	private volatile boolean cancelled;
+
+	/**
+	 * Returns a token that is only cancelled by calling {@link #cancel()}.
+	 *
+	 * @return a token that is only cancelled by calling {@link #cancel()}
+	 */
+	public static CancellationToken create() {
+		return new CancellationToken(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Returns a token that is cancelled when the given timeout has elapsed from calling this method
+	 * or when {@link #cancel()} is called, whichever happens first.
+	 *
+	 * @param timeout the time after which the token is cancelled
+	 * @param unit    the unit of the timeout
+	 * @return a token that is cancelled when the given timeout has elapsed
+	 * @throws IllegalArgumentException if timeout is negative
+	 */
+	public static CancellationToken withTimeout(long timeout, TimeUnit unit) {
+		if (timeout < 0) {
+			throw new IllegalArgumentException("Timeout must be non-negative, was " + timeout);
+		}
+
+		return new CancellationToken(unit.toNanos(timeout));
+	}
+
+	/**
+	 * Returns a token that is cancelled at the given deadline or when {@link #cancel()} is called,
+	 * whichever happens first. If the deadline has already passed, the returned token is cancelled.
+	 *
+	 * @param deadline the time at which the token is cancelled
+	 * @return a token that is cancelled at the given deadline
+	 */
+	public static CancellationToken withDeadline(Instant deadline) {
+		final Duration remaining = Duration.between(Instant.now(), deadline);
+		if (remaining.isNegative()) {
+			return new CancellationToken(0);
+		}
+
+		return new CancellationToken(remaining.compareTo(Duration.ofNanos(Long.MAX_VALUE)) < 0
+				? remaining.toNanos() : Long.MAX_VALUE);
+	}
+
+	private CancellationToken(long timeoutNanos) {
+		this.startNanos = System.nanoTime();
+		this.timeoutNanos = timeoutNanos;
+		this.cancelled = false;
+	}
+
+	/**
+	 * Cancels this token.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Returns true if this token has been cancelled or its time budget has run out.
+	 *
+	 * @return true if this token has been cancelled or its time budget has run out
+	 */
+	public boolean isCancelled() {
+		if (cancelled) {
+			return true;
+		}
+
+		if (timeoutNanos != Long.MAX_VALUE && System.nanoTime() - startNanos >= timeoutNanos) {
+			cancelled = true;
+		}
+
+		return cancelled;
+	}
+}
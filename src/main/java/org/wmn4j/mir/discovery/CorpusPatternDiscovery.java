@@ -0,0 +1,151 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.mir.Pattern;
+import org.wmn4j.notation.Score;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Represents the results of repeated pattern discovery on a corpus of several scores.
+ * <p>
+ * The scores are represented in a single point set in which each score occupies its own band of offsets.
+ * The maximal translatable patterns are computed from the translations between the notes within each score and
+ * between the notes of every pair of scores, so that patterns that occur in several scores are found together
+ * with the patterns that are repeated within a score. Every pattern is within a single score and its occurrences
+ * are searched from all scores, so each occurrence is also within a single score.
+ * <p>
+ * The translations are processed in passes by the distance of the indices of the scores. Each pass only
+ * holds the pairs of notes within scores and between the scores at one distance, which keeps the memory
+ * required by the discovery proportional to the sum of the squares of the numbers of notes in the scores
+ * instead of the square of the number of notes in the corpus. This makes it possible to analyze
+ * collections of thousands of short scores such as folk songs. The running time still grows with the square
+ * of the number of notes in the corpus, because every pair of notes is considered.
+ * <p>
+ * This class is immutable.
+ */
+public final class CorpusPatternDiscovery {
+
+	private final List<Score> scores;
+	private final Collection<Collection<CorpusPatternPosition>> positions;
+
+	/**
+	 * Returns the results of running pattern discovery with SIATECHF algorithm on the given scores.
+	 * <p>
+	 * The compression ratio works like in {@link GeometricPatternDiscovery#withSiatechf(Score, double)}.
+	 *
+	 * @param scores           the scores for which repeated pattern discovery is performed
+	 * @param compressionRatio the required non-negative minimum compression ratio for the returned patterns
+	 * @return the results of running pattern discovery with SIATECHF algorithm on the given scores
+	 * @throws IllegalArgumentException if scores is empty or compressionRatio is negative
+	 * @throws NullPointerException     if scores is null
+	 */
+	public static CorpusPatternDiscovery withSiatechf(List<Score> scores, double compressionRatio) {
+		return withSiatechf(scores, compressionRatio, PointProjections.CHROMATIC);
+	}
+
+	/**
+	 * Returns the results of running pattern discovery with SIATECHF algorithm on the point set representation
+	 * of the given scores given by the given projection.
+	 * See {@link GeometricPatternDiscovery#withSiatechf(Score, double, PointProjection)}.
+	 *
+	 * @param scores           the scores for which repeated pattern discovery is performed
+	 * @param compressionRatio the required non-negative minimum compression ratio for the returned patterns
+	 * @param projection       the projection of the notes to points
+	 * @return the results of running pattern discovery with SIATECHF algorithm on the given scores
+	 * @throws IllegalArgumentException if scores is empty or compressionRatio is negative
+	 * @throws NullPointerException     if scores or projection is null
+	 */
+	public static CorpusPatternDiscovery withSiatechf(List<Score> scores, double compressionRatio,
+			PointProjection projection) {
+		GeometricPatternDiscovery.checkCompressionRatio(compressionRatio);
+		final List<Score> scoresCopy = Collections.unmodifiableList(new ArrayList<>(scores));
+		final PointSet pointSet = new PointSet(scoresCopy, Objects.requireNonNull(projection));
+
+		final Collection<Collection<CorpusPatternPosition>> allPatterns = new ArrayList<>();
+		final Set<PointPattern> foundPatterns = new HashSet<>();
+
+		for (int scoreDistance = 0; scoreDistance < pointSet.getScoreCount(); ++scoreDistance) {
+			// The occurrences are converted to positions one by one so that the TECs do not all need to be in memory.
+			final MtpTable mtpTable = new MtpTable(pointSet, scoreDistance);
+			final Iterator<Tec> tecs = Siatechf.iterateMtpTecs(pointSet, mtpTable, compressionRatio);
+
+			while (tecs.hasNext()) {
+				final Tec tec = tecs.next();
+
+				// The translators are searched from all scores, so a pattern found in the pass of another
+				// distance has the same TEC.
+				if (!foundPatterns.add(tec.getPattern().vectorized())) {
+					continue;
+				}
+
+				final Collection<CorpusPatternPosition> patternPositions = new ArrayList<>(
+						tec.getTranslators().size());
+				for (NoteEventVector translator : tec.getTranslators()) {
+					patternPositions.add(pointSet.getCorpusPosition(tec.getPattern(), translator));
+				}
+
+				allPatterns.add(patternPositions);
+			}
+		}
+
+		return new CorpusPatternDiscovery(scoresCopy, allPatterns);
+	}
+
+	private CorpusPatternDiscovery(List<Score> scores, Collection<Collection<CorpusPatternPosition>> positions) {
+		this.scores = scores;
+		this.positions = positions;
+	}
+
+	/**
+	 * Returns the scores to which this pattern discovery applies in the order of their indices.
+	 *
+	 * @return the scores to which this pattern discovery applies
+	 */
+	public List<Score> getScores() {
+		return scores;
+	}
+
+	/**
+	 * Returns the positions of the repeated patterns found by this pattern discovery.
+	 * <p>
+	 * Each returned collection of positions contains all positions of occurrences of the same
+	 * pattern found by this pattern discovery. The notes of each occurrence are in a single score.
+	 *
+	 * @return the positions of the repeated patterns found by this pattern discovery
+	 */
+	public Collection<Collection<CorpusPatternPosition>> getPatternPositions() {
+		return Collections.unmodifiableCollection(positions);
+	}
+
+	/**
+	 * Returns the repeated patterns found by this pattern discovery.
+	 * <p>
+	 * The patterns are in the same order as the positions returned by {@link #getPatternPositions()}.
+	 *
+	 * @return the repeated patterns found by this pattern discovery
+	 */
+	public Collection<Collection<Pattern>> getPatterns() {
+		final Collection<Collection<Pattern>> allPatterns = new ArrayList<>(positions.size());
+
+		for (Collection<CorpusPatternPosition> patternPositions : positions) {
+			final Collection<Pattern> patterns = new ArrayList<>(patternPositions.size());
+			for (CorpusPatternPosition position : patternPositions) {
+				patterns.add(scores.get(position.getScoreIndex()).getAt(position.getPatternPosition()));
+			}
+
+			allPatterns.add(patterns);
+		}
+
+		return allPatterns;
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.mir.PatternPosition;
+
+import java.util.Objects;
+
+/**
+ * Represents the position of a pattern in one of the scores of a corpus.
+ * This class is immutable.
+ */
+public final class CorpusPatternPosition {
+
+	private final int scoreIndex;
+	private final PatternPosition patternPosition;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param scoreIndex      the index of the score in the corpus
+	 * @param patternPosition the position of the pattern in the score
+	 * @throws IllegalArgumentException if scoreIndex is negative
+	 * @throws NullPointerException     if patternPosition is null
+	 */
+	CorpusPatternPosition(int scoreIndex, PatternPosition patternPosition) {
+		if (scoreIndex < 0) {
+			throw new IllegalArgumentException("Score index must be non-negative, was " + scoreIndex);
+		}
+
+		this.scoreIndex = scoreIndex;
+		this.patternPosition = Objects.requireNonNull(patternPosition);
+	}
+
+	/**
+	 * Returns the index of the score in the corpus.
+	 *
+	 * @return the index of the score in the corpus
+	 */
+	public int getScoreIndex() {
+		return scoreIndex;
+	}
+
+	/**
+	 * Returns the position of the pattern in the score.
+	 *
+	 * @return the position of the pattern in the score
+	 */
+	public PatternPosition getPatternPosition() {
+		return patternPosition;
+	}
+
+	@Override
+	public String toString() {
+		return "Score " + scoreIndex + ": " + patternPosition;
+	}
+}
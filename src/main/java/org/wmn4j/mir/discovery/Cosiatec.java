@@ -0,0 +1,143 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of the COSIATEC algorithm [1].
+ * <p>
+ * COSIATEC computes a compressed encoding of a point set by repeatedly choosing the TEC
+ * with the best compression ratio, removing the points it covers from the point set and
+ * continuing with the remaining points until all points are covered.
+ * <p>
+ * Instead of computing the table of translation vectors again for the remaining points on
+ * every round, the points covered by the chosen TEC are removed from the MTP table in place.
+ * <p>
+ * [1] Meredith, David: COSIATEC and SIATECCompress: Pattern Discovery by Geometric Compression.
+ * Music Information Retrieval Evaluation eXchange (MIREX), 2013.
+ */
+final class Cosiatec {
+
+	/**
+	 * Returns the TECs of the COSIATEC encoding of the given point set in the order in which they were chosen.
+	 * <p>
+	 * Every point in the point set is covered by exactly one of the returned TECs. If there are several TECs
+	 * with the best compression ratio on a round, the one that covers the most points is chosen.
+	 *
+	 * @param pointSet the point set for which the encoding is computed
+	 * @return the TECs of the COSIATEC encoding of the given point set
+	 */
+	static List<Tec> computeEncoding(PointSet pointSet) {
+		final List<Tec> encoding = new ArrayList<>();
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final BitSet coveredPoints = new BitSet(pointSet.size());
+		final TranslatorSearch translatorSearch = new TranslatorSearch();
+
+		while (coveredPoints.cardinality() < pointSet.size()) {
+			if (mtpTable.size() == 0) {
+				// Only one point is left, which is encoded as a pattern that occurs once.
+				final NoteEventVector point = pointSet.get(coveredPoints.nextClearBit(0));
+				encoding.add(new Tec(new PointPattern(Collections.singletonList(point)),
+						Collections.singletonList(new NoteEventVector(0, 0, 0))));
+				break;
+			}
+
+			final Tec bestTec = findBestTec(pointSet, mtpTable, translatorSearch);
+			encoding.add(bestTec);
+
+			final BitSet newlyCoveredPoints = findIndices(coveredSet(bestTec), pointSet);
+			mtpTable.removePoints(newlyCoveredPoints);
+			coveredPoints.or(newlyCoveredPoints);
+		}
+
+		return encoding;
+	}
+
+	/*
+	 * Returns the TEC with the highest compression ratio among the points that remain in the MTP table.
+	 * Ties are broken by the number of covered points and then by the order of the MTP keys.
+	 */
+	private static Tec findBestTec(PointSet pointSet, MtpTable mtpTable, TranslatorSearch translatorSearch) {
+		final Set<VectorizedMtp> vectorizedMtps = new HashSet<>();
+		Tec bestTec = null;
+		double bestRatio = 0.0;
+		int bestCoverage = 0;
+
+		for (int keyIndex = 0; keyIndex < mtpTable.size(); ++keyIndex) {
+			final int[] patternIndices = Siatechf.computeMtp(keyIndex, mtpTable);
+
+			// A TEC cannot be better than the best one so far if its compression ratio is smaller.
+			if (Siatechf.upperBoundOnCompressionRatio(patternIndices, mtpTable) < bestRatio) {
+				continue;
+			}
+
+			if (!vectorizedMtps.add(new VectorizedMtp(keyIndex, patternIndices, mtpTable, pointSet))) {
+				continue;
+			}
+
+			final List<NoteEventVector> translators = Siatechf.findTranslators(patternIndices, mtpTable, pointSet,
+					translatorSearch);
+			final int coverage = translatorSearch.countCoveredPoints(patternIndices, pointSet);
+			final double ratio = Siatechf.compressionRatio(patternIndices.length, translators.size(), coverage);
+
+			if (bestTec == null || ratio > bestRatio || (ratio == bestRatio && coverage > bestCoverage)) {
+				bestTec = new Tec(Siatechf.toPattern(patternIndices, pointSet), translators);
+				bestRatio = ratio;
+				bestCoverage = coverage;
+			}
+		}
+
+		return bestTec;
+	}
+
+	private static Set<NoteEventVector> coveredSet(Tec tec) {
+		final PointPattern pattern = tec.getPattern();
+		final Set<NoteEventVector> coveredSet = new HashSet<>(pattern.size() * tec.getTranslators().size());
+
+		for (NoteEventVector translator : tec.getTranslators()) {
+			for (NoteEventVector point : pattern) {
+				coveredSet.add(point.add(translator));
+			}
+		}
+
+		return coveredSet;
+	}
+
+	/*
+	 * Returns the indices of all points in the point set that are equal to one of the given vectors.
+	 */
+	private static BitSet findIndices(Set<NoteEventVector> vectors, PointSet pointSet) {
+		final BitSet indices = new BitSet(pointSet.size());
+
+		for (NoteEventVector vector : vectors) {
+			final int index = pointSet.indexOf(vector);
+
+			// Equal points are next to each other in the sorted point set.
+			int first = index;
+			while (first > 0 && pointSet.get(first - 1).equals(vector)) {
+				--first;
+			}
+
+			int end = index + 1;
+			while (end < pointSet.size() && pointSet.get(end).equals(vector)) {
+				++end;
+			}
+
+			indices.set(first, end);
+		}
+
+		return indices;
+	}
+
+	private Cosiatec() {
+		// Not meant to be instantiated
+		throw new AssertionError();
+	}
+}
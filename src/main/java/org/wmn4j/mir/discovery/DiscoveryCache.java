@@ -0,0 +1,376 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.mir.PatternPosition;
+import org.wmn4j.notation.Score;
+import org.wmn4j.notation.access.Position;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Cache of pattern discovery results stored on disk.
+ * <p>
+ * The results are stored under a fingerprint of the point set representation of the score and the parameters
+ * of the discovery, so discovery on a score whose notes and their positions have not changed is served from
+ * the cache. The positions of the occurrences of the patterns are stored in a compact binary format as the
+ * indices of the notes in the point set.
+ * <p>
+ * The total size of the entries on disk is bounded by the size given when the cache is created. When the
+ * size is exceeded, the least recently used entries are removed. The time of the latest use of an entry
+ * is stored as the modification time of its file, so the order is kept when the cache is opened again.
+ * <p>
+ * Instances of this class are thread-safe. The same directory should not be used by several cache instances
+ * at the same time.
+ */
+public final class DiscoveryCache {
+
+	private static final String ENTRY_SUFFIX = ".tecs";
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+	private static final int MAGIC_NUMBER = 0x574D4E43;
+	private static final int FORMAT_VERSION = 1;
+	private static final String SIATECHF = "SIATECHF";
+	private static final String COSIATEC = "COSIATEC";
+
+	private final Path directory;
+	private final long maxSizeInBytes;
+	private final LinkedHashMap<String, Long> entrySizes;
+	private long sizeInBytes;
+
+	/**
+	 * Opens the cache in the given directory, creating the directory if it does not exist.
+	 * <p>
+	 * Entries already in the directory are included in the cache. If they take more space than the given
+	 * maximum size, the least recently used entries are removed.
+	 *
+	 * @param directory      the directory in which the entries of the cache are stored
+	 * @param maxSizeInBytes the largest total size of the entries on disk
+	 * @throws IOException              if the directory cannot be created or read
+	 * @throws IllegalArgumentException if maxSizeInBytes is negative
+	 * @throws NullPointerException     if directory is null
+	 */
+	public DiscoveryCache(Path directory, long maxSizeInBytes) throws IOException {
+		if (maxSizeInBytes < 0) {
+			throw new IllegalArgumentException("Maximum size of cache must be non-negative, was " + maxSizeInBytes);
+		}
+
+		this.directory = Objects.requireNonNull(directory);
+		this.maxSizeInBytes = maxSizeInBytes;
+		this.entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+		this.sizeInBytes = 0;
+
+		Files.createDirectories(directory);
+		loadEntries();
+		evictEntries();
+	}
+
+	/**
+	 * Returns the results of running pattern discovery with SIATECHF algorithm, using the cached results if
+	 * the discovery has been run on the same score with the same compression ratio before.
+	 * See {@link GeometricPatternDiscovery#withSiatechf(Score, double)}.
+	 *
+	 * @param score            the score for which repeated pattern discovery is performed
+	 * @param compressionRatio the required non-negative minimum compression ratio for the returned patterns
+	 * @return the results of running pattern discovery with SIATECHF algorithm
+	 * @throws IOException              if reading or writing the cache fails
+	 * @throws IllegalArgumentException if compressionRatio is negative
+	 * @throws NullPointerException     if score is null
+	 */
+	public PatternDiscovery withSiatechf(Score score, double compressionRatio) throws IOException {
+		GeometricPatternDiscovery.checkCompressionRatio(compressionRatio);
+		final PointSet pointSet = new PointSet(Objects.requireNonNull(score));
+
+		return getOrCompute(computeKey(pointSet, SIATECHF, compressionRatio), pointSet, score,
+				() -> Siatechf.computeMtpTecs(pointSet, compressionRatio));
+	}
+
+	/**
+	 * Returns the results of running pattern discovery with COSIATEC algorithm, using the cached results if
+	 * the discovery has been run on the same score before.
+	 * See {@link GeometricPatternDiscovery#withCosiatec(Score)}.
+	 *
+	 * @param score the score for which repeated pattern discovery is performed
+	 * @return the results of running pattern discovery with COSIATEC algorithm
+	 * @throws IOException          if reading or writing the cache fails
+	 * @throws NullPointerException if score is null
+	 */
+	public PatternDiscovery withCosiatec(Score score) throws IOException {
+		final PointSet pointSet = new PointSet(Objects.requireNonNull(score));
+
+		return getOrCompute(computeKey(pointSet, COSIATEC, 0.0), pointSet, score,
+				() -> Cosiatec.computeEncoding(pointSet));
+	}
+
+	/**
+	 * Returns the total size of the entries of this cache on disk.
+	 *
+	 * @return the total size of the entries of this cache on disk
+	 */
+	public synchronized long getSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	/**
+	 * Returns the number of entries in this cache.
+	 *
+	 * @return the number of entries in this cache
+	 */
+	public synchronized int getEntryCount() {
+		return entrySizes.size();
+	}
+
+	/**
+	 * Removes all entries from this cache.
+	 *
+	 * @throws IOException if removing an entry fails
+	 */
+	public synchronized void clear() throws IOException {
+		final Iterator<Map.Entry<String, Long>> entries = entrySizes.entrySet().iterator();
+		while (entries.hasNext()) {
+			final Map.Entry<String, Long> entry = entries.next();
+			Files.deleteIfExists(entryPath(entry.getKey()));
+			sizeInBytes -= entry.getValue();
+			entries.remove();
+		}
+	}
+
+	private PatternDiscovery getOrCompute(String key, PointSet pointSet, Score score, Supplier<List<Tec>> discovery)
+			throws IOException {
+		final byte[] cachedEntry = readEntry(key);
+		if (cachedEntry != null) {
+			try {
+				return GeometricPatternDiscovery.fromPositions(decode(cachedEntry, pointSet), score);
+			} catch (IOException | IndexOutOfBoundsException e) {
+				// The entry is corrupt, so it is replaced with newly computed results.
+				removeEntry(key);
+			}
+		}
+
+		final byte[] entry = encode(discovery.get(), pointSet);
+		writeEntry(key, entry);
+
+		return GeometricPatternDiscovery.fromPositions(decode(entry, pointSet), score);
+	}
+
+	private static String computeKey(PointSet pointSet, String algorithm, double compressionRatio) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+
+		digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(FORMAT_VERSION).array());
+		digest.update(algorithm.getBytes(StandardCharsets.UTF_8));
+		digest.update(ByteBuffer.allocate(Long.BYTES).putLong(Double.doubleToLongBits(compressionRatio)).array());
+		pointSet.updateDigest(digest);
+
+		final StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest()) {
+			key.append(String.format("%02x", b));
+		}
+
+		return key.toString();
+	}
+
+	/*
+	 * Encodes the occurrences of the patterns of the TECs as the indices of the notes in the point set.
+	 * The indices of each occurrence are in ascending order, so they are stored as variable length differences.
+	 */
+	private static byte[] encode(List<Tec> tecs, PointSet pointSet) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream output = new DataOutputStream(bytes);
+
+		output.writeInt(MAGIC_NUMBER);
+		output.writeInt(FORMAT_VERSION);
+		writeVarInt(output, tecs.size());
+
+		for (Tec tec : tecs) {
+			final PointPattern pattern = tec.getPattern();
+			writeVarInt(output, tec.getTranslators().size());
+			writeVarInt(output, pattern.size());
+
+			for (NoteEventVector translator : tec.getTranslators()) {
+				int previousIndex = 0;
+				for (NoteEventVector point : pattern) {
+					final int index = pointSet.indexOf(point.add(translator));
+					writeVarInt(output, zigZag(index - previousIndex));
+					previousIndex = index;
+				}
+			}
+		}
+
+		output.flush();
+		return bytes.toByteArray();
+	}
+
+	private static Collection<Collection<PatternPosition>> decode(byte[] entry, PointSet pointSet)
+			throws IOException {
+		final DataInputStream input = new DataInputStream(new ByteArrayInputStream(entry));
+		if (input.readInt() != MAGIC_NUMBER || input.readInt() != FORMAT_VERSION) {
+			throw new IOException("Unsupported cache entry format");
+		}
+
+		final int patternCount = readVarInt(input);
+		final Collection<Collection<PatternPosition>> allPatterns = new ArrayList<>(patternCount);
+
+		for (int p = 0; p < patternCount; ++p) {
+			final int occurrenceCount = readVarInt(input);
+			final int patternSize = readVarInt(input);
+			final Collection<PatternPosition> patternPositions = new ArrayList<>(occurrenceCount);
+
+			for (int o = 0; o < occurrenceCount; ++o) {
+				final List<Position> positions = new ArrayList<>(patternSize);
+				int index = 0;
+				for (int i = 0; i < patternSize; ++i) {
+					index += unZigZag(readVarInt(input));
+					positions.add(pointSet.getPosition(index));
+				}
+
+				patternPositions.add(new PatternPosition(positions));
+			}
+
+			allPatterns.add(patternPositions);
+		}
+
+		return allPatterns;
+	}
+
+	private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+		int remaining = value;
+		while ((remaining & ~0x7F) != 0) {
+			output.writeByte((remaining & 0x7F) | 0x80);
+			remaining >>>= 7;
+		}
+
+		output.writeByte(remaining);
+	}
+
+	private static int readVarInt(DataInputStream input) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			final int b = input.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new IOException("Malformed variable length integer in cache entry");
+	}
+
+	private static int zigZag(int value) {
+		return (value << 1) ^ (value >> (Integer.SIZE - 1));
+	}
+
+	private static int unZigZag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private Path entryPath(String key) {
+		return directory.resolve(key + ENTRY_SUFFIX);
+	}
+
+	private synchronized byte[] readEntry(String key) throws IOException {
+		if (!entrySizes.containsKey(key)) {
+			return null;
+		}
+
+		final Path path = entryPath(key);
+		try {
+			final byte[] entry = Files.readAllBytes(path);
+			// Accessing the entry moves it to the end of the access order.
+			entrySizes.get(key);
+			Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+			return entry;
+		} catch (NoSuchFileException e) {
+			// The entry was removed from the directory outside of this cache.
+			sizeInBytes -= entrySizes.remove(key);
+			return null;
+		}
+	}
+
+	private synchronized void writeEntry(String key, byte[] entry) throws IOException {
+		if (entry.length > maxSizeInBytes) {
+			return;
+		}
+
+		final Path temporaryPath = directory.resolve(key + TEMPORARY_SUFFIX);
+		Files.write(temporaryPath, entry);
+		Files.move(temporaryPath, entryPath(key), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+
+		final Long previousSize = entrySizes.put(key, (long) entry.length);
+		sizeInBytes += entry.length - (previousSize == null ? 0 : previousSize);
+		evictEntries();
+	}
+
+	private synchronized void removeEntry(String key) throws IOException {
+		final Long size = entrySizes.remove(key);
+		if (size != null) {
+			sizeInBytes -= size;
+			Files.deleteIfExists(entryPath(key));
+		}
+	}
+
+	/*
+	 * Removes the least recently used entries until the entries fit in the maximum size.
+	 */
+	private synchronized void evictEntries() throws IOException {
+		final Iterator<Map.Entry<String, Long>> entries = entrySizes.entrySet().iterator();
+		while (sizeInBytes > maxSizeInBytes && entries.hasNext()) {
+			final Map.Entry<String, Long> eldest = entries.next();
+			Files.deleteIfExists(entryPath(eldest.getKey()));
+			sizeInBytes -= eldest.getValue();
+			entries.remove();
+		}
+	}
+
+	/*
+	 * Adds the entries in the directory in the order of their latest use.
+	 */
+	private void loadEntries() throws IOException {
+		final List<Path> paths = new ArrayList<>();
+		final Map<Path, FileTime> lastUses = new HashMap<>();
+
+		try (DirectoryStream<Path> entryPaths = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+			for (Path path : entryPaths) {
+				paths.add(path);
+				lastUses.put(path, Files.getLastModifiedTime(path));
+			}
+		}
+
+		paths.sort((first, second) -> lastUses.get(first).compareTo(lastUses.get(second)));
+
+		for (Path path : paths) {
+			final String fileName = path.getFileName().toString();
+			final long size = Files.size(path);
+			entrySizes.put(fileName.substring(0, fileName.length() - ENTRY_SUFFIX.length()), size);
+			sizeInBytes += size;
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.notation.Duration;
+
+import java.util.Objects;
+
+/**
+ * Represents the tolerance with which notes are considered to be translations of each other in
+ * geometric pattern discovery.
+ * <p>
+ * The tolerance consists of a duration for the onsets and a number of half steps for the pitches. It is applied
+ * to the difference vectors between the notes and not to the notes themselves, so that the exact translations of a
+ * pattern are always found regardless of where the pattern is in the score. The offset differences are rounded to
+ * the nearest multiple of the duration and the pitch differences are rounded down to the nearest multiple of one
+ * more than the number of half steps. A note of a pattern occurs in a repetition of the pattern if the difference
+ * from the note to the note in the repetition is rounded to the same vector as the differences of the other notes
+ * of the pattern. This finds the repetitions of a motif that differ by small deviations in rhythm or pitch, for
+ * example in transcriptions of performances, and the patterns that differ only by such deviations are merged
+ * into one.
+ * <p>
+ * As the differences are rounded to fixed buckets, two differences that are closer to each other than the
+ * tolerance can still be rounded to different values if they are on different sides of a bucket boundary.
+ * <p>
+ * The pitch tolerance is applied to the values given by the {@link PointProjection} of the discovery.
+ * <p>
+ * This class is immutable.
+ */
+public final class DiscoveryTolerance {
+
+	/**
+	 * Tolerance with which only exact translations are considered.
+	 */
+	static final DiscoveryTolerance EXACT = new DiscoveryTolerance(null, 0);
+
+	private final Duration timeTolerance;
+	private final int pitchTolerance;
+
+	/**
+	 * Returns a tolerance with the given duration for the onsets and the given number of half steps
+	 * for the pitches.
+	 *
+	 * @param timeTolerance  the duration to the nearest multiple of which the offset differences of the notes are
+	 *                       rounded
+	 * @param pitchTolerance the largest difference of pitch differences that are rounded to the same value, must be
+	 *                       non-negative
+	 * @return a tolerance with the given duration for the onsets and the given number of half steps for the pitches
+	 * @throws NullPointerException     if timeTolerance is null
+	 * @throws IllegalArgumentException if pitchTolerance is negative
+	 */
+	public static DiscoveryTolerance of(Duration timeTolerance, int pitchTolerance) {
+		if (pitchTolerance < 0) {
+			throw new IllegalArgumentException("Pitch tolerance must be non-negative, was " + pitchTolerance);
+		}
+
+		return new DiscoveryTolerance(Objects.requireNonNull(timeTolerance), pitchTolerance);
+	}
+
+	private DiscoveryTolerance(Duration timeTolerance, int pitchTolerance) {
+		this.timeTolerance = timeTolerance;
+		this.pitchTolerance = pitchTolerance;
+	}
+
+	/**
+	 * Returns the number of which the number of ticks in a whole note must be a multiple for the time
+	 * tolerance to be a whole number of ticks.
+	 *
+	 * @return the number of which the number of ticks in a whole note must be a multiple
+	 */
+	long getRequiredTicksPerWholeNote() {
+		return timeTolerance == null ? 1 : timeTolerance.getDenominator();
+	}
+
+	/**
+	 * Returns true if this tolerance only considers exact translations.
+	 *
+	 * @return true if this tolerance only considers exact translations
+	 */
+	boolean isExact() {
+		return timeTolerance == null;
+	}
+
+	/**
+	 * Returns the given offset difference rounded to the nearest multiple of the time tolerance, divided by the
+	 * time tolerance. Differences in the same bucket are rounded to the same value.
+	 *
+	 * @param offsetDifference  the offset difference in ticks
+	 * @param ticksPerWholeNote the number of ticks in a whole note, must be a multiple of
+	 *                          {@link #getRequiredTicksPerWholeNote()}
+	 * @return the bucket of the given offset difference
+	 * @throws IllegalArgumentException if the time tolerance is not a whole number of ticks
+	 */
+	long bucketOffsetDifference(long offsetDifference, long ticksPerWholeNote) {
+		if (timeTolerance == null) {
+			return offsetDifference;
+		}
+
+		if (ticksPerWholeNote % timeTolerance.getDenominator() != 0) {
+			throw new IllegalArgumentException(
+					"Time tolerance " + timeTolerance + " is not a whole number of ticks with " + ticksPerWholeNote
+							+ " ticks in a whole note");
+		}
+
+		final long bucket = Math.multiplyExact(ticksPerWholeNote / timeTolerance.getDenominator(),
+				(long) timeTolerance.getNumerator());
+		return Math.floorDiv(offsetDifference + bucket / 2, bucket);
+	}
+
+	/**
+	 * Returns the given pitch difference rounded down to the nearest multiple of one more than the pitch
+	 * tolerance, divided by one more than the pitch tolerance. Differences in the same bucket are rounded to
+	 * the same value.
+	 *
+	 * @param pitchDifference the difference of the projected pitches
+	 * @return the bucket of the given pitch difference
+	 */
+	int bucketPitchDifference(int pitchDifference) {
+		return Math.floorDiv(pitchDifference, pitchTolerance + 1);
+	}
+
+	@Override
+	public String toString() {
+		final String time = timeTolerance == null ? "exact" : timeTolerance.toString();
+		return "DiscoveryTolerance(" + time + ", " + pitchTolerance + ")";
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.notation.Duration;
+
+import java.util.Objects;
+
+/**
+ * Represents a limit on how far apart two notes can be for the translation between them to be considered
+ * in geometric pattern discovery.
+ * <p>
+ * The window is either a duration or a number of note events. With a duration window only the translations
+ * between notes whose onsets are at most the given duration apart are considered. With a note event window
+ * only the translations between notes that are at most the given number of note events apart in the
+ * point set representation of the score are considered. The note events are ordered by onset, pitch and part.
+ * <p>
+ * Limiting the window reduces the memory required by pattern discovery from quadratic to linear in the number of
+ * notes for a fixed window size. Patterns whose consecutive notes are further apart than the window are not
+ * discovered. With a duration window the occurrences of a pattern are found from the pairs of notes in the window.
+ * With a note event window two occurrences of a pattern can be a different number of note events apart, so the
+ * occurrences are looked up from all notes, which takes O(n log n) time per pattern for n notes.
+ * <p>
+ * This class is immutable.
+ */
+public final class DiscoveryWindow {
+
+	/**
+	 * Window that contains all notes.
+	 */
+	static final DiscoveryWindow UNBOUNDED = new DiscoveryWindow(null, Integer.MAX_VALUE);
+
+	private final Duration maxDuration;
+	private final int maxNoteEvents;
+
+	/**
+	 * Returns a window that contains the notes whose onsets are at most the given duration apart.
+	 *
+	 * @param maxDuration the largest duration between the onsets of notes in the window
+	 * @return a window that contains the notes whose onsets are at most the given duration apart
+	 * @throws NullPointerException if maxDuration is null
+	 */
+	public static DiscoveryWindow ofDuration(Duration maxDuration) {
+		return new DiscoveryWindow(Objects.requireNonNull(maxDuration), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns a window that contains the notes that are at most the given number of note events apart.
+	 *
+	 * @param maxNoteEvents the largest number of note events between notes in the window, must be at least 1
+	 * @return a window that contains the notes that are at most the given number of note events apart
+	 * @throws IllegalArgumentException if maxNoteEvents is less than 1
+	 */
+	public static DiscoveryWindow ofNoteEvents(int maxNoteEvents) {
+		if (maxNoteEvents < 1) {
+			throw new IllegalArgumentException("Window must contain at least 1 note event, was " + maxNoteEvents);
+		}
+
+		return new DiscoveryWindow(null, maxNoteEvents);
+	}
+
+	private DiscoveryWindow(Duration maxDuration, int maxNoteEvents) {
+		this.maxDuration = maxDuration;
+		this.maxNoteEvents = maxNoteEvents;
+	}
+
+	/**
+	 * Returns the largest offset difference in this window in the ticks of the given point set.
+	 *
+	 * @param pointSet the point set with the offsets in ticks
+	 * @return the largest offset difference in this window in the ticks of the given point set
+	 */
+	long getMaxOffset(PointSet pointSet) {
+		if (maxDuration == null) {
+			return Long.MAX_VALUE;
+		}
+
+		// A duration that is not a whole number of ticks is rounded down as no offset can be between the ticks.
+		return Math.multiplyExact(pointSet.getTicksPerWholeNote(), (long) maxDuration.getNumerator())
+				/ maxDuration.getDenominator();
+	}
+
+	/**
+	 * Returns the largest difference of point indices in this window.
+	 *
+	 * @return the largest difference of point indices in this window
+	 */
+	int getMaxIndexDistance() {
+		return maxNoteEvents;
+	}
+
+	@Override
+	public String toString() {
+		final String limit = maxDuration == null ? maxNoteEvents + " note events" : maxDuration.toString();
+		return "DiscoveryWindow(" + limit + ")";
+	}
+}
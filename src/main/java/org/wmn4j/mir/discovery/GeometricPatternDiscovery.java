@@ -8,6 +8,12 @@ import org.wmn4j.notation.Score;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implements repeated pattern discovery using point set representation of
@@ -18,13 +24,22 @@ import java.util.Collection;
  * Master's thesis, University of Helsinki. 2015.
  * https://helda.helsinki.fi/handle/10138/273479
  * <p>
- * NOTE: The current implementation of GeometricPatternDiscovery is not thread-safe. The SIATECHF algorithm
- * also has quadratic space complexity so running this on large scores will require a very large heap size.
+ * Compressed encodings of scores can be computed with the COSIATEC algorithm [2].
+ * <p>
+ * [2] Meredith, David: COSIATEC and SIATECCompress: Pattern Discovery by Geometric Compression.
+ * Music Information Retrieval Evaluation eXchange (MIREX), 2013.
+ * <p>
+ * Pattern discovery with SIATECHF can be configured with more settings, such as a time budget, with
+ * {@link SiatechfJob}. Patterns can be discovered from several scores at once with {@link CorpusPatternDiscovery}.
+ * <p>
+ * NOTE: The SIATECHF and COSIATEC algorithms have quadratic space complexity so running them on large scores
+ * will require a very large heap size.
  */
 public final class GeometricPatternDiscovery implements PatternDiscovery {
 
 	private final Collection<Collection<PatternPosition>> positions;
 	private final Score score;
+	private final boolean complete;
 
 	/**
 	 * Returns the results of running pattern discovery with SIATECHF algorithm.
@@ -45,31 +60,203 @@ public final class GeometricPatternDiscovery implements PatternDiscovery {
 	 * @return the results of running pattern discovery with SIATECH algorithm
 	 */
 	public static PatternDiscovery withSiatechf(Score score, double compressionRatio) {
+		return withSiatechf(score, compressionRatio, 1);
+	}
+
+	/**
+	 * Returns the results of running pattern discovery with SIATECHF algorithm using the given number of threads.
+	 * <p>
+	 * The results are the same as the ones returned by {@link #withSiatechf(Score, double)}, but the
+	 * maximal translatable patterns are processed in parallel on a fork-join pool with the given parallelism.
+	 * The order of the returned patterns does not depend on the parallelism.
+	 *
+	 * @param score            the score for which repeated pattern discovery is performed
+	 * @param compressionRatio the required non-negative minimum compression ratio for the returned patterns
+	 * @param parallelism      the number of threads used for pattern discovery, must be at least 1
+	 * @return the results of running pattern discovery with SIATECH algorithm
+	 */
+	public static PatternDiscovery withSiatechf(Score score, double compressionRatio, int parallelism) {
+		return new SiatechfJob(score, compressionRatio).setParallelism(parallelism).run();
+	}
+
+	/**
+	 * Returns the results of running pattern discovery with SIATECHF algorithm limited to the given window.
+	 * <p>
+	 * Only the maximal translatable patterns for the translations between notes that are within the given window of
+	 * each other are used, so the patterns in which consecutive notes are further apart than the window are not
+	 * discovered. The occurrences of the discovered patterns are searched from the whole score. Otherwise this works
+	 * like {@link #withSiatechf(Score, double)}.
+	 * <p>
+	 * With a duration window the space required is linear in the number of notes for a fixed window, and so is the
+	 * time required to search the occurrences of a pattern. With a note event window the space is linear as well,
+	 * but the occurrences of every pattern are searched by looking up the translated notes from the whole score,
+	 * which takes O(n log n) time per pattern for n notes, and patterns cannot be skipped based on an upper bound
+	 * of their compression ratio. A duration window is therefore faster for large scores.
+	 *
+	 * @param score            the score for which repeated pattern discovery is performed
+	 * @param compressionRatio the required non-negative minimum compression ratio for the returned patterns
+	 * @param window           the window that limits the translations used for finding the patterns
+	 * @return the results of running pattern discovery with SIATECH algorithm
+	 * @throws NullPointerException if window is null
+	 */
+	public static PatternDiscovery withSiatechf(Score score, double compressionRatio, DiscoveryWindow window) {
+		return new SiatechfJob(score, compressionRatio).setWindow(window).run();
+	}
+
+	/**
+	 * Returns the results of running pattern discovery with SIATECHF algorithm on the point set representation
+	 * of the score given by the given projection.
+	 * <p>
+	 * The projection determines which notes are considered to be translations of each other. For example, with
+	 * {@link PointProjections#DIATONIC} the repetitions of a motif at different degrees of a scale are found even
+	 * if the sizes of their intervals differ, and with {@link PointProjections#withoutParts(PointProjection)} the
+	 * repetitions of a motif in different parts are found. Otherwise this works like
+	 * {@link #withSiatechf(Score, double)}.
+	 *
+	 * @param score            the score for which repeated pattern discovery is performed
+	 * @param compressionRatio the required non-negative minimum compression ratio for the returned patterns
+	 * @param projection       the projection of the notes to points
+	 * @return the results of running pattern discovery with SIATECH algorithm
+	 * @throws NullPointerException if projection is null
+	 */
+	public static PatternDiscovery withSiatechf(Score score, double compressionRatio, PointProjection projection) {
+		return new SiatechfJob(score, compressionRatio).setProjection(projection).run();
+	}
+
+	/**
+	 * Returns the results of running pattern discovery with SIATECHF algorithm with the given tolerance.
+	 * <p>
+	 * The difference vectors between the notes are rounded as described in {@link DiscoveryTolerance}, so that
+	 * the repetitions of a motif that differ by small deviations in rhythm or pitch are found as occurrences of the
+	 * same pattern. The exact repetitions of a motif are found as with {@link #withSiatechf(Score, double)}.
+	 * With a tolerance the occurrences of each pattern are searched from the pairs of notes of the first note of
+	 * the pattern, which takes O(n m log n) time for n notes and a pattern of m notes, and the search cannot
+	 * skip patterns based on their largest possible compression ratio, so the discovery is slower than
+	 * without tolerance. The occurrences of a pattern are only searched after its first note.
+	 * Otherwise this works like {@link #withSiatechf(Score, double)}.
+	 *
+	 * @param score            the score for which repeated pattern discovery is performed
+	 * @param compressionRatio the required non-negative minimum compression ratio for the returned patterns
+	 * @param tolerance        the tolerance with which notes are considered to be translations of each other
+	 * @return the results of running pattern discovery with SIATECH algorithm
+	 * @throws NullPointerException if tolerance is null
+	 */
+	public static PatternDiscovery withSiatechf(Score score, double compressionRatio, DiscoveryTolerance tolerance) {
+		return new SiatechfJob(score, compressionRatio).setTolerance(tolerance).run();
+	}
+
+	/**
+	 * Returns a stream of the pattern positions found by running pattern discovery with SIATECHF algorithm.
+	 * <p>
+	 * The stream contains the same pattern positions in the same order as the results of
+	 * {@link #withSiatechf(Score, double)}, but each element is computed only when the stream
+	 * is consumed up to it. This way the patterns can be processed while the discovery is still running
+	 * and the discovered patterns do not all need to be held in memory at the same time. The point set
+	 * representation of the score and the table of translation vectors required by SIATECHF are computed
+	 * when this method is called.
+	 * <p>
+	 * Each element of the stream contains the positions of all occurrences of a repeated pattern.
+	 *
+	 * @param score            the score for which repeated pattern discovery is performed
+	 * @param compressionRatio the required non-negative minimum compression ratio for the returned patterns
+	 * @return a sequential stream of the positions of the discovered repeated patterns
+	 */
+	public static Stream<Collection<PatternPosition>> streamSiatechf(Score score, double compressionRatio) {
+		checkCompressionRatio(compressionRatio);
+
+		final PointSet pointSet = new PointSet(score);
+		final Iterator<Tec> tecs = Siatechf.iterateMtpTecs(pointSet, compressionRatio);
+
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(tecs, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.map(tec -> toPatternPositions(tec, pointSet));
+	}
+
+	/**
+	 * Returns the results of running pattern discovery with COSIATEC algorithm [2].
+	 * <p>
+	 * COSIATEC computes a compressed encoding of the given score. It repeatedly chooses the translational
+	 * equivalence class with the highest compression ratio from the point set representation of the score,
+	 * removes the notes covered by the occurrences of the chosen pattern and continues with the remaining notes.
+	 * Every note in the score is covered by exactly one of the returned patterns, which are returned
+	 * in the order in which they were chosen. The last patterns in the encoding may occur only once.
+	 *
+	 * @param score the score for which repeated pattern discovery is performed
+	 * @return the results of running pattern discovery with COSIATEC algorithm
+	 */
+	public static PatternDiscovery withCosiatec(Score score) {
+		return withCosiatec(score, PointProjections.CHROMATIC);
+	}
+
+	/**
+	 * Returns the results of running pattern discovery with COSIATEC algorithm on the point set representation
+	 * of the score given by the given projection.
+	 * <p>
+	 * Every note in the score is covered by exactly one of the returned patterns unless the projection
+	 * projects several notes to the same point, in which case only one of those notes is included in
+	 * the returned patterns. Otherwise this works like {@link #withCosiatec(Score)}.
+	 *
+	 * @param score      the score for which repeated pattern discovery is performed
+	 * @param projection the projection of the notes to points
+	 * @return the results of running pattern discovery with COSIATEC algorithm
+	 * @throws NullPointerException if projection is null
+	 */
+	public static PatternDiscovery withCosiatec(Score score, PointProjection projection) {
+		final PointSet pointSet = new PointSet(score, Objects.requireNonNull(projection));
+		return fromTecs(Cosiatec.computeEncoding(pointSet), pointSet, score, true);
+	}
+
+	static void checkCompressionRatio(double compressionRatio) {
 		if (compressionRatio < 0.0) {
 			throw new IllegalArgumentException("Compression ratio must be non-negative, was " + compressionRatio);
 		}
+	}
 
-		final PointSet pointSet = new PointSet(score);
-		final Collection<Tec> tecs = Siatechf.computeMtpTecs(pointSet, compressionRatio);
-		final Collection<Collection<PatternPosition>> allPatterns = new ArrayList<>(tecs.size());
-		for (Tec tec : tecs) {
-			final Collection<PatternPosition> patternPositions = new ArrayList<>(tec.getTranslators().size() + 1);
+	private static Collection<PatternPosition> toPatternPositions(Tec tec, PointSet pointSet) {
+		final Collection<PatternPosition> patternPositions = new ArrayList<>(tec.getTranslators().size() + 1);
 
-			final PointPattern pattern = tec.getPattern();
+		for (PointPattern occurrence : tec.getOccurrences()) {
+			patternPositions.add(pointSet.getPosition(occurrence));
+		}
 
-			for (NoteEventVector translator : tec.getTranslators()) {
-				patternPositions.add(pointSet.getPosition(pattern, translator));
-			}
+		return patternPositions;
+	}
 
-			allPatterns.add(patternPositions);
+	/**
+	 * Returns the results of pattern discovery for the given TECs.
+	 *
+	 * @param tecs     the TECs found in the point set
+	 * @param pointSet the point set in which the TECs were found
+	 * @param score    the score of the point set
+	 * @param complete true if all patterns were found
+	 * @return the results of pattern discovery for the given TECs
+	 */
+	static GeometricPatternDiscovery fromTecs(Collection<Tec> tecs, PointSet pointSet, Score score,
+			boolean complete) {
+		final Collection<Collection<PatternPosition>> allPatterns = new ArrayList<>(tecs.size());
+		for (Tec tec : tecs) {
+			allPatterns.add(toPatternPositions(tec, pointSet));
 		}
 
-		return new GeometricPatternDiscovery(allPatterns, score);
+		return new GeometricPatternDiscovery(allPatterns, score, complete);
+	}
+
+	/**
+	 * Returns the results of pattern discovery with the given pattern positions.
+	 *
+	 * @param positions the positions of the occurrences of the discovered patterns
+	 * @param score     the score in which the patterns were found
+	 * @return the results of pattern discovery with the given pattern positions
+	 */
+	static GeometricPatternDiscovery fromPositions(Collection<Collection<PatternPosition>> positions, Score score) {
+		return new GeometricPatternDiscovery(positions, score, true);
 	}
 
-	private GeometricPatternDiscovery(Collection<Collection<PatternPosition>> positions, Score score) {
+	private GeometricPatternDiscovery(Collection<Collection<PatternPosition>> positions, Score score,
+			boolean complete) {
 		this.positions = positions;
 		this.score = score;
+		this.complete = complete;
 	}
 
 	@Override
@@ -81,4 +268,9 @@ public final class GeometricPatternDiscovery implements PatternDiscovery {
 	public Score getScore() {
 		return score;
 	}
+
+	@Override
+	public boolean isComplete() {
+		return complete;
+	}
 }
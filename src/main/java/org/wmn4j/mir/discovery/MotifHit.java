@@ -0,0 +1,53 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.mir.PatternPosition;
+
+import java.util.Objects;
+
+/**
+ * Represents an occurrence of a motif in one of the scores of a {@link MotifIndex}.
+ * This class is immutable.
+ */
+public final class MotifHit {
+
+	private final String scoreId;
+	private final PatternPosition patternPosition;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param scoreId         the identifier of the score in the index
+	 * @param patternPosition the position of the notes of the motif in the score
+	 * @throws NullPointerException if scoreId or patternPosition is null
+	 */
+	MotifHit(String scoreId, PatternPosition patternPosition) {
+		this.scoreId = Objects.requireNonNull(scoreId);
+		this.patternPosition = Objects.requireNonNull(patternPosition);
+	}
+
+	/**
+	 * Returns the identifier of the score with which the score was added to the index.
+	 *
+	 * @return the identifier of the score with which the score was added to the index
+	 */
+	public String getScoreId() {
+		return scoreId;
+	}
+
+	/**
+	 * Returns the position of the notes of the motif in the score.
+	 *
+	 * @return the position of the notes of the motif in the score
+	 */
+	public PatternPosition getPatternPosition() {
+		return patternPosition;
+	}
+
+	@Override
+	public String toString() {
+		return "Score " + scoreId + ": " + patternPosition;
+	}
+}
@@ -0,0 +1,983 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.mir.Pattern;
+import org.wmn4j.mir.PatternPosition;
+import org.wmn4j.notation.Duration;
+import org.wmn4j.notation.Score;
+import org.wmn4j.notation.access.Position;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Persistent index for searching the occurrences of motifs in a large number of scores.
+ * <p>
+ * The notes of the scores are represented as points like in {@link GeometricPatternDiscovery}, with the onsets
+ * rounded to the nearest multiple of a quantum duration. For every pair of points in the same part whose onsets
+ * are at most a window duration apart, the index stores the pair under its difference vector of quantized
+ * onset difference and pitch difference. A motif is searched by looking up the difference vectors from its
+ * first point to its other points and intersecting the pairs that start from the same point of a score, so
+ * the time of a search depends on the number of pairs with these difference vectors rather than on the number
+ * of scores. The occurrences are transposition invariant and the notes of each occurrence are in the same part.
+ * <p>
+ * The index is stored in a directory. Each call to {@link #add(Map)} writes the added scores to a new immutable
+ * segment file. The segment files are memory-mapped for searching, and every search looks up the motif in every
+ * segment. To keep the number of segments small, the segments are grouped into size tiers whose sizes grow by
+ * a factor of ten, and whenever ten consecutive segments are in the same tier they are merged into one segment.
+ * The number of segments thus grows logarithmically with the number of added scores, but every merge rewrites
+ * the merged scores. Callers should therefore add scores in batches of many scores rather than one at a time,
+ * and may call {@link #compact()} after adding a large collection to merge the segments as far as possible.
+ * A segment can contain at most 2 GB of data, so very large collections of scores are added in several batches.
+ * Scores are not removed from the index.
+ * <p>
+ * Instances of this class are thread-safe and searches can be run while scores are added. The same directory
+ * should not be used by several index instances at the same time.
+ */
+public final class MotifIndex {
+
+	private static final String HEADER_FILE_NAME = "motif-index.header";
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".idx";
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+	private static final int HEADER_MAGIC_NUMBER = 0x574D4E48;
+	private static final int SEGMENT_MAGIC_NUMBER = 0x574D4E53;
+	private static final int FORMAT_VERSION = 1;
+	private static final int SEGMENT_HEADER_SIZE = 6 * Integer.BYTES;
+	private static final int MERGE_FACTOR = 10;
+	private static final long SMALLEST_TIER_SIZE = 1L << 20;
+
+	private final Path directory;
+	private final Duration quantum;
+	private final int window;
+	private final Set<String> scoreIds;
+	private volatile List<Segment> segments;
+	private int nextSegmentNumber;
+
+	private MotifIndex(Path directory, Duration quantum, int window, List<Segment> segments) {
+		this.directory = directory;
+		this.quantum = quantum;
+		this.window = window;
+		this.segments = Collections.unmodifiableList(segments);
+		this.scoreIds = new HashSet<>();
+		for (Segment segment : segments) {
+			scoreIds.addAll(Arrays.asList(segment.scoreIds));
+		}
+
+		this.nextSegmentNumber = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).lastNumber + 1;
+	}
+
+	/**
+	 * Creates an empty index in the given directory, creating the directory if it does not exist.
+	 *
+	 * @param directory the directory in which the index is stored
+	 * @param quantum   the duration to the nearest multiple of which the onsets of the notes are rounded
+	 * @param window    the longest duration between the onsets of notes in the same motif, must not be shorter
+	 *                  than the quantum
+	 * @return an empty index in the given directory
+	 * @throws IOException              if the index cannot be written or the directory already contains an index
+	 * @throws IllegalArgumentException if window is shorter than quantum or too long in comparison to quantum
+	 * @throws NullPointerException     if any of the arguments is null
+	 */
+	public static MotifIndex create(Path directory, Duration quantum, Duration window) throws IOException {
+		Objects.requireNonNull(directory);
+		Objects.requireNonNull(quantum);
+		Objects.requireNonNull(window);
+
+		final long windowInQuanta = (long) window.getNumerator() * quantum.getDenominator()
+				/ ((long) window.getDenominator() * quantum.getNumerator());
+		if (windowInQuanta < 1 || windowInQuanta > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"Window must be from 1 to " + Integer.MAX_VALUE + " quanta, was " + windowInQuanta);
+		}
+
+		final ByteBuffer header = ByteBuffer.allocate(5 * Integer.BYTES);
+		header.putInt(HEADER_MAGIC_NUMBER);
+		header.putInt(FORMAT_VERSION);
+		header.putInt(quantum.getNumerator());
+		header.putInt(quantum.getDenominator());
+		header.putInt((int) windowInQuanta);
+
+		Files.createDirectories(directory);
+		Files.write(directory.resolve(HEADER_FILE_NAME), header.array(), StandardOpenOption.CREATE_NEW);
+
+		return new MotifIndex(directory, quantum, (int) windowInQuanta, new ArrayList<>());
+	}
+
+	/**
+	 * Opens the index in the given directory.
+	 *
+	 * @param directory the directory in which the index is stored
+	 * @return the index in the given directory
+	 * @throws IOException          if the index cannot be read or the directory does not contain an index
+	 * @throws NullPointerException if directory is null
+	 */
+	public static MotifIndex open(Path directory) throws IOException {
+		final ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(HEADER_FILE_NAME)));
+		if (header.remaining() != 5 * Integer.BYTES || header.getInt() != HEADER_MAGIC_NUMBER
+				|| header.getInt() != FORMAT_VERSION) {
+			throw new IOException("Directory does not contain a motif index: " + directory);
+		}
+
+		final Duration quantum = Duration.of(header.getInt(), header.getInt());
+		final int window = header.getInt();
+
+		final List<Path> segmentPaths = new ArrayList<>();
+		try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory,
+				SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			for (Path path : paths) {
+				segmentPaths.add(path);
+			}
+		}
+
+		final List<Segment> readSegments = new ArrayList<>(segmentPaths.size());
+		for (Path path : segmentPaths) {
+			readSegments.add(Segment.read(path));
+		}
+
+		readSegments.sort(Comparator.comparingInt((Segment segment) -> segment.firstNumber)
+				.thenComparing(Comparator.comparingInt((Segment segment) -> segment.lastNumber).reversed()));
+
+		// If merging was interrupted after the merged segment was written, the files of the merged segments
+		// are left over. Their scores are in the merged segment, which covers their numbers.
+		final List<Segment> segments = new ArrayList<>(readSegments.size());
+		for (Segment segment : readSegments) {
+			if (!segments.isEmpty() && segment.lastNumber <= segments.get(segments.size() - 1).lastNumber) {
+				Files.delete(segment.path);
+			} else {
+				segments.add(segment);
+			}
+		}
+
+		return new MotifIndex(directory, quantum, window, segments);
+	}
+
+	/**
+	 * Returns the duration to the nearest multiple of which the onsets of the notes are rounded in this index.
+	 *
+	 * @return the duration to the nearest multiple of which the onsets of the notes are rounded in this index
+	 */
+	public Duration getQuantum() {
+		return quantum;
+	}
+
+	/**
+	 * Returns the number of scores in this index.
+	 *
+	 * @return the number of scores in this index
+	 */
+	public synchronized int getScoreCount() {
+		return scoreIds.size();
+	}
+
+	/**
+	 * Returns the number of segment files of this index.
+	 *
+	 * @return the number of segment files of this index
+	 */
+	public int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Adds the given scores to this index in a new segment.
+	 * <p>
+	 * The scores are identified by the keys of the given map, for example by the names of the files from which the
+	 * scores were read. The scores are visible to searches when this method returns. If the new segment completes
+	 * ten consecutive segments in the same size tier, they are merged before this method returns. Each call writes
+	 * a segment file, so scores should be added in batches of many scores.
+	 *
+	 * @param scores the scores to add by their identifiers
+	 * @throws IOException              if writing the segment fails
+	 * @throws IllegalArgumentException if an identifier is already in this index or if the scores do not fit in
+	 *                                  one segment
+	 * @throws NullPointerException     if scores or any of its keys or values is null
+	 */
+	public synchronized void add(Map<String, Score> scores) throws IOException {
+		for (Map.Entry<String, Score> entry : scores.entrySet()) {
+			Objects.requireNonNull(entry.getValue());
+			if (scoreIds.contains(Objects.requireNonNull(entry.getKey()))) {
+				throw new IllegalArgumentException("Score is already in the index: " + entry.getKey());
+			}
+		}
+
+		if (scores.isEmpty()) {
+			return;
+		}
+
+		final List<Segment> updatedSegments = new ArrayList<>(segments);
+		updatedSegments.add(writeSegment(new SegmentBuilder(scores), nextSegmentNumber, nextSegmentNumber));
+		segments = Collections.unmodifiableList(updatedSegments);
+		scoreIds.addAll(scores.keySet());
+		++nextSegmentNumber;
+
+		mergeTiers();
+	}
+
+	/**
+	 * Merges the segments of this index into as few segments as the size limit of a segment allows.
+	 * <p>
+	 * Consecutive segments are merged, so the order of the hits does not change. Searches can be run while the
+	 * segments are merged.
+	 *
+	 * @throws IOException if writing the merged segments fails
+	 */
+	public synchronized void compact() throws IOException {
+		for (int start = 0; start < segments.size(); ++start) {
+			int end = start + 1;
+			while (end < segments.size() && fitInOneSegment(segments.subList(start, end + 1))) {
+				++end;
+			}
+
+			if (end - start > 1) {
+				merge(start, end);
+			}
+		}
+	}
+
+	/*
+	 * Merges MERGE_FACTOR consecutive segments in the same size tier until there are no such segments left.
+	 */
+	private void mergeTiers() throws IOException {
+		boolean merged = true;
+		while (merged) {
+			merged = false;
+			for (int start = segments.size() - MERGE_FACTOR; start >= 0 && !merged; --start) {
+				final List<Segment> candidates = segments.subList(start, start + MERGE_FACTOR);
+				final int tier = getTier(candidates.get(0));
+				if (candidates.stream().allMatch(segment -> getTier(segment) == tier)
+						&& fitInOneSegment(candidates)) {
+					merge(start, start + MERGE_FACTOR);
+					merged = true;
+				}
+			}
+		}
+	}
+
+	/*
+	 * Returns the size tier of the segment. The segments in the smallest tier are smaller than
+	 * MERGE_FACTOR * SMALLEST_TIER_SIZE bytes and the segments in each following tier are MERGE_FACTOR times
+	 * larger.
+	 */
+	private static int getTier(Segment segment) {
+		int tier = 0;
+		for (long size = segment.getSize() / SMALLEST_TIER_SIZE; size >= MERGE_FACTOR; size /= MERGE_FACTOR) {
+			++tier;
+		}
+
+		return tier;
+	}
+
+	/*
+	 * Returns true if the merged segment of the given segments is not larger than the largest possible segment.
+	 * The merged segment is at most as large as the given segments together.
+	 */
+	private static boolean fitInOneSegment(List<Segment> segments) {
+		long size = 0;
+		for (Segment segment : segments) {
+			size += segment.getSize();
+		}
+
+		return size <= Integer.MAX_VALUE;
+	}
+
+	/*
+	 * Replaces the segments from start to end with one merged segment and deletes the files of the merged segments.
+	 */
+	private void merge(int start, int end) throws IOException {
+		final List<Segment> mergedSegments = segments.subList(start, end);
+		final Segment mergedSegment = writeSegment(new SegmentBuilder(mergedSegments),
+				mergedSegments.get(0).firstNumber, mergedSegments.get(mergedSegments.size() - 1).lastNumber);
+
+		final List<Segment> updatedSegments = new ArrayList<>(segments.subList(0, start));
+		updatedSegments.add(mergedSegment);
+		updatedSegments.addAll(segments.subList(end, segments.size()));
+		segments = Collections.unmodifiableList(updatedSegments);
+
+		for (Segment segment : mergedSegments) {
+			Files.delete(segment.path);
+		}
+	}
+
+	/*
+	 * Writes the segment that covers the given segment numbers and returns it memory-mapped.
+	 */
+	private Segment writeSegment(SegmentBuilder builder, int firstNumber, int lastNumber) throws IOException {
+		final String fileName = SEGMENT_PREFIX + String.format("%08d-%08d", firstNumber, lastNumber) + SEGMENT_SUFFIX;
+		final Path temporaryPath = directory.resolve(fileName + TEMPORARY_SUFFIX);
+		final Path segmentPath = directory.resolve(fileName);
+
+		builder.write(temporaryPath);
+		Files.move(temporaryPath, segmentPath, StandardCopyOption.ATOMIC_MOVE);
+		return Segment.read(segmentPath);
+	}
+
+	/**
+	 * Returns the occurrences of the given motif in the scores of this index.
+	 * <p>
+	 * The notes of the motif are the notes in all voices of the pattern, with the onsets rounded like the onsets of
+	 * the notes of the indexed scores. The hits are in the order in which the scores were added to the index and
+	 * the hits in the same score are in the order of their first notes.
+	 *
+	 * @param motif the pattern whose occurrences are searched
+	 * @return the occurrences of the given motif in the scores of this index
+	 * @throws NullPointerException     if motif is null
+	 * @throws IllegalArgumentException if the motif has fewer than two notes at distinct rounded positions or
+	 *                                  if the notes of the motif are further apart than the window of this index
+	 */
+	public List<MotifHit> search(Pattern motif) {
+		final long ticksPerWholeNote = PointSet.computeTicksPerWholeNote(Objects.requireNonNull(motif));
+		final SortedSet<NoteEventVector> quantizedPoints = new TreeSet<>();
+		for (NoteEventVector point : PointSet.toPoints(motif, PointProjections.CHROMATIC, ticksPerWholeNote)) {
+			quantizedPoints.add(new NoteEventVector(quantize(point.getOffset(), ticksPerWholeNote), point.getPitch(),
+					point.getPart()));
+		}
+
+		if (quantizedPoints.size() < 2) {
+			throw new IllegalArgumentException("Motif must contain at least two notes at distinct positions");
+		}
+
+		final NoteEventVector first = quantizedPoints.first();
+		if (quantizedPoints.last().getOffset() - first.getOffset() > window) {
+			throw new IllegalArgumentException("Motif must not be longer than the window of the index");
+		}
+
+		final long[] keys = new long[quantizedPoints.size() - 1];
+		int keyIndex = 0;
+		for (NoteEventVector point : quantizedPoints) {
+			if (point != first) {
+				keys[keyIndex++] = toKey(point.getOffset() - first.getOffset(), point.getPitch() - first.getPitch());
+			}
+		}
+
+		final List<MotifHit> hits = new ArrayList<>();
+		for (Segment segment : segments) {
+			segment.search(keys, hits);
+		}
+
+		return Collections.unmodifiableList(hits);
+	}
+
+	/*
+	 * Returns the offset rounded to the nearest multiple of the quantum in quanta.
+	 */
+	private long quantize(long offset, long ticksPerWholeNote) {
+		final long quantumTicks = Math.multiplyExact(ticksPerWholeNote, (long) quantum.getNumerator());
+		return Math.floorDiv(
+				Math.addExact(Math.multiplyExact(2 * offset, (long) quantum.getDenominator()), quantumTicks),
+				2 * quantumTicks);
+	}
+
+	/*
+	 * Packs the difference vector of a pair of points so that keys are equal only for equal difference vectors.
+	 */
+	private static long toKey(long offsetDifference, int pitchDifference) {
+		return (offsetDifference << Integer.SIZE) | ((long) pitchDifference - Integer.MIN_VALUE);
+	}
+
+	/**
+	 * Builds the arrays of a segment from the point sets of the added scores or from the segments that are merged.
+	 */
+	private final class SegmentBuilder {
+		private final String[] ids;
+		private final int[] pointsStarts;
+		private final long[] partsAndMeasures;
+		private final long[] locationsInMeasures;
+
+		private long[] keys;
+		private int keyCount;
+		private int[] postingsStarts;
+		private int[] firsts;
+		private int[] seconds;
+
+		SegmentBuilder(Map<String, Score> scores) {
+			this.ids = new String[scores.size()];
+			this.pointsStarts = new int[scores.size() + 1];
+
+			final List<PointSet> pointSets = new ArrayList<>(scores.size());
+			final List<int[]> orders = new ArrayList<>(scores.size());
+			final List<long[]> quantizedOffsets = new ArrayList<>(scores.size());
+
+			int scoreIndex = 0;
+			for (Map.Entry<String, Score> entry : scores.entrySet()) {
+				final PointSet pointSet = new PointSet(entry.getValue());
+				final long[] scoreOffsets = new long[pointSet.size()];
+				for (int i = 0; i < scoreOffsets.length; ++i) {
+					scoreOffsets[i] = quantize(pointSet.getOffset(i), pointSet.getTicksPerWholeNote());
+				}
+
+				final int[] order = sortDistinct(pointSet, scoreOffsets);
+				ids[scoreIndex] = entry.getKey();
+				pointsStarts[scoreIndex + 1] = Math.addExact(pointsStarts[scoreIndex], order.length);
+				pointSets.add(pointSet);
+				orders.add(order);
+				quantizedOffsets.add(scoreOffsets);
+				++scoreIndex;
+			}
+
+			final int pointCount = pointsStarts[ids.length];
+			final long[] offsets = new long[pointCount];
+			final int[] pitches = new int[pointCount];
+			final int[] parts = new int[pointCount];
+			this.partsAndMeasures = new long[pointCount];
+			this.locationsInMeasures = new long[pointCount];
+
+			for (scoreIndex = 0; scoreIndex < ids.length; ++scoreIndex) {
+				final PointSet pointSet = pointSets.get(scoreIndex);
+				final int[] order = orders.get(scoreIndex);
+				for (int i = 0; i < order.length; ++i) {
+					final int point = pointsStarts[scoreIndex] + i;
+					offsets[point] = quantizedOffsets.get(scoreIndex)[order[i]];
+					pitches[point] = pointSet.getPitch(order[i]);
+					parts[point] = pointSet.getPart(order[i]);
+					partsAndMeasures[point] = pointSet.getPackedPartAndMeasure(order[i]);
+					locationsInMeasures[point] = pointSet.getPackedLocationInMeasure(order[i]);
+				}
+			}
+
+			buildPostings(offsets, pitches, parts);
+		}
+
+		/*
+		 * Concatenates the scores of the given segments and merges their postings. The point indices of each
+		 * segment are shifted by the number of points in the segments before it, so the postings of each key stay
+		 * in ascending order of their first points when they are copied segment by segment.
+		 */
+		SegmentBuilder(List<Segment> segments) {
+			int scoreCount = 0;
+			int pointCount = 0;
+			int keyTotal = 0;
+			int postingCount = 0;
+			for (Segment segment : segments) {
+				scoreCount += segment.scoreIds.length;
+				pointCount += segment.pointCount;
+				keyTotal += segment.keyCount;
+				postingCount += segment.postingCount;
+			}
+
+			this.ids = new String[scoreCount];
+			this.pointsStarts = new int[scoreCount + 1];
+			this.partsAndMeasures = new long[pointCount];
+			this.locationsInMeasures = new long[pointCount];
+
+			final long[] allKeys = new long[keyTotal];
+			int scoreIndex = 0;
+			int pointOffset = 0;
+			int keyIndex = 0;
+			for (Segment segment : segments) {
+				for (int i = 0; i < segment.scoreIds.length; ++i) {
+					ids[scoreIndex] = segment.scoreIds[i];
+					pointsStarts[++scoreIndex] = pointOffset + segment.getPointsStart(i + 1);
+				}
+
+				for (int point = 0; point < segment.pointCount; ++point) {
+					partsAndMeasures[pointOffset + point] = segment.getPartAndMeasure(point);
+					locationsInMeasures[pointOffset + point] = segment.getLocationInMeasure(point);
+				}
+
+				for (int i = 0; i < segment.keyCount; ++i) {
+					allKeys[keyIndex++] = segment.getKey(i);
+				}
+
+				pointOffset += segment.pointCount;
+			}
+
+			setDistinctKeys(allKeys);
+
+			final int[][] mergedKeyIndices = new int[segments.size()][];
+			postingsStarts = new int[keyCount + 1];
+			for (int s = 0; s < segments.size(); ++s) {
+				final Segment segment = segments.get(s);
+				mergedKeyIndices[s] = new int[segment.keyCount];
+				for (int i = 0; i < segment.keyCount; ++i) {
+					mergedKeyIndices[s][i] = Arrays.binarySearch(keys, 0, keyCount, segment.getKey(i));
+					postingsStarts[mergedKeyIndices[s][i] + 1] += segment.getPostingsStart(i + 1)
+							- segment.getPostingsStart(i);
+				}
+			}
+
+			for (int i = 0; i < keyCount; ++i) {
+				postingsStarts[i + 1] += postingsStarts[i];
+			}
+
+			final int[] cursors = Arrays.copyOf(postingsStarts, keyCount);
+			firsts = new int[postingCount];
+			seconds = new int[postingCount];
+			pointOffset = 0;
+			for (int s = 0; s < segments.size(); ++s) {
+				final Segment segment = segments.get(s);
+				for (int i = 0; i < segment.keyCount; ++i) {
+					for (int posting = segment.getPostingsStart(i); posting < segment.getPostingsStart(i + 1);
+							++posting) {
+						final int mergedPosting = cursors[mergedKeyIndices[s][i]]++;
+						firsts[mergedPosting] = pointOffset + segment.getFirst(posting);
+						seconds[mergedPosting] = pointOffset + segment.getSecond(posting);
+					}
+				}
+
+				pointOffset += segment.pointCount;
+			}
+		}
+
+		/*
+		 * Returns the indices of the points in the order of the quantized points, keeping only the first
+		 * of the points that are equal after quantization.
+		 *
+		 * Quantization does not change the order of the offsets, so only the runs of points with equal
+		 * quantized offsets need to be sorted. Within a run the pitch, part and index of each point are packed
+		 * into a long so that the run is sorted as primitive values.
+		 */
+		private int[] sortDistinct(PointSet pointSet, long[] quantizedOffsets) {
+			final int pointCount = pointSet.size();
+			if (pointCount == 0) {
+				return new int[0];
+			}
+
+			int minPitch = pointSet.getPitch(0);
+			int maxPitch = minPitch;
+			int minPart = pointSet.getPart(0);
+			int maxPart = minPart;
+			for (int i = 1; i < pointCount; ++i) {
+				minPitch = Math.min(minPitch, pointSet.getPitch(i));
+				maxPitch = Math.max(maxPitch, pointSet.getPitch(i));
+				minPart = Math.min(minPart, pointSet.getPart(i));
+				maxPart = Math.max(maxPart, pointSet.getPart(i));
+			}
+
+			final int indexBits = Integer.SIZE - 1;
+			final int partBits = Long.SIZE - Long.numberOfLeadingZeros((long) maxPart - minPart);
+			final int pitchBits = Long.SIZE - Long.numberOfLeadingZeros((long) maxPitch - minPitch);
+			if (pitchBits + partBits + indexBits > Long.SIZE - 1) {
+				throw new IllegalArgumentException("Score spans too many pitches and parts to be indexed");
+			}
+
+			final long[] packedPoints = new long[pointCount];
+			for (int i = 0; i < pointCount; ++i) {
+				final long pitchField = (long) pointSet.getPitch(i) - minPitch;
+				final long partField = (long) pointSet.getPart(i) - minPart;
+				packedPoints[i] = (((pitchField << partBits) | partField) << indexBits) | i;
+			}
+
+			int runStart = 0;
+			for (int i = 1; i <= pointCount; ++i) {
+				if (i == pointCount || quantizedOffsets[i] != quantizedOffsets[runStart]) {
+					Arrays.sort(packedPoints, runStart, i);
+					runStart = i;
+				}
+			}
+
+			// The sorted points are compacted in place, keeping the point with the smallest index of equal points.
+			final long indexMask = (1L << indexBits) - 1;
+			int count = 0;
+			for (int i = 0; i < pointCount; ++i) {
+				final int index = (int) (packedPoints[i] & indexMask);
+				final int previousIndex = count == 0 ? -1 : (int) (packedPoints[count - 1] & indexMask);
+				if (previousIndex < 0 || quantizedOffsets[index] != quantizedOffsets[previousIndex]
+						|| packedPoints[i] >>> indexBits != packedPoints[count - 1] >>> indexBits) {
+					packedPoints[count++] = packedPoints[i];
+				}
+			}
+
+			final int[] order = new int[count];
+			for (int i = 0; i < count; ++i) {
+				order[i] = (int) (packedPoints[i] & indexMask);
+			}
+
+			return order;
+		}
+
+		/*
+		 * Groups the pairs of points by their keys in two passes like the MTP table, so that the postings of each
+		 * key are in ascending order of their first points.
+		 */
+		private void buildPostings(long[] offsets, int[] pitches, int[] parts) {
+			long pairCount = 0;
+			for (int scoreIndex = 0; scoreIndex < ids.length; ++scoreIndex) {
+				for (int i = pointsStarts[scoreIndex]; i < pointsStarts[scoreIndex + 1]; ++i) {
+					for (int j = i + 1; j < pointsStarts[scoreIndex + 1] && offsets[j] - offsets[i] <= window; ++j) {
+						if (parts[i] == parts[j]) {
+							++pairCount;
+						}
+					}
+				}
+			}
+
+			if (pairCount > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Scores do not fit in one segment, add them in smaller batches");
+			}
+
+			final long[] pairKeys = new long[(int) pairCount];
+			int pair = 0;
+			for (int scoreIndex = 0; scoreIndex < ids.length; ++scoreIndex) {
+				for (int i = pointsStarts[scoreIndex]; i < pointsStarts[scoreIndex + 1]; ++i) {
+					for (int j = i + 1; j < pointsStarts[scoreIndex + 1] && offsets[j] - offsets[i] <= window; ++j) {
+						if (parts[i] == parts[j]) {
+							pairKeys[pair++] = toKey(offsets[j] - offsets[i], pitches[j] - pitches[i]);
+						}
+					}
+				}
+			}
+
+			setDistinctKeys(pairKeys.clone());
+
+			final int[] keyIndices = new int[pairKeys.length];
+			postingsStarts = new int[keyCount + 1];
+			for (int i = 0; i < pairKeys.length; ++i) {
+				keyIndices[i] = Arrays.binarySearch(keys, 0, keyCount, pairKeys[i]);
+				++postingsStarts[keyIndices[i] + 1];
+			}
+
+			for (int i = 0; i < keyCount; ++i) {
+				postingsStarts[i + 1] += postingsStarts[i];
+			}
+
+			final int[] cursors = Arrays.copyOf(postingsStarts, keyCount);
+			firsts = new int[pairKeys.length];
+			seconds = new int[pairKeys.length];
+			pair = 0;
+			for (int scoreIndex = 0; scoreIndex < ids.length; ++scoreIndex) {
+				for (int i = pointsStarts[scoreIndex]; i < pointsStarts[scoreIndex + 1]; ++i) {
+					for (int j = i + 1; j < pointsStarts[scoreIndex + 1] && offsets[j] - offsets[i] <= window; ++j) {
+						if (parts[i] == parts[j]) {
+							final int posting = cursors[keyIndices[pair++]]++;
+							firsts[posting] = i;
+							seconds[posting] = j;
+						}
+					}
+				}
+			}
+		}
+
+		/*
+		 * Sorts the given keys and keeps each key once.
+		 */
+		private void setDistinctKeys(long[] allKeys) {
+			keys = allKeys;
+			Arrays.sort(keys);
+			keyCount = 0;
+			for (int i = 0; i < keys.length; ++i) {
+				if (keyCount == 0 || keys[i] != keys[keyCount - 1]) {
+					keys[keyCount++] = keys[i];
+				}
+			}
+		}
+
+		void write(Path path) throws IOException {
+			final byte[][] encodedIds = new byte[ids.length][];
+			long size = SEGMENT_HEADER_SIZE
+					+ (long) Long.BYTES * (2L * partsAndMeasures.length + keyCount)
+					+ (long) Integer.BYTES * (pointsStarts.length + postingsStarts.length + 2L * firsts.length);
+			for (int i = 0; i < ids.length; ++i) {
+				encodedIds[i] = ids[i].getBytes(StandardCharsets.UTF_8);
+				size += Integer.BYTES + encodedIds[i].length;
+			}
+
+			if (size > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Scores do not fit in one segment, add them in smaller batches");
+			}
+
+			try (DataOutputStream output = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(path)))) {
+				output.writeInt(SEGMENT_MAGIC_NUMBER);
+				output.writeInt(FORMAT_VERSION);
+				output.writeInt(ids.length);
+				output.writeInt(partsAndMeasures.length);
+				output.writeInt(keyCount);
+				output.writeInt(firsts.length);
+
+				for (long partAndMeasure : partsAndMeasures) {
+					output.writeLong(partAndMeasure);
+				}
+
+				for (long locationInMeasure : locationsInMeasures) {
+					output.writeLong(locationInMeasure);
+				}
+
+				for (int i = 0; i < keyCount; ++i) {
+					output.writeLong(keys[i]);
+				}
+
+				writeInts(output, pointsStarts);
+				writeInts(output, postingsStarts);
+				writeInts(output, firsts);
+				writeInts(output, seconds);
+
+				for (byte[] encodedId : encodedIds) {
+					output.writeInt(encodedId.length);
+					output.write(encodedId);
+				}
+			}
+		}
+
+		private void writeInts(DataOutputStream output, int[] values) throws IOException {
+			for (int value : values) {
+				output.writeInt(value);
+			}
+		}
+	}
+
+	/**
+	 * Memory-mapped segment of the index.
+	 * <p>
+	 * The segment is read with absolute accesses only, so the same segment can be searched by several threads.
+	 */
+	private static final class Segment {
+		private final Path path;
+		private final int firstNumber;
+		private final int lastNumber;
+		private final ByteBuffer buffer;
+		private final String[] scoreIds;
+		private final int pointCount;
+		private final int keyCount;
+		private final int postingCount;
+		private final int partsAndMeasuresStart;
+		private final int locationsStart;
+		private final int keysStart;
+		private final int pointsStartsStart;
+		private final int postingsStartsStart;
+		private final int firstsStart;
+		private final int secondsStart;
+
+		private Segment(Path path, int firstNumber, int lastNumber, ByteBuffer buffer) {
+			this.path = path;
+			this.firstNumber = firstNumber;
+			this.lastNumber = lastNumber;
+			this.buffer = buffer;
+
+			final int scoreCount = buffer.getInt(2 * Integer.BYTES);
+			this.pointCount = buffer.getInt(3 * Integer.BYTES);
+			this.keyCount = buffer.getInt(4 * Integer.BYTES);
+			this.postingCount = buffer.getInt(5 * Integer.BYTES);
+
+			this.partsAndMeasuresStart = SEGMENT_HEADER_SIZE;
+			this.locationsStart = partsAndMeasuresStart + Long.BYTES * pointCount;
+			this.keysStart = locationsStart + Long.BYTES * pointCount;
+			this.pointsStartsStart = keysStart + Long.BYTES * keyCount;
+			this.postingsStartsStart = pointsStartsStart + Integer.BYTES * (scoreCount + 1);
+			this.firstsStart = postingsStartsStart + Integer.BYTES * (keyCount + 1);
+			this.secondsStart = firstsStart + Integer.BYTES * postingCount;
+
+			final ByteBuffer idBuffer = buffer.duplicate();
+			idBuffer.position(secondsStart + Integer.BYTES * postingCount);
+			this.scoreIds = new String[scoreCount];
+			for (int i = 0; i < scoreCount; ++i) {
+				final byte[] encodedId = new byte[idBuffer.getInt()];
+				idBuffer.get(encodedId);
+				scoreIds[i] = new String(encodedId, StandardCharsets.UTF_8);
+			}
+		}
+
+		/*
+		 * Reads the segment from the given file. The name of the file contains the numbers of the first and the
+		 * last segment that were written when scores were added and that are merged into this segment.
+		 */
+		static Segment read(Path path) throws IOException {
+			final String fileName = path.getFileName().toString();
+			final String[] numbers = fileName
+					.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()).split("-");
+			final int firstNumber;
+			final int lastNumber;
+			try {
+				if (numbers.length != 2) {
+					throw new IOException("File is not a segment of a motif index: " + path);
+				}
+
+				firstNumber = Integer.parseInt(numbers[0]);
+				lastNumber = Integer.parseInt(numbers[1]);
+			} catch (NumberFormatException e) {
+				throw new IOException("File is not a segment of a motif index: " + path, e);
+			}
+
+			final ByteBuffer buffer;
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+
+			try {
+				if (buffer.getInt(0) != SEGMENT_MAGIC_NUMBER || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+					throw new IOException("File is not a segment of a motif index: " + path);
+				}
+
+				return new Segment(path, firstNumber, lastNumber, buffer);
+			} catch (IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException
+					| NegativeArraySizeException e) {
+				throw new IOException("Segment of motif index is corrupt: " + path, e);
+			}
+		}
+
+		/*
+		 * Adds the hits in which the first point of the motif is at a point of this segment and the other points
+		 * of the motif are at the differences given by the keys from it.
+		 */
+		void search(long[] motifKeys, List<MotifHit> hits) {
+			final int[] starts = new int[motifKeys.length];
+			final int[] ends = new int[motifKeys.length];
+			int driver = 0;
+
+			for (int i = 0; i < motifKeys.length; ++i) {
+				final int keyIndex = findKey(motifKeys[i]);
+				if (keyIndex < 0) {
+					return;
+				}
+
+				starts[i] = getPostingsStart(keyIndex);
+				ends[i] = getPostingsStart(keyIndex + 1);
+				if (ends[i] - starts[i] < ends[driver] - starts[driver]) {
+					driver = i;
+				}
+			}
+
+			// The postings of the rarest difference vector are checked against the postings of the others.
+			final int[] secondPoints = new int[motifKeys.length];
+			for (int posting = starts[driver]; posting < ends[driver]; ++posting) {
+				final int firstPoint = getFirst(posting);
+				boolean found = true;
+
+				for (int i = 0; i < motifKeys.length && found; ++i) {
+					if (i == driver) {
+						secondPoints[i] = getSecond(posting);
+						continue;
+					}
+
+					starts[i] = findFirst(firstPoint, starts[i], ends[i]);
+					if (starts[i] == ends[i]) {
+						return;
+					}
+
+					if (getFirst(starts[i]) == firstPoint) {
+						secondPoints[i] = getSecond(starts[i]);
+					} else {
+						found = false;
+					}
+				}
+
+				if (found) {
+					hits.add(toHit(firstPoint, secondPoints));
+				}
+			}
+		}
+
+		private MotifHit toHit(int firstPoint, int[] secondPoints) {
+			final List<Position> positions = new ArrayList<>(secondPoints.length + 1);
+			positions.add(getPosition(firstPoint));
+			for (int secondPoint : secondPoints) {
+				positions.add(getPosition(secondPoint));
+			}
+
+			return new MotifHit(scoreIds[findScore(firstPoint)], new PatternPosition(positions));
+		}
+
+		private int findKey(long key) {
+			int low = 0;
+			int high = keyCount - 1;
+			while (low <= high) {
+				final int middle = (low + high) >>> 1;
+				final long middleKey = getKey(middle);
+				if (middleKey < key) {
+					low = middle + 1;
+				} else if (middleKey > key) {
+					high = middle - 1;
+				} else {
+					return middle;
+				}
+			}
+
+			return -1;
+		}
+
+		/*
+		 * Returns the first posting from start whose first point is not smaller than the given point.
+		 */
+		private int findFirst(int point, int start, int end) {
+			int low = start;
+			int high = end;
+			while (low < high) {
+				final int middle = (low + high) >>> 1;
+				if (getFirst(middle) < point) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+
+			return low;
+		}
+
+		/*
+		 * Returns the index of the score that contains the given point.
+		 */
+		private int findScore(int point) {
+			int low = 0;
+			int high = scoreIds.length - 1;
+			while (low < high) {
+				final int middle = (low + high + 1) >>> 1;
+				if (getPointsStart(middle) <= point) {
+					low = middle;
+				} else {
+					high = middle - 1;
+				}
+			}
+
+			return low;
+		}
+
+		private Position getPosition(int point) {
+			return PointSet.toPosition(getPartAndMeasure(point), getLocationInMeasure(point));
+		}
+
+		private long getSize() {
+			return buffer.capacity();
+		}
+
+		private long getPartAndMeasure(int point) {
+			return buffer.getLong(partsAndMeasuresStart + Long.BYTES * point);
+		}
+
+		private long getLocationInMeasure(int point) {
+			return buffer.getLong(locationsStart + Long.BYTES * point);
+		}
+
+		private long getKey(int keyIndex) {
+			return buffer.getLong(keysStart + Long.BYTES * keyIndex);
+		}
+
+		private int getPointsStart(int scoreIndex) {
+			return buffer.getInt(pointsStartsStart + Integer.BYTES * scoreIndex);
+		}
+
+		private int getPostingsStart(int keyIndex) {
+			return buffer.getInt(postingsStartsStart + Integer.BYTES * keyIndex);
+		}
+
+		private int getFirst(int posting) {
+			return buffer.getInt(firstsStart + Integer.BYTES * posting);
+		}
+
+		private int getSecond(int posting) {
+			return buffer.getInt(secondsStart + Integer.BYTES * posting);
+		}
+	}
+}
@@ -0,0 +1,712 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Table of the index pairs that make up the maximal translatable patterns (MTPs)
+ * of a point set.
+ * <p>
+ * For every pair of points (i, j) with i &lt; j the difference vector from point i
+ * to point j is packed into a long key. The distinct keys are stored in ascending order,
+ * which is the same as the lexicographic order of the difference vectors. The index pairs
+ * that share a difference vector are stored in contiguous ranges of primitive arrays, ordered
+ * by the first index. This way building the table only allocates a few large arrays instead of an
+ * object per pair of points.
+ * <p>
+ * The table can be limited to the pairs of points that are within a window of each other, in which
+ * case only the index pairs (i, j) whose offset difference and index difference are at most the given
+ * limits are stored. With a window the size of the table is linear in the number of points for a fixed window.
+ * If the table is limited by the index difference, the pairs of a difference vector can be further apart in index
+ * than the limit, so the table does not contain all pairs of its difference vectors (see
+ * {@link #containsAllPairsPerKey()}). The translators of the MTPs are then looked up from the point set in
+ * O(n log n) time per MTP instead of being read from the table.
+ * <p>
+ * If the point set represents several scores, the index of the score of the first point is packed into the
+ * lowest bits of the key, so that the pairs of a key are always from the same score and the MTP of a key is
+ * within a single score. The keys of the same difference vector are then adjacent in the table and the pairs of
+ * all scores with the difference vector are in a contiguous range ordered by the first index (see
+ * {@link #getVectorPairsStart(int)}). The table can also be limited to the pairs within scores and the pairs
+ * between scores whose indices differ by a given distance (see {@link #MtpTable(PointSet, int)}).
+ * <p>
+ * The table can be created with a {@link DiscoveryTolerance}, in which case the offset and pitch differences are
+ * rounded to the buckets of the tolerance before they are packed into the keys. The key of a pair is then the
+ * bucket of its difference vector and the MTP of a key contains the points that have a pair in the bucket. Each
+ * point has at most one pair per key, the one with the smallest second index, so the pairs of a key have distinct
+ * first indices. As a key no longer identifies a single difference vector, the table does not contain all pairs of
+ * its difference vectors.
+ * <p>
+ * Points can be removed from the table with {@link #removePoints(BitSet)}, which updates the table
+ * in place. Otherwise the table is not modified after it has been created. Removing points is not thread-safe.
+ */
+final class MtpTable {
+
+	/**
+	 * The largest number of index pairs that can be stored in the arrays of the table.
+	 */
+	private static final long MAX_PAIR_COUNT = Integer.MAX_VALUE - 8;
+
+	private final long[] offsets;
+	private final int[] pitches;
+	private final int[] parts;
+	private final int[] scores;
+	private final DiscoveryTolerance tolerance;
+	private final long ticksPerWholeNote;
+
+	private final int pitchBias;
+	private final int partBias;
+	private final int scoreBits;
+	private final int partShift;
+	private final int pitchShift;
+	private final int offsetShift;
+
+	private final int[] windowEnds;
+	private final int[] otherScoreStarts;
+	private final int[] otherScoreEnds;
+	private final long maxWindowOffsetDifference;
+	private final boolean allPairsPerKey;
+
+	private final long[] keys;
+	private final int[] pairsStarts;
+	private final int[] firstIndices;
+	private final int[] secondIndices;
+
+	private int[] vectorPairsStarts;
+	private int[] vectorPairsEnds;
+
+	private final BitSet removedPoints;
+	private int keyCount;
+	private int firstMtpKeyIndex;
+
+	/**
+	 * Creates the MTP table for the given point set.
+	 *
+	 * @param pointSet the point set for which the table is computed
+	 * @throws IllegalArgumentException if the point set is too large for the table
+	 */
+	MtpTable(PointSet pointSet) {
+		this(pointSet, Long.MAX_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates the MTP table for the given point set that only contains the pairs of points
+	 * that are within the given window of each other.
+	 *
+	 * @param pointSet            the point set for which the table is computed
+	 * @param maxOffsetDifference the largest offset difference of the pairs in the table
+	 * @param maxIndexDifference  the largest index difference of the pairs in the table
+	 * @throws IllegalArgumentException if the point set is too large for the table
+	 */
+	MtpTable(PointSet pointSet, long maxOffsetDifference, int maxIndexDifference) {
+		this(pointSet, maxOffsetDifference, maxIndexDifference, CancellationToken.NONE);
+	}
+
+	/**
+	 * Creates the MTP table for the given point set that only contains the pairs of points
+	 * that are within the given window of each other. The given cancellation token is checked
+	 * while the table is computed.
+	 *
+	 * @param pointSet            the point set for which the table is computed
+	 * @param maxOffsetDifference the largest offset difference of the pairs in the table
+	 * @param maxIndexDifference  the largest index difference of the pairs in the table
+	 * @param cancellationToken   the token that is checked while the table is computed
+	 * @throws IllegalArgumentException if the point set is too large for the table
+	 * @throws CancellationException    if the token is cancelled before the table is complete
+	 */
+	MtpTable(PointSet pointSet, long maxOffsetDifference, int maxIndexDifference,
+			CancellationToken cancellationToken) {
+		this(pointSet, maxOffsetDifference, maxIndexDifference, 0, DiscoveryTolerance.EXACT, cancellationToken);
+	}
+
+	/**
+	 * Creates the MTP table for the given point set whose keys are the buckets of the difference vectors
+	 * of the given tolerance. Only the pairs of points that are within the given window of each other are
+	 * included. The given cancellation token is checked while the table is computed.
+	 *
+	 * @param pointSet            the point set for which the table is computed
+	 * @param maxOffsetDifference the largest offset difference of the pairs in the table
+	 * @param maxIndexDifference  the largest index difference of the pairs in the table
+	 * @param tolerance           the tolerance with which the difference vectors are rounded
+	 * @param cancellationToken   the token that is checked while the table is computed
+	 * @throws IllegalArgumentException if the point set is too large for the table
+	 * @throws CancellationException    if the token is cancelled before the table is complete
+	 */
+	MtpTable(PointSet pointSet, long maxOffsetDifference, int maxIndexDifference, DiscoveryTolerance tolerance,
+			CancellationToken cancellationToken) {
+		this(pointSet, maxOffsetDifference, maxIndexDifference, 0, tolerance, cancellationToken);
+	}
+
+	/**
+	 * Creates the MTP table for the given point set of several scores that contains the pairs of points within
+	 * the same score and the pairs of points in scores whose indices differ by the given distance.
+	 * <p>
+	 * If the distance is zero, the table only contains the pairs within scores and all keys are MTP keys.
+	 * Otherwise only the keys of the pairs between scores are MTP keys and the keys of the pairs within scores
+	 * are only used for finding the translators of the MTPs (see {@link #getFirstMtpKeyIndex()}). Together the
+	 * tables of all distances from zero to the number of scores minus one contain the MTPs of all difference
+	 * vectors in the point set, each in one table.
+	 *
+	 * @param pointSet      the point set for which the table is computed
+	 * @param scoreDistance the difference of the indices of the scores of the pairs between scores
+	 * @throws IllegalArgumentException if the point set is too large for the table or the distance is negative
+	 */
+	MtpTable(PointSet pointSet, int scoreDistance) {
+		this(pointSet, pointSet.getMaxOffsetWithinScore(), Integer.MAX_VALUE, scoreDistance, DiscoveryTolerance.EXACT,
+				CancellationToken.NONE);
+	}
+
+	private MtpTable(PointSet pointSet, long maxOffsetDifference, int maxIndexDifference, int scoreDistance,
+			DiscoveryTolerance tolerance, CancellationToken cancellationToken) {
+		if (scoreDistance < 0) {
+			throw new IllegalArgumentException("Score distance must not be negative, was " + scoreDistance);
+		}
+
+		final int pointCount = pointSet.size();
+		this.offsets = new long[pointCount];
+		this.pitches = new int[pointCount];
+		this.parts = new int[pointCount];
+		this.scores = new int[pointCount];
+		this.tolerance = tolerance;
+		this.ticksPerWholeNote = pointSet.getTicksPerWholeNote();
+
+		int minPitch = 0;
+		int maxPitch = 0;
+		int minPart = 0;
+		int maxPart = 0;
+		long minOffset = 0;
+		long maxOffset = 0;
+
+		for (int i = 0; i < pointCount; ++i) {
+			offsets[i] = pointSet.getOffset(i);
+			pitches[i] = pointSet.getPitch(i);
+			parts[i] = pointSet.getPart(i);
+			scores[i] = pointSet.getScoreIndex(i);
+
+			if (i == 0) {
+				minPitch = maxPitch = pitches[i];
+				minPart = maxPart = parts[i];
+				minOffset = maxOffset = offsets[i];
+			} else {
+				minPitch = Math.min(minPitch, pitches[i]);
+				maxPitch = Math.max(maxPitch, pitches[i]);
+				minPart = Math.min(minPart, parts[i]);
+				maxPart = Math.max(maxPart, parts[i]);
+				minOffset = Math.min(minOffset, offsets[i]);
+				maxOffset = Math.max(maxOffset, offsets[i]);
+			}
+		}
+
+		this.windowEnds = computeWindowEnds(maxOffsetDifference, maxIndexDifference);
+		this.otherScoreStarts = new int[pointCount];
+		this.otherScoreEnds = new int[pointCount];
+		computeOtherScoreRanges(pointSet.getScoreCount(), scoreDistance);
+		this.maxWindowOffsetDifference = maxOffsetDifference;
+		// All pairs with an offset difference are within the offset limit if one of them is. The pairs between
+		// scores with a difference vector are all between scores at the same distance. The keys of a tolerance are
+		// buckets of several difference vectors.
+		this.allPairsPerKey = maxIndexDifference >= pointCount - 1 && tolerance.isExact();
+
+		long pairCount = 0;
+		for (int i = 0; i < pointCount; ++i) {
+			pairCount += windowEnds[i] - i - 1 + otherScoreEnds[i] - otherScoreStarts[i];
+		}
+
+		if (pairCount > MAX_PAIR_COUNT) {
+			throw new IllegalArgumentException(
+					"Point set with " + pointCount + " points has too many pairs of points for an MTP table");
+		}
+
+		// The differences of the pitches and parts are stored with a bias so that the fields are non-negative.
+		this.pitchBias = maxPitch - minPitch;
+		this.partBias = maxPart - minPart;
+		this.scoreBits = bitsRequired(pointSet.getScoreCount() - 1L);
+		this.partShift = scoreBits;
+		this.pitchShift = partShift + bitsRequired(2L * partBias);
+		this.offsetShift = pitchShift + bitsRequired(2L * pitchBias);
+
+		if (bitsRequired(maxOffset - minOffset) + offsetShift > Long.SIZE - 2) {
+			throw new IllegalArgumentException("Point set spans too many dimensions to be packed into an MTP table");
+		}
+
+		long[] allKeys = computeAllKeys((int) pairCount, cancellationToken);
+		final int pairs = allKeys.length;
+		this.keys = new long[countDistinct(allKeys)];
+		this.pairsStarts = new int[keys.length + 1];
+		compactKeys(allKeys);
+		// Let the keys of all pairs be collected before the index pair arrays are allocated.
+		allKeys = null;
+
+		this.firstIndices = new int[pairs];
+		this.secondIndices = new int[pairs];
+		fillIndexPairs(cancellationToken);
+
+		this.removedPoints = new BitSet(pointCount);
+		this.keyCount = keys.length;
+		this.firstMtpKeyIndex = scoreDistance == 0 ? 0 : countWindowKeys();
+		computeVectorPairRanges();
+	}
+
+	private static int bitsRequired(long maxValue) {
+		return Long.SIZE - Long.numberOfLeadingZeros(maxValue);
+	}
+
+	/*
+	 * Returns for every point the index after the last point that is within the window of it.
+	 * The points are sorted by offset, so the ends of the windows never decrease.
+	 */
+	private int[] computeWindowEnds(long maxOffsetDifference, int maxIndexDifference) {
+		final int[] ends = new int[offsets.length];
+		int end = 0;
+		for (int i = 0; i < offsets.length; ++i) {
+			final int indexLimit = (int) Math.min(offsets.length, (long) i + maxIndexDifference + 1);
+			end = Math.max(end, i + 1);
+			while (end < indexLimit && offsets[end] - offsets[i] <= maxOffsetDifference) {
+				++end;
+			}
+
+			ends[i] = end;
+		}
+
+		return ends;
+	}
+
+	/*
+	 * Stores for every point the range of the points in the score at the given distance after the score
+	 * of the point. The ranges are empty if the distance is zero or there is no such score.
+	 */
+	private void computeOtherScoreRanges(int scoreCount, int scoreDistance) {
+		final int[] scoreStarts = new int[scoreCount + 1];
+		Arrays.fill(scoreStarts, offsets.length);
+		for (int i = offsets.length - 1; i >= 0; --i) {
+			scoreStarts[scores[i]] = i;
+		}
+
+		// The points of each score are contiguous, so a score without points starts where the next one starts.
+		for (int scoreIndex = scoreCount - 1; scoreIndex >= 0; --scoreIndex) {
+			scoreStarts[scoreIndex] = Math.min(scoreStarts[scoreIndex], scoreStarts[scoreIndex + 1]);
+		}
+
+		for (int i = 0; i < offsets.length; ++i) {
+			final int otherScore = scores[i] + scoreDistance;
+			if (scoreDistance > 0 && otherScore < scoreCount) {
+				otherScoreStarts[i] = scoreStarts[otherScore];
+				otherScoreEnds[i] = scoreStarts[otherScore + 1];
+			}
+		}
+	}
+
+	/*
+	 * Returns the number of keys whose offset difference is within the offset limit of the window.
+	 * These are the first keys, because the offset difference is in the highest bits of the keys.
+	 */
+	private int countWindowKeys() {
+		int count = 0;
+		while (count < keyCount && (keys[count] >>> offsetShift) <= maxWindowOffsetDifference) {
+			++count;
+		}
+
+		return count;
+	}
+
+	/*
+	 * Stores for every key the range of the pairs of all keys with the same difference vector. The keys
+	 * differ only by the score if the point set has several scores.
+	 */
+	private void computeVectorPairRanges() {
+		if (scoreBits == 0) {
+			return;
+		}
+
+		vectorPairsStarts = new int[keyCount];
+		vectorPairsEnds = new int[keyCount];
+		int vectorStart = 0;
+		for (int keyIndex = 1; keyIndex <= keyCount; ++keyIndex) {
+			if (keyIndex == keyCount || keys[keyIndex] >>> scoreBits != keys[vectorStart] >>> scoreBits) {
+				for (int k = vectorStart; k < keyIndex; ++k) {
+					vectorPairsStarts[k] = pairsStarts[vectorStart];
+					vectorPairsEnds[k] = pairsStarts[keyIndex];
+				}
+
+				vectorStart = keyIndex;
+			}
+		}
+	}
+
+	/*
+	 * Returns the keys of all index pairs in ascending order. With a tolerance only one pair per point and key
+	 * is kept, so the returned array can be shorter than the number of pairs.
+	 */
+	private long[] computeAllKeys(int pairCount, CancellationToken cancellationToken) {
+		long[] allKeys = new long[pairCount];
+		int pairIndex = 0;
+		for (int i = 0; i < offsets.length - 1; ++i) {
+			checkCancellation(cancellationToken);
+			final int rowStart = pairIndex;
+			for (int j = i + 1; j < windowEnds[i]; ++j) {
+				allKeys[pairIndex++] = getKey(i, j);
+			}
+
+			for (int j = otherScoreStarts[i]; j < otherScoreEnds[i]; ++j) {
+				allKeys[pairIndex++] = getKey(i, j);
+			}
+
+			if (!tolerance.isExact()) {
+				pairIndex = rowStart + removeDuplicates(allKeys, rowStart, pairIndex);
+			}
+		}
+
+		if (pairIndex < pairCount) {
+			allKeys = Arrays.copyOf(allKeys, pairIndex);
+		}
+
+		Arrays.sort(allKeys);
+		return allKeys;
+	}
+
+	/*
+	 * Sorts the given range of keys and moves its distinct keys to the start of the range.
+	 * Returns the number of distinct keys.
+	 */
+	private static int removeDuplicates(long[] keys, int start, int end) {
+		Arrays.sort(keys, start, end);
+		int distinctEnd = start;
+		for (int k = start; k < end; ++k) {
+			if (k == start || keys[k] != keys[distinctEnd - 1]) {
+				keys[distinctEnd++] = keys[k];
+			}
+		}
+
+		return distinctEnd - start;
+	}
+
+	private static void checkCancellation(CancellationToken cancellationToken) {
+		if (cancellationToken.isCancelled()) {
+			throw new CancellationException("MTP table computation was cancelled");
+		}
+	}
+
+	private static int countDistinct(long[] sortedKeys) {
+		int distinctCount = 0;
+		for (int k = 0; k < sortedKeys.length; ++k) {
+			if (k == 0 || sortedKeys[k] != sortedKeys[k - 1]) {
+				++distinctCount;
+			}
+		}
+
+		return distinctCount;
+	}
+
+	/*
+	 * Stores the distinct keys and the starts of their index pair ranges
+	 * based on the runs of equal keys in the given sorted keys.
+	 */
+	private void compactKeys(long[] sortedKeys) {
+		int keyIndex = -1;
+		for (int k = 0; k < sortedKeys.length; ++k) {
+			if (k == 0 || sortedKeys[k] != sortedKeys[k - 1]) {
+				keys[++keyIndex] = sortedKeys[k];
+				pairsStarts[keyIndex] = k;
+			}
+		}
+
+		pairsStarts[keys.length] = sortedKeys.length;
+	}
+
+	/*
+	 * Places the index pairs in the ranges of their keys. The pairs are visited in the
+	 * order of the first index, so every range ends up sorted by the first index.
+	 */
+	private void fillIndexPairs(CancellationToken cancellationToken) {
+		final int[] nextFreeSlots = Arrays.copyOf(pairsStarts, keys.length);
+		for (int i = 0; i < offsets.length - 1; ++i) {
+			checkCancellation(cancellationToken);
+			// Without a tolerance the keys in a row grow with j, so the search can start from the previous key.
+			int keyIndex = 0;
+			for (int j = i + 1; j < windowEnds[i]; ++j) {
+				keyIndex = fillIndexPair(i, j, keyIndex, nextFreeSlots);
+			}
+
+			for (int j = otherScoreStarts[i]; j < otherScoreEnds[i]; ++j) {
+				keyIndex = fillIndexPair(i, j, keyIndex, nextFreeSlots);
+			}
+		}
+	}
+
+	private int fillIndexPair(int i, int j, int fromKeyIndex, int[] nextFreeSlots) {
+		if (!tolerance.isExact()) {
+			// The rounded keys in a row do not grow with j and only the first pair of the row is kept for a key.
+			final int keyIndex = Arrays.binarySearch(keys, getKey(i, j));
+			final int slot = nextFreeSlots[keyIndex];
+			if (slot == pairsStarts[keyIndex] || firstIndices[slot - 1] != i) {
+				firstIndices[slot] = i;
+				secondIndices[slot] = j;
+				++nextFreeSlots[keyIndex];
+			}
+
+			return 0;
+		}
+
+		final int keyIndex = Arrays.binarySearch(keys, fromKeyIndex, keys.length, getKey(i, j));
+		final int slot = nextFreeSlots[keyIndex]++;
+		firstIndices[slot] = i;
+		secondIndices[slot] = j;
+		return keyIndex;
+	}
+
+	/**
+	 * Removes the given points and all index pairs that contain them from this table.
+	 * <p>
+	 * The remaining index pairs are compacted in place in a single pass over the table, so
+	 * the table does not need to be recomputed. Difference vectors that no longer have any
+	 * index pairs are removed from the table. The indices of the remaining points do not change.
+	 *
+	 * @param points the indices of the points that are removed
+	 */
+	void removePoints(BitSet points) {
+		removedPoints.or(points);
+
+		int newKeyCount = 0;
+		int newPairCount = 0;
+		int newFirstMtpKeyIndex = 0;
+
+		for (int keyIndex = 0; keyIndex < keyCount; ++keyIndex) {
+			if (keyIndex == firstMtpKeyIndex) {
+				newFirstMtpKeyIndex = newKeyCount;
+			}
+
+			final int start = pairsStarts[keyIndex];
+			final int end = pairsStarts[keyIndex + 1];
+			final int newStart = newPairCount;
+
+			for (int p = start; p < end; ++p) {
+				if (!removedPoints.get(firstIndices[p]) && !removedPoints.get(secondIndices[p])) {
+					firstIndices[newPairCount] = firstIndices[p];
+					secondIndices[newPairCount] = secondIndices[p];
+					++newPairCount;
+				}
+			}
+
+			if (newPairCount > newStart) {
+				keys[newKeyCount] = keys[keyIndex];
+				pairsStarts[newKeyCount] = newStart;
+				++newKeyCount;
+			}
+		}
+
+		pairsStarts[newKeyCount] = newPairCount;
+		firstMtpKeyIndex = firstMtpKeyIndex < keyCount ? newFirstMtpKeyIndex : newKeyCount;
+		keyCount = newKeyCount;
+		computeVectorPairRanges();
+	}
+
+	/**
+	 * Returns true if every pair of points that has a difference vector in this table is in this table.
+	 * <p>
+	 * This is the case if the table is not limited by the index difference of the points. If the table
+	 * is limited only by the offset difference of the points, every pair with a difference in the
+	 * table is within the limit.
+	 *
+	 * @return true if every pair of points that has a difference vector in this table is in this table
+	 */
+	boolean containsAllPairsPerKey() {
+		return allPairsPerKey;
+	}
+
+	/**
+	 * Returns true if the keys of this table are the exact difference vectors, false if they are the buckets
+	 * of the difference vectors of a tolerance.
+	 *
+	 * @return true if the keys of this table are the exact difference vectors
+	 */
+	boolean isExact() {
+		return tolerance.isExact();
+	}
+
+	/**
+	 * Returns the index after the last point that is paired with the given point within the window of this table.
+	 *
+	 * @param pointIndex the index of the point
+	 * @return the index after the last point that is paired with the given point within the window of this table
+	 */
+	int getWindowEnd(int pointIndex) {
+		return windowEnds[pointIndex];
+	}
+
+	/**
+	 * Returns true if the point with the given index has been removed from this table.
+	 *
+	 * @param pointIndex the index of the point
+	 * @return true if the point with the given index has been removed from this table
+	 */
+	boolean isRemoved(int pointIndex) {
+		return removedPoints.get(pointIndex);
+	}
+
+	/**
+	 * Returns the number of distinct keys in this table. The keys are the distinct difference vectors
+	 * if the point set has only one score.
+	 *
+	 * @return the number of distinct keys in this table
+	 */
+	int size() {
+		return keyCount;
+	}
+
+	/**
+	 * Returns the index of the first key whose MTP is used in pattern discovery. The keys before it are only
+	 * used for finding the translators of the MTPs. This is zero unless the table was created for
+	 * a distance of scores with {@link #MtpTable(PointSet, int)}.
+	 *
+	 * @return the index of the first key whose MTP is used in pattern discovery
+	 */
+	int getFirstMtpKeyIndex() {
+		return firstMtpKeyIndex;
+	}
+
+	/**
+	 * Returns the number of index pairs in this table.
+	 *
+	 * @return the number of index pairs in this table
+	 */
+	int getIndexPairCount() {
+		return pairsStarts[keyCount];
+	}
+
+	/**
+	 * Returns the packed key of the difference vector from the point at index i to the point at index j.
+	 * If this table has a tolerance, the key is the one of the bucket of the difference vector.
+	 *
+	 * @param i the index of the point from which the difference is computed
+	 * @param j the index of the point to which the difference is computed
+	 * @return the packed key of the difference vector from the point at index i to the point at index j
+	 */
+	long getKey(int i, int j) {
+		long offsetDifference = offsets[j] - offsets[i];
+		int pitchDifference = pitches[j] - pitches[i];
+		if (!tolerance.isExact()) {
+			offsetDifference = tolerance.bucketOffsetDifference(offsetDifference, ticksPerWholeNote);
+			pitchDifference = tolerance.bucketPitchDifference(pitchDifference);
+		}
+
+		final long pitchField = pitchDifference + pitchBias;
+		final long partField = parts[j] - parts[i] + partBias;
+
+		return (offsetDifference << offsetShift) | (pitchField << pitchShift) | (partField << partShift)
+				| scores[i];
+	}
+
+	/**
+	 * Returns the index of the given key in this table or -1 if the key is not in this table.
+	 *
+	 * @param key the packed difference key
+	 * @return the index of the given key in this table or -1 if the key is not in this table
+	 */
+	int indexOf(long key) {
+		final int index = Arrays.binarySearch(keys, 0, keyCount, key);
+		return index >= 0 ? index : -1;
+	}
+
+	/**
+	 * Returns the index of the first index pair of all keys with the same difference vector as the key at
+	 * the given key index. The index pairs of the difference vector are in a contiguous range ordered by the first
+	 * index. The range is the same as the range of the key if the point set has only one score.
+	 *
+	 * @param keyIndex the index of the difference key
+	 * @return the index of the first index pair with the difference vector of the given key index
+	 */
+	int getVectorPairsStart(int keyIndex) {
+		return scoreBits == 0 ? pairsStarts[keyIndex] : vectorPairsStarts[keyIndex];
+	}
+
+	/**
+	 * Returns the index after the last index pair of all keys with the same difference vector as the key at
+	 * the given key index.
+	 *
+	 * @param keyIndex the index of the difference key
+	 * @return the index after the last index pair with the difference vector of the given key index
+	 * @see #getVectorPairsStart(int)
+	 */
+	int getVectorPairsEnd(int keyIndex) {
+		return scoreBits == 0 ? pairsStarts[keyIndex + 1] : vectorPairsEnds[keyIndex];
+	}
+
+	/**
+	 * Returns the number of index pairs of all keys with the same difference vector as the key at
+	 * the given key index.
+	 *
+	 * @param keyIndex the index of the difference key
+	 * @return the number of index pairs with the difference vector of the given key index
+	 * @see #getVectorPairsStart(int)
+	 */
+	int getVectorPairCount(int keyIndex) {
+		return getVectorPairsEnd(keyIndex) - getVectorPairsStart(keyIndex);
+	}
+
+	/**
+	 * Returns the index of the first index pair with the difference at the given key index.
+	 *
+	 * @param keyIndex the index of the difference key
+	 * @return the index of the first index pair with the difference at the given key index
+	 */
+	int getPairsStart(int keyIndex) {
+		return pairsStarts[keyIndex];
+	}
+
+	/**
+	 * Returns the index after the last index pair with the difference at the given key index.
+	 *
+	 * @param keyIndex the index of the difference key
+	 * @return the index after the last index pair with the difference at the given key index
+	 */
+	int getPairsEnd(int keyIndex) {
+		return pairsStarts[keyIndex + 1];
+	}
+
+	/**
+	 * Returns the number of index pairs with the difference at the given key index.
+	 *
+	 * @param keyIndex the index of the difference key
+	 * @return the number of index pairs with the difference at the given key index
+	 */
+	int getPairCount(int keyIndex) {
+		return pairsStarts[keyIndex + 1] - pairsStarts[keyIndex];
+	}
+
+	/**
+	 * Returns the index of the pair of the given key whose first point is the given point or -1 if there is no
+	 * such pair. If there are several such pairs, the index of any one of them is returned.
+	 *
+	 * @param keyIndex   the index of the difference key
+	 * @param pointIndex the index of the first point of the pair
+	 * @return the index of the pair of the given key whose first point is the given point or -1
+	 */
+	int indexOfPair(int keyIndex, int pointIndex) {
+		final int index = Arrays.binarySearch(firstIndices, pairsStarts[keyIndex], pairsStarts[keyIndex + 1],
+				pointIndex);
+		return index >= 0 ? index : -1;
+	}
+
+	/**
+	 * Returns the index of the point from which the difference of the given pair is computed.
+	 *
+	 * @param pairIndex the index of the index pair
+	 * @return the index of the point from which the difference of the given pair is computed
+	 */
+	int getFirst(int pairIndex) {
+		return firstIndices[pairIndex];
+	}
+
+	/**
+	 * Returns the index of the point to which the difference of the given pair is computed.
+	 *
+	 * @param pairIndex the index of the index pair
+	 * @return the index of the point to which the difference of the given pair is computed
+	 */
+	int getSecond(int pairIndex) {
+		return secondIndices[pairIndex];
+	}
+}
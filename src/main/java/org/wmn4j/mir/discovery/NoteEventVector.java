@@ -7,6 +7,12 @@ package org.wmn4j.mir.discovery;
  * Vector representation of a note event. NoteEventVectors are
  * ordered lexicographically.
  * <p>
+ * The offset of a note event is represented exactly as a whole number of ticks.
+ * The duration of a tick is the same for all note events in a point set and it is
+ * chosen so that all offsets in the point set are whole numbers of ticks
+ * (see {@link PointSet#getTicksPerWholeNote()}). This way all arithmetic, comparisons
+ * and hashing of vectors use only integer operations without any rounding.
+ * <p>
  * This class is immutable.
  */
 final class NoteEventVector implements Comparable<NoteEventVector> {
@@ -17,37 +23,25 @@ final class NoteEventVector implements Comparable<NoteEventVector> {
 	private static final long HASH_MULTIPLIER_3 = RandomMultipliers.INSTANCE.getMultiplier(3);
 	private static final long HASH_MULTIPLIER_4 = RandomMultipliers.INSTANCE.getMultiplier(4);
 
-	private static final int OFFSET_PLACES = 8;
-	private static final double ROUNDING_FACTOR = Math.pow(10, OFFSET_PLACES);
-
-	/**
-	 * The raw offset value is only used for computations internally. Comparisons and
-	 * hashes use the rounded offset value.
-	 */
-	private final double rawOffset;
-	private final double roundedOffset;
+	private final long offset;
 	private final int pitch;
 	private final int part;
 	private final int hash;
 
-	NoteEventVector(double offset, int pitch, int part) {
-		this.rawOffset = offset;
-		/*
-		 * This rounding is necessary to ensure that values close to each other
-		 * are considered equal and produce the same hash.
-		 * This rounding method is slightly flawed and will not work
-		 * if greater precision is needed. Due to the limited types of
-		 * offsets that duration values should produce, this is expected
-		 * to work well enough.
-		 */
-		this.roundedOffset = Math.round(rawOffset * ROUNDING_FACTOR) / ROUNDING_FACTOR;
+	NoteEventVector(long offset, int pitch, int part) {
+		this.offset = offset;
 		this.pitch = pitch;
 		this.part = part;
 		this.hash = computeHash();
 	}
 
-	double getRoundedOffset() {
-		return roundedOffset;
+	/**
+	 * Returns the offset of this vector in ticks.
+	 *
+	 * @return the offset of this vector in ticks
+	 */
+	long getOffset() {
+		return offset;
 	}
 
 	int getPitch() {
@@ -59,25 +53,17 @@ final class NoteEventVector implements Comparable<NoteEventVector> {
 	}
 
 	NoteEventVector add(NoteEventVector other) {
-		final double offsetSum = rawOffset + other.rawOffset;
-		final int pitchSum = pitch + other.getPitch();
-		final int partSum = part + other.getPart();
-
-		return new NoteEventVector(offsetSum, pitchSum, partSum);
+		return new NoteEventVector(offset + other.offset, pitch + other.pitch, part + other.part);
 	}
 
 	NoteEventVector subtract(NoteEventVector other) {
-		final double offsetDifference = rawOffset - other.rawOffset;
-		final int pitchDifference = pitch - other.getPitch();
-		final int partDifference = part - other.getPart();
-
-		return new NoteEventVector(offsetDifference, pitchDifference, partDifference);
+		return new NoteEventVector(offset - other.offset, pitch - other.pitch, part - other.part);
 	}
 
 	@Override
 	public int compareTo(NoteEventVector other) {
 
-		final int offsetComparison = Double.compare(roundedOffset, other.roundedOffset);
+		final int offsetComparison = Long.compare(offset, other.offset);
 		if (offsetComparison != 0) {
 			return offsetComparison;
 		}
@@ -101,7 +87,7 @@ final class NoteEventVector implements Comparable<NoteEventVector> {
 		}
 
 		final NoteEventVector other = (NoteEventVector) o;
-		return this.compareTo(other) == 0;
+		return offset == other.offset && pitch == other.pitch && part == other.part;
 	}
 
 	private int computeHash() {
@@ -112,10 +98,9 @@ final class NoteEventVector implements Comparable<NoteEventVector> {
 		 */
 		long hash = HASH_MULTIPLIER_0;
 
-		final long bits = Double.doubleToRawLongBits(roundedOffset);
-		final int firstOffsetPart = (int) (bits >> 32);
+		final int firstOffsetPart = (int) (offset >> 32);
 		hash += firstOffsetPart * HASH_MULTIPLIER_1;
-		final int secondOffsetPart = (int) bits;
+		final int secondOffsetPart = (int) offset;
 		hash += secondOffsetPart * HASH_MULTIPLIER_2;
 
 		hash += pitch * HASH_MULTIPLIER_3;
@@ -133,7 +118,7 @@ final class NoteEventVector implements Comparable<NoteEventVector> {
 	public String toString() {
 		final StringBuilder strBuilder = new StringBuilder();
 		final String separator = ", ";
-		strBuilder.append("(").append(roundedOffset).append(separator).append(pitch).append(separator).append(part)
+		strBuilder.append("(").append(offset).append(separator).append(pitch).append(separator).append(part)
 				.append(")");
 
 		return strBuilder.toString();
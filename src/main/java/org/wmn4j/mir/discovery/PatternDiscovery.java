@@ -6,6 +6,8 @@ import org.wmn4j.notation.Score;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents the result of pattern discovery on score.
@@ -41,6 +43,45 @@ public interface PatternDiscovery {
 		return allPatterns;
 	}
 
+	/**
+	 * Returns a view of the repeated patterns found by this pattern discovery in which each pattern is
+	 * extracted from the score only when it is accessed.
+	 * <p>
+	 * The patterns are the same and in the same order as the ones returned by {@link #getPatterns()}.
+	 * At most the given number of the most recently accessed patterns are kept in memory, and the
+	 * other patterns are extracted again if they are accessed again. The returned view is unmodifiable.
+	 *
+	 * @param maxCachedPatterns the maximum number of patterns kept in memory, zero for extracting
+	 *                          the pattern on every access
+	 * @return a view of the repeated patterns found by this pattern discovery
+	 * @throws IllegalArgumentException if maxCachedPatterns is negative
+	 */
+	default Collection<Collection<Pattern>> getPatternView(int maxCachedPatterns) {
+		return new PatternView(getScore(), getPatternPositions(), maxCachedPatterns);
+	}
+
+	/**
+	 * Returns the first occurrence of each repeated pattern found by this pattern discovery.
+	 * <p>
+	 * The patterns are in the same order as the collections returned by {@link #getPatterns()}.
+	 *
+	 * @return the first occurrence of each repeated pattern found by this pattern discovery
+	 */
+	default List<Pattern> getRepresentativePatterns() {
+		final Collection<Collection<PatternPosition>> allPatternPositions = getPatternPositions();
+		final List<Pattern> representatives = new ArrayList<>(allPatternPositions.size());
+
+		final Score score = getScore();
+
+		for (Collection<PatternPosition> positions : allPatternPositions) {
+			if (!positions.isEmpty()) {
+				representatives.add(score.getAt(positions.iterator().next()));
+			}
+		}
+
+		return Collections.unmodifiableList(representatives);
+	}
+
 	/**
 	 * Returns the positions of the repeated patterns found by this pattern discovery.
 	 * <p>
@@ -57,4 +98,16 @@ public interface PatternDiscovery {
 	 * @return the score to which this pattern discovery applies
 	 */
 	Score getScore();
+
+	/**
+	 * Returns true if this pattern discovery ran to completion.
+	 * <p>
+	 * Pattern discovery that was stopped before it was complete, for example with a {@link CancellationToken},
+	 * contains only the patterns found before it was stopped.
+	 *
+	 * @return true if this pattern discovery ran to completion
+	 */
+	default boolean isComplete() {
+		return true;
+	}
 }
@@ -0,0 +1,82 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.mir.PatternPosition;
+
+import java.util.Objects;
+
+/**
+ * Represents an exact or partial occurrence of a query pattern in a score found with {@link PatternQuery}.
+ * This class is immutable.
+ */
+public final class PatternMatch {
+
+	private final PatternPosition patternPosition;
+	private final int matchedNoteCount;
+	private final int queryNoteCount;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param patternPosition  the position of the matched notes in the score
+	 * @param matchedNoteCount the number of notes of the query that were matched
+	 * @param queryNoteCount   the number of distinct notes in the query
+	 * @throws NullPointerException     if patternPosition is null
+	 * @throws IllegalArgumentException if matchedNoteCount is not between 1 and queryNoteCount
+	 */
+	PatternMatch(PatternPosition patternPosition, int matchedNoteCount, int queryNoteCount) {
+		if (matchedNoteCount < 1 || matchedNoteCount > queryNoteCount) {
+			throw new IllegalArgumentException(
+					"Matched note count must be between 1 and " + queryNoteCount + ", was " + matchedNoteCount);
+		}
+
+		this.patternPosition = Objects.requireNonNull(patternPosition);
+		this.matchedNoteCount = matchedNoteCount;
+		this.queryNoteCount = queryNoteCount;
+	}
+
+	/**
+	 * Returns the position of the matched notes in the score.
+	 *
+	 * @return the position of the matched notes in the score
+	 */
+	public PatternPosition getPatternPosition() {
+		return patternPosition;
+	}
+
+	/**
+	 * Returns the number of notes of the query that were matched by notes in the score.
+	 *
+	 * @return the number of notes of the query that were matched by notes in the score
+	 */
+	public int getMatchedNoteCount() {
+		return matchedNoteCount;
+	}
+
+	/**
+	 * Returns the fraction of the notes of the query that were matched by notes in the score.
+	 * The fraction is 1.0 for exact occurrences of the query.
+	 *
+	 * @return the fraction of the notes of the query that were matched by notes in the score
+	 */
+	public double getMatchRatio() {
+		return (double) matchedNoteCount / queryNoteCount;
+	}
+
+	/**
+	 * Returns true if all notes of the query were matched by notes in the score.
+	 *
+	 * @return true if all notes of the query were matched by notes in the score
+	 */
+	public boolean isExact() {
+		return matchedNoteCount == queryNoteCount;
+	}
+
+	@Override
+	public String toString() {
+		return "PatternMatch(" + matchedNoteCount + "/" + queryNoteCount + " notes in measures "
+				+ patternPosition.getMeasureNumbers() + ")";
+	}
+}
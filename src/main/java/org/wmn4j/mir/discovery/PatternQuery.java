@@ -0,0 +1,386 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.mir.Pattern;
+import org.wmn4j.mir.PatternPosition;
+import org.wmn4j.notation.Score;
+import org.wmn4j.notation.access.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Finds the exact and partial occurrences of query patterns in a score with the SIAMESE algorithm [1].
+ * <p>
+ * [1] Wiggins, Geraint A., Lemström, Kjell, and Meredith, David: SIA(M)ESE: An algorithm for transposition
+ * invariant, polyphonic content-based music retrieval. In Proceedings of the 3rd International Conference on
+ * Music Information Retrieval (ISMIR 2002), pages 283-284, 2002.
+ * <p>
+ * The score and the query are represented as point sets like in {@link GeometricPatternDiscovery}. Every
+ * translation from a point of the query to a point of the score is a vote for an occurrence of the query
+ * at that translation, and the number of votes for a translation is the number of notes of the query that
+ * are matched at it. The translations from each query point to the sorted points of the score are in
+ * ascending order, so the translations are counted by merging these sequences with a heap of primitive values.
+ * The time complexity of a query is O(mn log m) for a query with m notes and a score with n notes, and
+ * only the matches are stored in memory.
+ * <p>
+ * With the default projection the occurrences are transposition invariant and all notes of an occurrence are
+ * in the same part. The occurrences in which the notes are in several parts are found with a projection that
+ * ignores the parts, such as one returned by {@link PointProjections#withoutParts(PointProjection)}.
+ * <p>
+ * The point set of the score is computed once when the query object is created, so the same object should be
+ * used for several queries on the same score. This class is immutable.
+ */
+public final class PatternQuery {
+
+	private final Score score;
+	private final PointProjection projection;
+	private final PointSet pointSet;
+	private final int[] distinctIndices;
+
+	/**
+	 * Constructor for querying patterns in the given score using the chromatic projection of notes to points.
+	 *
+	 * @param score the score in which the patterns are searched
+	 * @throws NullPointerException if score is null
+	 */
+	public PatternQuery(Score score) {
+		this(score, PointProjections.CHROMATIC);
+	}
+
+	/**
+	 * Constructor for querying patterns in the given score using the given projection of notes to points.
+	 *
+	 * @param score      the score in which the patterns are searched
+	 * @param projection the projection of the notes of the score and the queries to points
+	 * @throws NullPointerException if score or projection is null
+	 */
+	public PatternQuery(Score score, PointProjection projection) {
+		this.score = Objects.requireNonNull(score);
+		this.projection = Objects.requireNonNull(projection);
+		this.pointSet = new PointSet(score, projection);
+		this.distinctIndices = findDistinctIndices(pointSet);
+	}
+
+	/*
+	 * Returns the indices of the first points of the runs of equal points in the sorted point set.
+	 */
+	private static int[] findDistinctIndices(PointSet pointSet) {
+		final int[] indices = new int[pointSet.size()];
+		int count = 0;
+
+		for (int i = 0; i < pointSet.size(); ++i) {
+			if (i == 0 || pointSet.getOffset(i) != pointSet.getOffset(i - 1)
+					|| pointSet.getPitch(i) != pointSet.getPitch(i - 1)
+					|| pointSet.getPart(i) != pointSet.getPart(i - 1)) {
+				indices[count++] = i;
+			}
+		}
+
+		final int[] distinct = new int[count];
+		System.arraycopy(indices, 0, distinct, 0, count);
+		return distinct;
+	}
+
+	/**
+	 * Returns the score in which the patterns are searched.
+	 *
+	 * @return the score in which the patterns are searched
+	 */
+	public Score getScore() {
+		return score;
+	}
+
+	/**
+	 * Returns the occurrences of the given query pattern in the score in which at least the given fraction of the
+	 * notes of the query are matched.
+	 * <p>
+	 * The notes of the query are the notes in all voices of the pattern. Notes that are projected to the same
+	 * point are counted once. The returned matches are ranked by the number of matched notes, the best match first.
+	 * Matches with equal numbers of matched notes are in the order of the onsets of their first matched notes in
+	 * the score. Matches whose first matched notes begin at the same time are in the lexicographic order of their
+	 * translations, which is by offset, then pitch and then part.
+	 *
+	 * @param query         the pattern whose occurrences are searched
+	 * @param minMatchRatio the smallest fraction of the notes of the query that must be matched, greater than
+	 *                      0.0 and at most 1.0, where 1.0 returns only the exact occurrences of the query
+	 * @return the occurrences of the query in the score ranked by the number of matched notes
+	 * @throws NullPointerException     if query is null
+	 * @throws IllegalArgumentException if minMatchRatio is not greater than 0.0 and at most 1.0 or
+	 *                                  if the query contains no notes
+	 */
+	public List<PatternMatch> findMatches(Pattern query, double minMatchRatio) {
+		Objects.requireNonNull(query);
+		if (!(minMatchRatio > 0.0 && minMatchRatio <= 1.0)) {
+			throw new IllegalArgumentException(
+					"Minimum match ratio must be greater than 0.0 and at most 1.0, was " + minMatchRatio);
+		}
+
+		// The query and the score are compared in ticks that represent the durations of both exactly.
+		final long queryTicks = PointSet.computeTicksPerWholeNote(query);
+		final long ticks = PointSet.leastCommonMultiple(pointSet.getTicksPerWholeNote(), queryTicks);
+		final long scoreScale = ticks / pointSet.getTicksPerWholeNote();
+
+		final List<NoteEventVector> queryPoints = new ArrayList<>(PointSet.toPoints(query, projection, ticks));
+		if (queryPoints.isEmpty()) {
+			throw new IllegalArgumentException("Query must contain at least one note");
+		}
+
+		if (distinctIndices.length == 0) {
+			return Collections.emptyList();
+		}
+
+		final TranslationKeys translationKeys = new TranslationKeys(queryPoints, scoreScale);
+		final TranslationHeap heap = new TranslationHeap(queryPoints.size());
+		final int[] cursors = new int[queryPoints.size()];
+		final List<RankedMatch> matches = new ArrayList<>();
+
+		for (int queryIndex = 0; queryIndex < queryPoints.size(); ++queryIndex) {
+			heap.push(translationKeys.getKey(queryIndex, distinctIndices[0]), queryIndex);
+		}
+
+		while (!heap.isEmpty()) {
+			final long key = heap.peekKey();
+
+			// The translations of each query point are distinct, so every query point votes at most once for a key.
+			int votes = 0;
+			while (!heap.isEmpty() && heap.peekKey() == key) {
+				final int queryIndex = heap.pop();
+				++votes;
+
+				if (++cursors[queryIndex] < distinctIndices.length) {
+					heap.push(translationKeys.getKey(queryIndex, distinctIndices[cursors[queryIndex]]), queryIndex);
+				}
+			}
+
+			if ((double) votes / queryPoints.size() >= minMatchRatio) {
+				matches.add(toMatch(translationKeys, key, queryPoints, scoreScale));
+			}
+		}
+
+		// The matches are found in the order of their translations, which the stable sort keeps for ties.
+		matches.sort(RankedMatch.BEST_FIRST);
+		final List<PatternMatch> rankedMatches = new ArrayList<>(matches.size());
+		for (RankedMatch match : matches) {
+			rankedMatches.add(match.match);
+		}
+
+		return Collections.unmodifiableList(rankedMatches);
+	}
+
+	/**
+	 * A match with the onset of its first matched note in the ticks of the comparison.
+	 */
+	private static final class RankedMatch {
+		private static final Comparator<RankedMatch> BEST_FIRST = Comparator
+				.comparingInt((RankedMatch rankedMatch) -> rankedMatch.match.getMatchedNoteCount()).reversed()
+				.thenComparingLong(rankedMatch -> rankedMatch.firstOnset);
+
+		private final PatternMatch match;
+		private final long firstOnset;
+
+		RankedMatch(PatternMatch match, long firstOnset) {
+			this.match = match;
+			this.firstOnset = firstOnset;
+		}
+	}
+
+	private RankedMatch toMatch(TranslationKeys translationKeys, long key, List<NoteEventVector> queryPoints,
+			long scoreScale) {
+		final long offsetTranslation = translationKeys.getOffset(key);
+		final int pitchTranslation = translationKeys.getPitch(key);
+		final int partTranslation = translationKeys.getPart(key);
+
+		final List<Position> positions = new ArrayList<>(queryPoints.size());
+		long firstOnset = Long.MAX_VALUE;
+		for (NoteEventVector queryPoint : queryPoints) {
+			final long offset = queryPoint.getOffset() + offsetTranslation;
+			if (offset % scoreScale != 0) {
+				continue;
+			}
+
+			final int index = pointSet.indexOf(offset / scoreScale, queryPoint.getPitch() + pitchTranslation,
+					queryPoint.getPart() + partTranslation);
+			if (index >= 0) {
+				positions.add(pointSet.getPosition(index));
+				firstOnset = Math.min(firstOnset, offset);
+			}
+		}
+
+		return new RankedMatch(new PatternMatch(new PatternPosition(positions), positions.size(), queryPoints.size()),
+				firstOnset);
+	}
+
+	/**
+	 * Packs the translations from the query points to the points of the score into long keys whose order
+	 * is the lexicographic order of the translations.
+	 */
+	private final class TranslationKeys {
+		private final long[] queryOffsets;
+		private final int[] queryPitches;
+		private final int[] queryParts;
+		private final long scoreScale;
+
+		private final long offsetBias;
+		private final int pitchBias;
+		private final int partBias;
+		private final int partBits;
+		private final int offsetShift;
+
+		TranslationKeys(List<NoteEventVector> queryPoints, long scoreScale) {
+			this.scoreScale = scoreScale;
+			this.queryOffsets = new long[queryPoints.size()];
+			this.queryPitches = new int[queryPoints.size()];
+			this.queryParts = new int[queryPoints.size()];
+
+			for (int i = 0; i < queryPoints.size(); ++i) {
+				queryOffsets[i] = queryPoints.get(i).getOffset();
+				queryPitches[i] = queryPoints.get(i).getPitch();
+				queryParts[i] = queryPoints.get(i).getPart();
+			}
+
+			final long minScoreOffset = Math.multiplyExact(pointSet.getOffset(0), scoreScale);
+			final long maxScoreOffset = Math.multiplyExact(pointSet.getOffset(pointSet.size() - 1), scoreScale);
+			int minScorePitch = pointSet.getPitch(0);
+			int maxScorePitch = minScorePitch;
+			int minScorePart = pointSet.getPart(0);
+			int maxScorePart = minScorePart;
+			for (int i = 1; i < pointSet.size(); ++i) {
+				minScorePitch = Math.min(minScorePitch, pointSet.getPitch(i));
+				maxScorePitch = Math.max(maxScorePitch, pointSet.getPitch(i));
+				minScorePart = Math.min(minScorePart, pointSet.getPart(i));
+				maxScorePart = Math.max(maxScorePart, pointSet.getPart(i));
+			}
+
+			// The query points are sorted by offset, but the pitches and parts need to be searched.
+			final long minQueryOffset = queryOffsets[0];
+			final long maxQueryOffset = queryOffsets[queryOffsets.length - 1];
+			int minQueryPitch = queryPitches[0];
+			int maxQueryPitch = minQueryPitch;
+			int minQueryPart = queryParts[0];
+			int maxQueryPart = minQueryPart;
+			for (int i = 1; i < queryOffsets.length; ++i) {
+				minQueryPitch = Math.min(minQueryPitch, queryPitches[i]);
+				maxQueryPitch = Math.max(maxQueryPitch, queryPitches[i]);
+				minQueryPart = Math.min(minQueryPart, queryParts[i]);
+				maxQueryPart = Math.max(maxQueryPart, queryParts[i]);
+			}
+
+			// The translations are stored with a bias so that the fields are non-negative.
+			this.offsetBias = maxQueryOffset - minScoreOffset;
+			this.pitchBias = maxQueryPitch - minScorePitch;
+			this.partBias = maxQueryPart - minScorePart;
+			this.partBits = bitsRequired((long) maxScorePart - minScorePart + maxQueryPart - minQueryPart);
+			this.offsetShift = partBits
+					+ bitsRequired((long) maxScorePitch - minScorePitch + maxQueryPitch - minQueryPitch);
+
+			final long offsetRange = Math.addExact(maxScoreOffset - minScoreOffset, maxQueryOffset - minQueryOffset);
+			if (bitsRequired(offsetRange) + offsetShift > Long.SIZE - 1) {
+				throw new IllegalArgumentException("Score and query span too many dimensions to be compared");
+			}
+		}
+
+		private int bitsRequired(long maxValue) {
+			return Long.SIZE - Long.numberOfLeadingZeros(maxValue);
+		}
+
+		long getKey(int queryIndex, int pointIndex) {
+			final long offsetField = pointSet.getOffset(pointIndex) * scoreScale - queryOffsets[queryIndex]
+					+ offsetBias;
+			final long pitchField = (long) pointSet.getPitch(pointIndex) - queryPitches[queryIndex] + pitchBias;
+			final long partField = (long) pointSet.getPart(pointIndex) - queryParts[queryIndex] + partBias;
+
+			return (offsetField << offsetShift) | (pitchField << partBits) | partField;
+		}
+
+		long getOffset(long key) {
+			return (key >>> offsetShift) - offsetBias;
+		}
+
+		int getPitch(long key) {
+			return (int) (((key >>> partBits) & ((1L << (offsetShift - partBits)) - 1)) - pitchBias);
+		}
+
+		int getPart(long key) {
+			return (int) ((key & ((1L << partBits) - 1)) - partBias);
+		}
+	}
+
+	/**
+	 * Binary min-heap of translation keys and the indices of the query points from which they are computed.
+	 */
+	private static final class TranslationHeap {
+		private final long[] keys;
+		private final int[] queryIndices;
+		private int size;
+
+		TranslationHeap(int capacity) {
+			this.keys = new long[capacity];
+			this.queryIndices = new int[capacity];
+			this.size = 0;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		long peekKey() {
+			return keys[0];
+		}
+
+		void push(long key, int queryIndex) {
+			int child = size++;
+			while (child > 0) {
+				final int parent = (child - 1) >>> 1;
+				if (keys[parent] <= key) {
+					break;
+				}
+
+				keys[child] = keys[parent];
+				queryIndices[child] = queryIndices[parent];
+				child = parent;
+			}
+
+			keys[child] = key;
+			queryIndices[child] = queryIndex;
+		}
+
+		/*
+		 * Removes the smallest key and returns the query index of it.
+		 */
+		int pop() {
+			final int result = queryIndices[0];
+			final long key = keys[--size];
+			final int queryIndex = queryIndices[size];
+
+			int parent = 0;
+			while (true) {
+				int child = 2 * parent + 1;
+				if (child >= size) {
+					break;
+				}
+
+				if (child + 1 < size && keys[child + 1] < keys[child]) {
+					++child;
+				}
+
+				if (key <= keys[child]) {
+					break;
+				}
+
+				keys[parent] = keys[child];
+				queryIndices[parent] = queryIndices[child];
+				parent = child;
+			}
+
+			keys[parent] = key;
+			queryIndices[parent] = queryIndex;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.mir.Pattern;
+import org.wmn4j.mir.PatternPosition;
+import org.wmn4j.notation.Score;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unmodifiable view of the patterns at the positions found by pattern discovery.
+ * <p>
+ * Each pattern is extracted from the score only when it is accessed. The extracted patterns are kept in a
+ * cache of bounded size from which the least recently used pattern is removed when the cache is full.
+ * <p>
+ * This class is thread-safe.
+ */
+final class PatternView extends AbstractList<Collection<Pattern>> {
+
+	private final Score score;
+	private final List<List<PatternPosition>> positions;
+	private final Map<Long, Pattern> cache;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param score             the score from which the patterns are extracted
+	 * @param positions         the positions of the occurrences of the patterns
+	 * @param maxCachedPatterns the maximum number of extracted patterns that are kept in the cache
+	 * @throws IllegalArgumentException if maxCachedPatterns is negative
+	 */
+	PatternView(Score score, Collection<Collection<PatternPosition>> positions, int maxCachedPatterns) {
+		if (maxCachedPatterns < 0) {
+			throw new IllegalArgumentException(
+					"Maximum number of cached patterns must be non-negative, was " + maxCachedPatterns);
+		}
+
+		this.score = score;
+		this.positions = new ArrayList<>(positions.size());
+		for (Collection<PatternPosition> patternPositions : positions) {
+			this.positions.add(new ArrayList<>(patternPositions));
+		}
+
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Pattern> eldest) {
+				return size() > maxCachedPatterns;
+			}
+		};
+	}
+
+	@Override
+	public Collection<Pattern> get(int patternIndex) {
+		final List<PatternPosition> patternPositions = positions.get(patternIndex);
+
+		return new AbstractList<>() {
+			@Override
+			public Pattern get(int occurrenceIndex) {
+				return getPattern(patternIndex, occurrenceIndex, patternPositions.get(occurrenceIndex));
+			}
+
+			@Override
+			public int size() {
+				return patternPositions.size();
+			}
+		};
+	}
+
+	@Override
+	public int size() {
+		return positions.size();
+	}
+
+	private Pattern getPattern(int patternIndex, int occurrenceIndex, PatternPosition position) {
+		final Long key = ((long) patternIndex << Integer.SIZE) | occurrenceIndex;
+
+		synchronized (cache) {
+			final Pattern cachedPattern = cache.get(key);
+			if (cachedPattern != null) {
+				return cachedPattern;
+			}
+		}
+
+		// The pattern is extracted outside the lock so that other threads can access the cache meanwhile.
+		final Pattern pattern = score.getAt(position);
+
+		synchronized (cache) {
+			cache.put(key, pattern);
+		}
+
+		return pattern;
+	}
+}
@@ -89,10 +89,10 @@ final class PointPattern implements Iterable<NoteEventVector> {
 		long hash = RandomMultipliers.INSTANCE.getMultiplier(multiplierIndex++);
 
 		for (NoteEventVector point : this.points) {
-			final long bits = Double.doubleToRawLongBits(point.getRoundedOffset());
-			final int firstOffsetPart = (int) (bits >> 32);
+			final long offset = point.getOffset();
+			final int firstOffsetPart = (int) (offset >> 32);
 			hash += firstOffsetPart * RandomMultipliers.INSTANCE.getMultiplier(multiplierIndex++);
-			final int secondOffsetPart = (int) bits;
+			final int secondOffsetPart = (int) offset;
 			hash += secondOffsetPart * RandomMultipliers.INSTANCE.getMultiplier(multiplierIndex++);
 
 			hash += point.getPitch() * RandomMultipliers.INSTANCE.getMultiplier(multiplierIndex++);
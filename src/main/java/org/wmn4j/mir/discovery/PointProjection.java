@@ -0,0 +1,35 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.notation.Pitch;
+
+/**
+ * Represents the projection of the notes in a score to the points used in geometric pattern discovery.
+ * <p>
+ * The time dimension of the points is always the onset of the note. The projection determines the values of
+ * the pitch and part dimensions of the points. Notes that are projected to points with the same onset, pitch
+ * and part are considered equal in pattern discovery. Common projections are available in {@link PointProjections}.
+ * <p>
+ * Implementations of this interface must be stateless so that the same projection can be used for
+ * different scores.
+ */
+public interface PointProjection {
+
+	/**
+	 * Returns the value of the pitch dimension of the point for a note with the given pitch.
+	 *
+	 * @param pitch the pitch of the note
+	 * @return the value of the pitch dimension of the point for a note with the given pitch
+	 */
+	int projectPitch(Pitch pitch);
+
+	/**
+	 * Returns the value of the part dimension of the point for a note in the part with the given index.
+	 *
+	 * @param partIndex the index of the part of the note in the score
+	 * @return the value of the part dimension of the point for a note in the part with the given index
+	 */
+	int projectPart(int partIndex);
+}
@@ -0,0 +1,79 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.notation.Pitch;
+
+import java.util.Objects;
+
+/**
+ * Basic projections of notes to points for geometric pattern discovery.
+ */
+public final class PointProjections {
+
+	/**
+	 * Projection that uses the pitch as an integer as given by {@link Pitch#toInt()} and the index of the part.
+	 * This is the default projection in pattern discovery.
+	 */
+	public static final PointProjection CHROMATIC = new PartPreservingProjection() {
+		@Override
+		public int projectPitch(Pitch pitch) {
+			return pitch.toInt();
+		}
+	};
+
+	/**
+	 * Projection that uses the number of diatonic steps from C0 to the letter of the pitch and the index of the part.
+	 * The alteration of the pitch is ignored, so that for example C4 and C#4 are both projected to 28.
+	 * With this projection the patterns are found regardless of the size of their intervals in half steps,
+	 * which finds the repetitions of a motif at different degrees of a scale.
+	 */
+	public static final PointProjection DIATONIC = new PartPreservingProjection() {
+		@Override
+		public int projectPitch(Pitch pitch) {
+			return pitch.getOctave() * DIATONIC_STEPS_IN_OCTAVE + pitch.getBase().ordinal();
+		}
+	};
+
+	private static final int DIATONIC_STEPS_IN_OCTAVE = 7;
+
+	/**
+	 * Returns a projection that projects the pitches like the given projection but projects all parts to the
+	 * same value, so that patterns are found across parts.
+	 *
+	 * @param projection the projection used for the pitches
+	 * @return a projection that projects the pitches like the given projection and ignores the parts
+	 * @throws NullPointerException if projection is null
+	 */
+	public static PointProjection withoutParts(PointProjection projection) {
+		Objects.requireNonNull(projection);
+
+		return new PointProjection() {
+			@Override
+			public int projectPitch(Pitch pitch) {
+				return projection.projectPitch(pitch);
+			}
+
+			@Override
+			public int projectPart(int partIndex) {
+				return 0;
+			}
+		};
+	}
+
+	/**
+	 * Base class for the projections that use the index of the part as is.
+	 */
+	private abstract static class PartPreservingProjection implements PointProjection {
+		@Override
+		public int projectPart(int partIndex) {
+			return partIndex;
+		}
+	}
+
+	private PointProjections() {
+		// Not meant to be instantiated.
+		throw new AssertionError();
+	}
+}
@@ -3,125 +3,629 @@
  */
 package org.wmn4j.mir.discovery;
 
+import org.wmn4j.mir.Pattern;
 import org.wmn4j.mir.PatternPosition;
 import org.wmn4j.notation.Chord;
+import org.wmn4j.notation.Duration;
 import org.wmn4j.notation.Durational;
-import org.wmn4j.notation.Measure;
 import org.wmn4j.notation.Note;
 import org.wmn4j.notation.Score;
-import org.wmn4j.notation.access.PartWiseScoreIterator;
+import org.wmn4j.notation.access.ColumnarScore;
 import org.wmn4j.notation.access.Position;
 
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * Point set representation of a score.
  * The points are sorted lexicographically in the point set.
  * <p>
+ * The offsets of the points are expressed as whole numbers of ticks. The number of ticks
+ * in a whole note is the least common multiple of the denominators of all durations in the score,
+ * so that every offset in the score is exactly a whole number of ticks. The pitch and part
+ * dimensions of the points are given by a {@link PointProjection}.
+ * <p>
+ * The coordinates of the points are stored in primitive arrays in the sorted order of the points
+ * and the score position of each point is packed into two longs at the same index, so that no
+ * objects need to be stored per point. The {@link Position} of a point is created only when it is requested.
+ * <p>
+ * A point set can represent several scores in a shared point space. Each score occupies its own band of
+ * offsets and the bands are so far apart that the offset difference between points in different scores is
+ * always larger than the offset difference between any two points in the same score. The index of the score
+ * of a point is given by the band of its offset.
+ * <p>
  * This class is immutable.
  */
 final class PointSet {
 
-	private final List<NoteEventVector> points;
-	private final Map<NoteEventVector, Position> positions;
+	private static final int INITIAL_CAPACITY = 64;
+	private static final String NO_POSITION_MESSAGE = "No position for vector ";
+
+	/*
+	 * The bit widths of the fields in the packed locations of the points within measures.
+	 * The index in chord is stored incremented by one so that notes that are not in chords have zero.
+	 */
+	private static final int LOCATION_FIELD_BITS = 16;
+	private static final int LOCATION_FIELD_MASK = (1 << LOCATION_FIELD_BITS) - 1;
+	private static final int VOICE_SHIFT = LOCATION_FIELD_BITS;
+	private static final int INDEX_IN_VOICE_SHIFT = 2 * LOCATION_FIELD_BITS;
+	private static final int STAFF_SHIFT = 3 * LOCATION_FIELD_BITS;
+
+	private final long ticksPerWholeNote;
+	private final int scoreCount;
+	private final long maxOffsetWithinScore;
+	private final long bandWidth;
+	private long[] offsets;
+	private int[] pitches;
+	private int[] parts;
+	private long[] partsAndMeasures;
+	private long[] locationsInMeasures;
+	private int size;
 
 	PointSet(Score score) {
-		this.positions = new HashMap<>();
-		this.points = this.pointsFromScore(score);
+		this(score, PointProjections.CHROMATIC);
+	}
+
+	PointSet(Score score, PointProjection projection) {
+		this(Collections.singletonList(score), projection);
+	}
+
+	PointSet(List<Score> scores, PointProjection projection) {
+		this(scores, projection, DiscoveryTolerance.EXACT);
+	}
+
+	/**
+	 * Creates the point set representation of the given scores in a shared point space.
+	 *
+	 * @param scores     the scores that are represented in the point set
+	 * @param projection the projection of the notes to points
+	 * @param tolerance  the tolerance whose time tolerance must be a whole number of ticks in the offsets
+	 * @throws IllegalArgumentException if there are no scores
+	 */
+	PointSet(List<Score> scores, PointProjection projection, DiscoveryTolerance tolerance) {
+		if (scores.isEmpty()) {
+			throw new IllegalArgumentException("Point set requires at least one score");
+		}
+
+		final List<ColumnarScore> columnarScores = new ArrayList<>(scores.size());
+		// The time tolerance must be a whole number of ticks for the offset differences to be rounded exactly.
+		long ticks = tolerance.getRequiredTicksPerWholeNote();
+		for (Score score : scores) {
+			final ColumnarScore columnarScore = ColumnarScore.of(score);
+			columnarScores.add(columnarScore);
+			ticks = leastCommonMultiple(ticks, columnarScore.getTicksPerWholeNote());
+		}
+
+		this.ticksPerWholeNote = ticks;
+		this.scoreCount = scores.size();
+		this.offsets = new long[INITIAL_CAPACITY];
+		this.pitches = new int[INITIAL_CAPACITY];
+		this.parts = new int[INITIAL_CAPACITY];
+		this.partsAndMeasures = new long[INITIAL_CAPACITY];
+		this.locationsInMeasures = new long[INITIAL_CAPACITY];
+		this.size = 0;
+
+		final int[] scoreStarts = new int[scoreCount + 1];
+		for (int scoreIndex = 0; scoreIndex < scoreCount; ++scoreIndex) {
+			scoreStarts[scoreIndex] = size;
+			pointsFromScore(columnarScores.get(scoreIndex), projection);
+		}
+		scoreStarts[scoreCount] = size;
+
+		long maxOffset = 0;
+		for (int i = 0; i < size; ++i) {
+			maxOffset = Math.max(maxOffset, offsets[i]);
+		}
+
+		// Offsets within a score are between zero and the largest offset, so with bands of this width
+		// points in different scores are always further apart than the largest offset.
+		this.maxOffsetWithinScore = maxOffset;
+		this.bandWidth = Math.addExact(Math.multiplyExact(2, maxOffset), 1);
+
+		for (int scoreIndex = 1; scoreIndex < scoreCount; ++scoreIndex) {
+			final long bandStart = Math.multiplyExact(bandWidth, scoreIndex);
+			for (int i = scoreStarts[scoreIndex]; i < scoreStarts[scoreIndex + 1]; ++i) {
+				offsets[i] += bandStart;
+			}
+		}
+
+		sortPoints();
 	}
 
 	int size() {
-		return this.points.size();
+		return this.size;
+	}
+
+	/**
+	 * Returns the number of ticks in a whole note in the offsets of the points in this point set.
+	 *
+	 * @return the number of ticks in a whole note in the offsets of the points in this point set
+	 */
+	long getTicksPerWholeNote() {
+		return ticksPerWholeNote;
+	}
+
+	/**
+	 * Returns the number of scores represented in this point set.
+	 *
+	 * @return the number of scores represented in this point set
+	 */
+	int getScoreCount() {
+		return scoreCount;
+	}
+
+	/**
+	 * Returns the index of the score of the point at the given index.
+	 *
+	 * @param index the index of the point
+	 * @return the index of the score of the point at the given index
+	 */
+	int getScoreIndex(int index) {
+		checkIndex(index);
+		return (int) (offsets[index] / bandWidth);
+	}
+
+	/**
+	 * Returns an offset difference that is at least as large as the offset difference of any two points
+	 * in the same score and smaller than the offset difference of any two points in different scores.
+	 *
+	 * @return an upper limit of the offset difference between points in the same score
+	 */
+	long getMaxOffsetWithinScore() {
+		return maxOffsetWithinScore;
 	}
 
 	Position getPosition(NoteEventVector vector) {
-		if (!positions.containsKey(vector)) {
-			throw new NoSuchElementException("No position for vector " + vector);
+		final int index = indexOf(vector);
+		if (index < 0) {
+			throw new NoSuchElementException(NO_POSITION_MESSAGE + vector);
 		}
 
-		return positions.get(vector);
+		return getPosition(index);
+	}
+
+	PatternPosition getPosition(PointPattern pattern) {
+		return getPosition(pattern, new NoteEventVector(0, 0, 0));
 	}
 
 	PatternPosition getPosition(PointPattern pattern, NoteEventVector translator) {
 		List<Position> positions = new ArrayList<>(pattern.size());
 
 		for (NoteEventVector point : pattern) {
-			final NoteEventVector translated = point.add(translator);
-			positions.add(getPosition(translated));
+			final int index = indexOf(point.getOffset() + translator.getOffset(),
+					point.getPitch() + translator.getPitch(), point.getPart() + translator.getPart());
+			if (index < 0) {
+				throw new NoSuchElementException(NO_POSITION_MESSAGE + point.add(translator));
+			}
+
+			positions.add(getPosition(index));
 		}
 
 		return new PatternPosition(positions);
 	}
 
+	/**
+	 * Updates the given digest with the contents of this point set.
+	 * <p>
+	 * The coordinates, the score positions and the scores of all points are included, so two point sets
+	 * give the same digest only if they have the same points at the same positions.
+	 *
+	 * @param digest the digest that is updated with the contents of this point set
+	 */
+	void updateDigest(MessageDigest digest) {
+		// The buffer holds the fields of one point, which is more than the fields of the header.
+		final ByteBuffer buffer = ByteBuffer.allocate(3 * Long.BYTES + 2 * Integer.BYTES);
+
+		buffer.putLong(ticksPerWholeNote).putLong(bandWidth).putInt(size);
+		digest.update(buffer.array(), 0, buffer.position());
+
+		for (int i = 0; i < size; ++i) {
+			buffer.clear();
+			buffer.putLong(offsets[i]).putInt(pitches[i]).putInt(parts[i]).putLong(partsAndMeasures[i])
+					.putLong(locationsInMeasures[i]);
+			digest.update(buffer.array(), 0, buffer.position());
+		}
+	}
+
+	/**
+	 * Returns the position of the notes of the given pattern translated by the given translator together with
+	 * the index of their score.
+	 * <p>
+	 * The notes of the pattern must all be in the same score. Then the translated notes are also in the same score,
+	 * because a translation moves all points of a band of offsets to the same band.
+	 *
+	 * @param pattern    the pattern whose translated notes are returned
+	 * @param translator the translator of the pattern
+	 * @return the position of the notes of the translated pattern in their score
+	 */
+	CorpusPatternPosition getCorpusPosition(PointPattern pattern, NoteEventVector translator) {
+		final PatternPosition position = getPosition(pattern, translator);
+		final long firstOffset = pattern.get(0).getOffset() + translator.getOffset();
+
+		return new CorpusPatternPosition((int) (firstOffset / bandWidth), position);
+	}
+
+	/**
+	 * Returns the position in the score of the note of the point at the given index.
+	 *
+	 * @param index the index of the point
+	 * @return the position in the score of the note of the point at the given index
+	 */
+	Position getPosition(int index) {
+		checkIndex(index);
+		return toPosition(partsAndMeasures[index], locationsInMeasures[index]);
+	}
+
+	/**
+	 * Returns the part index and the measure number of the note of the point at the given index packed into a long.
+	 * The position of the note can be unpacked with {@link #toPosition(long, long)}.
+	 *
+	 * @param index the index of the point
+	 * @return the packed part index and measure number of the note of the point at the given index
+	 */
+	long getPackedPartAndMeasure(int index) {
+		checkIndex(index);
+		return partsAndMeasures[index];
+	}
+
+	/**
+	 * Returns the location of the note of the point at the given index in its measure packed into a long.
+	 * The position of the note can be unpacked with {@link #toPosition(long, long)}.
+	 *
+	 * @param index the index of the point
+	 * @return the packed location of the note of the point at the given index in its measure
+	 */
+	long getPackedLocationInMeasure(int index) {
+		checkIndex(index);
+		return locationsInMeasures[index];
+	}
+
+	/**
+	 * Returns the position of a note from its packed part index, measure number and location in measure.
+	 *
+	 * @param partAndMeasure the packed part index and measure number of the note
+	 * @param location       the packed location of the note in its measure
+	 * @return the position of the note
+	 */
+	static Position toPosition(long partAndMeasure, long location) {
+		return new Position((int) (partAndMeasure >> Integer.SIZE), locationField(location, STAFF_SHIFT),
+				(int) partAndMeasure, locationField(location, VOICE_SHIFT),
+				locationField(location, INDEX_IN_VOICE_SHIFT), locationField(location, 0) - 1);
+	}
+
+	private static int locationField(long location, int shift) {
+		return (int) (location >>> shift) & LOCATION_FIELD_MASK;
+	}
+
 	NoteEventVector get(int index) {
-		return this.points.get(index);
-	}
-
-	private List<NoteEventVector> pointsFromScore(Score score) {
-
-		final PartWiseScoreIterator scoreIterator = new PartWiseScoreIterator(score);
-		Position prevPos = null;
-		double fullMeasuresOffset = 0.0;
-		double offsetWithinMeasure = 0.0;
-		final List<NoteEventVector> noteEvents = new ArrayList<>();
-
-		while (scoreIterator.hasNext()) {
-			final Durational dur = scoreIterator.next();
-			final Position pos = scoreIterator.getPositionOfPrevious();
-
-			// Part changes
-			if (prevPos != null && prevPos.getPartIndex() != pos.getPartIndex()) {
-				fullMeasuresOffset = 0.0;
-				offsetWithinMeasure = 0.0;
-			} else if (prevPos != null && prevPos.getMeasureNumber() != pos.getMeasureNumber()) {
-				// Measure changes.
-				final Measure prevMeasure = score.getPart(prevPos.getPartIndex()).getMeasure(prevPos.getStaffNumber(),
-						prevPos.getMeasureNumber());
-				final double prevMeasureDuration = prevMeasure.getTimeSignature().getTotalDuration().toDouble();
-				fullMeasuresOffset += prevMeasureDuration;
-				offsetWithinMeasure = 0.0;
-			} else if (prevPos != null && (prevPos.getVoiceNumber() != pos.getVoiceNumber()
-					|| prevPos.getStaffNumber() != pos.getStaffNumber())) {
-				// Voice or staff changes
-				offsetWithinMeasure = 0.0;
+		checkIndex(index);
+		return new NoteEventVector(offsets[index], pitches[index], parts[index]);
+	}
+
+	/**
+	 * Returns the offset of the point at the given index.
+	 *
+	 * @param index the index of the point
+	 * @return the offset of the point at the given index
+	 */
+	long getOffset(int index) {
+		checkIndex(index);
+		return offsets[index];
+	}
+
+	/**
+	 * Returns the pitch of the point at the given index.
+	 *
+	 * @param index the index of the point
+	 * @return the pitch of the point at the given index
+	 */
+	int getPitch(int index) {
+		checkIndex(index);
+		return pitches[index];
+	}
+
+	/**
+	 * Returns the part of the point at the given index.
+	 *
+	 * @param index the index of the point
+	 * @return the part of the point at the given index
+	 */
+	int getPart(int index) {
+		checkIndex(index);
+		return parts[index];
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for point set of size " + size);
+		}
+	}
+
+	/**
+	 * Returns the index of a point that is equal to the given vector or a negative value if there
+	 * is no such point in this point set. The returned negative value is the same as the one returned by
+	 * {@link java.util.Collections#binarySearch(List, Object)}.
+	 *
+	 * @param vector the vector that is searched from this point set
+	 * @return the index of a point that is equal to the given vector or a negative value if there is
+	 * no such point in this point set
+	 */
+	int indexOf(NoteEventVector vector) {
+		return indexOf(vector.getOffset(), vector.getPitch(), vector.getPart());
+	}
+
+	/**
+	 * Returns the index of a point with the given coordinates or a negative value if there
+	 * is no such point in this point set.
+	 *
+	 * @param offset the offset of the point
+	 * @param pitch  the pitch of the point
+	 * @param part   the part of the point
+	 * @return the index of a point with the given coordinates or a negative value if there is
+	 * no such point in this point set
+	 * @see #indexOf(NoteEventVector)
+	 */
+	int indexOf(long offset, int pitch, int part) {
+		return binarySearch(0, size - 1, offset, pitch, part);
+	}
+
+	/**
+	 * Returns the smallest index of a point with the given coordinates when the point is known to be at or before
+	 * the given index, or a negative value if there is no such point at or before the given index.
+	 * <p>
+	 * The search goes backwards from the given index in exponentially growing steps, so it is fast
+	 * when the point is close to the given index. The same index is returned for all points that are equal.
+	 *
+	 * @param offset the offset of the point
+	 * @param pitch  the pitch of the point
+	 * @param part   the part of the point
+	 * @param last   the largest index at which the point can be
+	 * @return the smallest index of a point with the given coordinates or a negative value if there is no such point
+	 * at or before the given index
+	 */
+	int firstIndexAtOrBefore(long offset, int pitch, int part, int last) {
+		checkIndex(last);
+
+		int high = last;
+		int step = 1;
+		int low = last;
+		while (low > 0 && compare(low, offset, pitch, part) > 0) {
+			high = low - 1;
+			low = Math.max(0, last - step);
+			step <<= 1;
+		}
+
+		int index = binarySearch(low, high, offset, pitch, part);
+		while (index > 0 && compare(index - 1, offset, pitch, part) == 0) {
+			--index;
+		}
+
+		return index;
+	}
+
+	private int binarySearch(int fromIndex, int toIndex, long offset, int pitch, int part) {
+		int low = fromIndex;
+		int high = toIndex;
+
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final int comparison = compare(middle, offset, pitch, part);
+
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+
+		return -(low + 1);
+	}
+
+	/*
+	 * Compares the point at the given index to the given coordinates in the same order as
+	 * NoteEventVector.compareTo.
+	 */
+	private int compare(int index, long offset, int pitch, int part) {
+		final int offsetComparison = Long.compare(offsets[index], offset);
+		if (offsetComparison != 0) {
+			return offsetComparison;
+		}
+
+		final int pitchComparison = Integer.compare(pitches[index], pitch);
+		if (pitchComparison != 0) {
+			return pitchComparison;
+		}
+
+		return Integer.compare(parts[index], part);
+	}
+
+	/**
+	 * Returns the smallest number of ticks in a whole note with which the onsets of all notes in the
+	 * given pattern are whole numbers of ticks.
+	 *
+	 * @param pattern the pattern
+	 * @return the number of ticks in a whole note for the given pattern
+	 */
+	static long computeTicksPerWholeNote(Pattern pattern) {
+		long ticks = 1;
+		for (int voiceNumber : pattern.getVoiceNumbers()) {
+			for (Durational durational : pattern.getVoice(voiceNumber)) {
+				ticks = leastCommonMultiple(ticks, durational.getDuration().getDenominator());
 			}
+		}
+
+		return ticks;
+	}
 
-			if (hasOnset(dur)) {
-				final double totalOffset = fullMeasuresOffset + offsetWithinMeasure;
-
-				if (dur instanceof Note) {
-					final int pitch = ((Note) dur).getPitch().toInt();
-					final NoteEventVector vector = new NoteEventVector(totalOffset, pitch, pos.getPartIndex());
-					noteEvents.add(vector);
-					positions.put(vector, pos);
-				} else {
-					final Chord chord = (Chord) dur;
-					for (int chordIndex = 0; chordIndex < chord.getNoteCount(); ++chordIndex) {
-						final int pitch = chord.getNote(chordIndex).getPitch().toInt();
-						Position positionInChord = new Position(pos.getPartIndex(), pos.getStaffNumber(),
-								pos.getMeasureNumber(), pos.getVoiceNumber(), pos.getIndexInVoice(), chordIndex);
-						final NoteEventVector vector = new NoteEventVector(totalOffset, pitch,
-								positionInChord.getPartIndex());
-						noteEvents.add(vector);
-						positions.put(vector, positionInChord);
+	/**
+	 * Returns the distinct points of the notes in all voices of the given pattern in ascending order.
+	 * <p>
+	 * Each voice starts at offset zero and all points are in the part to which the first part is projected.
+	 *
+	 * @param pattern           the pattern whose notes are projected to points
+	 * @param projection        the projection of the notes to points
+	 * @param ticksPerWholeNote the number of ticks in a whole note in the offsets of the points, must be a multiple
+	 *                          of the value returned by {@link #computeTicksPerWholeNote(Pattern)}
+	 * @return the distinct points of the notes in the given pattern in ascending order
+	 */
+	static SortedSet<NoteEventVector> toPoints(Pattern pattern, PointProjection projection,
+			long ticksPerWholeNote) {
+		final SortedSet<NoteEventVector> points = new TreeSet<>();
+		final int part = projection.projectPart(0);
+
+		for (int voiceNumber : pattern.getVoiceNumbers()) {
+			long offset = 0;
+			for (Durational durational : pattern.getVoice(voiceNumber)) {
+				if (hasOnset(durational)) {
+					if (durational instanceof Note) {
+						points.add(new NoteEventVector(offset, projection.projectPitch(((Note) durational).getPitch()),
+								part));
+					} else {
+						for (Note note : (Chord) durational) {
+							points.add(new NoteEventVector(offset, projection.projectPitch(note.getPitch()), part));
+						}
 					}
 				}
+
+				final Duration duration = durational.getDuration();
+				final long ticksPerDenominator = ticksPerWholeNote / duration.getDenominator();
+				offset = Math.addExact(offset, Math.multiplyExact(ticksPerDenominator, (long) duration.getNumerator()));
+			}
+		}
+
+		return points;
+	}
+
+	static long leastCommonMultiple(long a, long b) {
+		long x = a;
+		long y = b;
+		while (y != 0) {
+			final long remainder = x % y;
+			x = y;
+			y = remainder;
+		}
+
+		return Math.multiplyExact(a / x, b);
+	}
+
+	private void pointsFromScore(ColumnarScore notes, PointProjection projection) {
+		final long scale = ticksPerWholeNote / notes.getTicksPerWholeNote();
+
+		for (int row = 0; row < notes.size(); ++row) {
+			// Notes in chords have onsets even if they are tied from previous notes, like in hasOnset.
+			if (notes.getIndexInChord(row) < 0 && notes.isTiedFromPrevious(row)) {
+				continue;
 			}
 
-			// Update
-			offsetWithinMeasure += dur.getDuration().toDouble();
-			prevPos = pos;
+			addPoint(Math.multiplyExact(notes.getOnset(row), scale), projection.projectPitch(notes.getPitch(row)),
+					projection.projectPart(notes.getPartIndex(row)), notes, row);
+		}
+	}
+
+	/*
+	 * Adds a point for the note at the given row of the columnar score.
+	 */
+	private void addPoint(long offset, int pitch, int part, ColumnarScore notes, int row) {
+		if (size == offsets.length) {
+			final int capacity = Math.multiplyExact(size, 2);
+			offsets = Arrays.copyOf(offsets, capacity);
+			pitches = Arrays.copyOf(pitches, capacity);
+			parts = Arrays.copyOf(parts, capacity);
+			partsAndMeasures = Arrays.copyOf(partsAndMeasures, capacity);
+			locationsInMeasures = Arrays.copyOf(locationsInMeasures, capacity);
+		}
+
+		offsets[size] = offset;
+		pitches[size] = pitch;
+		parts[size] = part;
+		partsAndMeasures[size] = ((long) notes.getPartIndex(row) << Integer.SIZE)
+				| (notes.getMeasureNumber(row) & 0xFFFFFFFFL);
+		locationsInMeasures[size] = (toLocationField(notes.getStaffNumber(row)) << STAFF_SHIFT)
+				| (toLocationField(notes.getIndexInVoice(row)) << INDEX_IN_VOICE_SHIFT)
+				| (toLocationField(notes.getVoiceNumber(row)) << VOICE_SHIFT)
+				| toLocationField(notes.getIndexInChord(row) + 1);
+		++size;
+	}
+
+	private static long toLocationField(int value) {
+		if (value < 0 || value > LOCATION_FIELD_MASK) {
+			throw new IllegalArgumentException("Position field " + value + " is out of the supported range from 0 to "
+					+ LOCATION_FIELD_MASK);
+		}
+
+		return value;
+	}
+
+	/*
+	 * Sorts the points lexicographically and trims the arrays to the number of points.
+	 */
+	private void sortPoints() {
+		final int[] order = new int[size];
+		for (int i = 0; i < size; ++i) {
+			order[i] = i;
+		}
+
+		mergeSort(order, new int[size], 0, size);
+
+		final long[] sortedOffsets = new long[size];
+		final int[] sortedPitches = new int[size];
+		final int[] sortedParts = new int[size];
+		final long[] sortedPartsAndMeasures = new long[size];
+		final long[] sortedLocationsInMeasures = new long[size];
+
+		for (int i = 0; i < size; ++i) {
+			sortedOffsets[i] = offsets[order[i]];
+			sortedPitches[i] = pitches[order[i]];
+			sortedParts[i] = parts[order[i]];
+			sortedPartsAndMeasures[i] = partsAndMeasures[order[i]];
+			sortedLocationsInMeasures[i] = locationsInMeasures[order[i]];
+		}
+
+		offsets = sortedOffsets;
+		pitches = sortedPitches;
+		parts = sortedParts;
+		partsAndMeasures = sortedPartsAndMeasures;
+		locationsInMeasures = sortedLocationsInMeasures;
+	}
+
+	/*
+	 * Stable merge sort of the point indices in the given range by the coordinates of the points.
+	 */
+	private void mergeSort(int[] order, int[] buffer, int start, int end) {
+		if (end - start < 2) {
+			return;
+		}
+
+		final int middle = (start + end) >>> 1;
+		mergeSort(order, buffer, start, middle);
+		mergeSort(order, buffer, middle, end);
+
+		System.arraycopy(order, start, buffer, start, end - start);
+		int left = start;
+		int right = middle;
+		for (int i = start; i < end; ++i) {
+			if (right >= end || (left < middle && comparePoints(buffer[left], buffer[right]) <= 0)) {
+				order[i] = buffer[left++];
+			} else {
+				order[i] = buffer[right++];
+			}
 		}
+	}
 
-		noteEvents.sort(NoteEventVector::compareTo);
-		return noteEvents;
+	private int comparePoints(int first, int second) {
+		return compare(first, offsets[second], pitches[second], parts[second]);
 	}
 
-	private boolean hasOnset(Durational dur) {
+	static boolean hasOnset(Durational dur) {
 		if (dur.isRest()) {
 			return false;
 		}
@@ -140,8 +644,8 @@ final class PointSet {
 	public String toString() {
 		final StringBuilder strBuilder = new StringBuilder();
 
-		for (NoteEventVector vec : this.points) {
-			strBuilder.append(vec).append("\n");
+		for (int i = 0; i < size; ++i) {
+			strBuilder.append(get(i)).append("\n");
 		}
 
 		return strBuilder.toString();
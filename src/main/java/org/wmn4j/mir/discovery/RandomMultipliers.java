@@ -3,47 +3,58 @@
  */
 package org.wmn4j.mir.discovery;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Random;
 
 /**
  * Generates and caches random multipliers for use in hash functions.
- * NOTE: This class is not thread-safe.
+ * <p>
+ * This class is thread-safe. Reading already generated multipliers does not require locking.
  */
 enum RandomMultipliers {
 	INSTANCE;
 
 	private static final int INCREMENT = 50;
-	private final List<Long> multipliers;
+	private final Random random;
+	private volatile long[] multipliers;
 
 	RandomMultipliers() {
-		this.multipliers = new ArrayList<>();
-		this.generateMultipliers(100);
+		this.random = new Random();
+		this.multipliers = generateMultipliers(new long[0], 100);
 	}
 
-	private void generateMultipliers(int count) {
-		final Random random = new Random();
-		for (int i = 0; i < count; ++i) {
-
-			this.multipliers.add(random.nextLong());
+	private long[] generateMultipliers(long[] current, int count) {
+		final long[] extended = Arrays.copyOf(current, current.length + count);
+		for (int i = current.length; i < extended.length; ++i) {
+			extended[i] = random.nextLong();
 		}
+
+		return extended;
 	}
 
 	/**
 	 * Returns a random multiplier at the given index.
 	 * The multiplier is guaranteed to be the same on subsequent calls with the same index.
-	 * NOTE: This method is not thread-safe.
 	 *
 	 * @param index the index of the multiplier
 	 * @return a random multiplier at the given index
 	 */
 	long getMultiplier(int index) {
+		long[] current = this.multipliers;
+		if (index >= current.length) {
+			current = extendToInclude(index);
+		}
+
+		return current[index];
+	}
 
-		while (this.multipliers.size() < index + INCREMENT) {
-			this.generateMultipliers(INCREMENT);
+	private synchronized long[] extendToInclude(int index) {
+		long[] current = this.multipliers;
+		if (index >= current.length) {
+			current = generateMultipliers(current, index + INCREMENT - current.length);
+			this.multipliers = current;
 		}
 
-		return this.multipliers.get(index);
+		return current;
 	}
 }
@@ -4,11 +4,18 @@
 package org.wmn4j.mir.discovery;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Implementation of the SIATECHF algorithm.
@@ -16,180 +23,657 @@ import java.util.Set;
 final class Siatechf {
 
 	/**
-	 * Utility class for keeping track of a pair of indices.
+	 * The number of key ranges per thread into which the MTP keys are split in parallel computation.
+	 * Having more ranges than threads balances the uneven amount of work per key.
 	 */
-	private static class IndexPair {
-		private final int first;
-		private final int second;
+	private static final int RANGES_PER_THREAD = 16;
 
-		IndexPair(int first, int second) {
-			this.first = first;
-			this.second = second;
+	/**
+	 * Returns all TECs in the given point set whose compression ratio exceeds the
+	 * given minimum.
+	 *
+	 * @param pointSet            the point set for which tecs are computed
+	 * @param minCompressionRatio the minimum compression ratio of the given TECs
+	 * @return all TECs in the given point set whose compression ratio exceeds the
+	 * given minimum
+	 */
+	static List<Tec> computeMtpTecs(PointSet pointSet, double minCompressionRatio) {
+		return computeMtpTecs(pointSet, new MtpTable(pointSet), minCompressionRatio);
+	}
+
+	/**
+	 * Returns all TECs in the given point set whose compression ratio exceeds the
+	 * given minimum using the MTPs in the given table.
+	 * <p>
+	 * If the table is limited to a window, only the MTPs of the differences in the window are used,
+	 * but the translators of the TECs are searched from the whole point set.
+	 *
+	 * @param pointSet            the point set for which tecs are computed
+	 * @param mtpTable            the MTP table of the point set
+	 * @param minCompressionRatio the minimum compression ratio of the given TECs
+	 * @return all TECs in the given point set whose compression ratio exceeds the
+	 * given minimum
+	 */
+	static List<Tec> computeMtpTecs(PointSet pointSet, MtpTable mtpTable, double minCompressionRatio) {
+		final List<Tec> tecs = new ArrayList<>();
+		new TecIterator(pointSet, mtpTable, minCompressionRatio, CancellationToken.NONE, new SiatechfMetrics())
+				.forEachRemaining(tecs::add);
+
+		return tecs;
+	}
+
+	/**
+	 * Returns an iterator over the TECs in the given point set whose compression ratio exceeds the
+	 * given minimum.
+	 * <p>
+	 * The MTP table of the point set is computed when this method is called, but the TECs are
+	 * computed one by one as the iterator is advanced. The iterator returns the same TECs in
+	 * the same order as {@link #computeMtpTecs(PointSet, double)}.
+	 *
+	 * @param pointSet            the point set for which tecs are computed
+	 * @param minCompressionRatio the minimum compression ratio of the given TECs
+	 * @return an iterator over the TECs in the given point set whose compression ratio exceeds the
+	 * given minimum
+	 */
+	static Iterator<Tec> iterateMtpTecs(PointSet pointSet, double minCompressionRatio) {
+		return iterateMtpTecs(pointSet, new MtpTable(pointSet), minCompressionRatio);
+	}
+
+	/**
+	 * Returns an iterator over the TECs in the given point set whose compression ratio exceeds the
+	 * given minimum using the MTPs in the given table.
+	 * <p>
+	 * The iterator returns the same TECs in the same order as {@link #computeMtpTecs(PointSet, MtpTable, double)}.
+	 *
+	 * @param pointSet            the point set for which tecs are computed
+	 * @param mtpTable            the MTP table of the point set
+	 * @param minCompressionRatio the minimum compression ratio of the given TECs
+	 * @return an iterator over the TECs in the given point set whose compression ratio exceeds the
+	 * given minimum
+	 */
+	static Iterator<Tec> iterateMtpTecs(PointSet pointSet, MtpTable mtpTable, double minCompressionRatio) {
+		return new TecIterator(pointSet, mtpTable, minCompressionRatio, CancellationToken.NONE,
+				new SiatechfMetrics());
+	}
+
+	/**
+	 * Iterator that computes the TECs by going through the MTP keys in ascending order.
+	 * The iteration ends early if the cancellation token is cancelled.
+	 */
+	private static final class TecIterator implements Iterator<Tec> {
+		private final PointSet pointSet;
+		private final MtpTable mtpTable;
+		private final double minCompressionRatio;
+		private final CancellationToken cancellationToken;
+		private final SiatechfMetrics metrics;
+		private final TranslatorSearch translatorSearch;
+		private final Set<VectorizedMtp> vectorizedMtps;
+		private int nextKeyIndex;
+		private Tec nextTec;
+
+		TecIterator(PointSet pointSet, MtpTable mtpTable, double minCompressionRatio,
+				CancellationToken cancellationToken, SiatechfMetrics metrics) {
+			this.pointSet = pointSet;
+			this.mtpTable = mtpTable;
+			this.minCompressionRatio = minCompressionRatio;
+			this.cancellationToken = cancellationToken;
+			this.metrics = metrics;
+			this.translatorSearch = new TranslatorSearch();
+			this.vectorizedMtps = new HashSet<>();
+			this.nextKeyIndex = mtpTable.getFirstMtpKeyIndex();
+			this.nextTec = null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (nextTec == null && nextKeyIndex < mtpTable.size() && !cancellationToken.isCancelled()) {
+				nextTec = computeNextTec(nextKeyIndex++);
+			}
+
+			return nextTec != null;
+		}
+
+		@Override
+		public Tec next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("No more TECs");
+			}
+
+			final Tec tec = nextTec;
+			nextTec = null;
+			return tec;
 		}
 
-		int getFirst() {
-			return first;
+		/*
+		 * Returns true if the iterator has gone through all MTPs. This is false if the iteration ended
+		 * because the cancellation token was cancelled.
+		 */
+		boolean isComplete() {
+			return nextKeyIndex >= mtpTable.size();
 		}
 
-		int getSecond() {
-			return second;
+		private Tec computeNextTec(int keyIndex) {
+			final int[] patternIndices = computeMtp(keyIndex, mtpTable);
+
+			metrics.recordMtp();
+			if (vectorizedMtps.add(new VectorizedMtp(keyIndex, patternIndices, mtpTable, pointSet))) {
+				return computeTec(patternIndices, mtpTable, pointSet, minCompressionRatio, metrics, translatorSearch);
+			}
+
+			metrics.recordDuplicateMtp();
+			return null;
 		}
 	}
 
 	/**
 	 * Returns all TECs in the given point set whose compression ratio exceeds the
-	 * given minimum.
+	 * given minimum, computing the TECs in parallel with the given number of threads.
+	 * <p>
+	 * The returned TECs are the same and in the same order as the ones returned
+	 * by {@link #computeMtpTecs(PointSet, double)}.
 	 *
 	 * @param pointSet            the point set for which tecs are computed
 	 * @param minCompressionRatio the minimum compression ratio of the given TECs
+	 * @param parallelism         the number of threads used for computing the TECs
 	 * @return all TECs in the given point set whose compression ratio exceeds the
 	 * given minimum
 	 */
-	static List<Tec> computeMtpTecs(PointSet pointSet, double minCompressionRatio) {
+	static List<Tec> computeMtpTecs(PointSet pointSet, double minCompressionRatio, int parallelism) {
+		return computeMtpTecs(pointSet, new MtpTable(pointSet), minCompressionRatio, parallelism,
+				CancellationToken.NONE, new SiatechfMetrics()).getTecs();
+	}
 
-		final Map<NoteEventVector, List<IndexPair>> mtpMap = computeMtpMap(pointSet);
+	/**
+	 * Returns all TECs in the given point set whose compression ratio exceeds the
+	 * given minimum using the MTPs in the given table, computing the TECs in parallel with the given
+	 * number of threads.
+	 * <p>
+	 * The returned TECs are the same and in the same order as the ones returned
+	 * by {@link #computeMtpTecs(PointSet, MtpTable, double)}.
+	 * <p>
+	 * The computation stops soon after the given cancellation token is cancelled, in which case
+	 * only the TECs found before that are returned and the result is not complete.
+	 *
+	 * @param pointSet            the point set for which tecs are computed
+	 * @param mtpTable            the MTP table of the point set
+	 * @param minCompressionRatio the minimum compression ratio of the given TECs
+	 * @param parallelism         the number of threads used for computing the TECs
+	 * @param cancellationToken   the token that is checked for every MTP
+	 * @param metrics             the metrics to which the TEC search is recorded
+	 * @return all TECs in the given point set whose compression ratio exceeds the
+	 * given minimum
+	 */
+	static TecSearchResult computeMtpTecs(PointSet pointSet, MtpTable mtpTable, double minCompressionRatio,
+			int parallelism, CancellationToken cancellationToken, SiatechfMetrics metrics) {
+		final long startNanos = System.nanoTime();
+		final TecSearchResult result;
+
+		if (parallelism == 1) {
+			final long allocatedBytesBefore = SiatechfMetrics.currentThreadAllocatedBytes();
+			final List<Tec> tecs = new ArrayList<>();
+			final TecIterator iterator = new TecIterator(pointSet, mtpTable, minCompressionRatio, cancellationToken,
+					metrics);
+			iterator.forEachRemaining(tecs::add);
+			result = new TecSearchResult(tecs, iterator.isComplete());
+			metrics.addTecSearchAllocatedBytes(SiatechfMetrics.currentThreadAllocatedBytes() - allocatedBytesBefore);
+		} else {
+			result = computeMtpTecsInParallel(pointSet, mtpTable, minCompressionRatio, parallelism, cancellationToken,
+					metrics);
+		}
 
-		final List<Tec> tecs = new ArrayList<>();
-		final Set<PointPattern> vectorizedPatterns = new HashSet<>();
+		metrics.recordTecSearch(System.nanoTime() - startNanos, result.getTecs().size());
+		return result;
+	}
 
-		for (NoteEventVector difference : mtpMap.keySet()) {
-			final PointPattern pattern = computeMtp(mtpMap.get(difference), pointSet);
-			final PointPattern vectorizedPattern = pattern.vectorized();
+	private static TecSearchResult computeMtpTecsInParallel(PointSet pointSet, MtpTable mtpTable,
+			double minCompressionRatio, int parallelism, CancellationToken cancellationToken,
+			SiatechfMetrics metrics) {
+
+		final int firstKeyIndex = mtpTable.getFirstMtpKeyIndex();
+		final int rangeSize = Math.max(1, (mtpTable.size() - firstKeyIndex) / (parallelism * RANGES_PER_THREAD));
+		final ConcurrentMap<VectorizedMtp, Integer> vectorizedMtpOwners = new ConcurrentHashMap<>();
+		final ThreadLocal<TranslatorSearch> translatorSearches = ThreadLocal.withInitial(TranslatorSearch::new);
+		final AtomicBoolean stoppedEarly = new AtomicBoolean();
+
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		final List<Candidate> candidates;
+		try {
+			candidates = pool.invoke(new TecSearch(pointSet, mtpTable, minCompressionRatio, cancellationToken,
+					metrics, translatorSearches, vectorizedMtpOwners, stoppedEarly, firstKeyIndex, mtpTable.size(),
+					rangeSize));
+		} finally {
+			pool.shutdown();
+		}
 
-			if (!vectorizedPatterns.contains(vectorizedPattern)) {
-				if (upperBoundOnCompressionRatio(pattern, mtpMap) >= minCompressionRatio) {
-					final List<NoteEventVector> translators = findTranslators(pattern, mtpMap, pointSet);
-					if (compressionRatio(pattern, translators) >= minCompressionRatio) {
-						tecs.add(new Tec(pattern, translators));
-					}
-				}
-				vectorizedPatterns.add(vectorizedPattern);
+		final List<Tec> tecs = new ArrayList<>(candidates.size());
+		for (Candidate candidate : candidates) {
+			if (vectorizedMtpOwners.get(candidate.vectorizedMtp) == candidate.vectorizedMtp.getKeyIndex()) {
+				tecs.add(candidate.tec);
 			}
 		}
 
-		return tecs;
+		return new TecSearchResult(tecs, !stoppedEarly.get());
 	}
 
-	private static PointPattern computeMtp(List<IndexPair> mtpIndexPairs, PointSet pointSet) {
-		final List<NoteEventVector> patternPoints = new ArrayList<>();
-		for (IndexPair indexPair : mtpIndexPairs) {
-			patternPoints.add(pointSet.get(indexPair.getFirst()));
+	/**
+	 * The TECs found by a search and whether the search went through all MTPs of the table.
+	 */
+	static final class TecSearchResult {
+		private final List<Tec> tecs;
+		private final boolean complete;
+
+		TecSearchResult(List<Tec> tecs, boolean complete) {
+			this.tecs = tecs;
+			this.complete = complete;
 		}
 
-		return new PointPattern(patternPoints);
+		/**
+		 * Returns the found TECs.
+		 *
+		 * @return the found TECs
+		 */
+		List<Tec> getTecs() {
+			return tecs;
+		}
+
+		/**
+		 * Returns true if the search went through all MTPs of the table, false if it was stopped early
+		 * by a cancellation.
+		 *
+		 * @return true if the search went through all MTPs of the table
+		 */
+		boolean isComplete() {
+			return complete;
+		}
+	}
+
+	/**
+	 * A TEC computed for the MTP at a key index. In the end only the candidates
+	 * that have the smallest key index for their vectorized MTP are kept, which
+	 * are the same TECs that the sequential computation returns.
+	 */
+	private static final class Candidate {
+		private final VectorizedMtp vectorizedMtp;
+		private final Tec tec;
+
+		Candidate(VectorizedMtp vectorizedMtp, Tec tec) {
+			this.vectorizedMtp = vectorizedMtp;
+			this.tec = tec;
+		}
 	}
 
-	private static Map<NoteEventVector, List<IndexPair>> computeMtpMap(PointSet pointSet) {
-		final Map<NoteEventVector, List<IndexPair>> mtpMap = new HashMap<>();
+	/**
+	 * Computes the TEC candidates for a range of MTP keys, splitting the range
+	 * into subtasks until it is small enough. The candidates are returned in the
+	 * order of the key indices. The tasks are never serialized.
+	 */
+	@SuppressWarnings("serial")
+	private static final class TecSearch extends RecursiveTask<List<Candidate>> {
+		private final PointSet pointSet;
+		private final MtpTable mtpTable;
+		private final double minCompressionRatio;
+		private final CancellationToken cancellationToken;
+		private final SiatechfMetrics metrics;
+		private final ThreadLocal<TranslatorSearch> translatorSearches;
+		private final ConcurrentMap<VectorizedMtp, Integer> vectorizedMtpOwners;
+		private final AtomicBoolean stoppedEarly;
+		private final int start;
+		private final int end;
+		private final int rangeSize;
+
+		TecSearch(PointSet pointSet, MtpTable mtpTable, double minCompressionRatio,
+				CancellationToken cancellationToken, SiatechfMetrics metrics,
+				ThreadLocal<TranslatorSearch> translatorSearches,
+				ConcurrentMap<VectorizedMtp, Integer> vectorizedMtpOwners, AtomicBoolean stoppedEarly, int start,
+				int end, int rangeSize) {
+			this.pointSet = pointSet;
+			this.mtpTable = mtpTable;
+			this.minCompressionRatio = minCompressionRatio;
+			this.cancellationToken = cancellationToken;
+			this.metrics = metrics;
+			this.translatorSearches = translatorSearches;
+			this.vectorizedMtpOwners = vectorizedMtpOwners;
+			this.stoppedEarly = stoppedEarly;
+			this.start = start;
+			this.end = end;
+			this.rangeSize = rangeSize;
+		}
+
+		@Override
+		protected List<Candidate> compute() {
+			if (end - start <= rangeSize) {
+				return computeCandidates();
+			}
 
-		for (int i = 0; i < pointSet.size() - 1; ++i) {
+			final int middle = (start + end) >>> 1;
+			final TecSearch first = new TecSearch(pointSet, mtpTable, minCompressionRatio, cancellationToken,
+					metrics, translatorSearches, vectorizedMtpOwners, stoppedEarly, start, middle, rangeSize);
+			final TecSearch second = new TecSearch(pointSet, mtpTable, minCompressionRatio, cancellationToken,
+					metrics, translatorSearches, vectorizedMtpOwners, stoppedEarly, middle, end, rangeSize);
 
-			final NoteEventVector origin = pointSet.get(i);
+			first.fork();
+			final List<Candidate> secondCandidates = second.compute();
+			final List<Candidate> candidates = first.join();
+			candidates.addAll(secondCandidates);
 
-			for (int j = i + 1; j < pointSet.size(); ++j) {
-				final NoteEventVector diff = pointSet.get(j).subtract(origin);
+			return candidates;
+		}
 
-				if (!mtpMap.containsKey(diff)) {
-					mtpMap.put(diff, new ArrayList<>());
+		private List<Candidate> computeCandidates() {
+			final long allocatedBytesBefore = SiatechfMetrics.currentThreadAllocatedBytes();
+			final List<Candidate> candidates = new ArrayList<>();
+			final TranslatorSearch translatorSearch = translatorSearches.get();
+
+			int keyIndex = start;
+			for (; keyIndex < end && !cancellationToken.isCancelled(); ++keyIndex) {
+				final int[] patternIndices = computeMtp(keyIndex, mtpTable);
+				final VectorizedMtp vectorizedMtp = new VectorizedMtp(keyIndex, patternIndices, mtpTable, pointSet);
+
+				// Only the MTP with the smallest key index is used for each vectorized MTP.
+				metrics.recordMtp();
+				final int owner = vectorizedMtpOwners.merge(vectorizedMtp, keyIndex, Math::min);
+				if (owner == keyIndex) {
+					final Tec tec = computeTec(patternIndices, mtpTable, pointSet, minCompressionRatio, metrics,
+							translatorSearch);
+					if (tec != null) {
+						candidates.add(new Candidate(vectorizedMtp, tec));
+					}
+				} else {
+					metrics.recordDuplicateMtp();
 				}
+			}
 
-				mtpMap.get(diff).add(new IndexPair(i, j));
+			if (keyIndex < end) {
+				stoppedEarly.set(true);
 			}
+
+			metrics.addTecSearchAllocatedBytes(SiatechfMetrics.currentThreadAllocatedBytes() - allocatedBytesBefore);
+			return candidates;
 		}
+	}
 
-		return mtpMap;
+	/**
+	 * Returns at most the given number of TECs with the highest compression ratios among the TECs
+	 * in the given point set whose compression ratio exceeds the given minimum.
+	 * <p>
+	 * TECs with equal compression ratios are ranked by the number of points they cover and then by the order
+	 * in which {@link #computeMtpTecs(PointSet, MtpTable, double)} returns them. The returned TECs are in
+	 * the order of their rank, the best TEC first, and they are the same as the first TECs of the results
+	 * of {@link #computeMtpTecs(PointSet, MtpTable, double)} sorted by rank.
+	 * <p>
+	 * The best TECs found so far are kept in a heap. Once the heap is full, the compression ratio of the
+	 * worst TEC in the heap is used as the minimum compression ratio, so that MTPs whose upper bound on the
+	 * compression ratio is below it are skipped without computing their translators.
+	 * <p>
+	 * The computation stops soon after the given cancellation token is cancelled, in which case
+	 * the best TECs found before that are returned and the result is not complete.
+	 *
+	 * @param pointSet            the point set for which tecs are computed
+	 * @param mtpTable            the MTP table of the point set
+	 * @param minCompressionRatio the minimum compression ratio of the given TECs
+	 * @param maxTecCount         the maximum number of returned TECs, must be at least 1
+	 * @param cancellationToken   the token that is checked for every MTP
+	 * @param metrics             the metrics to which the TEC search is recorded
+	 * @return at most the given number of TECs with the highest compression ratios
+	 */
+	static TecSearchResult computeBestTecs(PointSet pointSet, MtpTable mtpTable, double minCompressionRatio,
+			int maxTecCount, CancellationToken cancellationToken, SiatechfMetrics metrics) {
+		final long startNanos = System.nanoTime();
+		final long allocatedBytesBefore = SiatechfMetrics.currentThreadAllocatedBytes();
+
+		final PriorityQueue<RankedTec> bestTecs = new PriorityQueue<>(RankedTec.WORST_FIRST);
+		final Set<VectorizedMtp> vectorizedMtps = new HashSet<>();
+		final TranslatorSearch translatorSearch = new TranslatorSearch();
+		double threshold = minCompressionRatio;
+
+		int keyIndex = mtpTable.getFirstMtpKeyIndex();
+		for (; keyIndex < mtpTable.size() && !cancellationToken.isCancelled(); ++keyIndex) {
+			final int[] patternIndices = computeMtp(keyIndex, mtpTable);
+			metrics.recordMtp();
+
+			// The translated copies of an MTP have the same upper bound and the threshold never decreases,
+			// so the copies of a pruned MTP are pruned as well and it is not needed in the duplicate check.
+			if (upperBoundOnCompressionRatio(patternIndices, mtpTable) < threshold) {
+				metrics.recordPrunedMtp();
+				continue;
+			}
+
+			if (!vectorizedMtps.add(new VectorizedMtp(keyIndex, patternIndices, mtpTable, pointSet))) {
+				metrics.recordDuplicateMtp();
+				continue;
+			}
+
+			final long searchStartNanos = System.nanoTime();
+			final int translatorCount = translatorSearch.findTargets(patternIndices, mtpTable, pointSet);
+			metrics.recordTranslatorSearch(System.nanoTime() - searchStartNanos);
+
+			final int coveredPointCount = translatorSearch.countCoveredPoints(patternIndices, pointSet);
+			final double ratio = compressionRatio(patternIndices.length, translatorCount, coveredPointCount);
+
+			// A TEC that ties with the worst TEC in a full heap is found later, so it is ranked lower.
+			if (ratio < minCompressionRatio || (bestTecs.size() == maxTecCount
+					&& !bestTecs.peek().isWorseThan(ratio, coveredPointCount))) {
+				metrics.recordRejectedMtp();
+				continue;
+			}
+
+			final Tec tec = toTec(patternIndices, pointSet, translatorSearch, translatorCount);
+			bestTecs.add(new RankedTec(tec, ratio, coveredPointCount, keyIndex));
+			if (bestTecs.size() > maxTecCount) {
+				bestTecs.poll();
+			}
+
+			if (bestTecs.size() == maxTecCount) {
+				threshold = Math.max(minCompressionRatio, bestTecs.peek().ratio);
+			}
+		}
+
+		final List<RankedTec> rankedTecs = new ArrayList<>(bestTecs);
+		rankedTecs.sort(RankedTec.WORST_FIRST.reversed());
+
+		final List<Tec> tecs = new ArrayList<>(rankedTecs.size());
+		for (RankedTec rankedTec : rankedTecs) {
+			tecs.add(rankedTec.tec);
+		}
+
+		metrics.addTecSearchAllocatedBytes(SiatechfMetrics.currentThreadAllocatedBytes() - allocatedBytesBefore);
+		metrics.recordTecSearch(System.nanoTime() - startNanos, tecs.size());
+		return new TecSearchResult(tecs, keyIndex >= mtpTable.size());
 	}
 
-	private static List<NoteEventVector> findTranslators(PointPattern pattern,
-			Map<NoteEventVector, List<IndexPair>> mtpMap, PointSet pointSet) {
+	/**
+	 * A TEC with the values by which it is ranked in the search for the best TECs.
+	 */
+	private static final class RankedTec {
+		private static final Comparator<RankedTec> WORST_FIRST = Comparator
+				.comparingDouble((RankedTec rankedTec) -> rankedTec.ratio)
+				.thenComparingInt(rankedTec -> rankedTec.coveredPointCount)
+				.thenComparing(Comparator.comparingInt((RankedTec rankedTec) -> rankedTec.keyIndex).reversed());
+
+		private final Tec tec;
+		private final double ratio;
+		private final int coveredPointCount;
+		private final int keyIndex;
+
+		RankedTec(Tec tec, double ratio, int coveredPointCount, int keyIndex) {
+			this.tec = tec;
+			this.ratio = ratio;
+			this.coveredPointCount = coveredPointCount;
+			this.keyIndex = keyIndex;
+		}
 
-		if (pattern.size() == 1) {
-			final List<NoteEventVector> translators = new ArrayList<>();
-			for (int i = 0; i < pointSet.size(); ++i) {
-				translators.add(pointSet.get(i).subtract(pattern.get(0)));
+		/*
+		 * Returns true if this TEC is ranked lower than a TEC with the given values that is found after it.
+		 */
+		boolean isWorseThan(double otherRatio, int otherCoveredPointCount) {
+			if (ratio != otherRatio) {
+				return ratio < otherRatio;
 			}
 
-			return translators;
+			return coveredPointCount < otherCoveredPointCount;
+		}
+	}
+
+	/*
+	 * Returns the TEC of the given MTP if its compression ratio is at least the given minimum,
+	 * otherwise returns null.
+	 */
+	private static Tec computeTec(int[] patternIndices, MtpTable mtpTable, PointSet pointSet,
+			double minCompressionRatio, SiatechfMetrics metrics, TranslatorSearch translatorSearch) {
+		if (upperBoundOnCompressionRatio(patternIndices, mtpTable) < minCompressionRatio) {
+			metrics.recordPrunedMtp();
+			return null;
 		}
 
-		List<Integer> targetIndices = new ArrayList<>();
-		final PointPattern vectorizedPattern = pattern.vectorized();
+		final long startNanos = System.nanoTime();
+		final int translatorCount = translatorSearch.findTargets(patternIndices, mtpTable, pointSet);
+		metrics.recordTranslatorSearch(System.nanoTime() - startNanos);
 
-		for (IndexPair indexPair : mtpMap.get(vectorizedPattern.get(0))) {
-			targetIndices.add(indexPair.getSecond());
+		final int coveredPointCount = translatorSearch.countCoveredPoints(patternIndices, pointSet);
+		if (compressionRatio(patternIndices.length, translatorCount, coveredPointCount) < minCompressionRatio) {
+			metrics.recordRejectedMtp();
+			return null;
 		}
 
-		for (int i = 1; i < vectorizedPattern.size(); ++i) {
-			final List<IndexPair> indexPairs = mtpMap.get(vectorizedPattern.get(i));
-			final List<Integer> newTargetIndices = new ArrayList<>();
+		return toTec(patternIndices, pointSet, translatorSearch, translatorCount);
+	}
 
-			int j = 0;
-			int k = 0;
+	/*
+	 * Returns the TEC of the given MTP with the targets found in the latest search. The occurrences found with
+	 * a tolerance are not exact translations of the MTP, so their points are stored in the TEC.
+	 */
+	private static Tec toTec(int[] patternIndices, PointSet pointSet, TranslatorSearch search, int targetCount) {
+		final PointPattern pattern = toPattern(patternIndices, pointSet);
+		final List<NoteEventVector> translators = toTranslators(patternIndices, pointSet, search, targetCount);
+		if (!search.hasOccurrencePoints()) {
+			return new Tec(pattern, translators);
+		}
 
-			while (j < targetIndices.size() && k < indexPairs.size()) {
-				if (targetIndices.get(j).equals(indexPairs.get(k).getFirst())) {
-					newTargetIndices.add(indexPairs.get(k).getSecond());
-					++j;
-					++k;
-				} else if (targetIndices.get(j) < indexPairs.get(k).getFirst()) {
-					++j;
-				} else if (targetIndices.get(j) > indexPairs.get(k).getFirst()) {
-					++k;
-				}
+		final List<PointPattern> occurrences = new ArrayList<>(targetCount);
+		final int[] occurrenceIndices = new int[patternIndices.length];
+		for (int occurrence = 0; occurrence < targetCount; ++occurrence) {
+			for (int i = 0; i < occurrenceIndices.length; ++i) {
+				occurrenceIndices[i] = search.getOccurrencePoint(occurrence, i);
 			}
 
-			targetIndices = newTargetIndices;
+			occurrences.add(toPattern(occurrenceIndices, pointSet));
 		}
 
-		final List<NoteEventVector> translators = new ArrayList<>();
-		final NoteEventVector lastPoint = pattern.get(pattern.size() - 1);
+		return new Tec(pattern, translators, occurrences);
+	}
+
+	/*
+	 * Returns the indices of the points of the MTP for the difference vector at the given key index.
+	 * The indices are in ascending order.
+	 */
+	static int[] computeMtp(int keyIndex, MtpTable mtpTable) {
+		final int start = mtpTable.getPairsStart(keyIndex);
+		final int[] patternIndices = new int[mtpTable.getPairCount(keyIndex)];
+
+		for (int i = 0; i < patternIndices.length; ++i) {
+			patternIndices[i] = mtpTable.getFirst(start + i);
+		}
 
-		for (Integer i : targetIndices) {
-			translators.add(pointSet.get(i).subtract(lastPoint));
+		return patternIndices;
+	}
+
+	static PointPattern toPattern(int[] patternIndices, PointSet pointSet) {
+		final List<NoteEventVector> patternPoints = new ArrayList<>(patternIndices.length);
+		for (int index : patternIndices) {
+			patternPoints.add(pointSet.get(index));
+		}
+
+		return new PointPattern(patternPoints);
+	}
+
+	/**
+	 * Returns the translators of the given MTP including the zero vector.
+	 *
+	 * @param patternIndices the indices of the points of the MTP in ascending order
+	 * @param mtpTable       the MTP table of the point set
+	 * @param pointSet       the point set that contains the MTP
+	 * @param search         the translator search whose buffers are used for finding the translators
+	 * @return the translators of the given MTP including the zero vector
+	 */
+	static List<NoteEventVector> findTranslators(int[] patternIndices, MtpTable mtpTable, PointSet pointSet,
+			TranslatorSearch search) {
+		return toTranslators(patternIndices, pointSet, search,
+				search.findTargets(patternIndices, mtpTable, pointSet));
+	}
+
+	/*
+	 * Returns the translators from the last point of the pattern to the targets found in the latest search.
+	 */
+	private static List<NoteEventVector> toTranslators(int[] patternIndices, PointSet pointSet,
+			TranslatorSearch search, int targetCount) {
+		final int lastIndex = patternIndices[patternIndices.length - 1];
+		final long lastOffset = pointSet.getOffset(lastIndex);
+		final int lastPitch = pointSet.getPitch(lastIndex);
+		final int lastPart = pointSet.getPart(lastIndex);
+
+		final List<NoteEventVector> translators = new ArrayList<>(targetCount);
+		for (int i = 0; i < targetCount; ++i) {
+			final int target = search.getTarget(i);
+			translators.add(new NoteEventVector(pointSet.getOffset(target) - lastOffset,
+					pointSet.getPitch(target) - lastPitch, pointSet.getPart(target) - lastPart));
 		}
 
 		return translators;
 	}
 
+	/*
+	 * Returns the key index of the difference from the first point to the second point if the table
+	 * contains all pairs of points with that difference, otherwise returns -1. The pairs of all scores with
+	 * the difference are in the vector pair range of the key index.
+	 */
+	static int indexOfAllPairs(int first, int second, MtpTable mtpTable) {
+		if (!mtpTable.containsAllPairsPerKey()) {
+			return -1;
+		}
+
+		return mtpTable.indexOf(mtpTable.getKey(first, second));
+	}
+
 	/**
 	 * Returns an upper bound on the upper bound of the compression ratio of the pattern
 	 * based on the number of translatable points.
+	 * <p>
+	 * If the MTP table does not contain all pairs of points with the difference from the first point of
+	 * the pattern to the last point, the number of occurrences cannot be bounded and the bound is infinite.
+	 * This is always the case if the table has a tolerance.
 	 *
-	 * @param pattern the pattern for which the upper bound is computed
-	 * @param mtpMap  the map of MTPs index pairs in the input point set
+	 * @param patternIndices the indices of the points in the pattern for which the upper bound is computed
+	 * @param mtpTable       the table of MTP index pairs in the input point set
 	 * @return an upper bound on the upper bound of the compression ratio of the pattern
 	 */
-	private static double upperBoundOnCompressionRatio(PointPattern pattern,
-			Map<NoteEventVector, List<IndexPair>> mtpMap) {
+	static double upperBoundOnCompressionRatio(int[] patternIndices, MtpTable mtpTable) {
 
-		final int patternSize = pattern.size();
+		final int patternSize = patternIndices.length;
 		if (patternSize == 1) {
 			return 1.0;
 		}
 
-		final double occurrenceUpperBound = mtpMap.get(pattern.get(patternSize - 1).subtract(pattern.get(0))).size();
+		final int spanKeyIndex = indexOfAllPairs(patternIndices[0], patternIndices[patternSize - 1], mtpTable);
+		if (spanKeyIndex < 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		final double occurrenceUpperBound = mtpTable.getVectorPairCount(spanKeyIndex);
 		final double coverageUpperBound = occurrenceUpperBound * patternSize;
 
 		return coverageUpperBound / (patternSize + occurrenceUpperBound - 1);
 	}
 
 	/**
-	 * Returns the compression ratio of the TEC for the given pattern and translators.
+	 * Returns the compression ratio of a TEC.
 	 *
-	 * @param pattern     the pattern
-	 * @param translators the translators (including the zero vector).
-	 * @return the compression ratio of the TEC for the given pattern and translators
+	 * @param patternSize       the number of points in the pattern
+	 * @param translatorCount   the number of translators (including the zero vector)
+	 * @param coveredPointCount the number of distinct points covered by the occurrences of the pattern
+	 * @return the compression ratio of the TEC
 	 */
-	private static double compressionRatio(PointPattern pattern, List<NoteEventVector> translators) {
-		final Set<NoteEventVector> coveredSet = new HashSet<>(pattern.size() + translators.size());
-
-		for (NoteEventVector translator : translators) {
-			for (NoteEventVector point : pattern) {
-				coveredSet.add(point.add(translator));
-			}
-		}
-
-		return (double) coveredSet.size() / (pattern.size() + translators.size() - 1);
+	static double compressionRatio(int patternSize, int translatorCount, int coveredPointCount) {
+		return (double) coveredPointCount / (patternSize + translatorCount - 1);
 	}
 
 	private Siatechf() {
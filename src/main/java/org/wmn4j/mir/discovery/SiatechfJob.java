@@ -0,0 +1,213 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.wmn4j.notation.Score;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Class for configuring and running pattern discovery with the SIATECHF algorithm.
+ * <p>
+ * A job is created for a score and a minimum compression ratio. The other settings have the same defaults as in
+ * {@link GeometricPatternDiscovery#withSiatechf(Score, double)} and can be changed before the job is run.
+ * <p>
+ * If the job is given a {@link CancellationToken}, the discovery stops soon after the token is cancelled and
+ * the patterns found so far are returned. Whether all patterns were found can be checked with
+ * {@link PatternDiscovery#isComplete()}.
+ * <p>
+ * The progress and the time used by the phases of the discovery can be followed by giving the job a
+ * {@link SiatechfMetrics} object.
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+public final class SiatechfJob {
+
+	private final Score score;
+	private final double compressionRatio;
+	private PointProjection projection;
+	private DiscoveryWindow window;
+	private DiscoveryTolerance tolerance;
+	private int parallelism;
+	private CancellationToken cancellationToken;
+	private SiatechfMetrics metrics;
+	private int maxPatternCount;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param score            the score for which repeated pattern discovery is performed
+	 * @param compressionRatio the required non-negative minimum compression ratio for the returned patterns
+	 * @throws NullPointerException     if score is null
+	 * @throws IllegalArgumentException if compressionRatio is negative
+	 */
+	public SiatechfJob(Score score, double compressionRatio) {
+		GeometricPatternDiscovery.checkCompressionRatio(compressionRatio);
+
+		this.score = Objects.requireNonNull(score);
+		this.compressionRatio = compressionRatio;
+		this.projection = PointProjections.CHROMATIC;
+		this.window = DiscoveryWindow.UNBOUNDED;
+		this.tolerance = DiscoveryTolerance.EXACT;
+		this.parallelism = 1;
+		this.cancellationToken = CancellationToken.NONE;
+		this.metrics = new SiatechfMetrics();
+		this.maxPatternCount = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Sets the projection of the notes to points in this job.
+	 * See {@link GeometricPatternDiscovery#withSiatechf(Score, double, PointProjection)}.
+	 *
+	 * @param projection the projection of the notes to points
+	 * @return reference to this job
+	 * @throws NullPointerException if projection is null
+	 */
+	public SiatechfJob setProjection(PointProjection projection) {
+		this.projection = Objects.requireNonNull(projection);
+		return this;
+	}
+
+	/**
+	 * Sets the window that limits the translations used for finding the patterns in this job.
+	 * See {@link GeometricPatternDiscovery#withSiatechf(Score, double, DiscoveryWindow)}.
+	 *
+	 * @param window the window that limits the translations used for finding the patterns
+	 * @return reference to this job
+	 * @throws NullPointerException if window is null
+	 */
+	public SiatechfJob setWindow(DiscoveryWindow window) {
+		this.window = Objects.requireNonNull(window);
+		return this;
+	}
+
+	/**
+	 * Sets the tolerance with which notes are considered to be translations of each other in this job.
+	 * See {@link GeometricPatternDiscovery#withSiatechf(Score, double, DiscoveryTolerance)}.
+	 *
+	 * @param tolerance the tolerance with which notes are considered to be translations of each other
+	 * @return reference to this job
+	 * @throws NullPointerException if tolerance is null
+	 */
+	public SiatechfJob setTolerance(DiscoveryTolerance tolerance) {
+		this.tolerance = Objects.requireNonNull(tolerance);
+		return this;
+	}
+
+	/**
+	 * Sets the number of threads used for pattern discovery in this job.
+	 * See {@link GeometricPatternDiscovery#withSiatechf(Score, double, int)}.
+	 *
+	 * @param parallelism the number of threads used for pattern discovery, must be at least 1
+	 * @return reference to this job
+	 * @throws IllegalArgumentException if parallelism is less than 1
+	 */
+	public SiatechfJob setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+		}
+
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Sets the token with which the discovery of this job can be stopped.
+	 *
+	 * @param cancellationToken the token with which the discovery can be stopped
+	 * @return reference to this job
+	 * @throws NullPointerException if cancellationToken is null
+	 */
+	public SiatechfJob setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = Objects.requireNonNull(cancellationToken);
+		return this;
+	}
+
+	/**
+	 * Sets the metrics to which the progress of the discovery of this job is recorded.
+	 * The same metrics object should not be given to more than one job.
+	 *
+	 * @param metrics the metrics to which the progress of the discovery is recorded
+	 * @return reference to this job
+	 * @throws NullPointerException if metrics is null
+	 */
+	public SiatechfJob setMetrics(SiatechfMetrics metrics) {
+		this.metrics = Objects.requireNonNull(metrics);
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of patterns returned by this job.
+	 * <p>
+	 * If the number of patterns is limited, only the patterns with the highest compression ratios are returned.
+	 * Patterns with equal compression ratios are ranked by the number of notes covered by their occurrences.
+	 * The patterns are returned in the order of their rank, the best pattern first.
+	 * Limiting the number of patterns makes the discovery faster, because the patterns that cannot have a
+	 * higher compression ratio than the ones already found are skipped.
+	 * <p>
+	 * The search for the best patterns is sequential, so the parallelism of this job is not used when
+	 * the number of patterns is limited.
+	 *
+	 * @param maxPatternCount the maximum number of returned patterns, must be at least 1
+	 * @return reference to this job
+	 * @throws IllegalArgumentException if maxPatternCount is less than 1
+	 */
+	public SiatechfJob setMaxPatternCount(int maxPatternCount) {
+		if (maxPatternCount < 1) {
+			throw new IllegalArgumentException("Maximum pattern count must be at least 1, was " + maxPatternCount);
+		}
+
+		this.maxPatternCount = maxPatternCount;
+		return this;
+	}
+
+	/**
+	 * Runs the pattern discovery of this job and returns the results.
+	 * <p>
+	 * If the cancellation token of this job is cancelled before the discovery is complete,
+	 * the returned results contain the patterns found before the cancellation and
+	 * {@link PatternDiscovery#isComplete()} returns false for them. If the token is cancelled before
+	 * any patterns are found, the results are empty.
+	 *
+	 * @return the results of running the pattern discovery of this job
+	 */
+	public PatternDiscovery run() {
+		long startNanos = System.nanoTime();
+		long allocatedBytesBefore = SiatechfMetrics.currentThreadAllocatedBytes();
+		final PointSet pointSet = new PointSet(Collections.singletonList(score), projection, tolerance);
+		metrics.recordPointSet(pointSet, System.nanoTime() - startNanos,
+				SiatechfMetrics.currentThreadAllocatedBytes() - allocatedBytesBefore);
+
+		List<Tec> tecs;
+		boolean complete;
+		try {
+			startNanos = System.nanoTime();
+			allocatedBytesBefore = SiatechfMetrics.currentThreadAllocatedBytes();
+			final MtpTable mtpTable = new MtpTable(pointSet, window.getMaxOffset(pointSet),
+					window.getMaxIndexDistance(), tolerance, cancellationToken);
+			metrics.recordMtpTable(mtpTable, System.nanoTime() - startNanos,
+					SiatechfMetrics.currentThreadAllocatedBytes() - allocatedBytesBefore);
+
+			final Siatechf.TecSearchResult result;
+			if (maxPatternCount < Integer.MAX_VALUE) {
+				result = Siatechf.computeBestTecs(pointSet, mtpTable, compressionRatio, maxPatternCount,
+						cancellationToken, metrics);
+			} else {
+				result = Siatechf.computeMtpTecs(pointSet, mtpTable, compressionRatio, parallelism,
+						cancellationToken, metrics);
+			}
+
+			tecs = result.getTecs();
+			complete = result.isComplete();
+		} catch (CancellationException e) {
+			tecs = Collections.emptyList();
+			complete = false;
+		}
+
+		return GeometricPatternDiscovery.fromTecs(tecs, pointSet, score, complete);
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters that describe a run of pattern discovery with the SIATECHF algorithm.
+ * <p>
+ * The metrics are collected when the metrics object is given to a {@link SiatechfJob} with
+ * {@link SiatechfJob#setMetrics(SiatechfMetrics)}. The counters are updated while the job is running, so
+ * the progress of the discovery can be followed from another thread by comparing {@link #getMtpCount()} to
+ * {@link #getMtpTableSize()}. A metrics object should only be used for one run.
+ * <p>
+ * The discovery consists of three phases: computing the point set representation of the score, computing
+ * the table of the translation vectors between the points, and computing the translational equivalence
+ * classes (TECs) of the maximal translatable patterns (MTPs) in the table. The time and the number of allocated
+ * bytes are measured for each phase. The allocated bytes are measured with the thread allocation counters of
+ * the JVM and are -1 if the JVM does not support them.
+ * <p>
+ * In parallel discovery the counts of MTPs can include MTPs that are later found to be translations of other MTPs
+ * and the time of the translator search is the sum of the time used by all threads.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class SiatechfMetrics {
+
+	private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+	private static final boolean ALLOCATIONS_SUPPORTED = isAllocationMeasurementSupported();
+
+	private volatile int pointCount;
+	private volatile int mtpTableSize;
+	private volatile long indexPairCount;
+	private volatile long tecCount;
+
+	private final LongAdder mtpCount = new LongAdder();
+	private final LongAdder duplicateMtpCount = new LongAdder();
+	private final LongAdder prunedMtpCount = new LongAdder();
+	private final LongAdder rejectedMtpCount = new LongAdder();
+	private final LongAdder translatorSearchNanos = new LongAdder();
+
+	private volatile long pointSetNanos;
+	private volatile long mtpTableNanos;
+	private volatile long tecSearchNanos;
+
+	private volatile long pointSetAllocatedBytes;
+	private volatile long mtpTableAllocatedBytes;
+	private final LongAdder tecSearchAllocatedBytes = new LongAdder();
+
+	/**
+	 * Returns the number of points in the point set representation of the score.
+	 *
+	 * @return the number of points in the point set representation of the score
+	 */
+	public int getPointCount() {
+		return pointCount;
+	}
+
+	/**
+	 * Returns the number of distinct translation vectors in the table of translation vectors.
+	 * This is the number of MTPs that are processed.
+	 *
+	 * @return the number of distinct translation vectors in the table of translation vectors
+	 */
+	public int getMtpTableSize() {
+		return mtpTableSize;
+	}
+
+	/**
+	 * Returns the number of pairs of points in the table of translation vectors.
+	 *
+	 * @return the number of pairs of points in the table of translation vectors
+	 */
+	public long getIndexPairCount() {
+		return indexPairCount;
+	}
+
+	/**
+	 * Returns the number of MTPs processed so far.
+	 *
+	 * @return the number of MTPs processed so far
+	 */
+	public long getMtpCount() {
+		return mtpCount.sum();
+	}
+
+	/**
+	 * Returns the number of processed MTPs that were skipped because they are translations of other MTPs.
+	 *
+	 * @return the number of processed MTPs that were skipped because they are translations of other MTPs
+	 */
+	public long getDuplicateMtpCount() {
+		return duplicateMtpCount.sum();
+	}
+
+	/**
+	 * Returns the number of MTPs that were skipped because the upper bound of their compression ratio is
+	 * less than the minimum compression ratio.
+	 *
+	 * @return the number of MTPs that were skipped based on the upper bound of their compression ratio
+	 */
+	public long getPrunedMtpCount() {
+		return prunedMtpCount.sum();
+	}
+
+	/**
+	 * Returns the number of MTPs whose translators were searched but whose compression ratio is less than the
+	 * minimum compression ratio.
+	 *
+	 * @return the number of MTPs that were rejected after computing their compression ratio
+	 */
+	public long getRejectedMtpCount() {
+		return rejectedMtpCount.sum();
+	}
+
+	/**
+	 * Returns the number of TECs found by the discovery.
+	 *
+	 * @return the number of TECs found by the discovery
+	 */
+	public long getTecCount() {
+		return tecCount;
+	}
+
+	/**
+	 * Returns the time used for searching the translators of the MTPs.
+	 *
+	 * @return the time used for searching the translators of the MTPs
+	 */
+	public Duration getTranslatorSearchTime() {
+		return Duration.ofNanos(translatorSearchNanos.sum());
+	}
+
+	/**
+	 * Returns the time used for computing the point set representation of the score.
+	 *
+	 * @return the time used for computing the point set representation of the score
+	 */
+	public Duration getPointSetTime() {
+		return Duration.ofNanos(pointSetNanos);
+	}
+
+	/**
+	 * Returns the time used for computing the table of translation vectors.
+	 *
+	 * @return the time used for computing the table of translation vectors
+	 */
+	public Duration getMtpTableTime() {
+		return Duration.ofNanos(mtpTableNanos);
+	}
+
+	/**
+	 * Returns the time used for computing the TECs of the MTPs.
+	 *
+	 * @return the time used for computing the TECs of the MTPs
+	 */
+	public Duration getTecSearchTime() {
+		return Duration.ofNanos(tecSearchNanos);
+	}
+
+	/**
+	 * Returns the number of bytes allocated while computing the point set representation of the score
+	 * or -1 if the allocations cannot be measured.
+	 *
+	 * @return the number of bytes allocated while computing the point set representation of the score
+	 */
+	public long getPointSetAllocatedBytes() {
+		return ALLOCATIONS_SUPPORTED ? pointSetAllocatedBytes : -1;
+	}
+
+	/**
+	 * Returns the number of bytes allocated while computing the table of translation vectors
+	 * or -1 if the allocations cannot be measured.
+	 *
+	 * @return the number of bytes allocated while computing the table of translation vectors
+	 */
+	public long getMtpTableAllocatedBytes() {
+		return ALLOCATIONS_SUPPORTED ? mtpTableAllocatedBytes : -1;
+	}
+
+	/**
+	 * Returns the number of bytes allocated by all threads while computing the TECs of the MTPs
+	 * or -1 if the allocations cannot be measured.
+	 *
+	 * @return the number of bytes allocated while computing the TECs of the MTPs
+	 */
+	public long getTecSearchAllocatedBytes() {
+		return ALLOCATIONS_SUPPORTED ? tecSearchAllocatedBytes.sum() : -1;
+	}
+
+	void recordPointSet(PointSet pointSet, long nanos, long allocatedBytes) {
+		this.pointCount = pointSet.size();
+		this.pointSetNanos = nanos;
+		this.pointSetAllocatedBytes = allocatedBytes;
+	}
+
+	void recordMtpTable(MtpTable mtpTable, long nanos, long allocatedBytes) {
+		this.mtpTableSize = mtpTable.size();
+		this.indexPairCount = mtpTable.getIndexPairCount();
+		this.mtpTableNanos = nanos;
+		this.mtpTableAllocatedBytes = allocatedBytes;
+	}
+
+	void recordTecSearch(long nanos, long tecCount) {
+		this.tecSearchNanos = nanos;
+		this.tecCount = tecCount;
+	}
+
+	void addTecSearchAllocatedBytes(long allocatedBytes) {
+		tecSearchAllocatedBytes.add(allocatedBytes);
+	}
+
+	void recordMtp() {
+		mtpCount.increment();
+	}
+
+	void recordDuplicateMtp() {
+		duplicateMtpCount.increment();
+	}
+
+	void recordPrunedMtp() {
+		prunedMtpCount.increment();
+	}
+
+	void recordRejectedMtp() {
+		rejectedMtpCount.increment();
+	}
+
+	void recordTranslatorSearch(long nanos) {
+		translatorSearchNanos.add(nanos);
+	}
+
+	/**
+	 * Returns the number of bytes allocated so far by the current thread or 0 if the allocations cannot
+	 * be measured. The difference of two values returned by this method in the same thread is the number of
+	 * bytes allocated by the thread between the calls.
+	 *
+	 * @return the number of bytes allocated so far by the current thread
+	 */
+	static long currentThreadAllocatedBytes() {
+		if (!ALLOCATIONS_SUPPORTED) {
+			return 0;
+		}
+
+		return ((com.sun.management.ThreadMXBean) THREAD_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static boolean isAllocationMeasurementSupported() {
+		try {
+			if (THREAD_BEAN instanceof com.sun.management.ThreadMXBean) {
+				final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+				return bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled();
+			}
+		} catch (LinkageError e) {
+			// The com.sun.management API is not available in this JVM.
+		}
+
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "SiatechfMetrics{points=" + getPointCount()
+				+ ", mtpTableSize=" + getMtpTableSize()
+				+ ", indexPairs=" + getIndexPairCount()
+				+ ", mtps=" + getMtpCount()
+				+ ", duplicateMtps=" + getDuplicateMtpCount()
+				+ ", prunedMtps=" + getPrunedMtpCount()
+				+ ", rejectedMtps=" + getRejectedMtpCount()
+				+ ", tecs=" + getTecCount()
+				+ ", pointSetTime=" + getPointSetTime()
+				+ ", mtpTableTime=" + getMtpTableTime()
+				+ ", tecSearchTime=" + getTecSearchTime()
+				+ ", translatorSearchTime=" + getTranslatorSearchTime()
+				+ ", pointSetAllocatedBytes=" + getPointSetAllocatedBytes()
+				+ ", mtpTableAllocatedBytes=" + getMtpTableAllocatedBytes()
+				+ ", tecSearchAllocatedBytes=" + getTecSearchAllocatedBytes()
+				+ "}";
+	}
+}
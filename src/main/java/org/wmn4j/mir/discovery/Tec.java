@@ -3,6 +3,7 @@
  */
 package org.wmn4j.mir.discovery;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -13,12 +14,16 @@ import java.util.List;
  * Algorithms for discovering repeated patterns in multidimensional representations of polyphonic music.
  * Journal of New Music Research, 31(4):321-345, 2002.
  * <p>
+ * A TEC found with a {@link DiscoveryTolerance} also contains the occurrences of its pattern, because
+ * they are not exact translations of the pattern.
+ * <p>
  * This class is immutable.
  */
 final class Tec {
 
 	private final PointPattern pattern;
 	private final List<NoteEventVector> translators;
+	private final List<PointPattern> occurrences;
 
 	/**
 	 * Constructor. The new instance takes ownership of the
@@ -30,6 +35,22 @@ final class Tec {
 	Tec(PointPattern pattern, List<NoteEventVector> translators) {
 		this.pattern = pattern;
 		this.translators = Collections.unmodifiableList(translators);
+		this.occurrences = null;
+	}
+
+	/**
+	 * Constructor for a TEC whose occurrences were found with a tolerance. The translators are the differences
+	 * from the last point of the pattern to the last points of the occurrences. The new instance takes ownership
+	 * of the passed parameters.
+	 *
+	 * @param pattern     the pattern for this TEC
+	 * @param translators the translators of this TEC
+	 * @param occurrences the occurrences of the pattern in the order of the translators
+	 */
+	Tec(PointPattern pattern, List<NoteEventVector> translators, List<PointPattern> occurrences) {
+		this.pattern = pattern;
+		this.translators = Collections.unmodifiableList(translators);
+		this.occurrences = Collections.unmodifiableList(occurrences);
 	}
 
 	PointPattern getPattern() {
@@ -40,6 +61,30 @@ final class Tec {
 		return translators;
 	}
 
+	/**
+	 * Returns the occurrences of the pattern of this TEC in the order of the translators. Unless the TEC was
+	 * found with a tolerance, the occurrences are the pattern translated by the translators.
+	 *
+	 * @return the occurrences of the pattern of this TEC
+	 */
+	List<PointPattern> getOccurrences() {
+		if (occurrences != null) {
+			return occurrences;
+		}
+
+		final List<PointPattern> translatedPatterns = new ArrayList<>(translators.size());
+		for (NoteEventVector translator : translators) {
+			final List<NoteEventVector> translatedPoints = new ArrayList<>(pattern.size());
+			for (NoteEventVector point : pattern) {
+				translatedPoints.add(point.add(translator));
+			}
+
+			translatedPatterns.add(new PointPattern(translatedPoints));
+		}
+
+		return translatedPatterns;
+	}
+
 	@Override
 	public String toString() {
 		final StringBuilder strBuilder = new StringBuilder();
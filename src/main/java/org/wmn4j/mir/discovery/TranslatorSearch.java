@@ -0,0 +1,323 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Finds the points to which the last point of an MTP can be translated so that the whole MTP
+ * is translated to points in the point set.
+ * <p>
+ * The search intersects the index pairs of the MTP table using two primitive index buffers that are
+ * reused between searches, so that searching the translators of an MTP does not allocate memory once
+ * the buffers are large enough for the point set.
+ * <p>
+ * The number of points covered by the occurrences of the MTP is counted by marking the indices of the
+ * translated points in a reused bit set, which avoids creating the translated points.
+ * <p>
+ * If the MTP table has a tolerance, the occurrences of an MTP are not exact translations of it. The points of
+ * the occurrences are then stored in another reused buffer (see {@link #getOccurrencePoint(int, int)}).
+ * <p>
+ * Instances of this class are not thread-safe. Each thread that searches translators needs its own instance.
+ */
+final class TranslatorSearch {
+
+	private int[] targetIndices;
+	private int[] newTargetIndices;
+	private int targetCount;
+	private int[] occurrencePoints;
+	private int occurrenceSize;
+	private final BitSet coveredPoints;
+
+	/**
+	 * Constructor.
+	 */
+	TranslatorSearch() {
+		this.targetIndices = new int[0];
+		this.newTargetIndices = new int[0];
+		this.targetCount = 0;
+		this.occurrencePoints = new int[0];
+		this.occurrenceSize = 0;
+		this.coveredPoints = new BitSet();
+	}
+
+	/**
+	 * Finds the indices of the points to which the last point of the given MTP can be translated
+	 * and returns the number of found indices. The indices are available through {@link #getTarget(int)}
+	 * until the next search. The indices are in ascending order and contain the last point of the MTP
+	 * itself.
+	 * <p>
+	 * If the table contains all pairs of its difference vectors, the targets are intersected from the index
+	 * pairs of the table. Otherwise every point is a candidate and the translated points are looked up from the
+	 * point set, which takes O(n log n) time for n points.
+	 * <p>
+	 * If the table has a tolerance and the MTP has more than one point, the targets are the last points of the
+	 * occurrences of the MTP found with the tolerance and the MTP itself. An occurrence is found for every key of
+	 * the table whose pairs have every point of the MTP as the first point, which takes O(n m log n) time for
+	 * n points and an MTP of m points. The occurrences are ordered by their keys after the MTP itself and their
+	 * points are available through {@link #getOccurrencePoint(int, int)} until the next search.
+	 *
+	 * @param patternIndices the indices of the points of the MTP in ascending order
+	 * @param mtpTable       the MTP table of the point set
+	 * @param pointSet       the point set that contains the MTP
+	 * @return the number of found indices
+	 */
+	int findTargets(int[] patternIndices, MtpTable mtpTable, PointSet pointSet) {
+		ensureCapacity(pointSet.size());
+		occurrenceSize = 0;
+
+		if (patternIndices.length == 1) {
+			setTargetsToAllPoints(mtpTable, pointSet);
+			return targetCount;
+		}
+
+		if (!mtpTable.isExact()) {
+			findOccurrences(patternIndices, mtpTable);
+			return targetCount;
+		}
+
+		final int firstKeyIndex = Siatechf.indexOfAllPairs(patternIndices[0], patternIndices[1], mtpTable);
+		if (firstKeyIndex >= 0) {
+			// Equal points can make the number of pairs of a key larger than the number of points.
+			ensureCapacity(mtpTable.getVectorPairCount(firstKeyIndex));
+			targetCount = 0;
+			for (int p = mtpTable.getVectorPairsStart(firstKeyIndex); p < mtpTable.getVectorPairsEnd(firstKeyIndex);
+					++p) {
+				targetIndices[targetCount++] = mtpTable.getSecond(p);
+			}
+		} else {
+			setTargetsToAllPoints(mtpTable, pointSet);
+			lookUpTargets(patternIndices[0], patternIndices[1], mtpTable, pointSet);
+		}
+
+		for (int i = 2; i < patternIndices.length && targetCount > 0; ++i) {
+			final int keyIndex = Siatechf.indexOfAllPairs(patternIndices[i - 1], patternIndices[i], mtpTable);
+			if (keyIndex < 0) {
+				lookUpTargets(patternIndices[i - 1], patternIndices[i], mtpTable, pointSet);
+			} else {
+				intersect(keyIndex, mtpTable);
+			}
+		}
+
+		return targetCount;
+	}
+
+	/**
+	 * Returns the target index at the given position in the results of the latest search.
+	 *
+	 * @param i the position of the target index
+	 * @return the target index at the given position in the results of the latest search
+	 */
+	int getTarget(int i) {
+		if (i < 0 || i >= targetCount) {
+			throw new IndexOutOfBoundsException("Index " + i + " out of bounds for " + targetCount + " targets");
+		}
+
+		return targetIndices[i];
+	}
+
+	/**
+	 * Returns true if the targets of the latest search are the last points of occurrences found with a tolerance.
+	 * The points of the occurrences are then available through {@link #getOccurrencePoint(int, int)}.
+	 *
+	 * @return true if the targets of the latest search are the last points of occurrences found with a tolerance
+	 */
+	boolean hasOccurrencePoints() {
+		return occurrenceSize > 0;
+	}
+
+	/**
+	 * Returns the index of the point at the given position in the occurrence at the given position in the results
+	 * of the latest search. This is only available if the search found occurrences with a tolerance.
+	 *
+	 * @param occurrence the position of the occurrence
+	 * @param i          the position of the point in the occurrence
+	 * @return the index of the point at the given position in the occurrence at the given position
+	 */
+	int getOccurrencePoint(int occurrence, int i) {
+		if (occurrence < 0 || occurrence >= targetCount || i < 0 || i >= occurrenceSize) {
+			throw new IndexOutOfBoundsException(
+					"Point " + i + " of occurrence " + occurrence + " out of bounds for " + targetCount
+							+ " occurrences of " + occurrenceSize + " points");
+		}
+
+		return occurrencePoints[occurrence * occurrenceSize + i];
+	}
+
+	/**
+	 * Returns the number of distinct points in the point set that are covered by the occurrences of the given MTP
+	 * that were found in the latest search. The given MTP must be the one used in the latest search.
+	 *
+	 * @param patternIndices the indices of the points of the MTP used in the latest search
+	 * @param pointSet       the point set that contains the MTP
+	 * @return the number of distinct points covered by the occurrences of the given MTP
+	 */
+	int countCoveredPoints(int[] patternIndices, PointSet pointSet) {
+		final int lastIndex = patternIndices[patternIndices.length - 1];
+		coveredPoints.clear();
+
+		if (hasOccurrencePoints()) {
+			for (int i = 0; i < targetCount * occurrenceSize; ++i) {
+				coveredPoints.set(occurrencePoints[i]);
+			}
+
+			return coveredPoints.cardinality();
+		}
+
+		for (int j = 0; j < targetCount; ++j) {
+			final int target = targetIndices[j];
+			final long offsetTranslation = pointSet.getOffset(target) - pointSet.getOffset(lastIndex);
+			final int pitchTranslation = pointSet.getPitch(target) - pointSet.getPitch(lastIndex);
+			final int partTranslation = pointSet.getPart(target) - pointSet.getPart(lastIndex);
+
+			// The translated points are in the same order as the points of the pattern, so each one is searched
+			// backwards from the previous one. Equal points are marked at the same index to count them once.
+			int translatedIndex = target;
+			for (int i = patternIndices.length - 1; i >= 0; --i) {
+				final int index = patternIndices[i];
+				translatedIndex = pointSet.firstIndexAtOrBefore(pointSet.getOffset(index) + offsetTranslation,
+						pointSet.getPitch(index) + pitchTranslation, pointSet.getPart(index) + partTranslation,
+						translatedIndex);
+				coveredPoints.set(translatedIndex);
+			}
+		}
+
+		return coveredPoints.cardinality();
+	}
+
+	private void setTargetsToAllPoints(MtpTable mtpTable, PointSet pointSet) {
+		targetCount = 0;
+		for (int i = 0; i < pointSet.size(); ++i) {
+			if (!mtpTable.isRemoved(i)) {
+				targetIndices[targetCount++] = i;
+			}
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (targetIndices.length < capacity) {
+			targetIndices = new int[capacity];
+			newTargetIndices = new int[capacity];
+		}
+	}
+
+	/*
+	 * Finds the occurrences of the MTP in a table with a tolerance. The candidate keys are the keys of the pairs
+	 * of the first point of the MTP, which are collected in the buffer of the new targets.
+	 */
+	private void findOccurrences(int[] patternIndices, MtpTable mtpTable) {
+		final int first = patternIndices[0];
+		int candidateCount = 0;
+		for (int j = first + 1; j < mtpTable.getWindowEnd(first); ++j) {
+			final int keyIndex = mtpTable.indexOf(mtpTable.getKey(first, j));
+			if (keyIndex >= 0) {
+				newTargetIndices[candidateCount++] = keyIndex;
+			}
+		}
+
+		Arrays.sort(newTargetIndices, 0, candidateCount);
+
+		occurrenceSize = patternIndices.length;
+		targetCount = 0;
+		addOccurrence(patternIndices);
+
+		for (int c = 0; c < candidateCount; ++c) {
+			final int keyIndex = newTargetIndices[c];
+			if (c > 0 && keyIndex == newTargetIndices[c - 1]) {
+				continue;
+			}
+
+			// The points of the occurrence are written after the last occurrence and kept only if all are found.
+			ensureOccurrenceCapacity((targetCount + 1) * occurrenceSize);
+			final int occurrenceStart = targetCount * occurrenceSize;
+			int i = 0;
+			while (i < occurrenceSize) {
+				final int pairIndex = mtpTable.indexOfPair(keyIndex, patternIndices[i]);
+				if (pairIndex < 0) {
+					break;
+				}
+
+				occurrencePoints[occurrenceStart + i++] = mtpTable.getSecond(pairIndex);
+			}
+
+			if (i == occurrenceSize) {
+				targetIndices[targetCount++] = occurrencePoints[occurrenceStart + occurrenceSize - 1];
+			}
+		}
+	}
+
+	private void addOccurrence(int[] pointIndices) {
+		ensureOccurrenceCapacity((targetCount + 1) * occurrenceSize);
+		System.arraycopy(pointIndices, 0, occurrencePoints, targetCount * occurrenceSize, occurrenceSize);
+		targetIndices[targetCount++] = pointIndices[occurrenceSize - 1];
+	}
+
+	private void ensureOccurrenceCapacity(int capacity) {
+		if (occurrencePoints.length < capacity) {
+			occurrencePoints = Arrays.copyOf(occurrencePoints, Math.max(capacity, 2 * occurrencePoints.length));
+		}
+	}
+
+	/*
+	 * Replaces the targets with the second points of the index pairs with the difference vector of the given key
+	 * whose first point is one of the targets. Both the targets and the first points of the pairs are in ascending
+	 * order.
+	 */
+	private void intersect(int keyIndex, MtpTable mtpTable) {
+		final int pairsEnd = mtpTable.getVectorPairsEnd(keyIndex);
+		int newTargetCount = 0;
+
+		int j = 0;
+		int k = mtpTable.getVectorPairsStart(keyIndex);
+
+		while (j < targetCount && k < pairsEnd) {
+			final int target = targetIndices[j];
+			final int first = mtpTable.getFirst(k);
+
+			if (target == first) {
+				newTargetIndices[newTargetCount++] = mtpTable.getSecond(k);
+				++j;
+				++k;
+			} else if (target < first) {
+				++j;
+			} else {
+				++k;
+			}
+		}
+
+		swapBuffers(newTargetCount);
+	}
+
+	/*
+	 * Replaces the targets with the points that are translated from them by the difference from the first point
+	 * to the second point. The points are looked up from the point set, which is used for the differences that are
+	 * outside the window of the MTP table.
+	 */
+	private void lookUpTargets(int first, int second, MtpTable mtpTable, PointSet pointSet) {
+		final long offsetDifference = pointSet.getOffset(second) - pointSet.getOffset(first);
+		final int pitchDifference = pointSet.getPitch(second) - pointSet.getPitch(first);
+		final int partDifference = pointSet.getPart(second) - pointSet.getPart(first);
+		int newTargetCount = 0;
+
+		for (int j = 0; j < targetCount; ++j) {
+			final int target = targetIndices[j];
+			final int index = pointSet.indexOf(pointSet.getOffset(target) + offsetDifference,
+					pointSet.getPitch(target) + pitchDifference, pointSet.getPart(target) + partDifference);
+
+			if (index >= 0 && !mtpTable.isRemoved(index)) {
+				newTargetIndices[newTargetCount++] = index;
+			}
+		}
+
+		swapBuffers(newTargetCount);
+	}
+
+	private void swapBuffers(int newTargetCount) {
+		final int[] previousTargetIndices = targetIndices;
+		targetIndices = newTargetIndices;
+		newTargetIndices = previousTargetIndices;
+		targetCount = newTargetCount;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+/**
+ * Translation invariant key of the MTP at a key index of an MTP table.
+ * <p>
+ * Two keys are equal if the vectorized representations of their MTPs are equal, that is, if one of the MTPs
+ * is a translation of the other. This gives the same equality as {@link PointPattern#vectorized()} without
+ * creating the difference vectors. The hash code is computed from the differences of the points with a
+ * polynomial hash when the key is created, and the points of the MTPs are compared only when the hash codes
+ * of two keys are equal.
+ * <p>
+ * The keys refer to the points in the MTP table, so the table must not be changed while the keys are used.
+ * This class is immutable as long as the MTP table is not changed.
+ */
+final class VectorizedMtp {
+
+	private static final int OFFSET_MULTIPLIER_INDEX = 0;
+	private static final int PITCH_MULTIPLIER_INDEX = 1;
+	private static final int PART_MULTIPLIER_INDEX = 2;
+	private static final int BASE_MULTIPLIER_INDEX = 3;
+
+	private final int keyIndex;
+	private final MtpTable mtpTable;
+	private final PointSet pointSet;
+	private final int hash;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param keyIndex       the key index of the MTP in the MTP table
+	 * @param patternIndices the indices of the points of the MTP as returned by
+	 *                       {@link Siatechf#computeMtp(int, MtpTable)}
+	 * @param mtpTable       the MTP table that contains the MTP
+	 * @param pointSet       the point set of the MTP table
+	 */
+	VectorizedMtp(int keyIndex, int[] patternIndices, MtpTable mtpTable, PointSet pointSet) {
+		this.keyIndex = keyIndex;
+		this.mtpTable = mtpTable;
+		this.pointSet = pointSet;
+		this.hash = computeHash(patternIndices, pointSet);
+	}
+
+	private static int computeHash(int[] patternIndices, PointSet pointSet) {
+		final RandomMultipliers multipliers = RandomMultipliers.INSTANCE;
+		final long offsetMultiplier = multipliers.getMultiplier(OFFSET_MULTIPLIER_INDEX);
+		final long pitchMultiplier = multipliers.getMultiplier(PITCH_MULTIPLIER_INDEX);
+		final long partMultiplier = multipliers.getMultiplier(PART_MULTIPLIER_INDEX);
+
+		// An odd base keeps the information of the earlier differences in the low bits.
+		final long base = multipliers.getMultiplier(BASE_MULTIPLIER_INDEX) | 1L;
+
+		long hash = patternIndices.length;
+		for (int i = 1; i < patternIndices.length; ++i) {
+			final int previous = patternIndices[i - 1];
+			final int current = patternIndices[i];
+
+			final long difference = (pointSet.getOffset(current) - pointSet.getOffset(previous)) * offsetMultiplier
+					+ (pointSet.getPitch(current) - pointSet.getPitch(previous)) * pitchMultiplier
+					+ (pointSet.getPart(current) - pointSet.getPart(previous)) * partMultiplier;
+
+			hash = hash * base + difference;
+		}
+
+		return (int) (hash ^ (hash >>> Integer.SIZE));
+	}
+
+	/**
+	 * Returns the key index of the MTP in the MTP table.
+	 *
+	 * @return the key index of the MTP in the MTP table
+	 */
+	int getKeyIndex() {
+		return keyIndex;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
+		if (!(o instanceof VectorizedMtp)) {
+			return false;
+		}
+
+		final VectorizedMtp other = (VectorizedMtp) o;
+		if (hash != other.hash || mtpTable.getPairCount(keyIndex) != other.mtpTable.getPairCount(other.keyIndex)) {
+			return false;
+		}
+
+		// The MTPs are translations of each other if all points have the same difference to the first point.
+		final int start = mtpTable.getPairsStart(keyIndex);
+		final int otherStart = other.mtpTable.getPairsStart(other.keyIndex);
+		final int first = mtpTable.getFirst(start);
+		final int otherFirst = other.mtpTable.getFirst(otherStart);
+
+		for (int i = 1; i < mtpTable.getPairCount(keyIndex); ++i) {
+			final int point = mtpTable.getFirst(start + i);
+			final int otherPoint = other.mtpTable.getFirst(otherStart + i);
+
+			if (pointSet.getOffset(point) - pointSet.getOffset(first)
+					!= other.pointSet.getOffset(otherPoint) - other.pointSet.getOffset(otherFirst)
+					|| pointSet.getPitch(point) - pointSet.getPitch(first)
+					!= other.pointSet.getPitch(otherPoint) - other.pointSet.getPitch(otherFirst)
+					|| pointSet.getPart(point) - pointSet.getPart(first)
+					!= other.pointSet.getPart(otherPoint) - other.pointSet.getPart(otherFirst)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "MTP at key index " + keyIndex;
+	}
+}
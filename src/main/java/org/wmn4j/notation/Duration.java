@@ -3,7 +3,6 @@
  */
 package org.wmn4j.notation;
 
-import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Iterator;
 
@@ -15,10 +14,24 @@ import java.util.Iterator;
  * 1/4. The rational number is always reduced to the lowest possible numerator
  * and denominator.
  * <p>
+ * Instances of the common durations, whose reduced denominator is at most 1024
+ * and reduced numerator at most 32, are cached and shared, so the arithmetic of
+ * durations does not create new objects in the common case.
+ * <p>
  * This class is immutable.
  */
 public final class Duration implements Comparable<Duration> {
 
+	private static final int MAX_CACHED_DENOMINATOR = 1024;
+	private static final int MAX_CACHED_NUMERATOR = 32;
+
+	/*
+	 * The cache is filled lazily without synchronization. Threads that race to
+	 * fill the same entry can create separate but equal instances, which is safe
+	 * as the fields of durations are final.
+	 */
+	private static final Duration[] CACHE = new Duration[MAX_CACHED_DENOMINATOR * MAX_CACHED_NUMERATOR];
+
 	private final int numerator;
 	private final int denominator;
 
@@ -43,14 +56,65 @@ public final class Duration implements Comparable<Duration> {
 		int reducedNumerator = numerator;
 		int reducedDenominator = denominator;
 
-		// TODO: Come up with a more effective way of finding GCD
 		if (numerator != 1) {
-			final int gcd = BigInteger.valueOf(numerator).gcd(BigInteger.valueOf(denominator)).intValue();
+			final int gcd = (int) greatestCommonDivisor(numerator, denominator);
 			reducedNumerator = numerator / gcd;
 			reducedDenominator = denominator / gcd;
 		}
-		// TODO: Implement caching instead of creating new.
-		return new Duration(reducedNumerator, reducedDenominator);
+
+		if (reducedNumerator > MAX_CACHED_NUMERATOR || reducedDenominator > MAX_CACHED_DENOMINATOR) {
+			return new Duration(reducedNumerator, reducedDenominator);
+		}
+
+		final int cacheIndex = (reducedDenominator - 1) * MAX_CACHED_NUMERATOR + reducedNumerator - 1;
+		Duration cached = CACHE[cacheIndex];
+		if (cached == null) {
+			cached = new Duration(reducedNumerator, reducedDenominator);
+			CACHE[cacheIndex] = cached;
+		}
+
+		return cached;
+	}
+
+	/*
+	 * Returns the greatest common divisor of the given positive values using the
+	 * binary GCD algorithm.
+	 */
+	private static long greatestCommonDivisor(long a, long b) {
+		final int commonTwos = Long.numberOfTrailingZeros(a | b);
+		long oddA = a >> Long.numberOfTrailingZeros(a);
+		long oddB = b;
+
+		while (oddB != 0) {
+			oddB >>= Long.numberOfTrailingZeros(oddB);
+			if (oddA > oddB) {
+				final long swap = oddA;
+				oddA = oddB;
+				oddB = swap;
+			}
+
+			oddB -= oddA;
+		}
+
+		return oddA << commonTwos;
+	}
+
+	/*
+	 * Returns the least common multiple of the given positive values.
+	 */
+	static long leastCommonMultiple(long a, long b) {
+		return Math.multiplyExact(a / greatestCommonDivisor(a, b), b);
+	}
+
+	/**
+	 * Returns true if this duration is one of the common durations whose instances
+	 * are shared.
+	 *
+	 * @return true if this duration is one of the common durations whose instances
+	 * are shared
+	 */
+	boolean isShared() {
+		return this.numerator <= MAX_CACHED_NUMERATOR && this.denominator <= MAX_CACHED_DENOMINATOR;
 	}
 
 	/**
@@ -149,6 +213,10 @@ public final class Duration implements Comparable<Duration> {
 	 * @return a Duration that is the sum of this and other.
 	 */
 	public Duration add(Duration other) {
+		if (this.denominator == other.denominator) {
+			return of(this.numerator + other.numerator, this.denominator);
+		}
+
 		final int nom = this.numerator * other.denominator + this.denominator * other.numerator;
 		final int denom = this.denominator * other.denominator;
 
@@ -163,6 +231,10 @@ public final class Duration implements Comparable<Duration> {
 	 * @return a Duration that is this other minus other.
 	 */
 	public Duration subtract(Duration other) {
+		if (this.denominator == other.denominator) {
+			return of(this.numerator - other.numerator, this.denominator);
+		}
+
 		final int nom = this.numerator * other.denominator - this.denominator * other.numerator;
 		final int denom = this.denominator * other.denominator;
 
@@ -245,14 +317,26 @@ public final class Duration implements Comparable<Duration> {
 			throw new IllegalArgumentException("Cannot compute sum of durations from empty list");
 		}
 
-		Iterator<Duration> iterator = durations.iterator();
-		Duration cumulatedDur = iterator.next();
+		final Iterator<Duration> iterator = durations.iterator();
+		final Duration first = iterator.next();
+		long numerator = first.numerator;
+		long denominator = first.denominator;
 
-		// TODO: Optimize this.
+		// The sum is accumulated as a fraction of primitive values, so only the result is created.
 		while (iterator.hasNext()) {
-			cumulatedDur = cumulatedDur.add(iterator.next());
+			final Duration next = iterator.next();
+			if (next.denominator == denominator) {
+				numerator += next.numerator;
+			} else {
+				numerator = numerator * next.denominator + denominator * next.numerator;
+				denominator *= next.denominator;
+
+				final long gcd = greatestCommonDivisor(numerator, denominator);
+				numerator /= gcd;
+				denominator /= gcd;
+			}
 		}
 
-		return cumulatedDur;
+		return of(Math.toIntExact(numerator), Math.toIntExact(denominator));
 	}
 }
@@ -6,6 +6,7 @@ package org.wmn4j.notation;
 import org.wmn4j.notation.access.MeasureIterator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -13,20 +14,28 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.SortedMap;
-import java.util.TreeMap;
 
 /**
  * Represents a measure. A measure may contain multiple voices that are referred
  * to using voice numbers. This class is immutable. Use the MeasureBuilder class
  * for easier creation of Measures.
  * <p>
+ * The voice numbers are stored in a sorted array and the contents of each voice
+ * in an array, so accessing the elements of a measure does not create objects.
+ * The onsets of the elements are counted in ticks, of which there are
+ * {@link #getTicksPerWholeNote()} in a whole note, and are computed when first
+ * needed.
+ * <p>
  * This class is immutable.
  */
 public final class Measure implements Iterable<Durational> {
 
 	private final int number;
-	private final SortedMap<Integer, List<Durational>> voices;
+	private final int[] voiceNumbers;
+	private final List<Integer> voiceNumberList;
+	private final Durational[][] voices;
 	private final MeasureAttributes measureAttr;
+	private volatile Onsets onsets;
 
 	/**
 	 * Returns a measure with the given values.
@@ -108,13 +117,23 @@ public final class Measure implements Iterable<Durational> {
 		}
 
 		this.number = number;
-		final SortedMap<Integer, List<Durational>> voicesCopy = new TreeMap<>();
-
+		this.voiceNumbers = new int[noteVoices.size()];
+		int voiceIndex = 0;
 		for (Integer voiceNum : noteVoices.keySet()) {
-			voicesCopy.put(voiceNum, Collections.unmodifiableList(new ArrayList<>(noteVoices.get(voiceNum))));
+			this.voiceNumbers[voiceIndex++] = voiceNum;
 		}
 
-		this.voices = Collections.unmodifiableSortedMap(voicesCopy);
+		Arrays.sort(this.voiceNumbers);
+
+		final List<Integer> voiceNumberCopy = new ArrayList<>(this.voiceNumbers.length);
+		this.voices = new Durational[this.voiceNumbers.length][];
+		for (voiceIndex = 0; voiceIndex < this.voiceNumbers.length; ++voiceIndex) {
+			final int voiceNum = this.voiceNumbers[voiceIndex];
+			voiceNumberCopy.add(voiceNum);
+			this.voices[voiceIndex] = noteVoices.get(voiceNum).toArray(new Durational[0]);
+		}
+
+		this.voiceNumberList = Collections.unmodifiableList(voiceNumberCopy);
 
 		this.measureAttr = Objects.requireNonNull(measureAttr);
 
@@ -126,11 +145,20 @@ public final class Measure implements Iterable<Durational> {
 	/**
 	 * Returns the voice numbers in this measure in ascending order.
 	 * Voice numbers are not necessarily consecutive and do not need begin from 0.
+	 * The returned list is unmodifiable.
 	 *
 	 * @return list of the voice numbers used in this measure.
 	 */
 	public List<Integer> getVoiceNumbers() {
-		return new ArrayList<>(this.voices.keySet());
+		return this.voiceNumberList;
+	}
+
+	/*
+	 * Returns the contents of the voice with the given number or null if there is no such voice.
+	 */
+	private Durational[] getVoice(int voiceNumber) {
+		final int voiceIndex = Arrays.binarySearch(this.voiceNumbers, voiceNumber);
+		return voiceIndex >= 0 ? this.voices[voiceIndex] : null;
 	}
 
 	/**
@@ -139,9 +167,15 @@ public final class Measure implements Iterable<Durational> {
 	 *
 	 * @param voiceNumber the voice for which the number of elements is returned
 	 * @return the number of elements in the voice with voiceNumber
+	 * @throws NoSuchElementException if there is no voice with the given number in this measure
 	 */
 	public int getVoiceSize(int voiceNumber) {
-		return this.voices.get(voiceNumber).size();
+		final Durational[] voice = getVoice(voiceNumber);
+		if (voice == null) {
+			throw new NoSuchElementException("No voice with number " + voiceNumber + " in measure");
+		}
+
+		return voice.length;
 	}
 
 	/**
@@ -150,7 +184,7 @@ public final class Measure implements Iterable<Durational> {
 	 * @return number of voices in this measure
 	 */
 	public int getVoiceCount() {
-		return this.voices.keySet().size();
+		return this.voiceNumbers.length;
 	}
 
 	/**
@@ -257,16 +291,100 @@ public final class Measure implements Iterable<Durational> {
 	 *                                if the index is out of range
 	 */
 	public Durational get(int voiceNumber, int index) throws NoSuchElementException {
-		if (!this.voices.keySet().contains(voiceNumber)) {
+		final Durational[] voice = getVoice(voiceNumber);
+		if (voice == null || index < 0 || index >= voice.length) {
 			throw new NoSuchElementException();
 		}
 
-		final List<Durational> voice = this.voices.get(voiceNumber);
-		if (index < 0 || index >= voice.size()) {
+		return voice[index];
+	}
+
+	private Onsets getOnsets() {
+		Onsets computedOnsets = this.onsets;
+		if (computedOnsets == null) {
+			computedOnsets = new Onsets(this);
+			this.onsets = computedOnsets;
+		}
+
+		return computedOnsets;
+	}
+
+	/**
+	 * Returns the number of ticks in a whole note used for the onsets of this
+	 * measure. This is the smallest number of ticks with which the onsets and
+	 * durations of all elements in this measure, and the total duration of the time
+	 * signature of this measure, are whole numbers of ticks.
+	 *
+	 * @return the number of ticks in a whole note used for the onsets of this
+	 *         measure
+	 */
+	public long getTicksPerWholeNote() {
+		return getOnsets().ticksPerWholeNote;
+	}
+
+	/**
+	 * Returns the onset of the {@link Durational} at the given index on the given
+	 * voice number in ticks counted from the beginning of this measure.
+	 *
+	 * @param voiceNumber the number of the voice of the element
+	 * @param index       index of element on the voice
+	 * @return the onset of the element in ticks from the beginning of this measure
+	 * @throws NoSuchElementException if there is no voice with the given number or
+	 *                                if the index is out of range
+	 */
+	public long getOnsetInTicks(int voiceNumber, int index) throws NoSuchElementException {
+		final int voiceIndex = Arrays.binarySearch(this.voiceNumbers, voiceNumber);
+		if (voiceIndex < 0 || index < 0 || index >= this.voices[voiceIndex].length) {
 			throw new NoSuchElementException();
 		}
 
-		return voice.get(index);
+		return getOnsets().onsetsInVoices[voiceIndex][index];
+	}
+
+	/*
+	 * Returns the length of the longest voice in this measure in ticks, or zero if
+	 * there are no voices.
+	 */
+	long getLongestVoiceInTicks() {
+		long longest = 0;
+		for (long[] voiceOnsets : getOnsets().onsetsInVoices) {
+			longest = Math.max(longest, voiceOnsets[voiceOnsets.length - 1]);
+		}
+
+		return longest;
+	}
+
+	/**
+	 * Returns the elements that sound at the given number of ticks from the
+	 * beginning of this measure. An element sounds from its onset up to, but not
+	 * including, its onset added with its duration. The elements are in the order of
+	 * their voice numbers and voices without an element at the given time are
+	 * skipped.
+	 *
+	 * @param ticks the time counted in ticks from the beginning of this measure
+	 * @return the elements that sound at the given time
+	 * @throws IllegalArgumentException if ticks is negative
+	 */
+	public List<Durational> getDurationalsAt(long ticks) {
+		if (ticks < 0) {
+			throw new IllegalArgumentException("ticks cannot be negative");
+		}
+
+		final long[][] onsetsInVoices = getOnsets().onsetsInVoices;
+		final List<Durational> durationals = new ArrayList<>();
+		for (int voiceIndex = 0; voiceIndex < this.voices.length; ++voiceIndex) {
+			// The onset array of a voice ends with the offset of the end of the voice.
+			final long[] voiceOnsets = onsetsInVoices[voiceIndex];
+			if (ticks >= voiceOnsets[voiceOnsets.length - 1]) {
+				continue;
+			}
+
+			final int searchResult = Arrays.binarySearch(voiceOnsets, ticks);
+			final int index = searchResult >= 0 ? searchResult : -searchResult - 2;
+			durationals.add(this.voices[voiceIndex][index]);
+		}
+
+		return durationals;
 	}
 
 	/**
@@ -275,7 +393,7 @@ public final class Measure implements Iterable<Durational> {
 	 * @return true if this measure is a full measure rest
 	 */
 	public boolean isFullMeasureRest() {
-		return this.voices.isEmpty();
+		return this.voiceNumbers.length == 0;
 	}
 
 	@Override
@@ -283,11 +401,11 @@ public final class Measure implements Iterable<Durational> {
 		final StringBuilder strBuilder = new StringBuilder();
 		strBuilder.append("Measure ").append(this.number).append(", ").append(this.measureAttr).append(":\n");
 
-		for (Integer i : this.voices.keySet()) {
-			strBuilder.append("Voice ").append(i).append(": ");
-			for (int j = 0; j < voices.get(i).size(); ++j) {
-				strBuilder.append(voices.get(i).get(j).toString());
-				if (j != voices.get(i).size() - 1) {
+		for (int i = 0; i < this.voiceNumbers.length; ++i) {
+			strBuilder.append("Voice ").append(this.voiceNumbers[i]).append(": ");
+			for (int j = 0; j < voices[i].length; ++j) {
+				strBuilder.append(voices[i][j].toString());
+				if (j != voices[i].length - 1) {
 					strBuilder.append(", ");
 				}
 			}
@@ -311,8 +429,38 @@ public final class Measure implements Iterable<Durational> {
 		return new Iter(this);
 	}
 
+	/*
+	 * The onsets of the elements in the voices of a measure counted in ticks.
+	 */
+	private static final class Onsets {
+		private final long ticksPerWholeNote;
+		private final long[][] onsetsInVoices;
+
+		Onsets(Measure measure) {
+			long ticks = measure.getTimeSignature().getTotalDuration().getDenominator();
+			for (Durational[] voice : measure.voices) {
+				for (Durational durational : voice) {
+					ticks = Duration.leastCommonMultiple(ticks, durational.getDuration().getDenominator());
+				}
+			}
+
+			this.ticksPerWholeNote = ticks;
+			this.onsetsInVoices = new long[measure.voices.length][];
+			for (int voiceIndex = 0; voiceIndex < measure.voices.length; ++voiceIndex) {
+				final Durational[] voice = measure.voices[voiceIndex];
+				final long[] voiceOnsets = new long[voice.length + 1];
+				for (int i = 0; i < voice.length; ++i) {
+					final Duration duration = voice[i].getDuration();
+					voiceOnsets[i + 1] = voiceOnsets[i]
+							+ Math.multiplyExact(ticks / duration.getDenominator(), (long) duration.getNumerator());
+				}
+
+				this.onsetsInVoices[voiceIndex] = voiceOnsets;
+			}
+		}
+	}
+
 	private static class Iter implements MeasureIterator {
-		private final List<Integer> voiceNumbers;
 		private final Measure measure;
 		private int voiceNumberIndex = 0;
 		private int positionInVoice = 0;
@@ -326,7 +474,6 @@ public final class Measure implements Iterable<Durational> {
 		 */
 		Iter(Measure measure) {
 			this.measure = measure;
-			this.voiceNumbers = measure.getVoiceNumbers();
 		}
 
 		@Override
@@ -341,12 +488,11 @@ public final class Measure implements Iterable<Durational> {
 
 		@Override
 		public boolean hasNext() {
-			if (voiceNumberIndex >= this.voiceNumbers.size()) {
+			if (voiceNumberIndex >= this.measure.voiceNumbers.length) {
 				return false;
 			}
 
-			final int voiceNumber = this.voiceNumbers.get(this.voiceNumberIndex);
-			return this.measure.getVoiceSize(voiceNumber) > 0;
+			return this.measure.voices[this.voiceNumberIndex].length > 0;
 		}
 
 		@Override
@@ -355,12 +501,13 @@ public final class Measure implements Iterable<Durational> {
 				throw new NoSuchElementException();
 			}
 
-			this.prevVoiceNumber = this.voiceNumbers.get(this.voiceNumberIndex);
+			final Durational[] voice = this.measure.voices[this.voiceNumberIndex];
+			this.prevVoiceNumber = this.measure.voiceNumbers[this.voiceNumberIndex];
 			this.prevPositionInVoice = this.positionInVoice;
-			final Durational next = measure.get(prevVoiceNumber, prevPositionInVoice);
+			final Durational next = voice[this.positionInVoice];
 
 			++this.positionInVoice;
-			if (this.positionInVoice == measure.getVoiceSize(prevVoiceNumber)) {
+			if (this.positionInVoice == voice.length) {
 				++this.voiceNumberIndex;
 				this.positionInVoice = 0;
 			}
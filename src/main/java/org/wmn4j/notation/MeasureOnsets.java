@@ -0,0 +1,186 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.notation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The onsets of the measures of a group of staves counted in ticks. The onsets are shared by all
+ * staves of the group, so that the measures with the same number start at the same onset in every staff.
+ * <p>
+ * The length of each measure is the longest total duration of the time signatures of the measures with
+ * its number. The length of the pickup measure is the duration of its longest voice in any of the staves.
+ * Only if the pickup measures of all staves are full measure rests, the pickup measure is as long as its
+ * time signature.
+ * <p>
+ * This class is immutable.
+ */
+final class MeasureOnsets {
+
+	private final long ticksPerWholeNote;
+	private final long[] measureStarts;
+	private final boolean hasPickupMeasure;
+
+	/**
+	 * Returns the measure onsets shared by all staves of the given part.
+	 *
+	 * @param part the part whose staves are used
+	 * @return the measure onsets shared by all staves of the given part
+	 */
+	static MeasureOnsets of(Part part) {
+		return new MeasureOnsets(getStaves(part));
+	}
+
+	/**
+	 * Returns the measure onsets shared by all staves of all parts of the given score.
+	 *
+	 * @param score the score whose staves are used
+	 * @return the measure onsets shared by all staves of the given score
+	 */
+	static MeasureOnsets of(Score score) {
+		final List<Staff> staves = new ArrayList<>();
+		for (Part part : score) {
+			staves.addAll(getStaves(part));
+		}
+
+		return new MeasureOnsets(staves);
+	}
+
+	private static List<Staff> getStaves(Part part) {
+		if (part instanceof SingleStaffPart) {
+			return Collections.singletonList(((SingleStaffPart) part).getStaff());
+		}
+
+		final MultiStaffPart multiStaffPart = (MultiStaffPart) part;
+		final List<Staff> staves = new ArrayList<>(multiStaffPart.getStaffCount());
+		for (int staffNumber : multiStaffPart.getStaffNumbers()) {
+			staves.add(multiStaffPart.getStaff(staffNumber));
+		}
+
+		return staves;
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param staves the staves whose measures start at the same onsets
+	 */
+	MeasureOnsets(List<Staff> staves) {
+		long ticks = 1;
+		int fullMeasureCount = 0;
+		boolean pickupMeasureFound = false;
+		for (Staff staff : staves) {
+			pickupMeasureFound |= staff.hasPickupMeasure();
+			fullMeasureCount = Math.max(fullMeasureCount, staff.getFullMeasureCount());
+			for (Measure measure : staff) {
+				ticks = Duration.leastCommonMultiple(ticks, measure.getTicksPerWholeNote());
+			}
+		}
+
+		this.ticksPerWholeNote = ticks;
+		this.hasPickupMeasure = pickupMeasureFound;
+		this.measureStarts = new long[fullMeasureCount + 2];
+		this.measureStarts[1] = computePickupLength(staves);
+
+		for (int measureNumber = 1; measureNumber <= fullMeasureCount; ++measureNumber) {
+			long measureLength = 0;
+			for (Staff staff : staves) {
+				if (measureNumber <= staff.getFullMeasureCount()) {
+					measureLength = Math.max(measureLength, getTimeSignatureLength(staff.getMeasure(measureNumber)));
+				}
+			}
+
+			this.measureStarts[measureNumber + 1] = this.measureStarts[measureNumber] + measureLength;
+		}
+	}
+
+	private long computePickupLength(List<Staff> staves) {
+		long pickupLength = 0;
+		Measure restPickup = null;
+		for (Staff staff : staves) {
+			if (!staff.hasPickupMeasure()) {
+				continue;
+			}
+
+			final Measure pickup = staff.getMeasure(0);
+			if (pickup.isFullMeasureRest()) {
+				restPickup = restPickup == null ? pickup : restPickup;
+			} else {
+				final long scale = ticksPerWholeNote / pickup.getTicksPerWholeNote();
+				pickupLength = Math.max(pickupLength, Math.multiplyExact(pickup.getLongestVoiceInTicks(), scale));
+			}
+		}
+
+		if (pickupLength == 0 && restPickup != null) {
+			return getTimeSignatureLength(restPickup);
+		}
+
+		return pickupLength;
+	}
+
+	private long getTimeSignatureLength(Measure measure) {
+		final Duration duration = measure.getTimeSignature().getTotalDuration();
+		return Math.multiplyExact(ticksPerWholeNote / duration.getDenominator(), (long) duration.getNumerator());
+	}
+
+	/**
+	 * Returns the number of ticks in a whole note used for the onsets.
+	 *
+	 * @return the number of ticks in a whole note used for the onsets
+	 */
+	long getTicksPerWholeNote() {
+		return ticksPerWholeNote;
+	}
+
+	/**
+	 * Returns the onset of the measure with the given number in ticks.
+	 *
+	 * @param measureNumber the number of the measure
+	 * @return the onset of the measure with the given number in ticks
+	 * @throws NoSuchElementException if there is no measure with the given number
+	 */
+	long getMeasureOnset(int measureNumber) {
+		if (measureNumber < (hasPickupMeasure ? 0 : 1) || measureNumber >= measureStarts.length - 1) {
+			throw new NoSuchElementException("No measure with number " + measureNumber);
+		}
+
+		return measureStarts[measureNumber];
+	}
+
+	/**
+	 * Returns the onset of the element at the given position in the given measure in ticks.
+	 *
+	 * @param measureNumber the number of the measure of the element
+	 * @param measure       the measure of the element
+	 * @param voiceNumber   the number of the voice of the element
+	 * @param index         index of element on the voice
+	 * @return the onset of the element in ticks
+	 * @throws NoSuchElementException if there is no element at the given position in the measure
+	 */
+	long getOnset(int measureNumber, Measure measure, int voiceNumber, int index) {
+		final long scale = ticksPerWholeNote / measure.getTicksPerWholeNote();
+		return getMeasureOnset(measureNumber) + measure.getOnsetInTicks(voiceNumber, index) * scale;
+	}
+
+	/**
+	 * Returns the number of the measure that contains the given number of ticks.
+	 *
+	 * @param ticks              the time counted in ticks
+	 * @param firstMeasureNumber the number of the first measure from which the measure is searched
+	 * @return the number of the measure that contains the given time
+	 * @throws NoSuchElementException if the given time is after the end of the last measure
+	 */
+	int getMeasureNumberAt(long ticks, int firstMeasureNumber) {
+		if (ticks >= measureStarts[measureStarts.length - 1]) {
+			throw new NoSuchElementException("No measure at " + ticks + " ticks");
+		}
+
+		final int searchResult = Arrays.binarySearch(measureStarts, firstMeasureNumber, measureStarts.length, ticks);
+		return searchResult >= 0 ? searchResult : -searchResult - 2;
+	}
+}
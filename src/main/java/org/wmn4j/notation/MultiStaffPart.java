@@ -25,6 +25,7 @@ public final class MultiStaffPart implements Part {
 
 	private final Map<Part.Attribute, String> partAttributes;
 	private final SortedMap<Integer, Staff> staves;
+	private volatile MeasureOnsets measureOnsets;
 
 	/**
 	 * Returns a part with multiple staves with the given values. The staves are
@@ -104,6 +105,32 @@ public final class MultiStaffPart implements Part {
 		return new ArrayList<>(this.staves.keySet());
 	}
 
+	private MeasureOnsets getMeasureOnsets() {
+		MeasureOnsets computedOnsets = this.measureOnsets;
+		if (computedOnsets == null) {
+			computedOnsets = MeasureOnsets.of(this);
+			this.measureOnsets = computedOnsets;
+		}
+
+		return computedOnsets;
+	}
+
+	@Override
+	public long getTicksPerWholeNote() {
+		return getMeasureOnsets().getTicksPerWholeNote();
+	}
+
+	@Override
+	public long getMeasureOnsetInTicks(int measureNumber) {
+		return getMeasureOnsets().getMeasureOnset(measureNumber);
+	}
+
+	@Override
+	public long getOnsetInTicks(int staffNumber, int measureNumber, int voiceNumber, int index) {
+		return getMeasureOnsets().getOnset(measureNumber, getMeasure(staffNumber, measureNumber), voiceNumber,
+				index);
+	}
+
 	@Override
 	public Optional<String> getAttribute(Attribute attribute) {
 		return Optional.ofNullable(partAttributes.getOrDefault(attribute, null));
@@ -8,9 +8,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -19,10 +21,15 @@ import java.util.stream.Collectors;
  * singly linked list where a previous note keeps track of the following tied
  * note.
  * <p>
+ * Notes without articulations, markings, and ties that have one of the common
+ * durations are cached, so equal notes of this kind share the same instance.
+ * <p>
  * This class is immutable.
  */
 public final class Note implements Durational, Pitched {
 
+	private static final List<Map<Duration, Note>> PLAIN_NOTES = createPlainNoteCache();
+
 	private final Pitch pitch;
 	private final Duration duration;
 	private final Set<Articulation> articulations;
@@ -65,7 +72,7 @@ public final class Note implements Durational, Pitched {
 	 * @return an instance with the given parameters
 	 */
 	public static Note of(Pitch pitch, Duration duration, Set<Articulation> articulations) {
-		return new Note(pitch, duration, articulations, null, null, false);
+		return of(pitch, duration, articulations, null, null, false);
 	}
 
 	/**
@@ -79,7 +86,7 @@ public final class Note implements Durational, Pitched {
 	 */
 	public static Note of(Pitch pitch, Duration duration, Set<Articulation> articulations,
 			Collection<Marking.Connection> markingConnections) {
-		return new Note(pitch, duration, articulations, markingConnections, null, false);
+		return of(pitch, duration, articulations, markingConnections, null, false);
 	}
 
 	/**
@@ -95,9 +102,27 @@ public final class Note implements Durational, Pitched {
 	 */
 	public static Note of(Pitch pitch, Duration duration, Set<Articulation> articulations,
 			Collection<Marking.Connection> markingConnections, Note tiedTo, boolean isTiedFromPrevious) {
+		final boolean isPlain = (articulations == null || articulations.isEmpty())
+				&& (markingConnections == null || markingConnections.isEmpty())
+				&& tiedTo == null && !isTiedFromPrevious;
+
+		if (isPlain && Objects.requireNonNull(duration).isShared()) {
+			return PLAIN_NOTES.get(Objects.requireNonNull(pitch).getIndex()).computeIfAbsent(duration,
+					plainDuration -> new Note(pitch, plainDuration, null, null, null, false));
+		}
+
 		return new Note(pitch, duration, articulations, markingConnections, tiedTo, isTiedFromPrevious);
 	}
 
+	private static List<Map<Duration, Note>> createPlainNoteCache() {
+		final List<Map<Duration, Note>> plainNotes = new ArrayList<>(Pitch.PITCH_COUNT);
+		for (int i = 0; i < Pitch.PITCH_COUNT; ++i) {
+			plainNotes.add(new ConcurrentHashMap<>());
+		}
+
+		return Collections.unmodifiableList(plainNotes);
+	}
+
 	/**
 	 * Private constructor.
 	 */
@@ -93,6 +93,42 @@ public interface Part extends Iterable<Measure> {
 	 */
 	Measure getMeasure(int staffNumber, int measureNumber) throws NoSuchElementException;
 
+	/**
+	 * Returns the number of ticks in a whole note used for the onsets in this
+	 * part. The onsets and durations of all elements in the measures of this part
+	 * are whole numbers of ticks.
+	 *
+	 * @return the number of ticks in a whole note used for the onsets in this part
+	 */
+	long getTicksPerWholeNote();
+
+	/**
+	 * Returns the onset of the measure with the given number in ticks counted from
+	 * the beginning of this part. The measures with the same number start at the
+	 * same onset in all staves of this part. The length of the pickup measure is
+	 * the duration of its longest voice in any of the staves.
+	 *
+	 * @param measureNumber the number of the measure
+	 * @return the onset of the measure in ticks from the beginning of this part
+	 * @throws NoSuchElementException if there is no measure with the given number
+	 *                                in this part
+	 */
+	long getMeasureOnsetInTicks(int measureNumber);
+
+	/**
+	 * Returns the onset of the {@link Durational} at the given position in ticks
+	 * counted from the beginning of this part.
+	 *
+	 * @param staffNumber   the number of the staff of the element
+	 * @param measureNumber the number of the measure of the element
+	 * @param voiceNumber   the number of the voice of the element
+	 * @param index         index of element on the voice
+	 * @return the onset of the element in ticks from the beginning of this part
+	 * @throws NoSuchElementException if there is no element at the given position
+	 *                                in this part
+	 */
+	long getOnsetInTicks(int staffNumber, int measureNumber, int voiceNumber, int index);
+
 	/**
 	 * Returns a part iterator that can be used to iterate through the measures in
 	 * this part.
@@ -13,6 +13,9 @@ import java.util.Objects;
  * <a href="http://en.wikipedia.org/wiki/Scientific_pitch_notation">scientific
  * pitch notation</a>.
  * <p>
+ * There is a single shared instance of each pitch, so pitches can be compared
+ * for equality by reference.
+ * <p>
  * This class is immutable.
  */
 public final class Pitch implements Comparable<Pitch> {
@@ -73,6 +76,26 @@ public final class Pitch implements Comparable<Pitch> {
 	 */
 	public static final int MAX_OCTAVE = 10;
 
+	private static final int ALTER_COUNT = 2 * ALTER_LIMIT + 1;
+	private static final int OCTAVE_COUNT = MAX_OCTAVE + 1;
+
+	/**
+	 * The number of distinct pitches.
+	 */
+	static final int PITCH_COUNT = Base.values().length * ALTER_COUNT * OCTAVE_COUNT;
+
+	private static final Pitch[] PITCHES = new Pitch[PITCH_COUNT];
+
+	static {
+		for (Base pitchBase : Base.values()) {
+			for (int alter = -ALTER_LIMIT; alter <= ALTER_LIMIT; ++alter) {
+				for (int octave = 0; octave <= MAX_OCTAVE; ++octave) {
+					PITCHES[toIndex(pitchBase, alter, octave)] = new Pitch(pitchBase, alter, octave);
+				}
+			}
+		}
+	}
+
 	private final Base pitchBase;
 	private final int alter;
 	private final int octave;
@@ -101,7 +124,21 @@ public final class Pitch implements Comparable<Pitch> {
 			throw new IllegalArgumentException("octave was " + octave + ". octave must be between 0 and " + MAX_OCTAVE);
 		}
 
-		return new Pitch(Objects.requireNonNull(pitchName), alter, octave);
+		return PITCHES[toIndex(Objects.requireNonNull(pitchName), alter, octave)];
+	}
+
+	private static int toIndex(Base pitchName, int alter, int octave) {
+		return (pitchName.ordinal() * ALTER_COUNT + alter + ALTER_LIMIT) * OCTAVE_COUNT + octave;
+	}
+
+	/**
+	 * Returns the index of this pitch among all distinct pitches, from 0 to
+	 * {@link #PITCH_COUNT} exclusive.
+	 *
+	 * @return the index of this pitch among all distinct pitches
+	 */
+	int getIndex() {
+		return toIndex(this.pitchBase, this.alter, this.octave);
 	}
 
 	/**
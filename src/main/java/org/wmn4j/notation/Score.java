@@ -63,6 +63,7 @@ public final class Score implements Iterable<Part> {
 
 	private final Map<Attribute, String> scoreAttr;
 	private final List<Part> parts;
+	private volatile MeasureOnsets measureOnsets;
 
 	/**
 	 * Returns a score with the given attributes and parts.
@@ -164,6 +165,58 @@ public final class Score implements Iterable<Part> {
 		return dur;
 	}
 
+	private MeasureOnsets getMeasureOnsets() {
+		MeasureOnsets computedOnsets = this.measureOnsets;
+		if (computedOnsets == null) {
+			computedOnsets = MeasureOnsets.of(this);
+			this.measureOnsets = computedOnsets;
+		}
+
+		return computedOnsets;
+	}
+
+	/**
+	 * Returns the number of ticks in a whole note used for the onsets in this score.
+	 * The onsets and durations of all elements in the measures of this score are whole numbers of ticks.
+	 *
+	 * @return the number of ticks in a whole note used for the onsets in this score
+	 */
+	public long getTicksPerWholeNote() {
+		return getMeasureOnsets().getTicksPerWholeNote();
+	}
+
+	/**
+	 * Returns the onset of the measure with the given number in ticks counted from the beginning of this score.
+	 * <p>
+	 * The measures with the same number start at the same onset in all staves of all parts. The length of each
+	 * measure is the total duration of its time signature. The length of the pickup measure is the duration of
+	 * its longest voice in any of the staves, or the duration of its time signature if it is a full measure rest
+	 * in every staff.
+	 *
+	 * @param measureNumber the number of the measure
+	 * @return the onset of the measure in ticks from the beginning of this score
+	 * @throws NoSuchElementException if there is no measure with the given number in this score
+	 */
+	public long getMeasureOnsetInTicks(int measureNumber) {
+		return getMeasureOnsets().getMeasureOnset(measureNumber);
+	}
+
+	/**
+	 * Returns the onset of the element at the given position in ticks counted from the beginning of this score.
+	 * The onset of a note in a chord is the onset of the chord. The measures start at the onsets given by
+	 * {@link #getMeasureOnsetInTicks(int)}.
+	 *
+	 * @param position the position of the element
+	 * @return the onset of the element at the given position in ticks from the beginning of this score
+	 * @throws NoSuchElementException if the position is not found in this score
+	 */
+	public long getOnsetInTicks(Position position) {
+		final Measure measure = this.parts.get(position.getPartIndex()).getMeasure(position.getStaffNumber(),
+				position.getMeasureNumber());
+		return getMeasureOnsets().getOnset(position.getMeasureNumber(), measure, position.getVoiceNumber(),
+				position.getIndexInVoice());
+	}
+
 	/**
 	 * Returns the pattern specified by the given pattern position in this score.
 	 * <p>
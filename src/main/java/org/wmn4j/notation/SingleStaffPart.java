@@ -27,6 +27,7 @@ public final class SingleStaffPart implements Part {
 
 	private final Map<Part.Attribute, String> partAttributes;
 	private final Staff staff;
+	private volatile MeasureOnsets measureOnsets;
 
 	/**
 	 * Returns a part with a single staff with the given name and staff.
@@ -110,6 +111,32 @@ public final class SingleStaffPart implements Part {
 		return this.staff;
 	}
 
+	private MeasureOnsets getMeasureOnsets() {
+		MeasureOnsets computedOnsets = this.measureOnsets;
+		if (computedOnsets == null) {
+			computedOnsets = MeasureOnsets.of(this);
+			this.measureOnsets = computedOnsets;
+		}
+
+		return computedOnsets;
+	}
+
+	@Override
+	public long getTicksPerWholeNote() {
+		return getMeasureOnsets().getTicksPerWholeNote();
+	}
+
+	@Override
+	public long getMeasureOnsetInTicks(int measureNumber) {
+		return getMeasureOnsets().getMeasureOnset(measureNumber);
+	}
+
+	@Override
+	public long getOnsetInTicks(int staffNumber, int measureNumber, int voiceNumber, int index) {
+		return getMeasureOnsets().getOnset(measureNumber, getMeasure(staffNumber, measureNumber), voiceNumber,
+				index);
+	}
+
 	@Override
 	public PartIterator getPartIterator() {
 		return new SingleStaffPart.Iter(this);
@@ -12,6 +12,18 @@ import java.util.NoSuchElementException;
 /**
  * Represents a staff in a score.
  * <p>
+ * The onsets of the measures and of the elements in them are counted in ticks
+ * from the beginning of the staff, of which there are
+ * {@link #getTicksPerWholeNote()} in a whole note. The length of each measure is
+ * the total duration of its time signature, except for a pickup measure, whose
+ * length is the duration of its longest voice. A staff does not know the other
+ * staves of its score, so a pickup measure that is a full measure rest is as
+ * long as its time signature. The onsets given by
+ * {@link Score#getOnsetInTicks(org.wmn4j.notation.access.Position)} and
+ * {@link Part#getOnsetInTicks(int, int, int, int)} derive the length of the
+ * pickup measure from all staves, so that the measures start at the same onsets
+ * in every staff.
+ * <p>
  * This class is immutable.
  */
 public final class Staff implements Iterable<Measure> {
@@ -32,6 +44,7 @@ public final class Staff implements Iterable<Measure> {
 
 	private final List<Measure> measures;
 	private final Type type;
+	private volatile MeasureOnsets measureOnsets;
 
 	/**
 	 * Returns a staff with the given measures.
@@ -113,6 +126,96 @@ public final class Staff implements Iterable<Measure> {
 		return this.measures.get(0) != null;
 	}
 
+	private MeasureOnsets getMeasureOnsets() {
+		MeasureOnsets computedOnsets = this.measureOnsets;
+		if (computedOnsets == null) {
+			computedOnsets = new MeasureOnsets(Collections.singletonList(this));
+			this.measureOnsets = computedOnsets;
+		}
+
+		return computedOnsets;
+	}
+
+	/**
+	 * Returns the number of ticks in a whole note used for the onsets in this
+	 * staff. The onsets and durations of all elements in the measures of this
+	 * staff are whole numbers of ticks.
+	 *
+	 * @return the number of ticks in a whole note used for the onsets in this staff
+	 */
+	public long getTicksPerWholeNote() {
+		return getMeasureOnsets().getTicksPerWholeNote();
+	}
+
+	/**
+	 * Returns the onset of the measure with the given number in ticks counted from
+	 * the beginning of this staff.
+	 *
+	 * @param measureNumber the number of the measure
+	 * @return the onset of the measure in ticks from the beginning of this staff
+	 * @throws NoSuchElementException if there is no measure with the given number
+	 *                                in this staff
+	 */
+	public long getMeasureOnsetInTicks(int measureNumber) {
+		getMeasure(measureNumber);
+		return getMeasureOnsets().getMeasureOnset(measureNumber);
+	}
+
+	/**
+	 * Returns the onset of the {@link Durational} at the given position in ticks
+	 * counted from the beginning of this staff.
+	 *
+	 * @param measureNumber the number of the measure of the element
+	 * @param voiceNumber   the number of the voice of the element
+	 * @param index         index of element on the voice
+	 * @return the onset of the element in ticks from the beginning of this staff
+	 * @throws NoSuchElementException if there is no element at the given position
+	 *                                in this staff
+	 */
+	public long getOnsetInTicks(int measureNumber, int voiceNumber, int index) {
+		return getMeasureOnsets().getOnset(measureNumber, getMeasure(measureNumber), voiceNumber, index);
+	}
+
+	/**
+	 * Returns the number of the measure that contains the given number of ticks
+	 * from the beginning of this staff.
+	 *
+	 * @param ticks the time counted in ticks from the beginning of this staff
+	 * @return the number of the measure that contains the given time
+	 * @throws IllegalArgumentException if ticks is negative
+	 * @throws NoSuchElementException   if the given time is after the end of the
+	 *                                  last measure of this staff
+	 */
+	public int getMeasureNumberAt(long ticks) {
+		if (ticks < 0) {
+			throw new IllegalArgumentException("ticks cannot be negative");
+		}
+
+		return getMeasureOnsets().getMeasureNumberAt(ticks, this.hasPickupMeasure() ? 0 : 1);
+	}
+
+	/**
+	 * Returns the elements that sound at the given number of ticks from the
+	 * beginning of this staff. An element sounds from its onset up to, but not
+	 * including, its onset added with its duration. The elements are in the order of
+	 * their voice numbers.
+	 *
+	 * @param ticks the time counted in ticks from the beginning of this staff
+	 * @return the elements that sound at the given time
+	 * @throws IllegalArgumentException if ticks is negative
+	 * @throws NoSuchElementException   if the given time is after the end of the
+	 *                                  last measure of this staff
+	 */
+	public List<Durational> getDurationalsAt(long ticks) {
+		final int measureNumber = getMeasureNumberAt(ticks);
+		final Measure measure = this.measures.get(measureNumber);
+		final MeasureOnsets onsets = getMeasureOnsets();
+		final long scale = onsets.getTicksPerWholeNote() / measure.getTicksPerWholeNote();
+
+		// Elements begin at multiples of the scale so rounding down does not change the result.
+		return measure.getDurationalsAt((ticks - onsets.getMeasureOnset(measureNumber)) / scale);
+	}
+
 	/**
 	 * Returns the type of this staff.
 	 *
@@ -0,0 +1,510 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.notation.access;
+
+import org.wmn4j.notation.Articulation;
+import org.wmn4j.notation.Chord;
+import org.wmn4j.notation.Duration;
+import org.wmn4j.notation.Durational;
+import org.wmn4j.notation.Note;
+import org.wmn4j.notation.Pitch;
+import org.wmn4j.notation.Score;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Represents the notes of a {@link Score} as columns of primitive values for analyses that scan
+ * all notes of a score.
+ * <p>
+ * Each note of the score, including each note of a chord, is a row. The values of a column are stored
+ * in a contiguous array, so scanning a column does not follow references between the objects of the
+ * score. The rows are in the order of {@link PartWiseScoreIterator}, so the rows of a part and the rows
+ * of a range of measures in a part are consecutive. The views of such rows returned by
+ * {@link #getPart(int)} and {@link #getMeasures(int, int, int)} share the columns of this object
+ * without copying them. Rests are not represented as rows.
+ * <p>
+ * Onsets and durations are given in ticks, of which there are {@link #getTicksPerWholeNote()} in a whole note.
+ * The number of ticks is the smallest one with which the durations of all notes and rests and the durations of
+ * the measures are whole numbers of ticks (see {@link Score#getTicksPerWholeNote()}). The onsets are the ones
+ * given by {@link Score#getOnsetInTicks(Position)}, so the measures start at the same onsets in all parts and
+ * staves and a pickup measure is as long as its longest voice.
+ * <p>
+ * This class is immutable.
+ */
+public final class ColumnarScore {
+
+	private static final int INITIAL_CAPACITY = 64;
+	private static final byte TIED_TO_FOLLOWING = 1;
+	private static final byte TIED_FROM_PREVIOUS = 2;
+	private static final int ALTER_COUNT = 2 * Pitch.ALTER_LIMIT + 1;
+	private static final int OCTAVE_COUNT = Pitch.MAX_OCTAVE + 1;
+	private static final Pitch.Base[] PITCH_BASES = Pitch.Base.values();
+	private static final Articulation[] ARTICULATIONS = Articulation.values();
+
+	private final long ticksPerWholeNote;
+	private final long[] onsets;
+	private final long[] durations;
+	private final int[] pitchesAsInts;
+	private final int[] spelledPitches;
+	private final int[] partIndices;
+	private final int[] staffNumbers;
+	private final int[] measureNumbers;
+	private final int[] voiceNumbers;
+	private final int[] indicesInVoice;
+	private final int[] indicesInChord;
+	private final byte[] tieFlags;
+	private final int[] articulationMasks;
+	private final int from;
+	private final int size;
+
+	/**
+	 * Returns the columnar representation of the notes of the given score.
+	 * <p>
+	 * The score is traversed once. The onsets of the measures are taken from the measure onsets of the score and
+	 * the onsets within each measure are accumulated from the durations of the elements of the voice.
+	 *
+	 * @param score the score whose notes are represented
+	 * @return the columnar representation of the notes of the given score
+	 * @throws NullPointerException if score is null
+	 */
+	public static ColumnarScore of(Score score) {
+		return new Builder(score).build();
+	}
+
+	private ColumnarScore(ColumnarScore columns, int from, int size) {
+		this.ticksPerWholeNote = columns.ticksPerWholeNote;
+		this.onsets = columns.onsets;
+		this.durations = columns.durations;
+		this.pitchesAsInts = columns.pitchesAsInts;
+		this.spelledPitches = columns.spelledPitches;
+		this.partIndices = columns.partIndices;
+		this.staffNumbers = columns.staffNumbers;
+		this.measureNumbers = columns.measureNumbers;
+		this.voiceNumbers = columns.voiceNumbers;
+		this.indicesInVoice = columns.indicesInVoice;
+		this.indicesInChord = columns.indicesInChord;
+		this.tieFlags = columns.tieFlags;
+		this.articulationMasks = columns.articulationMasks;
+		this.from = from;
+		this.size = size;
+	}
+
+	private ColumnarScore(Builder builder) {
+		final int count = builder.size;
+		this.ticksPerWholeNote = builder.ticks;
+		this.onsets = Arrays.copyOf(builder.onsets, count);
+		this.durations = Arrays.copyOf(builder.durations, count);
+		this.pitchesAsInts = Arrays.copyOf(builder.pitchesAsInts, count);
+		this.spelledPitches = Arrays.copyOf(builder.spelledPitches, count);
+		this.partIndices = Arrays.copyOf(builder.partIndices, count);
+		this.staffNumbers = Arrays.copyOf(builder.staffNumbers, count);
+		this.measureNumbers = Arrays.copyOf(builder.measureNumbers, count);
+		this.voiceNumbers = Arrays.copyOf(builder.voiceNumbers, count);
+		this.indicesInVoice = Arrays.copyOf(builder.indicesInVoice, count);
+		this.indicesInChord = Arrays.copyOf(builder.indicesInChord, count);
+		this.tieFlags = Arrays.copyOf(builder.tieFlags, count);
+		this.articulationMasks = Arrays.copyOf(builder.articulationMasks, count);
+		this.from = 0;
+		this.size = count;
+	}
+
+	/**
+	 * Returns the number of notes represented in this object.
+	 *
+	 * @return the number of notes represented in this object
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of ticks in a whole note in the onsets and durations.
+	 *
+	 * @return the number of ticks in a whole note in the onsets and durations
+	 */
+	public long getTicksPerWholeNote() {
+		return ticksPerWholeNote;
+	}
+
+	/**
+	 * Returns a view of the rows of the notes in the part with the given index.
+	 * The view shares the columns of this object.
+	 *
+	 * @param partIndex the index of the part in the score
+	 * @return a view of the rows of the notes in the part with the given index
+	 * @throws IllegalArgumentException if partIndex is negative
+	 */
+	public ColumnarScore getPart(int partIndex) {
+		if (partIndex < 0) {
+			throw new IllegalArgumentException("Part index must be non-negative, was " + partIndex);
+		}
+
+		return slice(toSortKey(partIndex, 0), toSortKey(partIndex + 1, 0));
+	}
+
+	/**
+	 * Returns a view of the rows of the notes in the given range of measures of the part with the given index.
+	 * The view shares the columns of this object.
+	 *
+	 * @param partIndex          the index of the part in the score
+	 * @param firstMeasureNumber the number of the first measure in the range
+	 * @param lastMeasureNumber  the number of the last measure in the range, inclusive
+	 * @return a view of the rows of the notes in the given range of measures of the part with the given index
+	 * @throws IllegalArgumentException if partIndex or firstMeasureNumber is negative or if lastMeasureNumber is
+	 *                                  smaller than firstMeasureNumber
+	 */
+	public ColumnarScore getMeasures(int partIndex, int firstMeasureNumber, int lastMeasureNumber) {
+		if (partIndex < 0 || firstMeasureNumber < 0) {
+			throw new IllegalArgumentException("Part index and measure number must be non-negative, were "
+					+ partIndex + " and " + firstMeasureNumber);
+		}
+
+		if (lastMeasureNumber < firstMeasureNumber) {
+			throw new IllegalArgumentException("Last measure number " + lastMeasureNumber
+					+ " is smaller than first measure number " + firstMeasureNumber);
+		}
+
+		return slice(toSortKey(partIndex, firstMeasureNumber), toSortKey(partIndex, lastMeasureNumber) + 1);
+	}
+
+	private static long toSortKey(int partIndex, int measureNumber) {
+		return ((long) partIndex << Integer.SIZE) + measureNumber;
+	}
+
+	/*
+	 * Returns the view of the rows whose part and measure are from the start key inclusive to the end key exclusive.
+	 * The rows are in ascending order of part and measure, so the rows are found with binary search.
+	 */
+	private ColumnarScore slice(long startKey, long endKey) {
+		final int start = lowerBound(startKey);
+		final int end = lowerBound(endKey);
+		return new ColumnarScore(this, start, end - start);
+	}
+
+	private int lowerBound(long key) {
+		int low = from;
+		int high = from + size;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (toSortKey(partIndices[middle], measureNumbers[middle]) < key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	private int toIndex(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+		}
+
+		return from + row;
+	}
+
+	/**
+	 * Returns the onset of the note at the given row in ticks from the beginning of its part.
+	 *
+	 * @param row the row of the note
+	 * @return the onset of the note at the given row in ticks from the beginning of its part
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public long getOnset(int row) {
+		return onsets[toIndex(row)];
+	}
+
+	/**
+	 * Returns the duration of the note at the given row in ticks.
+	 *
+	 * @param row the row of the note
+	 * @return the duration of the note at the given row in ticks
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public long getDuration(int row) {
+		return durations[toIndex(row)];
+	}
+
+	/**
+	 * Returns the pitch of the note at the given row as an integer as given by {@link Pitch#toInt()}.
+	 *
+	 * @param row the row of the note
+	 * @return the pitch of the note at the given row as an integer
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public int getPitchAsInt(int row) {
+		return pitchesAsInts[toIndex(row)];
+	}
+
+	/**
+	 * Returns the pitch of the note at the given row.
+	 *
+	 * @param row the row of the note
+	 * @return the pitch of the note at the given row
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public Pitch getPitch(int row) {
+		final int spelledPitch = spelledPitches[toIndex(row)];
+		final int octave = spelledPitch % OCTAVE_COUNT;
+		final int alter = spelledPitch / OCTAVE_COUNT % ALTER_COUNT - Pitch.ALTER_LIMIT;
+		return Pitch.of(PITCH_BASES[spelledPitch / OCTAVE_COUNT / ALTER_COUNT], alter, octave);
+	}
+
+	/**
+	 * Returns the index of the part of the note at the given row.
+	 *
+	 * @param row the row of the note
+	 * @return the index of the part of the note at the given row
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public int getPartIndex(int row) {
+		return partIndices[toIndex(row)];
+	}
+
+	/**
+	 * Returns the number of the staff of the note at the given row.
+	 *
+	 * @param row the row of the note
+	 * @return the number of the staff of the note at the given row
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public int getStaffNumber(int row) {
+		return staffNumbers[toIndex(row)];
+	}
+
+	/**
+	 * Returns the number of the measure of the note at the given row.
+	 *
+	 * @param row the row of the note
+	 * @return the number of the measure of the note at the given row
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public int getMeasureNumber(int row) {
+		return measureNumbers[toIndex(row)];
+	}
+
+	/**
+	 * Returns the number of the voice of the note at the given row.
+	 *
+	 * @param row the row of the note
+	 * @return the number of the voice of the note at the given row
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public int getVoiceNumber(int row) {
+		return voiceNumbers[toIndex(row)];
+	}
+
+	/**
+	 * Returns the index in the voice of the note or chord at the given row.
+	 *
+	 * @param row the row of the note
+	 * @return the index in the voice of the note or chord at the given row
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public int getIndexInVoice(int row) {
+		return indicesInVoice[toIndex(row)];
+	}
+
+	/**
+	 * Returns the index of the note at the given row in its chord starting from the bottom of the chord,
+	 * or -1 if the note is not in a chord.
+	 *
+	 * @param row the row of the note
+	 * @return the index of the note at the given row in its chord or -1 if the note is not in a chord
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public int getIndexInChord(int row) {
+		return indicesInChord[toIndex(row)];
+	}
+
+	/**
+	 * Returns the position of the note at the given row in the score.
+	 *
+	 * @param row the row of the note
+	 * @return the position of the note at the given row in the score
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public Position getPosition(int row) {
+		final int index = toIndex(row);
+		if (indicesInChord[index] < 0) {
+			return new Position(partIndices[index], staffNumbers[index], measureNumbers[index], voiceNumbers[index],
+					indicesInVoice[index]);
+		}
+
+		return new Position(partIndices[index], staffNumbers[index], measureNumbers[index], voiceNumbers[index],
+				indicesInVoice[index], indicesInChord[index]);
+	}
+
+	/**
+	 * Returns true if the note at the given row is tied to a following note.
+	 *
+	 * @param row the row of the note
+	 * @return true if the note at the given row is tied to a following note
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public boolean isTiedToFollowing(int row) {
+		return (tieFlags[toIndex(row)] & TIED_TO_FOLLOWING) != 0;
+	}
+
+	/**
+	 * Returns true if the note at the given row is tied from a previous note.
+	 *
+	 * @param row the row of the note
+	 * @return true if the note at the given row is tied from a previous note
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public boolean isTiedFromPrevious(int row) {
+		return (tieFlags[toIndex(row)] & TIED_FROM_PREVIOUS) != 0;
+	}
+
+	/**
+	 * Returns true if the note at the given row has the given articulation.
+	 *
+	 * @param row          the row of the note
+	 * @param articulation the articulation whose presence is checked
+	 * @return true if the note at the given row has the given articulation
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public boolean hasArticulation(int row, Articulation articulation) {
+		return (articulationMasks[toIndex(row)] & (1 << articulation.ordinal())) != 0;
+	}
+
+	/**
+	 * Returns the articulations of the note at the given row.
+	 *
+	 * @param row the row of the note
+	 * @return the articulations of the note at the given row
+	 * @throws IndexOutOfBoundsException if row is not in the range from zero to size exclusive
+	 */
+	public Set<Articulation> getArticulations(int row) {
+		final int mask = articulationMasks[toIndex(row)];
+		final Set<Articulation> articulations = EnumSet.noneOf(Articulation.class);
+		for (Articulation articulation : ARTICULATIONS) {
+			if ((mask & (1 << articulation.ordinal())) != 0) {
+				articulations.add(articulation);
+			}
+		}
+
+		return articulations;
+	}
+
+	@Override
+	public String toString() {
+		return "ColumnarScore(" + size + " notes, " + ticksPerWholeNote + " ticks per whole note)";
+	}
+
+	/**
+	 * Fills the columns in one traversal of the score.
+	 */
+	private static final class Builder {
+		private final Score score;
+
+		private final long ticks;
+		private long[] onsets = new long[INITIAL_CAPACITY];
+		private long[] durations = new long[INITIAL_CAPACITY];
+		private int[] pitchesAsInts = new int[INITIAL_CAPACITY];
+		private int[] spelledPitches = new int[INITIAL_CAPACITY];
+		private int[] partIndices = new int[INITIAL_CAPACITY];
+		private int[] staffNumbers = new int[INITIAL_CAPACITY];
+		private int[] measureNumbers = new int[INITIAL_CAPACITY];
+		private int[] voiceNumbers = new int[INITIAL_CAPACITY];
+		private int[] indicesInVoice = new int[INITIAL_CAPACITY];
+		private int[] indicesInChord = new int[INITIAL_CAPACITY];
+		private byte[] tieFlags = new byte[INITIAL_CAPACITY];
+		private int[] articulationMasks = new int[INITIAL_CAPACITY];
+		private int size;
+
+		private long measureOnset;
+		private long offsetWithinMeasure;
+
+		Builder(Score score) {
+			this.score = score;
+			this.ticks = score.getTicksPerWholeNote();
+		}
+
+		ColumnarScore build() {
+			final PartWiseScoreIterator scoreIterator = new PartWiseScoreIterator(score);
+			Position prevPos = null;
+
+			while (scoreIterator.hasNext()) {
+				final Durational dur = scoreIterator.next();
+				final Position pos = scoreIterator.getPositionOfPrevious();
+
+				if (prevPos == null || prevPos.getPartIndex() != pos.getPartIndex()
+						|| prevPos.getMeasureNumber() != pos.getMeasureNumber()) {
+					measureOnset = score.getMeasureOnsetInTicks(pos.getMeasureNumber());
+					offsetWithinMeasure = 0;
+				} else if (prevPos.getVoiceNumber() != pos.getVoiceNumber()
+						|| prevPos.getStaffNumber() != pos.getStaffNumber()) {
+					offsetWithinMeasure = 0;
+				}
+
+				final long onset = measureOnset + offsetWithinMeasure;
+				final long duration = toTicks(dur.getDuration());
+
+				if (dur instanceof Note) {
+					addRow(onset, duration, (Note) dur, pos, -1);
+				} else if (dur instanceof Chord) {
+					final Chord chord = (Chord) dur;
+					for (int chordIndex = 0; chordIndex < chord.getNoteCount(); ++chordIndex) {
+						addRow(onset, duration, chord.getNote(chordIndex), pos, chordIndex);
+					}
+				}
+
+				offsetWithinMeasure += duration;
+				prevPos = pos;
+			}
+
+			return new ColumnarScore(this);
+		}
+
+		private long toTicks(Duration duration) {
+			return Math.multiplyExact(ticks / duration.getDenominator(), (long) duration.getNumerator());
+		}
+
+		private void addRow(long onset, long duration, Note note, Position pos, int indexInChord) {
+			if (size == onsets.length) {
+				final int capacity = Math.multiplyExact(size, 2);
+				onsets = Arrays.copyOf(onsets, capacity);
+				durations = Arrays.copyOf(durations, capacity);
+				pitchesAsInts = Arrays.copyOf(pitchesAsInts, capacity);
+				spelledPitches = Arrays.copyOf(spelledPitches, capacity);
+				partIndices = Arrays.copyOf(partIndices, capacity);
+				staffNumbers = Arrays.copyOf(staffNumbers, capacity);
+				measureNumbers = Arrays.copyOf(measureNumbers, capacity);
+				voiceNumbers = Arrays.copyOf(voiceNumbers, capacity);
+				indicesInVoice = Arrays.copyOf(indicesInVoice, capacity);
+				indicesInChord = Arrays.copyOf(indicesInChord, capacity);
+				tieFlags = Arrays.copyOf(tieFlags, capacity);
+				articulationMasks = Arrays.copyOf(articulationMasks, capacity);
+			}
+
+			final Pitch pitch = note.getPitch();
+			onsets[size] = onset;
+			durations[size] = duration;
+			pitchesAsInts[size] = pitch.toInt();
+			spelledPitches[size] = (pitch.getBase().ordinal() * ALTER_COUNT + pitch.getAlter() + Pitch.ALTER_LIMIT)
+					* OCTAVE_COUNT + pitch.getOctave();
+			partIndices[size] = pos.getPartIndex();
+			staffNumbers[size] = pos.getStaffNumber();
+			measureNumbers[size] = pos.getMeasureNumber();
+			voiceNumbers[size] = pos.getVoiceNumber();
+			indicesInVoice[size] = pos.getIndexInVoice();
+			indicesInChord[size] = indexInChord;
+			tieFlags[size] = (byte) ((note.isTiedToFollowing() ? TIED_TO_FOLLOWING : 0)
+					| (note.isTiedFromPrevious() ? TIED_FROM_PREVIOUS : 0));
+
+			int articulationMask = 0;
+			for (Articulation articulation : note.getArticulations()) {
+				articulationMask |= 1 << articulation.ordinal();
+			}
+
+			articulationMasks[size] = articulationMask;
+			++size;
+		}
+	}
+}
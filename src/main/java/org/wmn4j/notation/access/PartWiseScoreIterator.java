@@ -23,8 +23,8 @@ public class PartWiseScoreIterator implements ScoreIterator {
 
 	private PartIterator currentPartIterator;
 	private MeasureIterator currentMeasureIterator;
-	private Part prevPart;
-	private int prevPartIndex;
+	private int currentPartIndex;
+	private int prevPartIndex = -1;
 	private int prevStaffNumber;
 	private int prevMeasureNumber;
 	private int prevVoice;
@@ -39,35 +39,41 @@ public class PartWiseScoreIterator implements ScoreIterator {
 		this.scoreIterator = score.iterator();
 		// TODO: Consider a better way to handle iterating Parts and part index
 		// handling.
-		this.prevPart = this.scoreIterator.next();
-		this.prevPartIndex = 0;
-		this.currentPartIterator = this.prevPart.getPartIterator();
+		this.currentPartIndex = 0;
+		this.currentPartIterator = this.scoreIterator.next().getPartIterator();
 		this.currentMeasureIterator = this.currentPartIterator.next().getMeasureIterator();
 	}
 
 	@Override
 	public boolean hasNext() {
-		return this.currentMeasureIterator.hasNext() || this.currentPartIterator.hasNext()
-				|| this.scoreIterator.hasNext();
+		this.skipMeasuresWithoutElements();
+		return this.currentMeasureIterator.hasNext();
 	}
 
-	@Override
-	public Durational next() {
-		if (!this.hasNext()) {
-			throw new NoSuchElementException();
-		}
-
-		if (!this.currentMeasureIterator.hasNext()) {
+	/*
+	 * Moves to the next measure that has elements left. Measures without any
+	 * voices, such as full measure rests, do not have elements and are skipped.
+	 */
+	private void skipMeasuresWithoutElements() {
+		while (!this.currentMeasureIterator.hasNext()
+				&& (this.currentPartIterator.hasNext() || this.scoreIterator.hasNext())) {
 			if (!this.currentPartIterator.hasNext()) {
-				this.prevPart = this.scoreIterator.next();
-				++this.prevPartIndex;
-				this.currentPartIterator = this.prevPart.getPartIterator();
+				this.currentPartIterator = this.scoreIterator.next().getPartIterator();
+				++this.currentPartIndex;
 			}
 
 			this.currentMeasureIterator = this.currentPartIterator.next().getMeasureIterator();
 		}
+	}
+
+	@Override
+	public Durational next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
 
 		final Durational next = this.currentMeasureIterator.next();
+		this.prevPartIndex = this.currentPartIndex;
 		this.prevStaffNumber = this.currentPartIterator.getStaffNumberOfPrevious();
 		this.prevMeasureNumber = this.currentPartIterator.getMeasureNumberOfPrevious();
 		this.prevVoice = this.currentMeasureIterator.getVoiceOfPrevious();
@@ -78,7 +84,7 @@ public class PartWiseScoreIterator implements ScoreIterator {
 
 	@Override
 	public Position getPositionOfPrevious() {
-		if (this.prevPart == null) {
+		if (this.prevPartIndex < 0) {
 			throw new IllegalStateException("no previous position available because next has not been called yet");
 		}
 
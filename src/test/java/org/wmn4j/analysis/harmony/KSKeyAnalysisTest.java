@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.wmn4j.TestHelper;
 import org.wmn4j.notation.Key;
 import org.wmn4j.notation.Score;
+import org.wmn4j.notation.access.ColumnarScore;
+import org.wmn4j.notation.access.PartWiseScoreIterator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -26,4 +28,14 @@ public class KSKeyAnalysisTest {
 		final Score score = TestHelper.readScore("musicxml/harmonic_analysis/expected_to_be_a_major.xml");
 		assertEquals(Key.A_MAJOR, KSKeyAnalysis.of(score).getKey());
 	}
+
+	@Test
+	void testGivenColumnarScoreThenKeyIsSameAsWithIteratedNotes() {
+		final Score score = TestHelper.readScore("musicxml/harmonic_analysis/expected_to_be_a_major.xml");
+		final ColumnarScore notes = ColumnarScore.of(score);
+
+		assertEquals(KSKeyAnalysis.of(() -> new PartWiseScoreIterator(score)).getKey(),
+				KSKeyAnalysis.of(notes).getKey());
+		assertEquals(KSKeyAnalysis.of(score).getKey(), KSKeyAnalysis.of(notes.getPart(0)).getKey());
+	}
 }
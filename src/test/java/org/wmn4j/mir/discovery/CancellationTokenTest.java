@@ -0,0 +1,45 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CancellationTokenTest {
+
+	@Test
+	void testWhenTokenIsCancelledThenItIsCancelled() {
+		final CancellationToken token = CancellationToken.create();
+		assertFalse(token.isCancelled());
+
+		token.cancel();
+		assertTrue(token.isCancelled());
+	}
+
+	@Test
+	void testGivenTimeoutThenTokenIsCancelledWhenTimeoutHasElapsed() {
+		assertTrue(CancellationToken.withTimeout(0, TimeUnit.MILLISECONDS).isCancelled());
+		assertFalse(CancellationToken.withTimeout(1, TimeUnit.HOURS).isCancelled());
+		assertFalse(CancellationToken.withTimeout(Long.MAX_VALUE, TimeUnit.DAYS).isCancelled());
+
+		final CancellationToken token = CancellationToken.withTimeout(1, TimeUnit.HOURS);
+		token.cancel();
+		assertTrue(token.isCancelled());
+
+		assertThrows(IllegalArgumentException.class, () -> CancellationToken.withTimeout(-1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void testGivenDeadlineThenTokenIsCancelledAfterDeadline() {
+		assertTrue(CancellationToken.withDeadline(Instant.now().minusSeconds(1)).isCancelled());
+		assertFalse(CancellationToken.withDeadline(Instant.now().plusSeconds(3600)).isCancelled());
+		assertFalse(CancellationToken.withDeadline(Instant.MAX).isCancelled());
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.mir.Pattern;
+import org.wmn4j.notation.Durational;
+import org.wmn4j.notation.Durations;
+import org.wmn4j.notation.MeasureBuilder;
+import org.wmn4j.notation.Note;
+import org.wmn4j.notation.NoteBuilder;
+import org.wmn4j.notation.PartBuilder;
+import org.wmn4j.notation.Pitch;
+import org.wmn4j.notation.Score;
+import org.wmn4j.notation.ScoreBuilder;
+import org.wmn4j.notation.TimeSignatures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorpusPatternDiscoveryTest {
+
+	@Test
+	void testGivenSingleScoreThenPatternsAreSameAsWithSiatechf() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final CorpusPatternDiscovery discovery = CorpusPatternDiscovery
+				.withSiatechf(Collections.singletonList(score), 0.0);
+
+		assertEquals(GeometricPatternDiscovery.withSiatechf(score, 0.0).getPatterns(), discovery.getPatterns());
+		for (Collection<CorpusPatternPosition> positions : discovery.getPatternPositions()) {
+			for (CorpusPatternPosition position : positions) {
+				assertEquals(0, position.getScoreIndex());
+			}
+		}
+	}
+
+	@Test
+	void testGivenSameScoreTwiceThenPatternsOccurEquallyInBothScores() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final CorpusPatternDiscovery discovery = CorpusPatternDiscovery.withSiatechf(Arrays.asList(score, score),
+				1.0);
+		assertEquals(Arrays.asList(score, score), discovery.getScores());
+		assertFalse(discovery.getPatternPositions().isEmpty());
+
+		for (Collection<CorpusPatternPosition> positions : discovery.getPatternPositions()) {
+			final Map<Integer, Long> positionCounts = positions.stream()
+					.collect(Collectors.groupingBy(CorpusPatternPosition::getScoreIndex, Collectors.counting()));
+
+			assertEquals(2, positionCounts.size());
+			assertEquals(positionCounts.get(0), positionCounts.get(1));
+		}
+	}
+
+	@Test
+	void testGivenDifferentScoresThenPatternsAreInTheirScores() {
+		final Score monophonicScore = TestHelper
+				.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(monophonicScore);
+		final Score multipartScore = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(multipartScore);
+
+		final List<Score> scores = Arrays.asList(monophonicScore, multipartScore);
+
+		final CorpusPatternDiscovery discovery = CorpusPatternDiscovery.withSiatechf(scores, 2.0);
+		final Collection<Collection<Pattern>> patterns = discovery.getPatterns();
+		assertEquals(discovery.getPatternPositions().size(), patterns.size());
+
+		for (Collection<CorpusPatternPosition> positions : discovery.getPatternPositions()) {
+			for (CorpusPatternPosition position : positions) {
+				assertNotNull(scores.get(position.getScoreIndex()).getAt(position.getPatternPosition()));
+			}
+		}
+	}
+
+	private Score buildScoreOfQuarterNotes(Pitch... pitches) {
+		final MeasureBuilder measureBuilder = new MeasureBuilder(1);
+		measureBuilder.setTimeSignature(TimeSignatures.FOUR_FOUR);
+		for (Pitch pitch : pitches) {
+			measureBuilder.addToVoice(1, new NoteBuilder(pitch, Durations.QUARTER));
+		}
+
+		final PartBuilder partBuilder = new PartBuilder("Part");
+		partBuilder.add(measureBuilder);
+		final ScoreBuilder scoreBuilder = new ScoreBuilder();
+		scoreBuilder.addPart(partBuilder);
+		return scoreBuilder.build();
+	}
+
+	@Test
+	void testGivenMotifOnceInEachOfTwoScoresThenMotifIsFoundWithOccurrenceInBothScores() {
+		final Pitch c4 = Pitch.of(Pitch.Base.C, 0, 4);
+		final Pitch e4 = Pitch.of(Pitch.Base.E, 0, 4);
+		final Pitch g4 = Pitch.of(Pitch.Base.G, 0, 4);
+		final Score first = buildScoreOfQuarterNotes(c4, e4, g4, Pitch.of(Pitch.Base.B, 0, 5));
+		final Score second = buildScoreOfQuarterNotes(Pitch.of(Pitch.Base.F, 0, 3), c4, e4, g4);
+
+		final CorpusPatternDiscovery discovery = CorpusPatternDiscovery.withSiatechf(Arrays.asList(first, second),
+				1.2);
+		assertEquals(1, discovery.getPatternPositions().size());
+
+		final List<CorpusPatternPosition> positions = new ArrayList<>(
+				discovery.getPatternPositions().iterator().next());
+		assertEquals(2, positions.size());
+		assertEquals(0, positions.get(0).getScoreIndex());
+		assertEquals(1, positions.get(1).getScoreIndex());
+
+		final List<Pattern> patterns = new ArrayList<>(discovery.getPatterns().iterator().next());
+		final List<Pitch> motif = Arrays.asList(c4, e4, g4);
+		for (Pattern pattern : patterns) {
+			final List<Pitch> pitches = new ArrayList<>();
+			for (Durational durational : pattern.getVoice(pattern.getVoiceNumbers().get(0))) {
+				pitches.add(((Note) durational).getPitch());
+			}
+
+			assertEquals(motif, pitches);
+		}
+	}
+
+	@Test
+	void testGivenInvalidArgumentsThenExceptionIsThrown() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> CorpusPatternDiscovery.withSiatechf(Collections.emptyList(), 1.0));
+		assertThrows(IllegalArgumentException.class,
+				() -> CorpusPatternDiscovery.withSiatechf(Collections.singletonList(score), -1.0));
+		assertThrows(NullPointerException.class, () -> CorpusPatternDiscovery.withSiatechf(null, 1.0));
+		assertThrows(NullPointerException.class,
+				() -> CorpusPatternDiscovery.withSiatechf(Collections.singletonList(score), 1.0, null));
+	}
+}
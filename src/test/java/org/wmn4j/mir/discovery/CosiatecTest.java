@@ -0,0 +1,70 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Score;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CosiatecTest {
+
+	@Test
+	void testGivenSimpleRepeatedMotifsThenEncodingContainsBestTec() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+
+		final List<Tec> encoding = Cosiatec.computeEncoding(pointSet);
+
+		// The TEC of the pattern {C, C} and the TEC of the pattern {C, D, E} both have the
+		// compression ratio 1.5 and cover all points, so the one with the earlier MTP is chosen.
+		assertEquals(1, encoding.size());
+		assertEquals(new PointPattern(Arrays.asList(new NoteEventVector(0, 60, 0), new NoteEventVector(4, 60, 0))),
+				encoding.get(0).getPattern());
+		assertEquals(Arrays.asList(new NoteEventVector(0, 0, 0),
+				new NoteEventVector(1, 2, 0),
+				new NoteEventVector(2, 4, 0)), encoding.get(0).getTranslators());
+	}
+
+	@Test
+	void testGivenMultiplePartsThenEncodingCoversEveryPointExactlyOnce() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+
+		final List<Tec> encoding = Cosiatec.computeEncoding(pointSet);
+		final Set<NoteEventVector> coveredPoints = new HashSet<>();
+		int coveredPointCount = 0;
+
+		for (Tec tec : encoding) {
+			for (NoteEventVector translator : tec.getTranslators()) {
+				for (NoteEventVector point : tec.getPattern()) {
+					final NoteEventVector coveredPoint = point.add(translator);
+					assertTrue(pointSet.indexOf(coveredPoint) >= 0, coveredPoint + " is not in the point set");
+					coveredPoints.add(coveredPoint);
+					++coveredPointCount;
+				}
+			}
+		}
+
+		final Set<NoteEventVector> allPoints = new HashSet<>();
+		for (int i = 0; i < pointSet.size(); ++i) {
+			allPoints.add(pointSet.get(i));
+		}
+
+		assertEquals(allPoints, coveredPoints);
+		assertEquals(coveredPoints.size(), coveredPointCount);
+	}
+}
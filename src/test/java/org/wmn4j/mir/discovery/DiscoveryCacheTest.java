@@ -0,0 +1,130 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Score;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiscoveryCacheTest {
+
+	private static final long LARGE_CACHE_SIZE = 1024 * 1024;
+
+	@TempDir
+	Path temporaryDirectory;
+
+	private Path onlyEntry() throws IOException {
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(temporaryDirectory)) {
+			return entries.iterator().next();
+		}
+	}
+
+	@Test
+	void testGivenRepeatedDiscoveryThenResultsAreServedFromCache() throws IOException {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final DiscoveryCache cache = new DiscoveryCache(temporaryDirectory, LARGE_CACHE_SIZE);
+
+		final PatternDiscovery expected = GeometricPatternDiscovery.withSiatechf(score, 0.0);
+		assertEquals(expected.getPatterns(), cache.withSiatechf(score, 0.0).getPatterns());
+		assertEquals(1, cache.getEntryCount());
+		assertEquals(Files.size(onlyEntry()), cache.getSizeInBytes());
+
+		final PatternDiscovery cached = cache.withSiatechf(score, 0.0);
+		assertEquals(expected.getPatterns(), cached.getPatterns());
+		assertEquals(score, cached.getScore());
+		assertEquals(1, cache.getEntryCount());
+
+		assertEquals(GeometricPatternDiscovery.withCosiatec(score).getPatterns(),
+				cache.withCosiatec(score).getPatterns());
+		assertEquals(2, cache.getEntryCount());
+	}
+
+	@Test
+	void testGivenReopenedCacheThenEntriesAreKept() throws IOException {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final DiscoveryCache cache = new DiscoveryCache(temporaryDirectory, LARGE_CACHE_SIZE);
+		cache.withSiatechf(score, 1.0);
+
+		final DiscoveryCache reopenedCache = new DiscoveryCache(temporaryDirectory, LARGE_CACHE_SIZE);
+		assertEquals(1, reopenedCache.getEntryCount());
+		assertEquals(cache.getSizeInBytes(), reopenedCache.getSizeInBytes());
+		assertEquals(GeometricPatternDiscovery.withSiatechf(score, 1.0).getPatterns(),
+				reopenedCache.withSiatechf(score, 1.0).getPatterns());
+		assertEquals(1, reopenedCache.getEntryCount());
+
+		reopenedCache.clear();
+		assertEquals(0, reopenedCache.getEntryCount());
+		assertEquals(0, reopenedCache.getSizeInBytes());
+		try (Stream<Path> files = Files.list(temporaryDirectory)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	@Test
+	void testGivenCacheIsFullThenLeastRecentlyUsedEntryIsRemoved() throws IOException {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final DiscoveryCache sizingCache = new DiscoveryCache(temporaryDirectory.resolve("sizing"), LARGE_CACHE_SIZE);
+		sizingCache.withSiatechf(score, 0.0);
+		final long entrySize = sizingCache.getSizeInBytes();
+
+		final DiscoveryCache cache = new DiscoveryCache(temporaryDirectory.resolve("cache"), 2 * entrySize);
+		cache.withSiatechf(score, 0.0);
+		cache.withSiatechf(score, 0.5);
+		cache.withSiatechf(score, 0.0);
+		assertEquals(2, cache.getEntryCount());
+
+		// The entry for ratio 0.5 is the least recently used one, so it is removed.
+		cache.withSiatechf(score, 0.25);
+		assertEquals(2, cache.getEntryCount());
+		assertTrue(cache.getSizeInBytes() <= 2 * entrySize);
+
+		final DiscoveryCache reopenedCache = new DiscoveryCache(temporaryDirectory.resolve("cache"), entrySize);
+		assertEquals(1, reopenedCache.getEntryCount());
+	}
+
+	@Test
+	void testGivenCorruptEntryThenResultsAreComputedAgain() throws IOException {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final DiscoveryCache cache = new DiscoveryCache(temporaryDirectory, LARGE_CACHE_SIZE);
+		cache.withSiatechf(score, 0.0);
+
+		Files.write(onlyEntry(), new byte[] { 1, 2, 3 });
+		assertEquals(GeometricPatternDiscovery.withSiatechf(score, 0.0).getPatterns(),
+				cache.withSiatechf(score, 0.0).getPatterns());
+		assertEquals(1, cache.getEntryCount());
+	}
+
+	@Test
+	void testGivenInvalidArgumentsThenExceptionIsThrown() throws IOException {
+		assertThrows(IllegalArgumentException.class, () -> new DiscoveryCache(temporaryDirectory, -1));
+		assertThrows(NullPointerException.class, () -> new DiscoveryCache(null, 1));
+
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final DiscoveryCache cache = new DiscoveryCache(temporaryDirectory, LARGE_CACHE_SIZE);
+		assertThrows(IllegalArgumentException.class, () -> cache.withSiatechf(score, -1.0));
+		assertThrows(NullPointerException.class, () -> cache.withSiatechf(null, 1.0));
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.mir.PatternPosition;
+import org.wmn4j.notation.Duration;
+import org.wmn4j.notation.Durations;
+import org.wmn4j.notation.MeasureBuilder;
+import org.wmn4j.notation.NoteBuilder;
+import org.wmn4j.notation.PartBuilder;
+import org.wmn4j.notation.Pitch;
+import org.wmn4j.notation.RestBuilder;
+import org.wmn4j.notation.Score;
+import org.wmn4j.notation.ScoreBuilder;
+import org.wmn4j.notation.TimeSignatures;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiscoveryToleranceTest {
+
+	private static final long TICKS_PER_WHOLE_NOTE = 32;
+
+	@Test
+	void testGivenToleranceThenOffsetDifferencesAreRoundedToNearestMultiple() {
+		final DiscoveryTolerance tolerance = DiscoveryTolerance.of(Durations.EIGHTH, 0);
+
+		assertEquals(0, tolerance.bucketOffsetDifference(0, TICKS_PER_WHOLE_NOTE));
+		assertEquals(0, tolerance.bucketOffsetDifference(1, TICKS_PER_WHOLE_NOTE));
+		assertEquals(1, tolerance.bucketOffsetDifference(2, TICKS_PER_WHOLE_NOTE));
+		assertEquals(1, tolerance.bucketOffsetDifference(5, TICKS_PER_WHOLE_NOTE));
+		assertEquals(8, tolerance.bucketOffsetDifference(33, TICKS_PER_WHOLE_NOTE));
+		assertEquals(5, DiscoveryTolerance.of(Durations.SIXTEENTH, 0).bucketOffsetDifference(5, 16));
+		assertEquals(5, DiscoveryTolerance.EXACT.bucketOffsetDifference(5, TICKS_PER_WHOLE_NOTE));
+	}
+
+	@Test
+	void testGivenTripletToleranceOnScoreWithoutTupletsThenOffsetDifferencesAreRoundedExactly() {
+		final Score score = buildScore(
+				Arrays.asList(Pitch.of(Pitch.Base.C, 0, 4), Pitch.of(Pitch.Base.D, 0, 4),
+						Pitch.of(Pitch.Base.E, 0, 4), Pitch.of(Pitch.Base.F, 0, 4)),
+				Arrays.asList(Pitch.of(Pitch.Base.G, 0, 4), Pitch.of(Pitch.Base.A, 0, 4),
+						Pitch.of(Pitch.Base.B, 0, 4), Pitch.of(Pitch.Base.C, 0, 5)));
+		final DiscoveryTolerance tolerance = DiscoveryTolerance.of(Duration.of(1, 3), 0);
+		final PointSet pointSet = new PointSet(Collections.singletonList(score), PointProjections.CHROMATIC,
+				tolerance);
+
+		final long ticks = pointSet.getTicksPerWholeNote();
+		assertEquals(0, ticks % 12);
+
+		// The offsets of the points are exact and their differences to the first note are rounded to the nearest
+		// third of a whole note.
+		final List<Long> expectedBuckets = Arrays.asList(0L, 1L, 2L, 2L, 3L, 4L, 5L, 5L);
+		assertEquals(expectedBuckets.size(), pointSet.size());
+		for (int i = 0; i < pointSet.size(); ++i) {
+			assertEquals(i * ticks / 4, pointSet.getOffset(i));
+			assertEquals(expectedBuckets.get(i).longValue(),
+					tolerance.bucketOffsetDifference(pointSet.getOffset(i) - pointSet.getOffset(0), ticks));
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> tolerance.bucketOffsetDifference(1, 4));
+	}
+
+	@Test
+	void testGivenToleranceThenPitchDifferencesAreRoundedDown() {
+		final DiscoveryTolerance tolerance = DiscoveryTolerance.of(Durations.SIXTEENTH, 1);
+
+		assertEquals(0, tolerance.bucketPitchDifference(0));
+		assertEquals(0, tolerance.bucketPitchDifference(1));
+		assertEquals(1, tolerance.bucketPitchDifference(2));
+		assertEquals(-1, tolerance.bucketPitchDifference(-1));
+		assertEquals(61, DiscoveryTolerance.EXACT.bucketPitchDifference(61));
+		assertEquals(21, DiscoveryTolerance.of(Durations.SIXTEENTH, 2).bucketPitchDifference(64));
+	}
+
+	private Score buildScore(List<Pitch> firstMotif, List<Pitch> secondMotif) {
+		final PartBuilder partBuilder = new PartBuilder("Part");
+		final MeasureBuilder firstMeasure = new MeasureBuilder(1);
+		firstMeasure.setTimeSignature(TimeSignatures.FOUR_FOUR);
+		final MeasureBuilder secondMeasure = new MeasureBuilder(2);
+
+		for (int i = 0; i < firstMotif.size(); ++i) {
+			firstMeasure.addToVoice(1, new NoteBuilder(firstMotif.get(i), Durations.QUARTER));
+			secondMeasure.addToVoice(1, new NoteBuilder(secondMotif.get(i), Durations.QUARTER));
+		}
+
+		partBuilder.add(firstMeasure).add(secondMeasure);
+		final ScoreBuilder scoreBuilder = new ScoreBuilder();
+		scoreBuilder.addPart(partBuilder);
+		return scoreBuilder.build();
+	}
+
+	private boolean containsRepeatedPatternOfSize(PatternDiscovery discovery, int size) {
+		for (Collection<PatternPosition> positions : discovery.getPatternPositions()) {
+			if (positions.size() > 1 && positions.stream().allMatch(position -> position.size() == size)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Test
+	void testGivenMotifsThatDifferByOneHalfStepThenMotifIsFoundWithTolerance() {
+		final Score score = buildScore(
+				Arrays.asList(Pitch.of(Pitch.Base.C, 0, 4), Pitch.of(Pitch.Base.D, 0, 4),
+						Pitch.of(Pitch.Base.G, 0, 4), Pitch.of(Pitch.Base.C, 0, 5)),
+				Arrays.asList(Pitch.of(Pitch.Base.C, 0, 4), Pitch.of(Pitch.Base.D, 1, 4),
+						Pitch.of(Pitch.Base.G, 0, 4), Pitch.of(Pitch.Base.C, 0, 5)));
+
+		assertFalse(containsRepeatedPatternOfSize(GeometricPatternDiscovery.withSiatechf(score, 0.0), 4));
+		assertTrue(containsRepeatedPatternOfSize(
+				GeometricPatternDiscovery.withSiatechf(score, 0.0, DiscoveryTolerance.of(Durations.SIXTEENTH, 1)), 4));
+	}
+
+	@Test
+	void testGivenTransposedRepetitionThenItIsFoundWithTolerance() {
+		// Rounding the pitches instead of their differences would turn C4 C#4 into a unison but C#4 D4 into a step.
+		final Score score = buildScore(
+				Arrays.asList(Pitch.of(Pitch.Base.C, 0, 4), Pitch.of(Pitch.Base.C, 1, 4),
+						Pitch.of(Pitch.Base.E, 0, 4), Pitch.of(Pitch.Base.G, 0, 4)),
+				Arrays.asList(Pitch.of(Pitch.Base.C, 1, 4), Pitch.of(Pitch.Base.D, 0, 4),
+						Pitch.of(Pitch.Base.F, 0, 4), Pitch.of(Pitch.Base.G, 1, 4)));
+
+		assertTrue(containsRepeatedPatternOfSize(GeometricPatternDiscovery.withSiatechf(score, 0.0), 4));
+		assertTrue(containsRepeatedPatternOfSize(
+				GeometricPatternDiscovery.withSiatechf(score, 0.0, DiscoveryTolerance.of(Durations.SIXTEENTH, 1)), 4));
+	}
+
+	@Test
+	void testGivenRepetitionShiftedBySixteenthThenItIsFoundWithQuarterTolerance() {
+		// Rounding the onsets instead of their differences to quarters would put the notes of the first figure
+		// at 0, 0, 4 and 4 sixteenths and the notes of the second one at 16, 20, 20 and 20 sixteenths.
+		final List<Pitch> figure = Arrays.asList(Pitch.of(Pitch.Base.C, 0, 4), Pitch.of(Pitch.Base.D, 0, 4),
+				Pitch.of(Pitch.Base.E, 0, 4), Pitch.of(Pitch.Base.F, 0, 4));
+		final MeasureBuilder firstMeasure = new MeasureBuilder(1);
+		firstMeasure.setTimeSignature(TimeSignatures.FOUR_FOUR);
+		final MeasureBuilder secondMeasure = new MeasureBuilder(2);
+		secondMeasure.addToVoice(1, new RestBuilder(Durations.SIXTEENTH));
+
+		for (Pitch pitch : figure) {
+			firstMeasure.addToVoice(1, new NoteBuilder(pitch, Durations.SIXTEENTH));
+			secondMeasure.addToVoice(1, new NoteBuilder(pitch, Durations.SIXTEENTH));
+		}
+
+		firstMeasure.addToVoice(1, new RestBuilder(Duration.of(3, 4)));
+		secondMeasure.addToVoice(1, new RestBuilder(Duration.of(11, 16)));
+
+		final PartBuilder partBuilder = new PartBuilder("Part");
+		partBuilder.add(firstMeasure).add(secondMeasure);
+		final ScoreBuilder scoreBuilder = new ScoreBuilder();
+		scoreBuilder.addPart(partBuilder);
+		final Score score = scoreBuilder.build();
+
+		assertTrue(containsRepeatedPatternOfSize(GeometricPatternDiscovery.withSiatechf(score, 0.0), 4));
+		assertTrue(containsRepeatedPatternOfSize(
+				GeometricPatternDiscovery.withSiatechf(score, 0.0, DiscoveryTolerance.of(Durations.QUARTER, 0)), 4));
+	}
+
+	@Test
+	void testGivenInvalidArgumentsThenExceptionIsThrown() {
+		assertThrows(IllegalArgumentException.class, () -> DiscoveryTolerance.of(Durations.SIXTEENTH, -1));
+		assertThrows(NullPointerException.class, () -> DiscoveryTolerance.of(null, 1));
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Duration;
+import org.wmn4j.notation.Durations;
+import org.wmn4j.notation.Score;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DiscoveryWindowTest {
+
+	@Test
+	void testGivenDurationWindowThenMaxOffsetIsInTicks() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		assertEquals(8, pointSet.getTicksPerWholeNote());
+
+		final DiscoveryWindow window = DiscoveryWindow.ofDuration(Durations.HALF);
+		assertEquals(4, window.getMaxOffset(pointSet));
+		assertEquals(Integer.MAX_VALUE, window.getMaxIndexDistance());
+	}
+
+	@Test
+	void testGivenDurationThatIsNotWholeTicksThenMaxOffsetIsRoundedDown() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		assertEquals(2, DiscoveryWindow.ofDuration(Duration.of(1, 3)).getMaxOffset(pointSet));
+	}
+
+	@Test
+	void testGivenNoteEventWindowThenMaxIndexDistanceIsNumberOfNoteEvents() {
+		final DiscoveryWindow window = DiscoveryWindow.ofNoteEvents(5);
+		assertEquals(5, window.getMaxIndexDistance());
+
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		assertEquals(Long.MAX_VALUE, window.getMaxOffset(new PointSet(score)));
+	}
+
+	@Test
+	void testGivenInvalidWindowThenExceptionIsThrown() {
+		assertThrows(IllegalArgumentException.class, () -> DiscoveryWindow.ofNoteEvents(0));
+		assertThrows(NullPointerException.class, () -> DiscoveryWindow.ofDuration(null));
+	}
+}
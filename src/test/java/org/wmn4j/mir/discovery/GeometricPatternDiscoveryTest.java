@@ -7,18 +7,26 @@ import org.junit.jupiter.api.Test;
 import org.wmn4j.mir.Pattern;
 import org.wmn4j.mir.PatternPosition;
 import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Duration;
 import org.wmn4j.notation.Durations;
 import org.wmn4j.notation.Note;
 import org.wmn4j.notation.Pitch;
 import org.wmn4j.notation.Rest;
 import org.wmn4j.notation.Score;
+import org.wmn4j.notation.access.Position;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class GeometricPatternDiscoveryTest {
@@ -220,4 +228,120 @@ public class GeometricPatternDiscoveryTest {
 				), patterns);
 	}
 
+	@Test
+	void testGivenParallelismThenSiatechfReturnsSamePatternsAsSequentialDiscovery() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final Collection<Collection<Pattern>> sequentialPatterns = GeometricPatternDiscovery
+				.withSiatechf(score, 1.0).getPatterns();
+		final Collection<Collection<Pattern>> parallelPatterns = GeometricPatternDiscovery
+				.withSiatechf(score, 1.0, 4).getPatterns();
+
+		assertEquals(sequentialPatterns, parallelPatterns);
+	}
+
+	@Test
+	void testGivenParallelismLessThanOneThenExceptionIsThrown() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		assertThrows(IllegalArgumentException.class, () -> GeometricPatternDiscovery.withSiatechf(score, 1.0, 0));
+	}
+
+	@Test
+	void testGivenRepeatedMotifsThenStreamedPatternsAreSameAsDiscoveredPatterns() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final Collection<Collection<Pattern>> expectedPatterns = GeometricPatternDiscovery.withSiatechf(score, 0.0)
+				.getPatterns();
+
+		final List<List<Pattern>> streamedPatterns = GeometricPatternDiscovery.streamSiatechf(score, 0.0)
+				.map(positions -> positions.stream().map(score::getAt).collect(Collectors.toList()))
+				.collect(Collectors.toList());
+
+		assertEquals(expectedPatterns, streamedPatterns);
+		assertEquals(1, GeometricPatternDiscovery.streamSiatechf(score, 0.0).limit(1).count());
+	}
+
+	@Test
+	void testGivenRepeatedMotifsThenCosiatecReturnsEncodingThatCoversAllNotes() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PatternDiscovery discovery = GeometricPatternDiscovery.withCosiatec(score);
+		final Collection<Collection<PatternPosition>> positions = discovery.getPatternPositions();
+
+		assertEquals(1, positions.size());
+		final Collection<PatternPosition> occurrences = positions.iterator().next();
+		assertEquals(3, occurrences.size());
+
+		final Set<Position> coveredPositions = new HashSet<>();
+		for (PatternPosition occurrence : occurrences) {
+			coveredPositions.addAll(occurrence.getPositions(0));
+		}
+		assertEquals(6, coveredPositions.size());
+	}
+
+	@Test
+	void testGivenWindowLongerThanScoreThenSiatechfReturnsSamePatternsAsWithoutWindow() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final Collection<Collection<Pattern>> expectedPatterns = GeometricPatternDiscovery
+				.withSiatechf(score, 1.0).getPatterns();
+
+		assertEquals(expectedPatterns, GeometricPatternDiscovery
+				.withSiatechf(score, 1.0, DiscoveryWindow.ofDuration(Duration.of(100, 1))).getPatterns());
+		assertEquals(expectedPatterns, GeometricPatternDiscovery
+				.withSiatechf(score, 1.0, DiscoveryWindow.ofNoteEvents(Integer.MAX_VALUE)).getPatterns());
+	}
+
+	@Test
+	void testGivenNarrowWindowThenSiatechfReturnsFewerPatterns() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final int patternCount = GeometricPatternDiscovery.withSiatechf(score, 0.0).getPatterns().size();
+		final int windowedPatternCount = GeometricPatternDiscovery
+				.withSiatechf(score, 0.0, DiscoveryWindow.ofNoteEvents(1)).getPatterns().size();
+
+		assertTrue(windowedPatternCount > 0);
+		assertTrue(windowedPatternCount < patternCount);
+	}
+
+	@Test
+	void testGivenChromaticProjectionThenSiatechfReturnsSamePatternsAsDefault() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		assertEquals(GeometricPatternDiscovery.withSiatechf(score, 1.0).getPatterns(),
+				GeometricPatternDiscovery.withSiatechf(score, 1.0, PointProjections.CHROMATIC).getPatterns());
+	}
+
+	@Test
+	void testGivenProjectionWithoutPartsThenPatternsAreFoundRegardlessOfParts() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PatternDiscovery discovery = GeometricPatternDiscovery
+				.withSiatechf(score, 0.0, PointProjections.withoutParts(PointProjections.CHROMATIC));
+		final PatternDiscovery discoveryWithParts = GeometricPatternDiscovery.withSiatechf(score, 0.0);
+
+		assertTrue(discovery.getPatternPositions().size() > 0);
+		assertNotEquals(discoveryWithParts.getPatterns(), discovery.getPatterns());
+	}
+
+	@Test
+	void testGivenPatternDiscoveryThenRepresentativesAreFirstOccurrences() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PatternDiscovery patternDiscovery = GeometricPatternDiscovery.withSiatechf(score, 0.0);
+		final List<Pattern> representatives = patternDiscovery.getRepresentativePatterns();
+
+		assertEquals(patternDiscovery.getPatterns().stream().map(patterns -> patterns.iterator().next())
+				.collect(Collectors.toList()), representatives);
+	}
 }
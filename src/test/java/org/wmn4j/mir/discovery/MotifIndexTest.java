@@ -0,0 +1,264 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wmn4j.TestHelper;
+import org.wmn4j.mir.Pattern;
+import org.wmn4j.mir.PatternPosition;
+import org.wmn4j.notation.Duration;
+import org.wmn4j.notation.Durations;
+import org.wmn4j.notation.Note;
+import org.wmn4j.notation.Pitch;
+import org.wmn4j.notation.Score;
+import org.wmn4j.notation.access.Position;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MotifIndexTest {
+
+	private static final String MONOPHONIC_ID = "monophonic";
+	private static final String MULTIPART_ID = "multipart";
+
+	@TempDir
+	Path directory;
+
+	private Map<String, Score> readScores() {
+		final Score monophonicScore = TestHelper
+				.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(monophonicScore);
+		final Score multipartScore = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(multipartScore);
+
+		final Map<String, Score> scores = new LinkedHashMap<>();
+		scores.put(MONOPHONIC_ID, monophonicScore);
+		scores.put(MULTIPART_ID, multipartScore);
+		return scores;
+	}
+
+	private Duration getExactQuantum(Collection<Score> scores) {
+		long ticks = 1;
+		for (Score score : scores) {
+			ticks = PointSet.leastCommonMultiple(ticks, new PointSet(score).getTicksPerWholeNote());
+		}
+
+		return Duration.of(1, (int) ticks);
+	}
+
+	private Set<Position> toPositions(PatternPosition patternPosition) {
+		final Set<Position> positions = new HashSet<>();
+		for (int partIndex : patternPosition.getPartIndices()) {
+			positions.addAll(patternPosition.getPositions(partIndex));
+		}
+
+		return positions;
+	}
+
+	private List<List<Object>> getHitsInOrder(MotifIndex motifIndex) {
+		return motifIndex.search(getMotif()).stream()
+				.map(hit -> List.<Object>of(hit.getScoreId(), toPositions(hit.getPatternPosition())))
+				.collect(Collectors.toList());
+	}
+
+	private List<Path> getSegmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(".idx")).sorted()
+					.collect(Collectors.toList());
+		}
+	}
+
+	private Pattern getMotif() {
+		return Pattern.of(Arrays.asList(
+				Note.of(Pitch.of(Pitch.Base.C, 0, 4), Durations.EIGHTH),
+				Note.of(Pitch.of(Pitch.Base.D, 0, 4), Durations.EIGHTH)));
+	}
+
+	@Test
+	void testGivenDiscoveredPatternsThenHitsAreSameAsExactMatches() throws IOException {
+		final Map<String, Score> scores = readScores();
+		MotifIndex.create(directory, getExactQuantum(scores.values()), Duration.of(64, 1)).add(scores);
+		final MotifIndex motifIndex = MotifIndex.open(directory);
+
+		final Score score = scores.get(MONOPHONIC_ID);
+		int searchedMotifCount = 0;
+		for (Collection<PatternPosition> occurrences : GeometricPatternDiscovery.withSiatechf(score, 0.0)
+				.getPatternPositions()) {
+			final PatternPosition firstOccurrence = occurrences.iterator().next();
+			if (firstOccurrence.size() < 2) {
+				continue;
+			}
+
+			final Pattern motif = score.getAt(firstOccurrence);
+			final List<MotifHit> hits = motifIndex.search(motif);
+
+			for (Map.Entry<String, Score> entry : scores.entrySet()) {
+				final Set<Set<Position>> expectedPositions = new PatternQuery(entry.getValue())
+						.findMatches(motif, 1.0).stream()
+						.map(match -> toPositions(match.getPatternPosition())).collect(Collectors.toSet());
+				final Set<Set<Position>> hitPositions = hits.stream()
+						.filter(hit -> hit.getScoreId().equals(entry.getKey()))
+						.map(hit -> toPositions(hit.getPatternPosition())).collect(Collectors.toSet());
+
+				assertEquals(expectedPositions, hitPositions);
+			}
+
+			++searchedMotifCount;
+		}
+
+		assertTrue(searchedMotifCount > 0);
+	}
+
+	@Test
+	void testGivenScoresAddedInBatchesThenIndexContainsAllScores() throws IOException {
+		final Map<String, Score> scores = readScores();
+		final MotifIndex motifIndex = MotifIndex.create(directory, Durations.SIXTEENTH, Durations.WHOLE);
+
+		motifIndex.add(Collections.singletonMap(MONOPHONIC_ID, scores.get(MONOPHONIC_ID)));
+		final List<MotifHit> firstHits = motifIndex.search(getMotif());
+		motifIndex.add(Collections.singletonMap(MULTIPART_ID, scores.get(MULTIPART_ID)));
+		motifIndex.add(Collections.emptyMap());
+
+		assertEquals(2, motifIndex.getSegmentCount());
+		assertEquals(2, motifIndex.getScoreCount());
+		assertFalse(firstHits.isEmpty());
+		assertTrue(firstHits.stream().allMatch(hit -> hit.getScoreId().equals(MONOPHONIC_ID)));
+
+		final MotifIndex reopenedIndex = MotifIndex.open(directory);
+		assertEquals(2, reopenedIndex.getSegmentCount());
+		assertEquals(2, reopenedIndex.getScoreCount());
+		assertEquals(Durations.SIXTEENTH, reopenedIndex.getQuantum());
+
+		final List<String> hitScoreIds = reopenedIndex.search(getMotif()).stream().map(MotifHit::getScoreId)
+				.collect(Collectors.toList());
+		assertEquals(firstHits.size(), hitScoreIds.stream().filter(MONOPHONIC_ID::equals).count());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> reopenedIndex.add(Collections.singletonMap(MONOPHONIC_ID, scores.get(MONOPHONIC_ID))));
+		assertThrows(FileAlreadyExistsException.class,
+				() -> MotifIndex.create(directory, Durations.SIXTEENTH, Durations.WHOLE));
+	}
+
+	@Test
+	void testGivenInvalidArgumentsThenExceptionIsThrown() throws IOException {
+		assertThrows(IOException.class, () -> MotifIndex.open(directory));
+		assertThrows(IllegalArgumentException.class,
+				() -> MotifIndex.create(directory, Durations.QUARTER, Durations.EIGHTH));
+		assertThrows(NullPointerException.class, () -> MotifIndex.create(directory, null, Durations.WHOLE));
+
+		final MotifIndex motifIndex = MotifIndex.create(directory, Durations.SIXTEENTH, Durations.QUARTER);
+		final Pattern singleNote = Pattern.of(Collections.singletonList(Note.of(Pitch.of(Pitch.Base.C, 0, 4),
+				Durations.EIGHTH)));
+		final Pattern longMotif = Pattern.of(Arrays.asList(
+				Note.of(Pitch.of(Pitch.Base.C, 0, 4), Durations.HALF),
+				Note.of(Pitch.of(Pitch.Base.D, 0, 4), Durations.EIGHTH)));
+
+		assertThrows(NullPointerException.class, () -> motifIndex.search(null));
+		assertThrows(IllegalArgumentException.class, () -> motifIndex.search(singleNote));
+		assertThrows(IllegalArgumentException.class, () -> motifIndex.search(longMotif));
+		assertTrue(motifIndex.search(getMotif()).isEmpty());
+	}
+
+	@Test
+	void testGivenTenSmallBatchesThenSegmentsAreMergedWithoutChangingHits() throws IOException {
+		final Map<String, Score> scores = readScores();
+		final Map<String, Score> batchedScores = new LinkedHashMap<>();
+		for (int i = 0; i < 10; ++i) {
+			final String id = i % 2 == 0 ? MONOPHONIC_ID : MULTIPART_ID;
+			batchedScores.put(id + i, scores.get(id));
+		}
+
+		final MotifIndex singleBatchIndex = MotifIndex.create(directory.resolve("single"), Durations.SIXTEENTH,
+				Durations.WHOLE);
+		singleBatchIndex.add(batchedScores);
+
+		final MotifIndex motifIndex = MotifIndex.create(directory, Durations.SIXTEENTH, Durations.WHOLE);
+		final List<String> ids = new ArrayList<>(batchedScores.keySet());
+		for (int i = 0; i < 9; ++i) {
+			motifIndex.add(Collections.singletonMap(ids.get(i), batchedScores.get(ids.get(i))));
+		}
+
+		assertEquals(9, motifIndex.getSegmentCount());
+		motifIndex.add(Collections.singletonMap(ids.get(9), batchedScores.get(ids.get(9))));
+
+		assertEquals(1, motifIndex.getSegmentCount());
+		assertEquals(10, motifIndex.getScoreCount());
+		assertEquals(1, getSegmentFiles().size());
+		assertEquals(getHitsInOrder(singleBatchIndex), getHitsInOrder(motifIndex));
+
+		final MotifIndex reopenedIndex = MotifIndex.open(directory);
+		assertEquals(1, reopenedIndex.getSegmentCount());
+		assertEquals(10, reopenedIndex.getScoreCount());
+		assertEquals(getHitsInOrder(singleBatchIndex), getHitsInOrder(reopenedIndex));
+	}
+
+	@Test
+	void testGivenCompactThenSegmentsAreMergedWithoutChangingHits() throws IOException {
+		final Map<String, Score> scores = readScores();
+		final MotifIndex motifIndex = MotifIndex.create(directory, Durations.SIXTEENTH, Durations.WHOLE);
+		motifIndex.add(Collections.singletonMap(MONOPHONIC_ID, scores.get(MONOPHONIC_ID)));
+		motifIndex.add(Collections.singletonMap(MULTIPART_ID, scores.get(MULTIPART_ID)));
+		final List<List<Object>> hits = getHitsInOrder(motifIndex);
+
+		motifIndex.compact();
+		assertEquals(1, motifIndex.getSegmentCount());
+		assertEquals(1, getSegmentFiles().size());
+		assertEquals(hits, getHitsInOrder(motifIndex));
+
+		motifIndex.add(Collections.singletonMap(MONOPHONIC_ID + 2, scores.get(MONOPHONIC_ID)));
+		final MotifIndex reopenedIndex = MotifIndex.open(directory);
+		assertEquals(2, reopenedIndex.getSegmentCount());
+		assertEquals(3, reopenedIndex.getScoreCount());
+		assertEquals(getHitsInOrder(motifIndex), getHitsInOrder(reopenedIndex));
+	}
+
+	@Test
+	void testGivenFilesOfMergedSegmentsLeftOverThenTheyAreDeletedWhenIndexIsOpened() throws IOException {
+		final Map<String, Score> scores = readScores();
+		final MotifIndex motifIndex = MotifIndex.create(directory, Durations.SIXTEENTH, Durations.WHOLE);
+		motifIndex.add(Collections.singletonMap(MONOPHONIC_ID, scores.get(MONOPHONIC_ID)));
+		motifIndex.add(Collections.singletonMap(MULTIPART_ID, scores.get(MULTIPART_ID)));
+		final List<List<Object>> hits = getHitsInOrder(motifIndex);
+
+		final Path backupDirectory = Files.createDirectory(directory.resolve("backup"));
+		final List<Path> segmentFiles = getSegmentFiles();
+		for (Path segmentFile : segmentFiles) {
+			Files.copy(segmentFile, backupDirectory.resolve(segmentFile.getFileName()));
+		}
+
+		motifIndex.compact();
+		for (Path segmentFile : segmentFiles) {
+			Files.copy(backupDirectory.resolve(segmentFile.getFileName()), segmentFile,
+					StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		assertEquals(3, getSegmentFiles().size());
+		final MotifIndex reopenedIndex = MotifIndex.open(directory);
+		assertEquals(1, reopenedIndex.getSegmentCount());
+		assertEquals(2, reopenedIndex.getScoreCount());
+		assertEquals(1, getSegmentFiles().size());
+		assertEquals(hits, getHitsInOrder(reopenedIndex));
+	}
+}
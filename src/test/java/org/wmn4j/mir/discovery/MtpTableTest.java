@@ -0,0 +1,263 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Durations;
+import org.wmn4j.notation.Score;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MtpTableTest {
+
+	@Test
+	void testGivenPointSetThenTableContainsAllIndexPairsGroupedByDifference() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+
+		int pairCount = 0;
+		for (int keyIndex = 0; keyIndex < mtpTable.size(); ++keyIndex) {
+			pairCount += mtpTable.getPairCount(keyIndex);
+
+			final int start = mtpTable.getPairsStart(keyIndex);
+			final NoteEventVector difference = pointSet.get(mtpTable.getSecond(start))
+					.subtract(pointSet.get(mtpTable.getFirst(start)));
+
+			for (int p = start; p < mtpTable.getPairsEnd(keyIndex); ++p) {
+				final int first = mtpTable.getFirst(p);
+				final int second = mtpTable.getSecond(p);
+				assertTrue(first < second);
+				assertEquals(difference, pointSet.get(second).subtract(pointSet.get(first)));
+				assertEquals(keyIndex, mtpTable.indexOf(mtpTable.getKey(first, second)));
+
+				if (p > start) {
+					assertTrue(mtpTable.getFirst(p - 1) < first);
+				}
+			}
+		}
+
+		assertEquals(pointSet.size() * (pointSet.size() - 1) / 2, pairCount);
+	}
+
+	@Test
+	void testGivenToleranceThenTableContainsFirstPairOfEveryPointPerRoundedDifference() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final DiscoveryTolerance tolerance = DiscoveryTolerance.of(Durations.QUARTER, 1);
+		final PointSet pointSet = new PointSet(Collections.singletonList(score), PointProjections.CHROMATIC,
+				tolerance);
+		final MtpTable mtpTable = new MtpTable(pointSet, Long.MAX_VALUE, Integer.MAX_VALUE, tolerance,
+				CancellationToken.NONE);
+		assertFalse(mtpTable.isExact());
+		assertFalse(mtpTable.containsAllPairsPerKey());
+
+		for (int keyIndex = 0; keyIndex < mtpTable.size(); ++keyIndex) {
+			for (int p = mtpTable.getPairsStart(keyIndex); p < mtpTable.getPairsEnd(keyIndex); ++p) {
+				assertEquals(keyIndex, mtpTable.indexOf(mtpTable.getKey(mtpTable.getFirst(p), mtpTable.getSecond(p))));
+				if (p > mtpTable.getPairsStart(keyIndex)) {
+					assertTrue(mtpTable.getFirst(p - 1) < mtpTable.getFirst(p));
+				}
+			}
+		}
+
+		for (int i = 0; i < pointSet.size(); ++i) {
+			for (int j = i + 1; j < pointSet.size(); ++j) {
+				final int pairIndex = mtpTable.indexOfPair(mtpTable.indexOf(mtpTable.getKey(i, j)), i);
+				assertTrue(pairIndex >= 0);
+				assertTrue(mtpTable.getSecond(pairIndex) <= j);
+			}
+		}
+	}
+
+	@Test
+	void testGivenPointSetThenKeysAreInLexicographicOrderOfDifferences() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+
+		NoteEventVector previous = null;
+		for (int keyIndex = 0; keyIndex < mtpTable.size(); ++keyIndex) {
+			final int start = mtpTable.getPairsStart(keyIndex);
+			final NoteEventVector difference = pointSet.get(mtpTable.getSecond(start))
+					.subtract(pointSet.get(mtpTable.getFirst(start)));
+
+			if (previous != null) {
+				assertTrue(previous.compareTo(difference) < 0, previous + " is not before " + difference);
+			}
+			previous = difference;
+		}
+	}
+
+	@Test
+	void testGivenDifferenceNotInPointSetThenIndexOfReturnsMinusOne() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/basic_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+
+		// Differences are only stored from smaller to larger indices.
+		assertEquals(-1, mtpTable.indexOf(mtpTable.getKey(1, 0)));
+		assertTrue(mtpTable.indexOf(mtpTable.getKey(0, 1)) >= 0);
+	}
+
+	@Test
+	void testGivenRemovedPointsThenTableContainsOnlyPairsOfRemainingPoints() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final MtpTable expectedPairs = new MtpTable(pointSet);
+
+		final BitSet removed = new BitSet();
+		for (int i = 0; i < pointSet.size(); i += 3) {
+			removed.set(i);
+		}
+		mtpTable.removePoints(removed);
+
+		int expectedKeyCount = 0;
+		for (int keyIndex = 0; keyIndex < expectedPairs.size(); ++keyIndex) {
+			final List<Integer> expectedFirstIndices = new ArrayList<>();
+			for (int p = expectedPairs.getPairsStart(keyIndex); p < expectedPairs.getPairsEnd(keyIndex); ++p) {
+				if (!removed.get(expectedPairs.getFirst(p)) && !removed.get(expectedPairs.getSecond(p))) {
+					expectedFirstIndices.add(expectedPairs.getFirst(p));
+				}
+			}
+
+			final long key = expectedPairs.getKey(expectedPairs.getFirst(expectedPairs.getPairsStart(keyIndex)),
+					expectedPairs.getSecond(expectedPairs.getPairsStart(keyIndex)));
+			final int remainingKeyIndex = mtpTable.indexOf(key);
+
+			if (expectedFirstIndices.isEmpty()) {
+				assertEquals(-1, remainingKeyIndex);
+			} else {
+				final List<Integer> firstIndices = new ArrayList<>();
+				for (int p = mtpTable.getPairsStart(remainingKeyIndex); p < mtpTable.getPairsEnd(remainingKeyIndex);
+						++p) {
+					firstIndices.add(mtpTable.getFirst(p));
+					assertEquals(key, mtpTable.getKey(mtpTable.getFirst(p), mtpTable.getSecond(p)));
+				}
+
+				assertEquals(expectedFirstIndices, firstIndices);
+				++expectedKeyCount;
+			}
+		}
+
+		assertEquals(expectedKeyCount, mtpTable.size());
+		for (int i = 0; i < pointSet.size(); ++i) {
+			assertEquals(removed.get(i), mtpTable.isRemoved(i));
+		}
+	}
+
+	@Test
+	void testGivenWindowThenTableContainsOnlyIndexPairsWithinWindow() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final long maxOffsetDifference = pointSet.getTicksPerWholeNote() / 2;
+		final int maxIndexDifference = 3;
+		final MtpTable mtpTable = new MtpTable(pointSet, maxOffsetDifference, maxIndexDifference);
+
+		int expectedPairCount = 0;
+		for (int i = 0; i < pointSet.size(); ++i) {
+			for (int j = i + 1; j < pointSet.size(); ++j) {
+				if (j - i <= maxIndexDifference
+						&& pointSet.get(j).getOffset() - pointSet.get(i).getOffset() <= maxOffsetDifference) {
+					++expectedPairCount;
+					assertTrue(mtpTable.indexOf(mtpTable.getKey(i, j)) >= 0);
+				}
+			}
+		}
+
+		int pairCount = 0;
+		for (int keyIndex = 0; keyIndex < mtpTable.size(); ++keyIndex) {
+			for (int p = mtpTable.getPairsStart(keyIndex); p < mtpTable.getPairsEnd(keyIndex); ++p) {
+				final int first = mtpTable.getFirst(p);
+				final int second = mtpTable.getSecond(p);
+				assertTrue(second - first <= maxIndexDifference);
+				assertTrue(pointSet.get(second).getOffset() - pointSet.get(first).getOffset() <= maxOffsetDifference);
+				++pairCount;
+			}
+		}
+
+		assertEquals(expectedPairCount, pairCount);
+		assertFalse(mtpTable.containsAllPairsPerKey());
+		assertTrue(new MtpTable(pointSet, maxOffsetDifference, Integer.MAX_VALUE).containsAllPairsPerKey());
+	}
+
+	@Test
+	void testGivenScoreDistanceThenTableContainsPairsWithinScoresAndBetweenScoresAtDistance() {
+		final Score first = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(first);
+		final Score second = TestHelper.readScore("musicxml/pattern_discovery/basic_point_set_test.xml");
+		assertNotNull(second);
+
+		final PointSet pointSet = new PointSet(Arrays.asList(first, second, first), PointProjections.CHROMATIC);
+		for (int scoreDistance = 0; scoreDistance < pointSet.getScoreCount(); ++scoreDistance) {
+			final MtpTable mtpTable = new MtpTable(pointSet, scoreDistance);
+			assertTrue(mtpTable.containsAllPairsPerKey());
+
+			int expectedPairCount = 0;
+			for (int i = 0; i < pointSet.size(); ++i) {
+				for (int j = i + 1; j < pointSet.size(); ++j) {
+					final int distance = pointSet.getScoreIndex(j) - pointSet.getScoreIndex(i);
+					if (distance == 0 || distance == scoreDistance) {
+						++expectedPairCount;
+					}
+				}
+			}
+
+			int pairCount = 0;
+			for (int keyIndex = 0; keyIndex < mtpTable.size(); ++keyIndex) {
+				final int start = mtpTable.getPairsStart(keyIndex);
+				final int scoreIndex = pointSet.getScoreIndex(mtpTable.getFirst(start));
+				final NoteEventVector difference = pointSet.get(mtpTable.getSecond(start))
+						.subtract(pointSet.get(mtpTable.getFirst(start)));
+
+				for (int p = start; p < mtpTable.getPairsEnd(keyIndex); ++p) {
+					final int distance = pointSet.getScoreIndex(mtpTable.getSecond(p)) - scoreIndex;
+					assertEquals(scoreIndex, pointSet.getScoreIndex(mtpTable.getFirst(p)));
+					assertEquals(keyIndex >= mtpTable.getFirstMtpKeyIndex() && scoreDistance > 0 ? scoreDistance : 0,
+							distance);
+					++pairCount;
+				}
+
+				int vectorPairCount = 0;
+				for (int i = 0; i < pointSet.size(); ++i) {
+					for (int j = i + 1; j < pointSet.size(); ++j) {
+						if (difference.equals(pointSet.get(j).subtract(pointSet.get(i)))) {
+							++vectorPairCount;
+						}
+					}
+				}
+
+				assertEquals(vectorPairCount, mtpTable.getVectorPairCount(keyIndex));
+				final int vectorPairsEnd = mtpTable.getVectorPairsEnd(keyIndex);
+				for (int p = mtpTable.getVectorPairsStart(keyIndex) + 1; p < vectorPairsEnd; ++p) {
+					assertTrue(mtpTable.getFirst(p - 1) < mtpTable.getFirst(p));
+				}
+			}
+
+			assertEquals(expectedPairCount, pairCount);
+		}
+	}
+}
@@ -11,6 +11,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class NoteEventVectorTest {
 
+	/*
+	 * Offsets in ticks when there are 60 ticks in a whole note,
+	 * which makes the offsets of both triplets and quintuplets exact.
+	 */
+	private static final long WHOLE = 60;
+	private static final long QUARTER = WHOLE / 4;
+	private static final long QUARTER_TRIPLET = WHOLE / 6;
+	private static final long EIGHTH_QUINTUPLET = WHOLE / 10;
+
 	@Test
 	void testSimpleAddition() {
 		final NoteEventVector vector1 = new NoteEventVector(0, 0, 0).add(new NoteEventVector(1, 1, 1));
@@ -22,35 +31,30 @@ class NoteEventVectorTest {
 	}
 
 	@Test
-	void testAdditionWithFractionalOffsets() {
-		final NoteEventVector tripletOffset = new NoteEventVector(1.0 / 3.0, 0, 0);
-		final NoteEventVector quarterOffset = new NoteEventVector(1.0, 0, 0);
-		final NoteEventVector halfOffset = tripletOffset.add(tripletOffset).add(quarterOffset).add(tripletOffset);
-		assertEquals(new NoteEventVector(2.0, 0, 0), halfOffset);
-
-		final NoteEventVector tripletsThatShouldSumToFour = tripletOffset.add(tripletOffset).add(tripletOffset)
-				.add(tripletOffset).add(tripletOffset).add(tripletOffset).add(tripletOffset).add(tripletOffset)
-				.add(tripletOffset).add(tripletOffset).add(tripletOffset).add(tripletOffset);
-
-		assertEquals(new NoteEventVector(4.0, 0, 0), tripletsThatShouldSumToFour);
-
-		final NoteEventVector quintupletOffset = new NoteEventVector(1.0 / 5.0, 0, 0);
-		final NoteEventVector tripletsAndQuintupletsThatShouldSumToTwo = quintupletOffset.add(quintupletOffset)
+	void testAdditionWithTupletOffsets() {
+		final NoteEventVector tripletOffset = new NoteEventVector(QUARTER_TRIPLET, 0, 0);
+		final NoteEventVector quarterOffset = new NoteEventVector(QUARTER, 0, 0);
+		final NoteEventVector dottedHalfOffset = tripletOffset.add(tripletOffset).add(quarterOffset)
+				.add(tripletOffset);
+		assertEquals(new NoteEventVector(3 * QUARTER, 0, 0), dottedHalfOffset);
+
+		NoteEventVector twelveTriplets = new NoteEventVector(0, 0, 0);
+		for (int i = 0; i < 12; ++i) {
+			twelveTriplets = twelveTriplets.add(tripletOffset);
+		}
+
+		assertEquals(new NoteEventVector(2 * WHOLE, 0, 0), twelveTriplets);
+
+		final NoteEventVector quintupletOffset = new NoteEventVector(EIGHTH_QUINTUPLET, 0, 0);
+		final NoteEventVector tripletsAndQuintupletsThatShouldSumToWhole = quintupletOffset.add(quintupletOffset)
 				.add(quintupletOffset).add(quintupletOffset).add(quintupletOffset).add(tripletOffset)
 				.add(tripletOffset).add(tripletOffset);
 
-		assertEquals(new NoteEventVector(2.0, 0, 0), tripletsAndQuintupletsThatShouldSumToTwo);
-
-		final NoteEventVector allOnes = new NoteEventVector(1, 1, 1);
-		final NoteEventVector offsetWithOneFifth = allOnes.add(allOnes).add(new NoteEventVector(1.0 / 5.0, 1, 1));
-
-		assertEquals(new NoteEventVector(2.2, 3, 3), offsetWithOneFifth);
+		assertEquals(new NoteEventVector(WHOLE, 0, 0), tripletsAndQuintupletsThatShouldSumToWhole);
 
-		final NoteEventVector quarterAndTwoTripletsOffsetWithLargeOffset = tripletOffset.add(tripletOffset)
-				.add(quarterOffset)
-				.add(new NoteEventVector(100000, 0, 0));
-
-		assertEquals(new NoteEventVector(100001.666666666666666, 0, 0), quarterAndTwoTripletsOffsetWithLargeOffset);
+		final NoteEventVector largeOffset = new NoteEventVector(100000 * WHOLE, 0, 0);
+		assertEquals(new NoteEventVector(100000 * WHOLE + QUARTER_TRIPLET, 1, 1),
+				largeOffset.add(tripletOffset).add(new NoteEventVector(0, 1, 1)));
 	}
 
 	@Test
@@ -64,21 +68,14 @@ class NoteEventVectorTest {
 	}
 
 	@Test
-	void testSubtractionWithFractionalOffsets() {
-		final NoteEventVector tripletOffset = new NoteEventVector(1.0 / 3.0, 0, 0);
-		final NoteEventVector expectedToBeZero = new NoteEventVector(1.0, 0, 0).subtract(tripletOffset)
+	void testSubtractionWithTupletOffsets() {
+		final NoteEventVector tripletOffset = new NoteEventVector(QUARTER_TRIPLET, 0, 0);
+		final NoteEventVector expectedToBeZero = new NoteEventVector(2 * QUARTER, 0, 0).subtract(tripletOffset)
 				.subtract(tripletOffset).subtract(tripletOffset);
 		assertEquals(new NoteEventVector(0, 0, 0), expectedToBeZero);
 
-		final NoteEventVector allOnes = new NoteEventVector(1, 0, 0);
-		final NoteEventVector quarterMinusQuintuplet = allOnes
-				.subtract(new NoteEventVector(1.0 / 5.0, 0, 0));
-
-		assertEquals(new NoteEventVector(0.8, 0, 0), quarterMinusQuintuplet);
-
-		final NoteEventVector quintupletOffset = new NoteEventVector(0.2, 0, 0);
-
-		final NoteEventVector dottedQuarterOffset = new NoteEventVector(3.5, 0, 0).subtract(tripletOffset)
+		final NoteEventVector quintupletOffset = new NoteEventVector(EIGHTH_QUINTUPLET, 0, 0);
+		final NoteEventVector halfOffset = new NoteEventVector(WHOLE + 2 * QUARTER, 0, 0).subtract(tripletOffset)
 				.subtract(tripletOffset)
 				.subtract(quintupletOffset)
 				.subtract(quintupletOffset)
@@ -87,7 +84,7 @@ class NoteEventVectorTest {
 				.subtract(quintupletOffset)
 				.subtract(tripletOffset);
 
-		assertEquals(new NoteEventVector(1.5, 0, 0), dottedQuarterOffset);
+		assertEquals(new NoteEventVector(2 * QUARTER, 0, 0), halfOffset);
 	}
 
 	@Test
@@ -110,21 +107,20 @@ class NoteEventVectorTest {
 		assertNotEquals(new NoteEventVector(1, 0, 1), new NoteEventVector(1, 1, 1));
 		assertNotEquals(new NoteEventVector(1, 1, 0), new NoteEventVector(1, 1, 1));
 
-		assertNotEquals(new NoteEventVector(0.00000001, 1, 1), new NoteEventVector(0, 1, 1));
-		assertNotEquals(new NoteEventVector(100000.000003, 1, 1), new NoteEventVector(100000.000004, 1, 1));
+		assertNotEquals(new NoteEventVector(1, 1, 1), new NoteEventVector(0, 1, 1));
+		assertNotEquals(new NoteEventVector(1L << 40, 1, 1), new NoteEventVector((1L << 40) + 1, 1, 1));
 	}
 
 	@Test
 	void testHashCode() {
-		final NoteEventVector oneThirdOffset = new NoteEventVector(1.0 / 3.0, 0, 0);
-		final NoteEventVector oneOffset = new NoteEventVector(1.0, 0, 0);
-		final NoteEventVector sumOfThirdsAndOne = oneThirdOffset.add(oneThirdOffset).add(oneOffset).add(oneThirdOffset);
-		assertEquals(new NoteEventVector(2.0, 0, 0).hashCode(), sumOfThirdsAndOne.hashCode());
-
-		final NoteEventVector shouldSumToFour = oneThirdOffset.add(oneThirdOffset).add(oneThirdOffset)
-				.add(oneThirdOffset).add(oneThirdOffset).add(oneThirdOffset).add(oneThirdOffset).add(oneThirdOffset)
-				.add(oneThirdOffset).add(oneThirdOffset).add(oneThirdOffset).add(oneThirdOffset);
-
-		assertEquals(new NoteEventVector(4.0, 0, 0).hashCode(), shouldSumToFour.hashCode());
+		final NoteEventVector tripletOffset = new NoteEventVector(QUARTER_TRIPLET, 0, 0);
+		final NoteEventVector quarterOffset = new NoteEventVector(QUARTER, 0, 0);
+		final NoteEventVector dottedHalfOffset = tripletOffset.add(tripletOffset).add(quarterOffset)
+				.add(tripletOffset);
+		assertEquals(new NoteEventVector(3 * QUARTER, 0, 0).hashCode(), dottedHalfOffset.hashCode());
+
+		final NoteEventVector largeOffset = new NoteEventVector(1L << 40, 2, 3);
+		assertEquals(new NoteEventVector(1L << 40, 0, 0).add(new NoteEventVector(0, 2, 3)).hashCode(),
+				largeOffset.hashCode());
 	}
 }
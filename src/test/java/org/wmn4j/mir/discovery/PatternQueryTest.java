@@ -0,0 +1,194 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.mir.Pattern;
+import org.wmn4j.mir.PatternPosition;
+import org.wmn4j.notation.Durations;
+import org.wmn4j.notation.MeasureBuilder;
+import org.wmn4j.notation.Note;
+import org.wmn4j.notation.NoteBuilder;
+import org.wmn4j.notation.PartBuilder;
+import org.wmn4j.notation.Pitch;
+import org.wmn4j.notation.Rest;
+import org.wmn4j.notation.Score;
+import org.wmn4j.notation.ScoreBuilder;
+import org.wmn4j.notation.TimeSignatures;
+import org.wmn4j.notation.access.Position;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatternQueryTest {
+
+	private Set<Position> toPositions(PatternPosition patternPosition) {
+		final Set<Position> positions = new HashSet<>();
+		for (int partIndex : patternPosition.getPartIndices()) {
+			positions.addAll(patternPosition.getPositions(partIndex));
+		}
+
+		return positions;
+	}
+
+	@Test
+	void testGivenDiscoveredPatternThenAllOccurrencesAreExactMatches() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PatternQuery patternQuery = new PatternQuery(score);
+
+		for (Collection<PatternPosition> occurrences : GeometricPatternDiscovery.withSiatechf(score, 0.0)
+				.getPatternPositions()) {
+			final PatternPosition firstOccurrence = occurrences.iterator().next();
+			final List<PatternMatch> matches = patternQuery.findMatches(score.getAt(firstOccurrence), 1.0);
+
+			final Set<Set<Position>> matchedPositions = matches.stream()
+					.map(match -> toPositions(match.getPatternPosition())).collect(Collectors.toSet());
+			for (PatternPosition occurrence : occurrences) {
+				assertTrue(matchedPositions.contains(toPositions(occurrence)));
+			}
+
+			for (PatternMatch match : matches) {
+				assertTrue(match.isExact());
+				assertEquals(1.0, match.getMatchRatio());
+			}
+		}
+	}
+
+	@Test
+	void testGivenPartialMatchesThenVoteCountsAreSameAsWithBruteForce() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PatternQuery patternQuery = new PatternQuery(score);
+		final PointSet pointSet = new PointSet(score);
+
+		final Pattern query = Pattern.of(Arrays.asList(
+				Note.of(Pitch.of(Pitch.Base.C, 0, 4), Durations.EIGHTH),
+				Note.of(Pitch.of(Pitch.Base.D, 0, 4), Durations.EIGHTH),
+				Rest.of(Durations.EIGHTH),
+				Note.of(Pitch.of(Pitch.Base.F, 1, 4), Durations.EIGHTH)));
+		final long eighth = pointSet.getTicksPerWholeNote() / 8;
+		final List<NoteEventVector> queryPoints = Arrays.asList(new NoteEventVector(0, 48, 0),
+				new NoteEventVector(eighth, 50, 0), new NoteEventVector(3 * eighth, 54, 0));
+
+		final Map<NoteEventVector, Integer> votes = new HashMap<>();
+		final Set<NoteEventVector> scorePoints = new HashSet<>();
+		for (int i = 0; i < pointSet.size(); ++i) {
+			scorePoints.add(pointSet.get(i));
+		}
+
+		for (NoteEventVector queryPoint : queryPoints) {
+			for (NoteEventVector scorePoint : scorePoints) {
+				votes.merge(scorePoint.subtract(queryPoint), 1, Integer::sum);
+			}
+		}
+
+		for (double minMatchRatio : new double[] { 0.1, 0.5, 1.0 }) {
+			final List<Integer> expectedCounts = votes.values().stream()
+					.filter(count -> (double) count / queryPoints.size() >= minMatchRatio)
+					.sorted(Collections.reverseOrder()).collect(Collectors.toList());
+			final List<Integer> matchedCounts = patternQuery.findMatches(query, minMatchRatio).stream()
+					.map(PatternMatch::getMatchedNoteCount).collect(Collectors.toList());
+
+			assertEquals(expectedCounts, matchedCounts);
+		}
+	}
+
+	@Test
+	void testGivenMatchesWithEqualNoteCountsThenMatchesAreInOrderOfFirstMatchedOnset() {
+		final PartBuilder partBuilder = new PartBuilder("Part");
+		final MeasureBuilder measureBuilder = new MeasureBuilder(1);
+		measureBuilder.setTimeSignature(TimeSignatures.FOUR_FOUR);
+		for (int i = 0; i < 4; ++i) {
+			measureBuilder.addToVoice(1, new NoteBuilder(Pitch.of(Pitch.Base.D, 0, 4), Durations.EIGHTH));
+			measureBuilder.addToVoice(1, new NoteBuilder(Pitch.of(Pitch.Base.C, 0, 4), Durations.EIGHTH));
+		}
+
+		partBuilder.add(measureBuilder);
+		final ScoreBuilder scoreBuilder = new ScoreBuilder();
+		scoreBuilder.addPart(partBuilder);
+		final Score score = scoreBuilder.build();
+		final PointSet pointSet = new PointSet(score);
+
+		final Map<Position, Long> onsets = new HashMap<>();
+		for (int i = 0; i < pointSet.size(); ++i) {
+			onsets.put(pointSet.getPosition(i), pointSet.getOffset(i));
+		}
+
+		// Matching only the D of the query to the C at the second eighth has a smaller translation than matching
+		// only the C of the query to the D at the first eighth, but the latter begins earlier in the score.
+		final Pattern query = Pattern.of(Arrays.asList(
+				Note.of(Pitch.of(Pitch.Base.C, 0, 4), Durations.EIGHTH),
+				Note.of(Pitch.of(Pitch.Base.D, 0, 4), Durations.EIGHTH)));
+		final List<PatternMatch> matches = new PatternQuery(score).findMatches(query, 0.5);
+		assertEquals(2, matches.get(0).getMatchedNoteCount());
+
+		long previousOnset = Long.MIN_VALUE;
+		int previousCount = Integer.MAX_VALUE;
+		for (PatternMatch match : matches) {
+			final long onset = toPositions(match.getPatternPosition()).stream().mapToLong(onsets::get).min()
+					.getAsLong();
+			if (match.getMatchedNoteCount() == previousCount) {
+				assertTrue(previousOnset <= onset);
+			}
+
+			previousOnset = onset;
+			previousCount = match.getMatchedNoteCount();
+		}
+	}
+
+	@Test
+	void testGivenQueryWithDifferentTicksThenMatchesAreFound() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PatternQuery patternQuery = new PatternQuery(score);
+
+		final Pattern query = Pattern.of(Arrays.asList(
+				Note.of(Pitch.of(Pitch.Base.C, 0, 4), Durations.EIGHTH.divideBy(3)),
+				Note.of(Pitch.of(Pitch.Base.D, 0, 4), Durations.EIGHTH)));
+		final List<PatternMatch> matches = patternQuery.findMatches(query, 0.5);
+
+		assertFalse(matches.isEmpty());
+		for (PatternMatch match : matches) {
+			assertEquals(1, match.getMatchedNoteCount());
+			assertEquals(1, match.getPatternPosition().size());
+		}
+	}
+
+	@Test
+	void testGivenInvalidArgumentsThenExceptionIsThrown() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PatternQuery patternQuery = new PatternQuery(score);
+		final Pattern query = Pattern.of(Collections.singletonList(Note.of(Pitch.of(Pitch.Base.C, 0, 4),
+				Durations.EIGHTH)));
+
+		assertThrows(NullPointerException.class, () -> new PatternQuery(null));
+		assertThrows(NullPointerException.class, () -> new PatternQuery(score, null));
+		assertThrows(NullPointerException.class, () -> patternQuery.findMatches(null, 1.0));
+		assertThrows(IllegalArgumentException.class, () -> patternQuery.findMatches(query, 0.0));
+		assertThrows(IllegalArgumentException.class, () -> patternQuery.findMatches(query, 1.5));
+		assertThrows(IllegalArgumentException.class,
+				() -> patternQuery.findMatches(Pattern.of(Collections.singletonList(Rest.of(Durations.EIGHTH))),
+						1.0));
+	}
+}
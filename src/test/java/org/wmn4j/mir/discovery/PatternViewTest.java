@@ -0,0 +1,78 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.mir.Pattern;
+import org.wmn4j.notation.Score;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PatternViewTest {
+
+	private PatternDiscovery discover() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+		return GeometricPatternDiscovery.withSiatechf(score, 0.0);
+	}
+
+	private Pattern firstPattern(Collection<Collection<Pattern>> patterns) {
+		return patterns.iterator().next().iterator().next();
+	}
+
+	@Test
+	void testGivenViewThenPatternsAreSameAsEagerlyExtractedPatterns() {
+		final PatternDiscovery discovery = discover();
+		final Collection<Collection<Pattern>> expectedPatterns = discovery.getPatterns();
+
+		for (int maxCachedPatterns : new int[] { 0, 1, Integer.MAX_VALUE }) {
+			final Collection<Collection<Pattern>> view = discovery.getPatternView(maxCachedPatterns);
+			assertEquals(expectedPatterns.size(), view.size());
+
+			final Iterator<Collection<Pattern>> expectedIterator = expectedPatterns.iterator();
+			for (Collection<Pattern> patterns : view) {
+				assertEquals(new ArrayList<>(expectedIterator.next()), new ArrayList<>(patterns));
+			}
+		}
+	}
+
+	@Test
+	void testGivenCacheSizeThenOnlyMostRecentlyUsedPatternsAreKept() {
+		final PatternDiscovery discovery = discover();
+
+		final Collection<Collection<Pattern>> cachingView = discovery.getPatternView(1);
+		final Pattern pattern = firstPattern(cachingView);
+		assertSame(pattern, firstPattern(cachingView));
+
+		final Iterator<Collection<Pattern>> iterator = cachingView.iterator();
+		iterator.next();
+		assertNotNull(iterator.next().iterator().next());
+		assertNotSame(pattern, firstPattern(cachingView));
+
+		final Collection<Collection<Pattern>> nonCachingView = discovery.getPatternView(0);
+		assertNotSame(firstPattern(nonCachingView), firstPattern(nonCachingView));
+	}
+
+	@Test
+	void testGivenViewThenItCannotBeModified() {
+		final Collection<Collection<Pattern>> view = discover().getPatternView(1);
+
+		assertThrows(UnsupportedOperationException.class, view::clear);
+		assertThrows(UnsupportedOperationException.class, () -> view.iterator().next().clear());
+	}
+
+	@Test
+	void testGivenNegativeCacheSizeThenExceptionIsThrown() {
+		assertThrows(IllegalArgumentException.class, () -> discover().getPatternView(-1));
+	}
+}
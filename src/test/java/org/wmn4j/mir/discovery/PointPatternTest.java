@@ -17,10 +17,10 @@ public class PointPatternTest {
 	private List<NoteEventVector> getTestPoints() {
 		List<NoteEventVector> points = new ArrayList<>();
 
-		points.add(new NoteEventVector(0.33, 50, 0));
+		points.add(new NoteEventVector(1, 50, 0));
 		points.add(new NoteEventVector(5, 64, 1));
 		points.add(new NoteEventVector(27, 12, 0));
-		points.add(new NoteEventVector(39.125, 91, 2));
+		points.add(new NoteEventVector(39, 91, 2));
 		points.add(new NoteEventVector(30003, 3, 2));
 
 		return points;
@@ -71,7 +71,7 @@ public class PointPatternTest {
 		assertEquals(points.get(4).subtract(points.get(3)), vectorizedPattern.get(3));
 
 		final PointPattern singletonPattern = new PointPattern(
-				Collections.singletonList(new NoteEventVector(0.33, 50, 0)));
+				Collections.singletonList(new NoteEventVector(1, 50, 0)));
 
 		assertEquals(0, singletonPattern.vectorized().size());
 	}
@@ -0,0 +1,47 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.notation.Pitch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PointProjectionsTest {
+
+	private static final Pitch MIDDLE_C = Pitch.of(Pitch.Base.C, 0, 4);
+	private static final Pitch C_SHARP = Pitch.of(Pitch.Base.C, 1, 4);
+	private static final Pitch D_FLAT = Pitch.of(Pitch.Base.D, -1, 4);
+	private static final Pitch HIGH_B = Pitch.of(Pitch.Base.B, 0, 5);
+
+	@Test
+	void testChromaticProjection() {
+		final PointProjection projection = PointProjections.CHROMATIC;
+		assertEquals(60, projection.projectPitch(MIDDLE_C));
+		assertEquals(61, projection.projectPitch(C_SHARP));
+		assertEquals(61, projection.projectPitch(D_FLAT));
+		assertEquals(83, projection.projectPitch(HIGH_B));
+		assertEquals(3, projection.projectPart(3));
+	}
+
+	@Test
+	void testDiatonicProjection() {
+		final PointProjection projection = PointProjections.DIATONIC;
+		assertEquals(28, projection.projectPitch(MIDDLE_C));
+		assertEquals(28, projection.projectPitch(C_SHARP));
+		assertEquals(29, projection.projectPitch(D_FLAT));
+		assertEquals(41, projection.projectPitch(HIGH_B));
+		assertEquals(3, projection.projectPart(3));
+	}
+
+	@Test
+	void testProjectionWithoutParts() {
+		final PointProjection projection = PointProjections.withoutParts(PointProjections.DIATONIC);
+		assertEquals(28, projection.projectPitch(MIDDLE_C));
+		assertEquals(0, projection.projectPart(0));
+		assertEquals(0, projection.projectPart(3));
+		assertThrows(NullPointerException.class, () -> PointProjections.withoutParts(null));
+	}
+}
@@ -1,7 +1,9 @@
 package org.wmn4j.mir.discovery;
 
 import org.junit.jupiter.api.Test;
+import org.wmn4j.mir.PatternPosition;
 import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Duration;
 import org.wmn4j.notation.Durations;
 import org.wmn4j.notation.Pitch;
 import org.wmn4j.notation.Score;
@@ -9,53 +11,69 @@ import org.wmn4j.notation.TimeSignatures;
 import org.wmn4j.notation.access.Position;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class PointSetTest {
 
+	/*
+	 * The number of ticks in a whole note in the test scores. This is the least common multiple
+	 * of the denominators of the durations in the score.
+	 */
+	private static final long BASIC_TEST_TICKS = 48;
+	private static final long MULTIPART_TEST_TICKS = 4;
+
+	private static long ticks(Duration duration, long ticksPerWholeNote) {
+		return duration.getNumerator() * ticksPerWholeNote / duration.getDenominator();
+	}
+
 	/*
 	 * Returns the expected points in the point set representation
 	 * of "musicxml/pattern_discovery/basic_point_set_test.xml"
 	 */
 	private List<NoteEventVector> getExpectedVectorsForBasicTest() {
 		List<NoteEventVector> vectors = new ArrayList<>();
-		double offset = 0.0;
+		long offset = 0;
 
 		vectors.add(new NoteEventVector(offset, 60, 0));
-		offset += Durations.QUARTER.toDouble();
+		offset += ticks(Durations.QUARTER, BASIC_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, 62, 0));
-		offset += Durations.EIGHTH.toDouble();
+		offset += ticks(Durations.EIGHTH, BASIC_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, 64, 0));
-		offset += Durations.QUARTER.toDouble();
+		offset += ticks(Durations.QUARTER, BASIC_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, 65, 0));
-		offset += Durations.SIXTEENTH.toDouble();
+		offset += ticks(Durations.SIXTEENTH, BASIC_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, 65, 0));
-		offset += Durations.SIXTEENTH.toDouble();
+		offset += ticks(Durations.SIXTEENTH, BASIC_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, 65, 0));
-		offset += Durations.EIGHTH.divideBy(3).toDouble();
+		offset += ticks(Durations.EIGHTH.divideBy(3), BASIC_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, 65, 0));
-		offset += Durations.EIGHTH.divideBy(3).toDouble();
+		offset += ticks(Durations.EIGHTH.divideBy(3), BASIC_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, 65, 0));
 
 		// Second measure
-		offset = TimeSignatures.FOUR_FOUR.getTotalDuration().toDouble();
+		offset = ticks(TimeSignatures.FOUR_FOUR.getTotalDuration(), BASIC_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, 60, 0));
 		vectors.add(new NoteEventVector(offset, 64, 0));
 		vectors.add(new NoteEventVector(offset, 67, 0));
 		vectors.add(new NoteEventVector(offset, 70, 0));
 
-		offset += Durations.HALF.toDouble();
+		offset += ticks(Durations.HALF, BASIC_TEST_TICKS);
 		vectors.add(new NoteEventVector(offset, 60, 0));
 
 		return vectors;
@@ -68,6 +86,7 @@ public class PointSetTest {
 
 		final PointSet pointSet = new PointSet(score);
 		assertEquals(13, pointSet.size());
+		assertEquals(BASIC_TEST_TICKS, pointSet.getTicksPerWholeNote());
 
 		final List<NoteEventVector> expectedVectors = getExpectedVectorsForBasicTest();
 
@@ -93,6 +112,7 @@ public class PointSetTest {
 
 		final PointSet pointSet = new PointSet(score);
 		assertEquals(13, pointSet.size());
+		assertEquals(BASIC_TEST_TICKS, pointSet.getTicksPerWholeNote());
 
 		final List<NoteEventVector> expectedVectors = getExpectedVectorsForBasicTest();
 
@@ -119,23 +139,23 @@ public class PointSetTest {
 	 */
 	private List<NoteEventVector> getExpectedVectorsForMultiPartTest() {
 		List<NoteEventVector> vectors = new ArrayList<>();
-		double offset = 0.0;
+		long offset = 0;
 
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.G, 0, 2).toInt(), 3));
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.G, 0, 3).toInt(), 3));
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.C, 0, 4).toInt(), 1));
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.G, 0, 4).toInt(), 2));
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.C, 0, 5).toInt(), 0));
-		offset += Durations.HALF.toDouble();
+		offset += ticks(Durations.HALF, MULTIPART_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.A, 0, 3).toInt(), 3));
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.D, 0, 4).toInt(), 1));
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.A, 0, 4).toInt(), 2));
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.D, 0, 5).toInt(), 0));
-		offset += Durations.QUARTER.toDouble();
+		offset += ticks(Durations.QUARTER, MULTIPART_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.A, 0, 2).toInt(), 3));
-		offset += Durations.QUARTER.toDouble();
+		offset += ticks(Durations.QUARTER, MULTIPART_TEST_TICKS);
 
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.G, 0, 3).toInt(), 3));
 		vectors.add(new NoteEventVector(offset, Pitch.of(Pitch.Base.C, 0, 4).toInt(), 1));
@@ -152,6 +172,7 @@ public class PointSetTest {
 
 		final PointSet pointSet = new PointSet(score);
 		assertEquals(14, pointSet.size());
+		assertEquals(MULTIPART_TEST_TICKS, pointSet.getTicksPerWholeNote());
 
 		List<NoteEventVector> expected = getExpectedVectorsForMultiPartTest();
 
@@ -178,6 +199,7 @@ public class PointSetTest {
 
 		final PointSet pointSet = new PointSet(score);
 		assertEquals(14, pointSet.size());
+		assertEquals(MULTIPART_TEST_TICKS, pointSet.getTicksPerWholeNote());
 
 		List<NoteEventVector> expected = getExpectedVectorsForMultiPartTest();
 
@@ -198,4 +220,150 @@ public class PointSetTest {
 		assertEquals(new Position(2, 2, 1, 1), pointSet.getPosition(expected.get(12)));
 		assertEquals(new Position(0, 2, 1, 1), pointSet.getPosition(expected.get(13)));
 	}
+
+	@Test
+	void testGivenProjectionWithoutPartsThenPointsAreProjectedToSamePart() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score, PointProjections.withoutParts(PointProjections.DIATONIC));
+		assertEquals(14, pointSet.size());
+
+		long previousOffset = 0;
+		int previousPitch = Integer.MIN_VALUE;
+		for (int i = 0; i < pointSet.size(); ++i) {
+			assertEquals(0, pointSet.getPart(i));
+
+			// The points are sorted by offset and then by the projected pitch.
+			if (pointSet.getOffset(i) == previousOffset) {
+				assertTrue(previousPitch <= pointSet.getPitch(i));
+			}
+			previousOffset = pointSet.getOffset(i);
+			previousPitch = pointSet.getPitch(i);
+		}
+
+		// G2 in the lowest part at the first onset.
+		final NoteEventVector lowestPoint = new NoteEventVector(0, PointProjections.DIATONIC.projectPitch(
+				Pitch.of(Pitch.Base.G, 0, 2)), 0);
+		assertEquals(lowestPoint, pointSet.get(0));
+		assertEquals(new Position(3, 1, 2, 0), pointSet.getPosition(lowestPoint));
+	}
+
+	@Test
+	void testGivenVectorNotInPointSetThenIndexOfIsNegative() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/basic_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		for (int i = 0; i < pointSet.size(); ++i) {
+			assertEquals(i, pointSet.indexOf(pointSet.get(i)));
+		}
+
+		assertTrue(pointSet.indexOf(new NoteEventVector(0, 61, 0)) < 0);
+		assertThrows(NoSuchElementException.class, () -> pointSet.getPosition(new NoteEventVector(0, 61, 0)));
+	}
+
+	@Test
+	void testGivenLastIndexThenFirstEqualPointAtOrBeforeItIsFound() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		// Projecting the pitches to pitch classes in a single part gives points that are equal.
+		final PointSet pointSet = new PointSet(score, new PointProjection() {
+			@Override
+			public int projectPitch(Pitch pitch) {
+				return pitch.getPitchClassNumber();
+			}
+
+			@Override
+			public int projectPart(int partIndex) {
+				return 0;
+			}
+		});
+		for (int i = 0; i < pointSet.size(); ++i) {
+			int first = i;
+			while (first > 0 && pointSet.get(first - 1).equals(pointSet.get(i))) {
+				--first;
+			}
+
+			for (int last = 0; last < pointSet.size(); ++last) {
+				final int index = pointSet.firstIndexAtOrBefore(pointSet.getOffset(i), pointSet.getPitch(i),
+						pointSet.getPart(i), last);
+
+				if (last < first) {
+					assertTrue(index < 0);
+				} else {
+					assertEquals(first, index);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testGivenSeveralScoresThenEachScoreIsInItsOwnBand() {
+		final Score first = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		final Score second = TestHelper.readScore("musicxml/pattern_discovery/basic_point_set_test.xml");
+		assertNotNull(first);
+		assertNotNull(second);
+
+		final PointSet firstPointSet = new PointSet(first);
+		final PointSet secondPointSet = new PointSet(second);
+		final PointSet pointSet = new PointSet(Arrays.asList(first, second), PointProjections.CHROMATIC);
+
+		assertEquals(2, pointSet.getScoreCount());
+		assertEquals(firstPointSet.size() + secondPointSet.size(), pointSet.size());
+
+		for (int i = 0; i < pointSet.size(); ++i) {
+			final int expectedScoreIndex = i < firstPointSet.size() ? 0 : 1;
+			assertEquals(expectedScoreIndex, pointSet.getScoreIndex(i));
+
+			for (int j = i + 1; j < pointSet.size(); ++j) {
+				final long offsetDifference = pointSet.getOffset(j) - pointSet.getOffset(i);
+				assertEquals(pointSet.getScoreIndex(i) == pointSet.getScoreIndex(j),
+						offsetDifference <= pointSet.getMaxOffsetWithinScore());
+			}
+		}
+
+		final int secondStart = firstPointSet.size();
+		for (int i = 0; i < secondPointSet.size(); ++i) {
+			assertEquals(secondPointSet.getPosition(i), pointSet.getPosition(secondStart + i));
+			assertEquals(secondPointSet.getPitch(i), pointSet.getPitch(secondStart + i));
+		}
+
+		assertThrows(IllegalArgumentException.class,
+				() -> new PointSet(Collections.emptyList(), PointProjections.CHROMATIC));
+	}
+
+	@Test
+	void testGivenIndexThenPositionOfPointAtIndexIsReturned() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/basic_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+
+		assertEquals(new Position(0, 1, 1, 0), pointSet.getPosition(0));
+		assertEquals(new Position(0, 1, 2, 1, 0, 0), pointSet.getPosition(8));
+		assertEquals(new Position(0, 1, 2, 1, 0, 3), pointSet.getPosition(11));
+		assertEquals(new Position(0, 2, 1, 1), pointSet.getPosition(12));
+		assertThrows(IndexOutOfBoundsException.class, () -> pointSet.getPosition(13));
+	}
+
+	@Test
+	void testGivenPatternAndTranslatorThenPositionsOfTranslatedPointsAreReturned() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/basic_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		// Two consecutive sixteenth notes translated by a sixteenth.
+		final PointPattern pattern = new PointPattern(Arrays.asList(pointSet.get(3), pointSet.get(4)));
+		final NoteEventVector translator = pointSet.get(4).subtract(pointSet.get(3));
+
+		final PatternPosition patternPosition = pointSet.getPosition(pattern, translator);
+		assertEquals(2, patternPosition.size());
+		assertTrue(patternPosition.contains(pointSet.getPosition(4)));
+		assertTrue(patternPosition.contains(pointSet.getPosition(5)));
+
+		final NoteEventVector missingTranslator = new NoteEventVector(0, 1, 0);
+		assertThrows(NoSuchElementException.class, () -> pointSet.getPosition(pattern, missingTranslator));
+	}
 }
@@ -0,0 +1,137 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Durations;
+import org.wmn4j.notation.Score;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SiatechfJobTest {
+
+	@Test
+	void testGivenDefaultSettingsThenResultsAreSameAsWithSiatechf() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PatternDiscovery discovery = new SiatechfJob(score, 1.0).run();
+		assertTrue(discovery.isComplete());
+		assertEquals(GeometricPatternDiscovery.withSiatechf(score, 1.0).getPatterns(), discovery.getPatterns());
+	}
+
+	@Test
+	void testGivenSeveralSettingsThenAllSettingsAreUsed() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final DiscoveryWindow window = DiscoveryWindow.ofDuration(Durations.HALF);
+
+		final PatternDiscovery discovery = new SiatechfJob(score, 1.0)
+				.setWindow(window)
+				.setParallelism(3)
+				.setCancellationToken(CancellationToken.create())
+				.run();
+
+		assertTrue(discovery.isComplete());
+		assertEquals(GeometricPatternDiscovery.withSiatechf(score, 1.0, window).getPatterns(),
+				discovery.getPatterns());
+	}
+
+	@Test
+	void testGivenCancelledTokenThenResultsAreEmptyAndIncomplete() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final CancellationToken token = CancellationToken.create();
+		token.cancel();
+
+		final PatternDiscovery discovery = new SiatechfJob(score, 1.0).setCancellationToken(token).run();
+		assertFalse(discovery.isComplete());
+		assertTrue(discovery.getPatternPositions().isEmpty());
+
+		final PatternDiscovery parallelDiscovery = new SiatechfJob(score, 1.0).setCancellationToken(token)
+				.setParallelism(2).run();
+		assertFalse(parallelDiscovery.isComplete());
+		assertTrue(parallelDiscovery.getPatternPositions().isEmpty());
+	}
+
+	@Test
+	void testGivenCancelledTokenAfterTableIsComputedThenNoTecsAreComputed() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final CancellationToken token = CancellationToken.create();
+		token.cancel();
+
+		for (int parallelism = 1; parallelism <= 2; ++parallelism) {
+			final Siatechf.TecSearchResult result = Siatechf.computeMtpTecs(pointSet, mtpTable, 0.0, parallelism,
+					token, new SiatechfMetrics());
+			assertTrue(result.getTecs().isEmpty());
+			assertFalse(result.isComplete());
+		}
+
+		final Siatechf.TecSearchResult bestTecs = Siatechf.computeBestTecs(pointSet, mtpTable, 0.0, 1, token,
+				new SiatechfMetrics());
+		assertTrue(bestTecs.getTecs().isEmpty());
+		assertFalse(bestTecs.isComplete());
+	}
+
+	@Test
+	void testGivenTokenCancelledWhenNoMtpsAreLeftThenResultIsComplete() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable emptyTable = new MtpTable(pointSet, -1, Integer.MAX_VALUE);
+		final CancellationToken token = CancellationToken.create();
+		token.cancel();
+
+		assertEquals(0, emptyTable.size());
+		for (int parallelism = 1; parallelism <= 2; ++parallelism) {
+			assertTrue(Siatechf.computeMtpTecs(pointSet, emptyTable, 0.0, parallelism, token, new SiatechfMetrics())
+					.isComplete());
+		}
+
+		assertTrue(Siatechf.computeBestTecs(pointSet, emptyTable, 0.0, 1, token, new SiatechfMetrics())
+				.isComplete());
+	}
+
+	@Test
+	void testGivenMaxPatternCountThenAtMostThatManyPatternsAreReturned() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final int patternCount = GeometricPatternDiscovery.withSiatechf(score, 1.0).getPatterns().size();
+		assertTrue(patternCount > 1);
+
+		final PatternDiscovery discovery = new SiatechfJob(score, 1.0).setMaxPatternCount(1).run();
+		assertTrue(discovery.isComplete());
+		assertEquals(1, discovery.getPatterns().size());
+
+		final PatternDiscovery allPatterns = new SiatechfJob(score, 1.0).setMaxPatternCount(patternCount + 1).run();
+		assertEquals(patternCount, allPatterns.getPatterns().size());
+	}
+
+	@Test
+	void testGivenInvalidSettingsThenExceptionIsThrown() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		assertThrows(IllegalArgumentException.class, () -> new SiatechfJob(score, -1.0));
+		assertThrows(IllegalArgumentException.class, () -> new SiatechfJob(score, 1.0).setParallelism(0));
+		assertThrows(IllegalArgumentException.class, () -> new SiatechfJob(score, 1.0).setMaxPatternCount(0));
+		assertThrows(NullPointerException.class, () -> new SiatechfJob(score, 1.0).setWindow(null));
+		assertThrows(NullPointerException.class, () -> new SiatechfJob(score, 1.0).setProjection(null));
+		assertThrows(NullPointerException.class, () -> new SiatechfJob(score, 1.0).setTolerance(null));
+		assertThrows(NullPointerException.class, () -> new SiatechfJob(score, 1.0).setCancellationToken(null));
+	}
+}
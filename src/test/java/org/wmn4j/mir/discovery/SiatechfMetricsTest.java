@@ -0,0 +1,106 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Score;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SiatechfMetricsTest {
+
+	@Test
+	void testGivenSequentialSearchThenEveryMtpIsCountedOnce() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final SiatechfMetrics metrics = new SiatechfMetrics();
+
+		final List<Tec> tecs = Siatechf.computeMtpTecs(pointSet, mtpTable, 1.2, 1, CancellationToken.NONE,
+				metrics).getTecs();
+
+		assertEquals(mtpTable.size(), metrics.getMtpCount());
+		assertEquals(tecs.size(), metrics.getTecCount());
+		assertEquals(metrics.getMtpCount(), metrics.getDuplicateMtpCount() + metrics.getPrunedMtpCount()
+				+ metrics.getRejectedMtpCount() + metrics.getTecCount());
+		assertTrue(metrics.getDuplicateMtpCount() > 0);
+		assertTrue(metrics.getPrunedMtpCount() + metrics.getRejectedMtpCount() > 0);
+		assertFalse(metrics.getTecSearchTime().isNegative());
+		assertFalse(metrics.getTranslatorSearchTime().isNegative());
+	}
+
+	@Test
+	void testGivenParallelSearchThenEveryMtpIsCountedOnce() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final SiatechfMetrics metrics = new SiatechfMetrics();
+
+		final List<Tec> tecs = Siatechf.computeMtpTecs(pointSet, mtpTable, 0.0, 3, CancellationToken.NONE,
+				metrics).getTecs();
+
+		assertEquals(mtpTable.size(), metrics.getMtpCount());
+		assertEquals(tecs.size(), metrics.getTecCount());
+		assertTrue(metrics.getDuplicateMtpCount() + metrics.getTecCount() <= metrics.getMtpCount());
+	}
+
+	@Test
+	void testGivenJobWithMetricsThenAllPhasesAreRecorded() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final SiatechfMetrics metrics = new SiatechfMetrics();
+
+		new SiatechfJob(score, 0.0).setMetrics(metrics).run();
+
+		assertEquals(pointSet.size(), metrics.getPointCount());
+		assertEquals(mtpTable.size(), metrics.getMtpTableSize());
+		assertEquals(mtpTable.getIndexPairCount(), metrics.getIndexPairCount());
+		assertEquals((long) pointSet.size() * (pointSet.size() - 1) / 2, metrics.getIndexPairCount());
+		assertEquals(mtpTable.size(), metrics.getMtpCount());
+		assertEquals(Siatechf.computeMtpTecs(pointSet, 0.0).size(), metrics.getTecCount());
+
+		for (Duration time : List.of(metrics.getPointSetTime(), metrics.getMtpTableTime(),
+				metrics.getTecSearchTime())) {
+			assertFalse(time.isNegative());
+		}
+
+		assertTrue(metrics.getPointSetAllocatedBytes() >= -1);
+		assertTrue(metrics.getMtpTableAllocatedBytes() >= -1);
+		assertTrue(metrics.getTecSearchAllocatedBytes() >= -1);
+	}
+
+	@Test
+	void testGivenNewMetricsThenCountersAreZero() {
+		final SiatechfMetrics metrics = new SiatechfMetrics();
+
+		assertEquals(0, metrics.getPointCount());
+		assertEquals(0, metrics.getMtpCount());
+		assertEquals(0, metrics.getTecCount());
+		assertEquals(Duration.ZERO, metrics.getTecSearchTime());
+	}
+
+	@Test
+	void testGivenNullMetricsThenExceptionIsThrown() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final SiatechfJob job = new SiatechfJob(score, 0.0);
+		assertThrows(NullPointerException.class, () -> job.setMetrics(null));
+	}
+}
@@ -10,10 +10,14 @@ import org.wmn4j.notation.Score;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -25,49 +29,52 @@ public class SiatechfTest {
 		assertNotNull(score);
 
 		final PointSet pointSet = new PointSet(score);
+		// The shortest duration in the score is an eighth, so the offsets are in eighths.
+		assertEquals(8, pointSet.getTicksPerWholeNote());
+
 		Collection<Tec> tecs = Siatechf.computeMtpTecs(pointSet, 0.0);
 		final Collection<List<PointPattern>> expandedTecs = tecs.stream().map(this::expandTec)
 				.collect(Collectors.toList());
 
 		assertEquals(5, tecs.size());
 		assertTecInCollection(new Tec(
-				new PointPattern(Arrays.asList(new NoteEventVector(0.0, 60, 0),
-						new NoteEventVector(0.125, 62, 0),
-						new NoteEventVector(0.5, 60, 0),
-						new NoteEventVector(0.625, 62, 0))),
-				Arrays.asList(new NoteEventVector(0.0, 0, 0),
-						new NoteEventVector(0.125, 2, 0))), expandedTecs);
+				new PointPattern(Arrays.asList(new NoteEventVector(0, 60, 0),
+						new NoteEventVector(1, 62, 0),
+						new NoteEventVector(4, 60, 0),
+						new NoteEventVector(5, 62, 0))),
+				Arrays.asList(new NoteEventVector(0, 0, 0),
+						new NoteEventVector(1, 2, 0))), expandedTecs);
 
 		assertTecInCollection(new Tec(
-				new PointPattern(Arrays.asList(new NoteEventVector(0.0, 60, 0),
-						new NoteEventVector(0.125, 62, 0),
-						new NoteEventVector(0.25, 64, 0))),
-				Arrays.asList(new NoteEventVector(0.0, 0, 0),
-						new NoteEventVector(0.5, 0, 0))), expandedTecs);
+				new PointPattern(Arrays.asList(new NoteEventVector(0, 60, 0),
+						new NoteEventVector(1, 62, 0),
+						new NoteEventVector(2, 64, 0))),
+				Arrays.asList(new NoteEventVector(0, 0, 0),
+						new NoteEventVector(4, 0, 0))), expandedTecs);
 
 		assertTecInCollection(new Tec(
-				new PointPattern(Arrays.asList(new NoteEventVector(0.0, 60, 0),
-						new NoteEventVector(0.125, 62, 0))),
-				Arrays.asList(new NoteEventVector(0.0, 0, 0),
-						new NoteEventVector(0.125, 2, 0),
-						new NoteEventVector(0.5, 0, 0),
-						new NoteEventVector(0.625, 2, 0))), expandedTecs);
+				new PointPattern(Arrays.asList(new NoteEventVector(0, 60, 0),
+						new NoteEventVector(1, 62, 0))),
+				Arrays.asList(new NoteEventVector(0, 0, 0),
+						new NoteEventVector(1, 2, 0),
+						new NoteEventVector(4, 0, 0),
+						new NoteEventVector(5, 2, 0))), expandedTecs);
 
 		assertTecInCollection(new Tec(
-				new PointPattern(Arrays.asList(new NoteEventVector(0.0, 60, 0),
-						new NoteEventVector(0.5, 60, 0))),
-				Arrays.asList(new NoteEventVector(0.0, 0, 0),
-						new NoteEventVector(0.125, 2, 0),
-						new NoteEventVector(0.25, 4, 0))), expandedTecs);
+				new PointPattern(Arrays.asList(new NoteEventVector(0, 60, 0),
+						new NoteEventVector(4, 60, 0))),
+				Arrays.asList(new NoteEventVector(0, 0, 0),
+						new NoteEventVector(1, 2, 0),
+						new NoteEventVector(2, 4, 0))), expandedTecs);
 
 		assertTecInCollection(new Tec(
-				new PointPattern(Arrays.asList(new NoteEventVector(0.0, 60, 0))),
-				Arrays.asList(new NoteEventVector(0.0, 0, 0),
-						new NoteEventVector(0.125, 2, 0),
-						new NoteEventVector(0.25, 4, 0),
-						new NoteEventVector(0.5, 0, 0),
-						new NoteEventVector(0.625, 2, 0),
-						new NoteEventVector(0.75, 4, 0))), expandedTecs);
+				new PointPattern(Arrays.asList(new NoteEventVector(0, 60, 0))),
+				Arrays.asList(new NoteEventVector(0, 0, 0),
+						new NoteEventVector(1, 2, 0),
+						new NoteEventVector(2, 4, 0),
+						new NoteEventVector(4, 0, 0),
+						new NoteEventVector(5, 2, 0),
+						new NoteEventVector(6, 4, 0))), expandedTecs);
 	}
 
 	private void assertTecInCollection(Tec tec, Collection<List<PointPattern>> expandedTecs) {
@@ -105,6 +112,8 @@ public class SiatechfTest {
 		assertNotNull(score);
 
 		final PointSet pointSet = new PointSet(score);
+		assertEquals(8, pointSet.getTicksPerWholeNote());
+
 		Collection<Tec> tecs = Siatechf.computeMtpTecs(pointSet, 6.0 / 4.0 - 1e-7);
 		final Collection<List<PointPattern>> expandedTecs = tecs.stream().map(this::expandTec)
 				.collect(Collectors.toList());
@@ -112,17 +121,132 @@ public class SiatechfTest {
 		assertEquals(2, tecs.size());
 
 		assertTecInCollection(new Tec(
-				new PointPattern(Arrays.asList(new NoteEventVector(0.0, 60, 0),
-						new NoteEventVector(0.5, 60, 0))),
-				Arrays.asList(new NoteEventVector(0.0, 0, 0),
-						new NoteEventVector(0.125, 2, 0),
-						new NoteEventVector(0.25, 4, 0))), expandedTecs);
+				new PointPattern(Arrays.asList(new NoteEventVector(0, 60, 0),
+						new NoteEventVector(4, 60, 0))),
+				Arrays.asList(new NoteEventVector(0, 0, 0),
+						new NoteEventVector(1, 2, 0),
+						new NoteEventVector(2, 4, 0))), expandedTecs);
 
 		assertTecInCollection(new Tec(
-				new PointPattern(Arrays.asList(new NoteEventVector(0.0, 60, 0),
-						new NoteEventVector(0.125, 62, 0),
-						new NoteEventVector(0.25, 64, 0))),
-				Arrays.asList(new NoteEventVector(0.0, 0, 0),
-						new NoteEventVector(0.5, 0, 0))), expandedTecs);
+				new PointPattern(Arrays.asList(new NoteEventVector(0, 60, 0),
+						new NoteEventVector(1, 62, 0),
+						new NoteEventVector(2, 64, 0))),
+				Arrays.asList(new NoteEventVector(0, 0, 0),
+						new NoteEventVector(4, 0, 0))), expandedTecs);
+	}
+
+	@Test
+	void testGivenParallelismThenSiatechfReturnsSameTecsInSameOrderAsSequentialComputation() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final List<String> sequentialTecs = Siatechf.computeMtpTecs(pointSet, 0.0).stream().map(Tec::toString)
+				.collect(Collectors.toList());
+
+		for (int parallelism = 1; parallelism <= 4; ++parallelism) {
+			final List<String> parallelTecs = Siatechf.computeMtpTecs(pointSet, 0.0, parallelism).stream()
+					.map(Tec::toString).collect(Collectors.toList());
+			assertEquals(sequentialTecs, parallelTecs);
+		}
+	}
+
+	@Test
+	void testGivenWindowThenTecsContainAllTranslatorsInPointSet() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet, pointSet.getTicksPerWholeNote() / 4, 2);
+		final List<Tec> tecs = Siatechf.computeMtpTecs(pointSet, mtpTable, 0.0);
+		assertFalse(tecs.isEmpty());
+
+		for (Tec tec : tecs) {
+			final NoteEventVector firstPoint = tec.getPattern().get(0);
+			final Set<NoteEventVector> expectedTranslators = new HashSet<>();
+
+			for (int i = 0; i < pointSet.size(); ++i) {
+				final NoteEventVector translator = pointSet.get(i).subtract(firstPoint);
+				boolean occurs = true;
+				for (NoteEventVector point : tec.getPattern()) {
+					occurs &= pointSet.indexOf(point.add(translator)) >= 0;
+				}
+
+				if (occurs) {
+					expectedTranslators.add(translator);
+				}
+			}
+
+			assertEquals(expectedTranslators, new HashSet<>(tec.getTranslators()), tec.toString());
+		}
+	}
+
+	@Test
+	void testGivenWindowContainingAllPointsThenSameTecsAreReturnedAsWithoutWindow() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet, Long.MAX_VALUE, pointSet.size());
+
+		final List<List<PointPattern>> expectedTecs = Siatechf.computeMtpTecs(pointSet, 0.0).stream()
+				.map(this::expandTec).collect(Collectors.toList());
+		final List<List<PointPattern>> windowedTecs = Siatechf.computeMtpTecs(pointSet, mtpTable, 0.0).stream()
+				.map(this::expandTec).collect(Collectors.toList());
+
+		assertEquals(expectedTecs, windowedTecs);
+	}
+
+	private int countCoveredPoints(Tec tec) {
+		final Set<NoteEventVector> coveredPoints = new HashSet<>();
+		for (NoteEventVector translator : tec.getTranslators()) {
+			for (NoteEventVector point : tec.getPattern()) {
+				coveredPoints.add(point.add(translator));
+			}
+		}
+
+		return coveredPoints.size();
+	}
+
+	private double compressionRatio(Tec tec) {
+		return Siatechf.compressionRatio(tec.getPattern().size(), tec.getTranslators().size(),
+				countCoveredPoints(tec));
+	}
+
+	@Test
+	void testGivenMaxTecCountThenBestTecsAreSameAsInSortedTecs() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final List<Tec> sortedTecs = new ArrayList<>(Siatechf.computeMtpTecs(pointSet, mtpTable, 1.0));
+		sortedTecs.sort(Comparator.comparingDouble(this::compressionRatio)
+				.thenComparingInt(this::countCoveredPoints).reversed());
+		final List<String> expectedTecs = sortedTecs.stream().map(Tec::toString).collect(Collectors.toList());
+
+		for (int maxTecCount = 1; maxTecCount <= expectedTecs.size() + 1; ++maxTecCount) {
+			final SiatechfMetrics metrics = new SiatechfMetrics();
+			final List<String> bestTecs = Siatechf.computeBestTecs(pointSet, mtpTable, 1.0, maxTecCount,
+					CancellationToken.NONE, metrics).getTecs().stream().map(Tec::toString).collect(Collectors.toList());
+
+			assertEquals(expectedTecs.subList(0, Math.min(maxTecCount, expectedTecs.size())), bestTecs);
+			assertEquals(mtpTable.size(), metrics.getMtpCount());
+		}
+	}
+
+	@Test
+	void testGivenSmallMaxTecCountThenMoreMtpsArePruned() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final SiatechfMetrics allTecsMetrics = new SiatechfMetrics();
+		Siatechf.computeMtpTecs(pointSet, mtpTable, 1.0, 1, CancellationToken.NONE, allTecsMetrics);
+		final SiatechfMetrics bestTecMetrics = new SiatechfMetrics();
+		Siatechf.computeBestTecs(pointSet, mtpTable, 1.0, 1, CancellationToken.NONE, bestTecMetrics);
+
+		assertTrue(bestTecMetrics.getPrunedMtpCount() > allTecsMetrics.getPrunedMtpCount());
 	}
 }
@@ -12,10 +12,10 @@ public class TecTest {
 	@Test
 	void testWhenTecIsCreatedThenItHasCorrectContent() {
 		PointPattern pattern = new PointPattern(
-				Arrays.asList(new NoteEventVector(1.0, 20, 0), new NoteEventVector(2.0, 12, 1)));
+				Arrays.asList(new NoteEventVector(1, 20, 0), new NoteEventVector(2, 12, 1)));
 
 		List<NoteEventVector> translators = Arrays
-				.asList(new NoteEventVector(5.0, 32, 0), new NoteEventVector(12.0, 48, 1));
+				.asList(new NoteEventVector(5, 32, 0), new NoteEventVector(12, 48, 1));
 
 		Tec tec = new Tec(pattern, translators);
 
@@ -0,0 +1,120 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Score;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TranslatorSearchTest {
+
+	/*
+	 * Returns the indices of the points to which the last point of the pattern can be translated by checking
+	 * every point of the point set.
+	 */
+	private List<Integer> findTargetsByLookUp(int[] patternIndices, PointSet pointSet) {
+		final NoteEventVector lastPoint = pointSet.get(patternIndices[patternIndices.length - 1]);
+		final List<Integer> targets = new ArrayList<>();
+
+		for (int target = 0; target < pointSet.size(); ++target) {
+			final NoteEventVector translator = pointSet.get(target).subtract(lastPoint);
+			boolean isTarget = true;
+
+			for (int index : patternIndices) {
+				if (pointSet.indexOf(pointSet.get(index).add(translator)) < 0) {
+					isTarget = false;
+					break;
+				}
+			}
+
+			if (isTarget) {
+				targets.add(target);
+			}
+		}
+
+		return targets;
+	}
+
+	private void assertTargetsOfAllMtps(PointSet pointSet, MtpTable mtpTable) {
+		final TranslatorSearch search = new TranslatorSearch();
+
+		for (int keyIndex = 0; keyIndex < mtpTable.size(); ++keyIndex) {
+			final int[] patternIndices = Siatechf.computeMtp(keyIndex, mtpTable);
+			final int targetCount = search.findTargets(patternIndices, mtpTable, pointSet);
+
+			final List<Integer> targets = new ArrayList<>(targetCount);
+			for (int i = 0; i < targetCount; ++i) {
+				targets.add(search.getTarget(i));
+			}
+
+			assertEquals(findTargetsByLookUp(patternIndices, pointSet), targets);
+		}
+	}
+
+	@Test
+	void testGivenReusedSearchThenTargetsOfEveryMtpAreFound() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		assertTargetsOfAllMtps(pointSet, new MtpTable(pointSet));
+	}
+
+	@Test
+	void testGivenWindowedTableThenTargetsOutsideWindowAreFound() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		assertTargetsOfAllMtps(pointSet, new MtpTable(pointSet, Long.MAX_VALUE, 2));
+	}
+
+	@Test
+	void testGivenSinglePointThenAllPointsAreTargets() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final TranslatorSearch search = new TranslatorSearch();
+
+		assertEquals(pointSet.size(), search.findTargets(new int[] { 3 }, new MtpTable(pointSet), pointSet));
+		assertEquals(0, search.getTarget(0));
+		assertEquals(pointSet.size() - 1, search.getTarget(pointSet.size() - 1));
+		assertThrows(IndexOutOfBoundsException.class, () -> search.getTarget(pointSet.size()));
+	}
+
+	@Test
+	void testGivenMtpsThenCoveredPointsAreCountedOnce() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final TranslatorSearch search = new TranslatorSearch();
+
+		for (int keyIndex = 0; keyIndex < mtpTable.size(); ++keyIndex) {
+			final int[] patternIndices = Siatechf.computeMtp(keyIndex, mtpTable);
+			final List<NoteEventVector> translators = Siatechf.findTranslators(patternIndices, mtpTable, pointSet,
+					search);
+
+			final Set<NoteEventVector> coveredPoints = new HashSet<>();
+			for (NoteEventVector translator : translators) {
+				for (int index : patternIndices) {
+					coveredPoints.add(pointSet.get(index).add(translator));
+				}
+			}
+
+			assertEquals(coveredPoints.size(), search.countCoveredPoints(patternIndices, pointSet));
+		}
+	}
+}
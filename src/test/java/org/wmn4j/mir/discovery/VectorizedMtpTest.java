@@ -0,0 +1,68 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.mir.discovery;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Score;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class VectorizedMtpTest {
+
+	@Test
+	void testGivenMtpsThenKeysAreEqualExactlyWhenVectorizedPatternsAreEqual() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/multipart_point_set_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		int equalCount = 0;
+
+		for (int first = 0; first < mtpTable.size(); ++first) {
+			final int[] firstIndices = Siatechf.computeMtp(first, mtpTable);
+			final VectorizedMtp firstMtp = new VectorizedMtp(first, firstIndices, mtpTable, pointSet);
+			final PointPattern firstVectorized = Siatechf.toPattern(firstIndices, pointSet).vectorized();
+
+			for (int second = first; second < mtpTable.size(); ++second) {
+				final int[] secondIndices = Siatechf.computeMtp(second, mtpTable);
+				final VectorizedMtp secondMtp = new VectorizedMtp(second, secondIndices, mtpTable, pointSet);
+				final PointPattern secondVectorized = Siatechf.toPattern(secondIndices, pointSet).vectorized();
+
+				if (firstVectorized.equals(secondVectorized)) {
+					assertEquals(firstMtp, secondMtp);
+					assertEquals(firstMtp.hashCode(), secondMtp.hashCode());
+					++equalCount;
+				} else {
+					assertNotEquals(firstMtp, secondMtp);
+				}
+			}
+		}
+
+		assertNotEquals(mtpTable.size(), equalCount);
+	}
+
+	@Test
+	void testGivenSameMtpsInDifferentTablesThenKeysAreEqual() {
+		final Score score = TestHelper.readScore("musicxml/pattern_discovery/monophonic_pattern_discovery_test.xml");
+		assertNotNull(score);
+
+		final PointSet pointSet = new PointSet(score);
+		final MtpTable mtpTable = new MtpTable(pointSet);
+		final MtpTable windowedMtpTable = new MtpTable(pointSet, Long.MAX_VALUE, pointSet.size());
+		assertEquals(mtpTable.size(), windowedMtpTable.size());
+
+		for (int keyIndex = 0; keyIndex < mtpTable.size(); ++keyIndex) {
+			final VectorizedMtp mtp = new VectorizedMtp(keyIndex, Siatechf.computeMtp(keyIndex, mtpTable),
+					mtpTable, pointSet);
+			final VectorizedMtp windowedMtp = new VectorizedMtp(keyIndex,
+					Siatechf.computeMtp(keyIndex, windowedMtpTable), windowedMtpTable, pointSet);
+
+			assertEquals(mtp, windowedMtp);
+			assertEquals(mtp.hashCode(), windowedMtp.hashCode());
+		}
+	}
+}
@@ -7,11 +7,14 @@ import org.junit.jupiter.api.Test;
 import org.wmn4j.notation.Duration;
 import org.wmn4j.notation.Durations;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -70,6 +73,35 @@ class DurationTest {
 		assertEquals(20, quintuplet.getDenominator());
 	}
 
+	@Test
+	void testRationalNumberReducedSameAsWithBigIntegerGcd() {
+		for (int numerator = 1; numerator <= 200; ++numerator) {
+			for (int denominator = 1; denominator <= 200; ++denominator) {
+				final int gcd = BigInteger.valueOf(numerator).gcd(BigInteger.valueOf(denominator)).intValue();
+				final Duration duration = Duration.of(numerator, denominator);
+				assertEquals(numerator / gcd, duration.getNumerator());
+				assertEquals(denominator / gcd, duration.getDenominator());
+			}
+		}
+
+		final Duration large = Duration.of(Integer.MAX_VALUE - 1, 1 << 30);
+		assertEquals(Integer.MAX_VALUE / 2, large.getNumerator());
+		assertEquals(1 << 29, large.getDenominator());
+	}
+
+	@Test
+	void testCommonDurationsAreShared() {
+		assertSame(Durations.QUARTER, Duration.of(1, 4));
+		assertSame(Durations.QUARTER, Durations.EIGHTH.add(Durations.EIGHTH));
+		assertSame(Durations.EIGHTH_TRIPLET, Durations.QUARTER.divideBy(3));
+		assertSame(Duration.of(3, 1024), Duration.of(6, 2048));
+		assertSame(Durations.WHOLE, Duration.sumOf(List.of(Durations.HALF, Durations.QUARTER, Durations.QUARTER)));
+
+		final Duration uncommon = Duration.of(1, 4096);
+		assertNotSame(uncommon, Duration.of(1, 4096));
+		assertEquals(uncommon, Duration.of(1, 4096));
+	}
+
 	@Test
 	void testToString() {
 		assertEquals("(1/4)", Duration.of(1, 4).toString());
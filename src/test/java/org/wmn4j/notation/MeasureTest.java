@@ -4,6 +4,7 @@
 package org.wmn4j.notation;
 
 import org.junit.jupiter.api.Test;
+import org.wmn4j.notation.access.MeasureIterator;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -14,6 +15,8 @@ import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -177,6 +180,74 @@ class MeasureTest {
 				count, "Iterator iterated through a number of objects different from size of expected");
 	}
 
+	@Test
+	void testGivenNonContiguousVoiceNumbersThenVoicesAreAccessedByNumber() {
+		final Map<Integer, List<Durational>> noteVoices = new HashMap<>();
+		noteVoices.put(7, this.multipleNoteVoices.get(1));
+		noteVoices.put(-2, this.singleNoteVoice.get(0));
+
+		final Measure measure = Measure.of(1, noteVoices, TimeSignatures.FOUR_FOUR, keySig, Clefs.G);
+
+		assertEquals(List.of(-2, 7), measure.getVoiceNumbers());
+		assertSame(measure.getVoiceNumbers(), measure.getVoiceNumbers());
+		assertThrows(UnsupportedOperationException.class, () -> measure.getVoiceNumbers().add(1));
+
+		assertEquals(2, measure.getVoiceCount());
+		assertEquals(3, measure.getVoiceSize(-2));
+		assertEquals(3, measure.getVoiceSize(7));
+		assertEquals(C4Quarter, measure.get(-2, 0));
+		assertEquals(C4, measure.get(7, 1));
+
+		assertThrows(NoSuchElementException.class, () -> measure.getVoiceSize(0));
+		assertThrows(NoSuchElementException.class, () -> measure.get(0, 0));
+		assertThrows(NoSuchElementException.class, () -> measure.get(7, 3));
+		assertThrows(NoSuchElementException.class, () -> measure.get(7, -1));
+
+		final MeasureIterator iterator = measure.getMeasureIterator();
+		while (iterator.hasNext()) {
+			final Durational durational = iterator.next();
+			assertEquals(durational, measure.get(iterator.getVoiceOfPrevious(), iterator.getIndexOfPrevious()));
+		}
+	}
+
+	@Test
+	void testGivenMultipleVoicesThenOnsetsAreCountedFromBeginningOfMeasure() {
+		final Measure measure = Measure.of(1, this.multipleNoteVoices, TimeSignatures.FOUR_FOUR, keySig, Clefs.G);
+
+		assertEquals(4, measure.getTicksPerWholeNote());
+		assertEquals(0, measure.getOnsetInTicks(0, 0));
+		assertEquals(1, measure.getOnsetInTicks(0, 1));
+		assertEquals(2, measure.getOnsetInTicks(0, 2));
+		assertEquals(0, measure.getOnsetInTicks(1, 0));
+		assertEquals(1, measure.getOnsetInTicks(1, 1));
+		assertEquals(3, measure.getOnsetInTicks(1, 2));
+
+		assertEquals(List.of(C4Quarter, Rest.of(Durations.QUARTER)), measure.getDurationalsAt(0));
+		assertEquals(List.of(Rest.of(Durations.QUARTER), C4), measure.getDurationalsAt(1));
+		assertEquals(List.of(Chord.of(C4, E4, G4), Rest.of(Durations.QUARTER)), measure.getDurationalsAt(3));
+		assertTrue(measure.getDurationalsAt(4).isEmpty());
+
+		assertThrows(NoSuchElementException.class, () -> measure.getOnsetInTicks(2, 0));
+		assertThrows(NoSuchElementException.class, () -> measure.getOnsetInTicks(0, 3));
+		assertThrows(IllegalArgumentException.class, () -> measure.getDurationalsAt(-1));
+	}
+
+	@Test
+	void testGivenTupletsThenOnsetsAreExact() {
+		final Map<Integer, List<Durational>> noteVoices = new HashMap<>();
+		final Duration tripletEighth = Duration.of(1, 12);
+		noteVoices.put(1, List.of(Note.of(Pitch.of(Pitch.Base.C, 0, 4), tripletEighth), Rest.of(tripletEighth),
+				Rest.of(tripletEighth), C4));
+
+		final Measure measure = Measure.of(1, noteVoices, TimeSignature.of(6, 8), keySig, Clefs.G);
+
+		assertEquals(12, measure.getTicksPerWholeNote());
+		assertEquals(2, measure.getOnsetInTicks(1, 2));
+		assertEquals(3, measure.getOnsetInTicks(1, 3));
+		assertEquals(List.of(C4), measure.getDurationalsAt(8));
+		assertTrue(measure.getDurationalsAt(9).isEmpty());
+	}
+
 	@Test
 	void testFullMeasureRest() {
 		final List<Durational> noteList = this.singleNoteVoice.get(0);
@@ -133,4 +133,25 @@ class MultiStaffPartTest {
 			/* Do nothing */
 		}
 	}
+
+	@Test
+	void testGivenPickupThatIsFullMeasureRestOnOneStaffThenMeasuresStartAtSameOnsetsOnAllStaves() {
+		final Note pickupNote = Note.of(Pitch.of(Pitch.Base.G, 0, 4), Durations.QUARTER);
+		final Note halfNote = Note.of(Pitch.of(Pitch.Base.C, 0, 3), Durations.HALF);
+		final MeasureAttributes attributes = MeasureAttributes.of(TimeSignatures.FOUR_FOUR, KeySignatures.CMAJ_AMIN,
+				Barline.SINGLE, Clefs.F);
+
+		final Map<Integer, Staff> staves = new HashMap<>();
+		staves.put(1, Staff.of(List.of(Measure.of(0, Map.of(1, List.of(pickupNote)), attributes),
+				Measure.of(1, Map.of(1, List.of(halfNote, halfNote)), attributes))));
+		staves.put(2, Staff.of(List.of(Measure.restMeasureOf(0, attributes),
+				Measure.of(1, Map.of(1, List.of(halfNote, halfNote)), attributes))));
+		final MultiStaffPart part = MultiStaffPart.of("Piano", staves);
+
+		assertEquals(4, part.getTicksPerWholeNote());
+		assertEquals(1, part.getMeasureOnsetInTicks(1));
+		assertEquals(1, part.getOnsetInTicks(1, 1, 1, 0));
+		assertEquals(3, part.getOnsetInTicks(2, 1, 1, 1));
+		assertEquals(0, part.getOnsetInTicks(1, 0, 1, 0));
+	}
 }
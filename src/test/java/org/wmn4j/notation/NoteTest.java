@@ -21,6 +21,8 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -57,6 +59,28 @@ class NoteTest {
 		assertTrue(note2.equals(note3));
 	}
 
+	@Test
+	void testPlainNotesAreShared() {
+		final Pitch pitch = Pitch.of(Pitch.Base.E, -1, 4);
+		final Note note = Note.of(pitch, Durations.QUARTER);
+
+		assertSame(note, Note.of(Pitch.Base.E, -1, 4, Durations.QUARTER));
+		assertSame(note, Note.of(pitch, Durations.EIGHTH.multiplyBy(2), Collections.emptySet()));
+		assertSame(note, new NoteBuilder(pitch, Durations.QUARTER).build());
+		assertNotSame(note, Note.of(pitch, Durations.QUARTER, Collections.singleton(Articulation.STACCATO)));
+
+		final NoteBuilder firstBuilder = new NoteBuilder(pitch, Durations.QUARTER);
+		final NoteBuilder secondBuilder = new NoteBuilder(pitch, Durations.QUARTER);
+		firstBuilder.addTieToFollowing(secondBuilder);
+		final Note tiedNote = firstBuilder.build();
+		assertNotSame(note, tiedNote);
+		assertNotSame(note, tiedNote.getFollowingTiedNote().get());
+		assertTrue(tiedNote.isTiedToFollowing());
+
+		final Duration uncommonDuration = Duration.of(1, 4096);
+		assertNotSame(Note.of(pitch, uncommonDuration), Note.of(pitch, uncommonDuration));
+	}
+
 	@Test
 	void testCreatingInvalidNote() {
 
@@ -9,6 +9,7 @@ import org.wmn4j.notation.PitchClass;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PitchTest {
@@ -55,6 +56,21 @@ class PitchTest {
 		assertFalse(Pitch.of(Pitch.Base.C, -1, 3).equals(Pitch.of(Pitch.Base.D, -1, 2)));
 	}
 
+	@Test
+	void testPitchesAreShared() {
+		for (Pitch.Base base : Pitch.Base.values()) {
+			for (int alter = -Pitch.ALTER_LIMIT; alter <= Pitch.ALTER_LIMIT; ++alter) {
+				for (int octave = 0; octave <= Pitch.MAX_OCTAVE; ++octave) {
+					final Pitch pitch = Pitch.of(base, alter, octave);
+					assertSame(pitch, Pitch.of(base, alter, octave));
+					assertEquals(base, pitch.getBase());
+					assertEquals(alter, pitch.getAlter());
+					assertEquals(octave, pitch.getOctave());
+				}
+			}
+		}
+	}
+
 	@Test
 	void testEqualsEnharmonically() {
 		assertTrue(Pitch.of(Pitch.Base.C, 1, 2).equalsEnharmonically(Pitch.of(Pitch.Base.C, 1, 2)));
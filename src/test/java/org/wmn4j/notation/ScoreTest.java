@@ -348,4 +348,36 @@ public class ScoreTest {
 								new Position(0, 1, 2, 1, 0, 0)))),
 				"No exception thrown for pattern position with invalid index in chord");
 	}
+
+	@Test
+	void testGivenPickupThatIsFullMeasureRestInOnePartThenMeasuresStartAtSameOnsetsInAllParts() {
+		final Note pickupNote = Note.of(Pitch.of(Pitch.Base.G, 0, 4), Durations.QUARTER);
+		final Note halfNote = Note.of(Pitch.of(Pitch.Base.C, 0, 4), Durations.HALF);
+		final MeasureAttributes attributes = MeasureAttributes.of(TimeSignatures.FOUR_FOUR, KeySignatures.CMAJ_AMIN,
+				Barline.SINGLE, Clefs.G);
+
+		final Staff firstStaff = Staff.of(List.of(Measure.of(0, Map.of(1, List.of(pickupNote)), attributes),
+				Measure.of(1, Map.of(1, List.of(halfNote, halfNote)), attributes)));
+		final Staff secondStaff = Staff.of(List.of(Measure.restMeasureOf(0, attributes),
+				Measure.of(1, Map.of(1, List.of(halfNote, halfNote)), attributes)));
+		final Score score = Score.of(new HashMap<>(),
+				List.of(SingleStaffPart.of("First", firstStaff), SingleStaffPart.of("Second", secondStaff)));
+
+		// On its own the staff with the rest cannot know how long the pickup measure is.
+		assertEquals(1, firstStaff.getMeasureOnsetInTicks(1));
+		assertEquals(2, secondStaff.getTicksPerWholeNote());
+		assertEquals(2, secondStaff.getMeasureOnsetInTicks(1));
+		assertEquals(2, score.getPart(1).getMeasureOnsetInTicks(1));
+
+		assertEquals(4, score.getTicksPerWholeNote());
+		assertEquals(0, score.getMeasureOnsetInTicks(0));
+		assertEquals(1, score.getMeasureOnsetInTicks(1));
+		assertEquals(0, score.getOnsetInTicks(new Position(0, 1, 0, 1, 0)));
+		assertEquals(1, score.getOnsetInTicks(new Position(0, 1, 1, 1, 0)));
+		assertEquals(1, score.getOnsetInTicks(new Position(1, 1, 1, 1, 0)));
+		assertEquals(3, score.getOnsetInTicks(new Position(1, 1, 1, 1, 1)));
+
+		assertThrows(NoSuchElementException.class, () -> score.getMeasureOnsetInTicks(2));
+		assertThrows(NoSuchElementException.class, () -> score.getOnsetInTicks(new Position(1, 1, 1, 1, 2)));
+	}
 }
@@ -10,9 +10,11 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -93,4 +95,56 @@ class StaffTest {
 			assertEquals(measureNumber, staff.getMeasure(measureNumber).getNumber());
 		}
 	}
+
+	@Test
+	void testGivenMeasuresWithTupletsThenOnsetsAreCountedFromBeginningOfStaff() {
+		final Note pickupNote = Note.of(Pitch.of(Pitch.Base.G, 0, 4), Durations.QUARTER);
+		final Note tripletNote = Note.of(Pitch.of(Pitch.Base.C, 0, 4), Duration.of(1, 12));
+		final Note quarterNote = Note.of(Pitch.of(Pitch.Base.D, 0, 4), Durations.QUARTER);
+
+		final List<Measure> measures = new ArrayList<>();
+		measures.add(Measure.of(0, Map.of(1, List.of(pickupNote)), TimeSignatures.FOUR_FOUR,
+				KeySignatures.CMAJ_AMIN, Clefs.G));
+		measures.add(Measure.of(1, Map.of(1, List.of(tripletNote, tripletNote, tripletNote, quarterNote, quarterNote)),
+				TimeSignature.of(3, 4), KeySignatures.CMAJ_AMIN, Clefs.G));
+		measures.addAll(getTestMeasures().subList(1, 2));
+
+		final Staff staff = Staff.of(measures);
+
+		// The pickup measure is as long as its only note.
+		assertEquals(12, staff.getTicksPerWholeNote());
+		assertEquals(0, staff.getMeasureOnsetInTicks(0));
+		assertEquals(3, staff.getMeasureOnsetInTicks(1));
+		assertEquals(12, staff.getMeasureOnsetInTicks(2));
+		assertEquals(4, staff.getOnsetInTicks(1, 1, 1));
+		assertEquals(6, staff.getOnsetInTicks(1, 1, 3));
+		assertEquals(18, staff.getOnsetInTicks(2, 0, 2));
+
+		assertEquals(0, staff.getMeasureNumberAt(0));
+		assertEquals(0, staff.getMeasureNumberAt(2));
+		assertEquals(1, staff.getMeasureNumberAt(3));
+		assertEquals(1, staff.getMeasureNumberAt(11));
+		assertEquals(2, staff.getMeasureNumberAt(12));
+		assertEquals(2, staff.getMeasureNumberAt(23));
+
+		assertEquals(List.of(pickupNote), staff.getDurationalsAt(2));
+		assertEquals(List.of(tripletNote), staff.getDurationalsAt(5));
+		assertEquals(List.of(quarterNote), staff.getDurationalsAt(7));
+
+		assertThrows(NoSuchElementException.class, () -> staff.getMeasureNumberAt(24));
+		assertThrows(IllegalArgumentException.class, () -> staff.getMeasureNumberAt(-1));
+		assertThrows(NoSuchElementException.class, () -> staff.getOnsetInTicks(1, 2, 0));
+	}
+
+	@Test
+	void testGivenStaffWithoutPickupMeasureThenFirstMeasureBeginsAtZero() {
+		final Staff staff = Staff.of(getTestMeasures());
+
+		assertEquals(4, staff.getTicksPerWholeNote());
+		assertEquals(0, staff.getMeasureOnsetInTicks(1));
+		assertEquals(4, staff.getOnsetInTicks(2, 0, 0));
+		assertEquals(1, staff.getMeasureNumberAt(0));
+		assertEquals(2, staff.getMeasureNumberAt(7));
+		assertThrows(NoSuchElementException.class, () -> staff.getMeasureOnsetInTicks(0));
+	}
 }
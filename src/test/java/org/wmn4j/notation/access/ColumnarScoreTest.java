@@ -0,0 +1,236 @@
+/*
+ * Distributed under the MIT license (see LICENSE.txt or https://opensource.org/licenses/MIT).
+ */
+package org.wmn4j.notation.access;
+
+import org.junit.jupiter.api.Test;
+import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Articulation;
+import org.wmn4j.notation.Barline;
+import org.wmn4j.notation.Chord;
+import org.wmn4j.notation.Clefs;
+import org.wmn4j.notation.Duration;
+import org.wmn4j.notation.Durational;
+import org.wmn4j.notation.Durations;
+import org.wmn4j.notation.KeySignatures;
+import org.wmn4j.notation.Measure;
+import org.wmn4j.notation.MeasureAttributes;
+import org.wmn4j.notation.Note;
+import org.wmn4j.notation.Pitch;
+import org.wmn4j.notation.Score;
+import org.wmn4j.notation.SingleStaffPart;
+import org.wmn4j.notation.Staff;
+import org.wmn4j.notation.TimeSignatures;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarScoreTest {
+
+	private static final MeasureAttributes ATTRIBUTES = MeasureAttributes.of(TimeSignatures.FOUR_FOUR,
+			KeySignatures.CMAJ_AMIN, Barline.SINGLE, Clefs.G);
+
+	private List<Note> getNotes(Score score, List<Position> positions) {
+		final List<Note> notes = new ArrayList<>();
+		final PartWiseScoreIterator iterator = new PartWiseScoreIterator(score);
+		while (iterator.hasNext()) {
+			final Durational durational = iterator.next();
+			final Position position = iterator.getPositionOfPrevious();
+			if (durational instanceof Note) {
+				notes.add((Note) durational);
+				positions.add(position);
+			} else if (durational instanceof Chord) {
+				final Chord chord = (Chord) durational;
+				for (int i = 0; i < chord.getNoteCount(); ++i) {
+					notes.add(chord.getNote(i));
+					positions.add(new Position(position.getPartIndex(), position.getStaffNumber(),
+							position.getMeasureNumber(), position.getVoiceNumber(), position.getIndexInVoice(), i));
+				}
+			}
+		}
+
+		return notes;
+	}
+
+	private void assertRowsMatchNotes(Score score) {
+		assertNotNull(score);
+
+		final ColumnarScore columnarScore = ColumnarScore.of(score);
+		final List<Position> positions = new ArrayList<>();
+		final List<Note> notes = getNotes(score, positions);
+
+		assertEquals(notes.size(), columnarScore.size());
+		for (int row = 0; row < columnarScore.size(); ++row) {
+			final Note note = notes.get(row);
+			assertEquals(positions.get(row), columnarScore.getPosition(row));
+			assertEquals(note, score.getAt(columnarScore.getPosition(row)));
+			assertEquals(note.getPitch(), columnarScore.getPitch(row));
+			assertEquals(note.getPitch().toInt(), columnarScore.getPitchAsInt(row));
+			assertEquals(note.isTiedToFollowing(), columnarScore.isTiedToFollowing(row));
+			assertEquals(note.isTiedFromPrevious(), columnarScore.isTiedFromPrevious(row));
+			assertEquals(note.getArticulations(), columnarScore.getArticulations(row));
+
+			final Duration duration = note.getDuration();
+			assertEquals(columnarScore.getTicksPerWholeNote() * duration.getNumerator(),
+					columnarScore.getDuration(row) * duration.getDenominator());
+			assertEquals(score.getOnsetInTicks(positions.get(row)), columnarScore.getOnset(row));
+		}
+
+		assertEquals(score.getTicksPerWholeNote(), columnarScore.getTicksPerWholeNote());
+	}
+
+	private Score buildScore(List<Measure> measures) {
+		return Score.of(new HashMap<>(), List.of(SingleStaffPart.of("Part", Staff.of(measures))));
+	}
+
+	private List<Long> getOnsets(ColumnarScore columnarScore) {
+		final List<Long> onsets = new ArrayList<>();
+		for (int row = 0; row < columnarScore.size(); ++row) {
+			onsets.add(columnarScore.getOnset(row));
+		}
+
+		return onsets;
+	}
+
+	@Test
+	void testGivenScoresThenRowsMatchNotesInIterationOrder() {
+		assertRowsMatchNotes(TestHelper.readScore("musicxml/scoreIteratorTesting.xml"));
+		assertRowsMatchNotes(TestHelper.readScore("musicxml/positionInChord.xml"));
+		assertRowsMatchNotes(TestHelper.readScore("musicxml/tieTesting.xml"));
+		assertRowsMatchNotes(TestHelper.readScore("musicxml/articulations.xml"));
+		assertRowsMatchNotes(TestHelper.readScore("musicxml/multistaff.xml"));
+		assertRowsMatchNotes(TestHelper.readScore("musicxml/tuplet_writing_test.xml"));
+	}
+
+	@Test
+	void testGivenScoreWithTupletsThenOnsetsAreExact() {
+		final Score score = TestHelper.readScore("musicxml/tuplet_writing_test.xml");
+		assertNotNull(score);
+
+		final ColumnarScore columnarScore = ColumnarScore.of(score);
+		final long ticks = columnarScore.getTicksPerWholeNote();
+
+		for (int row = 1; row < columnarScore.size(); ++row) {
+			if (columnarScore.getPartIndex(row) == columnarScore.getPartIndex(row - 1)
+					&& columnarScore.getVoiceNumber(row) == columnarScore.getVoiceNumber(row - 1)
+					&& columnarScore.getStaffNumber(row) == columnarScore.getStaffNumber(row - 1)
+					&& columnarScore.getIndexInVoice(row) == columnarScore.getIndexInVoice(row - 1) + 1
+					&& columnarScore.getMeasureNumber(row) == columnarScore.getMeasureNumber(row - 1)) {
+				assertEquals(columnarScore.getOnset(row - 1) + columnarScore.getDuration(row - 1),
+						columnarScore.getOnset(row));
+			}
+
+			assertTrue(columnarScore.getOnset(row) >= 0);
+		}
+
+		assertTrue(ticks % 3 == 0);
+	}
+
+	@Test
+	void testGivenScoreWithPickupMeasureThenFirstMeasureBeginsAfterPickup() {
+		final Note pickupNote = Note.of(Pitch.of(Pitch.Base.G, 0, 4), Durations.QUARTER);
+		final Note quarterNote = Note.of(Pitch.of(Pitch.Base.C, 0, 5), Durations.QUARTER);
+		final Score score = buildScore(List.of(Measure.of(0, Map.of(1, List.of(pickupNote)), ATTRIBUTES),
+				Measure.of(1, Map.of(1, List.of(quarterNote, quarterNote, quarterNote, quarterNote)), ATTRIBUTES)));
+		assertRowsMatchNotes(score);
+
+		final ColumnarScore columnarScore = ColumnarScore.of(score);
+		assertEquals(4, columnarScore.getTicksPerWholeNote());
+		assertEquals(List.of(0L, 1L, 2L, 3L, 4L), getOnsets(columnarScore));
+	}
+
+	@Test
+	void testGivenScoreWithFullMeasureRestThenFollowingMeasureBeginsAfterRest() {
+		final Note halfNote = Note.of(Pitch.of(Pitch.Base.C, 0, 4), Durations.HALF);
+		final Score score = buildScore(List.of(Measure.of(1, Map.of(1, List.of(halfNote, halfNote)), ATTRIBUTES),
+				Measure.restMeasureOf(2, ATTRIBUTES),
+				Measure.of(3, Map.of(1, List.of(halfNote, halfNote)), ATTRIBUTES)));
+		assertRowsMatchNotes(score);
+
+		final ColumnarScore columnarScore = ColumnarScore.of(score);
+		assertEquals(2, columnarScore.getTicksPerWholeNote());
+		assertEquals(List.of(0L, 1L, 4L, 5L), getOnsets(columnarScore));
+	}
+
+	@Test
+	void testGivenPartAndMeasureRangeThenViewContainsRowsOfRange() {
+		final Score score = TestHelper.readScore("musicxml/twoPartsAndMeasures.xml");
+		assertNotNull(score);
+
+		final ColumnarScore columnarScore = ColumnarScore.of(score);
+
+		int partRowCount = 0;
+		for (int partIndex = 0; partIndex < 2; ++partIndex) {
+			final ColumnarScore part = columnarScore.getPart(partIndex);
+			assertFalse(part.size() == 0);
+			for (int row = 0; row < part.size(); ++row) {
+				assertEquals(partIndex, part.getPartIndex(row));
+			}
+
+			partRowCount += part.size();
+
+			final ColumnarScore secondMeasure = part.getMeasures(partIndex, 2, 2);
+			int expectedCount = 0;
+			for (int row = 0; row < part.size(); ++row) {
+				if (part.getMeasureNumber(row) == 2) {
+					++expectedCount;
+				}
+			}
+
+			assertEquals(expectedCount, secondMeasure.size());
+			for (int row = 0; row < secondMeasure.size(); ++row) {
+				assertEquals(2, secondMeasure.getMeasureNumber(row));
+				assertEquals(partIndex, secondMeasure.getPartIndex(row));
+			}
+
+			assertEquals(part.size(), columnarScore.getMeasures(partIndex, 0, Integer.MAX_VALUE).size());
+		}
+
+		assertEquals(columnarScore.size(), partRowCount);
+		assertEquals(0, columnarScore.getPart(2).size());
+		assertEquals(0, columnarScore.getPart(0).getPart(1).size());
+	}
+
+	@Test
+	void testGivenArticulationsThenArticulationsAreFound() {
+		final Score score = TestHelper.readScore("musicxml/articulations.xml");
+		assertNotNull(score);
+
+		final ColumnarScore columnarScore = ColumnarScore.of(score);
+
+		boolean hasArticulations = false;
+		for (int row = 0; row < columnarScore.size(); ++row) {
+			for (Articulation articulation : columnarScore.getArticulations(row)) {
+				assertTrue(columnarScore.hasArticulation(row, articulation));
+				hasArticulations = true;
+			}
+		}
+
+		assertTrue(hasArticulations);
+	}
+
+	@Test
+	void testGivenInvalidArgumentsThenExceptionIsThrown() {
+		final Score score = TestHelper.readScore("musicxml/twoMeasures.xml");
+		assertNotNull(score);
+
+		final ColumnarScore columnarScore = ColumnarScore.of(score);
+
+		assertThrows(NullPointerException.class, () -> ColumnarScore.of(null));
+		assertThrows(IllegalArgumentException.class, () -> columnarScore.getPart(-1));
+		assertThrows(IllegalArgumentException.class, () -> columnarScore.getMeasures(0, 2, 1));
+		assertThrows(IllegalArgumentException.class, () -> columnarScore.getMeasures(0, -1, 1));
+		assertThrows(IndexOutOfBoundsException.class, () -> columnarScore.getOnset(-1));
+		assertThrows(IndexOutOfBoundsException.class, () -> columnarScore.getPitch(columnarScore.size()));
+		assertThrows(IndexOutOfBoundsException.class,
+				() -> columnarScore.getMeasures(0, 1, 1).getPitch(columnarScore.getMeasures(0, 1, 1).size()));
+	}
+}
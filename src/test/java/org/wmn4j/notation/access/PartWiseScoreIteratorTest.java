@@ -6,11 +6,23 @@ package org.wmn4j.notation.access;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.wmn4j.TestHelper;
+import org.wmn4j.notation.Barline;
+import org.wmn4j.notation.Clefs;
 import org.wmn4j.notation.Durational;
 import org.wmn4j.notation.Durations;
+import org.wmn4j.notation.KeySignatures;
+import org.wmn4j.notation.Measure;
+import org.wmn4j.notation.MeasureAttributes;
 import org.wmn4j.notation.Note;
 import org.wmn4j.notation.Pitch;
 import org.wmn4j.notation.Score;
+import org.wmn4j.notation.SingleStaffPart;
+import org.wmn4j.notation.Staff;
+import org.wmn4j.notation.TimeSignatures;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -103,4 +115,35 @@ class PartWiseScoreIteratorTest {
 		final Position fourth = new Position(bottomPartNumber, 1, 3, 1, 0);
 		assertEquals(fourth, this.iter.getPositionOfPrevious());
 	}
+
+	@Test
+	void testGivenMeasuresWithoutVoicesThenTheyAreSkipped() {
+		final MeasureAttributes attributes = MeasureAttributes.of(TimeSignatures.FOUR_FOUR, KeySignatures.CMAJ_AMIN,
+				Barline.SINGLE, Clefs.G);
+		final Note note = Note.of(Pitch.of(Pitch.Base.C, 0, 4), Durations.WHOLE);
+		final Staff firstStaff = Staff.of(List.of(Measure.of(1, Map.of(1, List.of(note)), attributes),
+				Measure.restMeasureOf(2, attributes), Measure.of(3, Map.of(1, List.of(note)), attributes),
+				Measure.restMeasureOf(4, attributes)));
+		final Staff secondStaff = Staff.of(List.of(Measure.restMeasureOf(1, attributes),
+				Measure.of(2, Map.of(1, List.of(note)), attributes)));
+		final Score scoreWithRests = Score.of(new HashMap<>(),
+				List.of(SingleStaffPart.of("First", firstStaff), SingleStaffPart.of("Second", secondStaff),
+						SingleStaffPart.of("Third", Staff.of(List.of(Measure.restMeasureOf(1, attributes))))));
+
+		final PartWiseScoreIterator iterator = new PartWiseScoreIterator(scoreWithRests);
+		assertTrue(iterator.hasNext());
+		assertEquals(note, iterator.next());
+		assertEquals(new Position(0, 1, 1, 1, 0), iterator.getPositionOfPrevious());
+
+		assertTrue(iterator.hasNext());
+		assertEquals(new Position(0, 1, 1, 1, 0), iterator.getPositionOfPrevious());
+		assertEquals(note, iterator.next());
+		assertEquals(new Position(0, 1, 3, 1, 0), iterator.getPositionOfPrevious());
+
+		assertTrue(iterator.hasNext());
+		assertEquals(note, iterator.next());
+		assertEquals(new Position(1, 1, 2, 1, 0), iterator.getPositionOfPrevious());
+
+		assertFalse(iterator.hasNext());
+	}
 }